@@ -0,0 +1,41 @@
+#!/usr/bin/env sh
+# Treino de AppCDS: sobe um PostgreSQL local, inicia o auth-service com -XX:ArchiveClassesAtExit,
+# exercita login/refresh/requisições autenticadas e encerra a JVM, que grava o arquivo de classes.
+# Usado pela etapa "train" do Dockerfile.
+#
+#   scripts/cds-training.sh <app-jar> <arquivo-jsa>
+set -eu
+
+APP_JAR=$1
+ARCHIVE=$2
+SCRIPT_DIR=$(dirname "$0")
+
+service postgresql start >/dev/null
+su postgres -c "psql -q -c \"ALTER USER postgres PASSWORD 'postgres'\""
+su postgres -c "createdb authdb"
+
+java -XX:ArchiveClassesAtExit="$ARCHIVE" \
+  -Dspring.datasource.url=jdbc:postgresql://localhost:5432/authdb \
+  -Dspring.datasource.username=postgres \
+  -Dspring.datasource.password=postgres \
+  -jar "$APP_JAR" &
+APP_PID=$!
+
+i=0
+until curl -sf http://localhost:8080/actuator/health >/dev/null 2>&1; do
+  i=$((i + 1))
+  if [ "$i" -gt 240 ]; then
+    echo "auth-service did not become healthy during the training run" >&2
+    kill "$APP_PID"; exit 1
+  fi
+  sleep 0.5
+done
+
+"$SCRIPT_DIR/warmup-requests.sh" http://localhost:8080 "${WARMUP_ITERATIONS:-50}"
+
+# SIGTERM: desligamento normal da JVM, que grava o arquivo dinâmico de CDS na saída
+kill -TERM "$APP_PID"
+wait "$APP_PID" || true
+service postgresql stop >/dev/null
+test -s "$ARCHIVE"
+echo "AppCDS archive written to $ARCHIVE"
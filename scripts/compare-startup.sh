@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Compara partida e memória (RSS) das imagens JVM e nativa do auth-service.
+#
+#   scripts/compare-startup.sh [execuções]       (padrão: 5)
+#
+# Pré-requisitos: docker, curl e um PostgreSQL acessível pelos containers. Por padrão usa o serviço
+# "postgres" do docker-compose (docker compose up -d postgres); ajuste DB_URL/NETWORK se necessário.
+# Mede, para cada execução: tempo até /actuator/health responder UP (visto de fora, inclui o
+# runtime do container), o tempo de partida reportado pelo Spring e o RSS após a partida e após
+# um aquecimento com logins. Nenhum número é fixado aqui: os resultados dependem da máquina.
+set -euo pipefail
+
+RUNS=${1:-5}
+JVM_IMAGE=${JVM_IMAGE:-auth-service:jvm}
+NATIVE_IMAGE=${NATIVE_IMAGE:-auth-service:native}
+NETWORK=${NETWORK:-$(basename "$(pwd)")_default}
+DB_URL=${DB_URL:-jdbc:postgresql://postgres:5432/authdb}
+PORT=${PORT:-18081}
+WARMUP_REQUESTS=${WARMUP_REQUESTS:-200}
+
+if [[ "${SKIP_BUILD:-false}" != "true" ]]; then
+  docker build -t "$JVM_IMAGE" -f Dockerfile .
+  docker build -t "$NATIVE_IMAGE" -f Dockerfile.native .
+fi
+
+now_ms() { date +%s%3N; }
+
+rss_mb() {
+  # RSS do processo principal do container (PID 1), em MB
+  docker exec "$1" sh -c 'grep VmRSS /proc/1/status' | awk '{printf "%.1f", $2/1024}'
+}
+
+run_once() {
+  local image=$1 name="auth-compare-$$"
+  local start ready
+  start=$(now_ms)
+  docker run -d --rm --name "$name" --network "$NETWORK" -p "$PORT:8080" \
+    -e SPRING_DATASOURCE_URL="$DB_URL" \
+    -e SPRING_DATASOURCE_USERNAME=postgres -e SPRING_DATASOURCE_PASSWORD=postgres \
+    "$image" >/dev/null
+  until curl -sf "localhost:$PORT/actuator/health" >/dev/null 2>&1; do
+    sleep 0.02
+    if (( $(now_ms) - start > 120000 )); then
+      echo "timeout waiting for $image" >&2; docker logs "$name" | tail -30 >&2; docker rm -f "$name" >/dev/null; return 1
+    fi
+  done
+  ready=$(now_ms)
+  local spring rss_idle rss_warm
+  spring=$(docker logs "$name" 2>&1 | grep -o 'Started AuthenticationServiceApplication in [0-9.]* seconds' | awk '{print $4}')
+  rss_idle=$(rss_mb "$name")
+
+  local user="compare$RANDOM$RANDOM"
+  curl -sf -o /dev/null -H 'Content-Type: application/json' \
+    -d "{\"username\":\"$user\",\"email\":\"$user@example.com\",\"password\":\"Secret123!\",\"firstName\":\"Load\",\"lastName\":\"Test\"}" \
+    "localhost:$PORT/auth/register"
+  for _ in $(seq "$WARMUP_REQUESTS"); do
+    curl -sf -o /dev/null -H 'Content-Type: application/json' \
+      -d "{\"username\":\"$user\",\"password\":\"Secret123!\"}" "localhost:$PORT/auth/login"
+  done
+  rss_warm=$(rss_mb "$name")
+
+  docker rm -f "$name" >/dev/null
+  echo "$((ready - start)) ${spring:-?} $rss_idle $rss_warm"
+}
+
+printf '%-8s %4s %12s %12s %12s %12s\n' image run ready_ms spring_s rss_idle_mb rss_warm_mb
+for image in "$JVM_IMAGE" "$NATIVE_IMAGE"; do
+  label=$([[ "$image" == "$NATIVE_IMAGE" ]] && echo native || echo jvm)
+  for run in $(seq "$RUNS"); do
+    read -r ready spring idle warm < <(run_once "$image")
+    printf '%-8s %4d %12s %12s %12s %12s\n' "$label" "$run" "$ready" "$spring" "$idle" "$warm"
+  done
+done
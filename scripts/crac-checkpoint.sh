@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Gera uma imagem CRaC aquecida: inicia a imagem base, exercita os caminhos críticos, tira o
+# checkpoint e grava o container resultante como uma nova imagem.
+#
+#   scripts/crac-checkpoint.sh [imagem-base] [imagem-aquecida]
+#
+# A configuração de banco (SPRING_DATASOURCE_*) vista no checkpoint é a usada após a restauração:
+# os pools fecham as conexões no checkpoint e reconectam no mesmo endereço ao restaurar. Rode este
+# script com os valores do ambiente de destino. A restauração também precisa das capabilities
+# CHECKPOINT_RESTORE e SYS_PTRACE (docker run --cap-add ...).
+set -euo pipefail
+
+BASE_IMAGE=${1:-auth-service:crac}
+WARM_IMAGE=${2:-auth-service:crac-warm}
+NAME="auth-crac-checkpoint-$$"
+PORT=${PORT:-18082}
+
+docker run -d --name "$NAME" \
+  --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE \
+  ${NETWORK:+--network "$NETWORK"} -p "$PORT:8080" \
+  -e SPRING_DATASOURCE_URL="${SPRING_DATASOURCE_URL:?set SPRING_DATASOURCE_URL}" \
+  -e SPRING_DATASOURCE_USERNAME="${SPRING_DATASOURCE_USERNAME:-postgres}" \
+  -e SPRING_DATASOURCE_PASSWORD="${SPRING_DATASOURCE_PASSWORD:-postgres}" \
+  "$BASE_IMAGE" >/dev/null
+
+until curl -sf "localhost:$PORT/actuator/health" >/dev/null 2>&1; do sleep 0.5; done
+docker exec "$NAME" /app/scripts/warmup-requests.sh http://localhost:8080 "${WARMUP_ITERATIONS:-50}"
+
+# O Spring para os Lifecycle (pools Hikari, escritor de auditoria, servidor web) antes do checkpoint;
+# a JVM grava a imagem em /app/checkpoint e encerra
+docker exec "$NAME" jcmd /app/application/app.jar JDK.checkpoint
+docker wait "$NAME" >/dev/null
+
+docker commit "$NAME" "$WARM_IMAGE" >/dev/null
+docker rm "$NAME" >/dev/null
+echo "Checkpointed image: $WARM_IMAGE"
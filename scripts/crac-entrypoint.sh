@@ -0,0 +1,11 @@
+#!/usr/bin/env sh
+# Restaura o checkpoint CRaC se a imagem tiver um; senão inicia normalmente, pronta para o
+# checkpoint (jcmd app.jar JDK.checkpoint).
+set -eu
+
+CHECKPOINT_DIR=/app/checkpoint
+
+if [ -d "$CHECKPOINT_DIR" ] && [ -n "$(ls -A "$CHECKPOINT_DIR")" ]; then
+  exec java -XX:CRaCRestoreFrom="$CHECKPOINT_DIR"
+fi
+exec java -XX:CRaCCheckpointTo="$CHECKPOINT_DIR" -jar /app/application/app.jar "$@"
@@ -0,0 +1,40 @@
+#!/usr/bin/env sh
+# Exercita os caminhos críticos do auth-service (cadastro, login, refresh e requisições autenticadas)
+# para que as classes usadas em produção sejam carregadas durante um treino de AppCDS ou antes de
+# um checkpoint CRaC.
+#
+#   scripts/warmup-requests.sh [base-url] [iterações]     (padrão: http://localhost:8080 e 50)
+set -eu
+
+BASE_URL=${1:-http://localhost:8080}
+ITERATIONS=${2:-50}
+USERNAME="warmup$(date +%s)"
+PASSWORD="Warmup123!"
+
+json() { sed -n "s/.*\"$1\":\"\([^\"]*\)\".*/\1/p"; }
+
+post() {
+  curl -s -H 'Content-Type: application/json' -d "$2" "$BASE_URL$1"
+}
+
+post /auth/register "{\"username\":\"$USERNAME\",\"email\":\"$USERNAME@example.com\",\"password\":\"$PASSWORD\",\"firstName\":\"Warm\",\"lastName\":\"Up\"}" >/dev/null
+
+i=0
+while [ "$i" -lt "$ITERATIONS" ]; do
+  tokens=$(post /auth/login "{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\"}")
+  access=$(echo "$tokens" | json accessToken)
+  refresh=$(echo "$tokens" | json refreshToken)
+  user_id=$(echo "$tokens" | json userId)
+
+  # Falhas também fazem parte do caminho quente (senha errada, token inválido)
+  post /auth/login "{\"username\":\"$USERNAME\",\"password\":\"wrong-password\"}" >/dev/null
+  curl -s -o /dev/null -X POST "$BASE_URL/auth/refresh?refreshToken=$refresh"
+  curl -s -o /dev/null -H "Authorization: Bearer $access" "$BASE_URL/actuator/metrics/auth.jwt.verify"
+  curl -s -o /dev/null -H "Authorization: Bearer $access" "$BASE_URL/users/$user_id"
+  curl -s -o /dev/null -H "Authorization: Bearer invalid.token.value" "$BASE_URL/actuator/metrics"
+  i=$((i + 1))
+done
+
+curl -s -o /dev/null "$BASE_URL/v3/api-docs"
+curl -s -o /dev/null "$BASE_URL/actuator/prometheus"
+echo "warm-up finished: $ITERATIONS iterations against $BASE_URL"
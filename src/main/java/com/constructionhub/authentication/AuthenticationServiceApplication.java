@@ -1,7 +1,10 @@
 package com.constructionhub.authentication;
 
+import com.constructionhub.authentication.aot.AuthRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 /**
@@ -17,9 +20,13 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
  * todas as operações relacionadas à segurança, incluindo login, registro e gerenciamento de permissões.
  */
 @SpringBootApplication
+@ImportRuntimeHints(AuthRuntimeHints.class) // Metadados extras para a imagem nativa (perfil Maven "native")
 @EnableJpaAuditing(auditorAwareRef = "auditorProviderAuth") // <<<--- Referenciando o bean AuditorAware
 public class AuthenticationServiceApplication {
 
+    // Passos de inicialização guardados para /actuator/startup (beans, bootstrap do JPA, springdoc...)
+    private static final int STARTUP_STEP_CAPACITY = 4096;
+
     /**
      * Main method that starts the Authentication Service application.
      * 
@@ -29,6 +36,8 @@ public class AuthenticationServiceApplication {
      * @param args Command line arguments passed to the application
      */
 	public static void main(String[] args) {
-		SpringApplication.run(AuthenticationServiceApplication.class, args);
+		SpringApplication application = new SpringApplication(AuthenticationServiceApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 }
@@ -0,0 +1,264 @@
+package com.constructionhub.authentication.activity;
+
+import com.constructionhub.authentication.audit.AuditEventType;
+import com.constructionhub.authentication.audit.AuditPublisher;
+import com.constructionhub.authentication.entity.UserEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind recorder of login activity, failed-attempt counters and temporary lockouts.
+ *
+ * EN: Attempts only update memory; a background flush writes one UPDATE per changed user.
+ * PT: As tentativas só alteram a memória; um flush em fundo grava um UPDATE por usuário alterado.
+ */
+@Component
+public class LoginActivityRecorder implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginActivityRecorder.class);
+
+    private static final String UPDATE_SQL = "UPDATE users SET last_login_at = COALESCE(?, last_login_at), "
+            + "last_failed_login_at = COALESCE(?, last_failed_login_at), failed_login_attempts = ?, locked_until = ? "
+            + "WHERE id = ?";
+
+    /**
+     * Login state of one user; epoch ms, 0 = never. Replaced, never mutated.
+     * Estado de login de um usuário; epoch ms, 0 = nunca. Substituído, nunca alterado.
+     */
+    private record Activity(int failures, long lastFailureAt, long lockedUntil, long lastLoginAt, boolean dirty) {
+
+        Activity clean() {
+            return new Activity(failures, lastFailureAt, lockedUntil, lastLoginAt, false);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditPublisher auditPublisher;
+    private final Map<UUID, Activity> activities = new ConcurrentHashMap<>();
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter lockoutCounter;
+    private final Timer flushTimer;
+
+    @Value("${auth.login-activity.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${auth.login-activity.batch-size:500}")
+    private int batchSize;
+
+    @Value("${auth.lockout.max-failed-attempts:5}")
+    private int maxFailedAttempts;
+
+    @Value("${auth.lockout.failure-window-ms:900000}")
+    private long failureWindowMs;
+
+    @Value("${auth.lockout.duration-ms:900000}")
+    private long lockoutDurationMs;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public LoginActivityRecorder(JdbcTemplate jdbcTemplate, AuditPublisher auditPublisher, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditPublisher = auditPublisher;
+        this.writtenCounter = Counter.builder("auth.login.activity.writes")
+                .description("Users whose login activity was written to the database")
+                .tag("result", "written")
+                .register(registry);
+        this.failedCounter = Counter.builder("auth.login.activity.writes")
+                .description("User login activity updates whose batch failed (retried on the next flush)")
+                .tag("result", "failed")
+                .register(registry);
+        this.lockoutCounter = Counter.builder("auth.login.lockouts")
+                .description("Accounts temporarily locked after too many failed logins")
+                .register(registry);
+        this.flushTimer = Timer.builder("auth.login.activity.flush")
+                .description("Duration of one login activity flush")
+                .register(registry);
+        Gauge.builder("auth.login.activity.tracked", activities, Map::size)
+                .description("Users with login activity held in memory")
+                .register(registry);
+    }
+
+    /**
+     * Whether the user is in a temporary lockout known to this instance.
+     * Se o usuário está em um bloqueio temporário conhecido por esta instância.
+     */
+    public boolean isLocked(UUID userId) {
+        Activity activity = activities.get(userId);
+        return activity != null && activity.lockedUntil() > System.currentTimeMillis();
+    }
+
+    /**
+     * Records a successful login: clears the failures and sets the last login time.
+     * Registra um login bem-sucedido: zera as falhas e define a hora do último login.
+     */
+    public void recordSuccess(UUID userId) {
+        long now = System.currentTimeMillis();
+        activities.compute(userId, (id, previous) -> new Activity(0,
+                previous != null ? previous.lastFailureAt() : 0, 0, now, true));
+    }
+
+    /**
+     * Records a wrong password for an existing user and locks the account when the limit is reached.
+     * Registra uma senha errada de um usuário existente e bloqueia a conta quando o limite é atingido.
+     *
+     * @return whether this failure locked the account
+     */
+    public boolean recordFailure(UserEntity user) {
+        long now = System.currentTimeMillis();
+        boolean[] lockedNow = new boolean[1];
+        Activity updated = activities.compute(user.getId(), (id, previous) -> {
+            Activity current = previous != null ? previous : fromEntity(user);
+            int failures = current.lastFailureAt() > 0 && now - current.lastFailureAt() <= failureWindowMs
+                    ? current.failures() + 1 : 1;
+            long lockedUntil = current.lockedUntil();
+            lockedNow[0] = maxFailedAttempts > 0 && failures >= maxFailedAttempts && lockedUntil <= now;
+            if (lockedNow[0]) {
+                lockedUntil = now + lockoutDurationMs;
+            }
+            return new Activity(failures, now, lockedUntil, current.lastLoginAt(), true);
+        });
+        boolean locked = lockedNow[0];
+        if (locked) {
+            lockoutCounter.increment();
+            log.warn("Account {} locked for {} ms after {} failed logins.", user.getUsername(), lockoutDurationMs, updated.failures());
+            auditPublisher.publish(AuditEventType.ACCOUNT_LOCKED, user.getId(), user.getUsername(),
+                    "failures=" + updated.failures());
+        }
+        return locked;
+    }
+
+    // Ponto de partida de um usuário ainda não visto: o que as instâncias já gravaram
+    private static Activity fromEntity(UserEntity user) {
+        Instant lastFailure = user.getLastFailedLoginAt();
+        Instant lockedUntil = user.getLockedUntil();
+        return new Activity(user.getFailedLoginAttempts(),
+                lastFailure != null ? lastFailure.toEpochMilli() : 0,
+                lockedUntil != null ? lockedUntil.toEpochMilli() : 0,
+                0, false);
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "login-activity-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(flushIntervalMs + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs before and stops after the web server, like AuditWriter, so the last attempts are flushed.
+     * Inicia antes e para depois do servidor web, como o AuditWriter, para gravar as últimas tentativas.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(flushIntervalMs * 1_000_000);
+            flush();
+        }
+        flush(); // Flush final no desligamento
+    }
+
+    private void flush() {
+        List<Map.Entry<UUID, Activity>> dirty = new ArrayList<>();
+        for (Map.Entry<UUID, Activity> entry : activities.entrySet()) {
+            if (entry.getValue().dirty()) {
+                dirty.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < dirty.size(); from += size) {
+            write(dirty.subList(from, Math.min(from + size, dirty.size())));
+        }
+        evictIdle();
+    }
+
+    private void write(List<Map.Entry<UUID, Activity>> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, entry) -> {
+                Activity activity = entry.getValue();
+                setTimestamp(ps, 1, activity.lastLoginAt());
+                setTimestamp(ps, 2, activity.lastFailureAt());
+                ps.setInt(3, activity.failures());
+                setTimestamp(ps, 4, activity.lockedUntil());
+                ps.setObject(5, entry.getKey());
+            });
+            writtenCounter.increment(batch.size());
+            // Limpo só se nada mudou desde a leitura; senão continua pendente para o próximo flush
+            batch.forEach(entry -> activities.replace(entry.getKey(), entry.getValue(), entry.getValue().clean()));
+        } catch (DataAccessException e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write login activity of {} users: {}", batch.size(), e.getMostSpecificCause().getMessage());
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    // Sai da memória o que já foi gravado e não influencia mais um bloqueio
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        activities.entrySet().removeIf(entry -> {
+            Activity activity = entry.getValue();
+            return !activity.dirty() && activity.lockedUntil() <= now
+                    && (activity.failures() == 0 || now - activity.lastFailureAt() > failureWindowMs);
+        });
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, long epochMillis) throws SQLException {
+        if (epochMillis > 0) {
+            ps.setObject(index, OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+        }
+    }
+}
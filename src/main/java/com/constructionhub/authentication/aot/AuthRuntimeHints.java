@@ -0,0 +1,66 @@
+package com.constructionhub.authentication.aot;
+
+import com.constructionhub.authentication.authorization.AuthorizationChangeListener;
+import com.constructionhub.authentication.dto.AuthResponseDTO;
+import com.constructionhub.authentication.dto.LoginRequestDTO;
+import com.constructionhub.authentication.dto.RegisterRequestDTO;
+import com.constructionhub.authentication.dto.UserDTO;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reachability hints for the native image build.
+ *
+ * EN: Spring AOT already covers beans, JPA entities and controller signatures. This registrar adds
+ * what it cannot infer: jjwt loads its implementation classes (jjwt-impl, jjwt-jackson are runtime
+ * scope) by name, the Hibernate entity listener is created reflectively, and a few classpath
+ * resources are read by path. Hibernate, Ehcache and springdoc metadata come from Spring AOT and the
+ * GraalVM reachability metadata repository enabled by the native profile.
+ *
+ * PT: O Spring AOT já cobre beans, entidades JPA e assinaturas dos controllers. Este registrar
+ * adiciona o que ele não consegue inferir: o jjwt carrega suas classes de implementação pelo nome
+ * (jjwt-impl e jjwt-jackson têm escopo runtime), o entity listener do Hibernate é criado por
+ * reflexão e alguns recursos do classpath são lidos por caminho. Os metadados de Hibernate, Ehcache
+ * e springdoc vêm do Spring AOT e do repositório de metadados GraalVM habilitado pelo perfil native.
+ */
+public class AuthRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Instanciadas por io.jsonwebtoken.lang.Classes.newInstance(String)
+    private static final List<String> JJWT_IMPL_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_IMPL_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        // Serializer/Deserializer do jjwt são descobertos via ServiceLoader
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        hints.reflection().registerType(AuthorizationChangeListener.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+
+        // DTOs de entrada/saída: garantidos mesmo quando não aparecem diretamente nas assinaturas
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                AuthResponseDTO.class, LoginRequestDTO.class, RegisterRequestDTO.class, UserDTO.class);
+
+        hints.resources()
+                .registerPattern("messages*.properties")
+                .registerPattern("ehcache.xml")
+                .registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,36 @@
+package com.constructionhub.authentication.audit;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable audit record queued by AuditPublisher and persisted by AuditWriter.
+ *
+ * EN: Built on the request thread with everything the writer needs, so the background thread never
+ * touches entities, sessions or the security context.
+ * PT: Montado na thread da requisição com tudo o que o writer precisa, para que a thread de fundo
+ * nunca acesse entidades, sessões ou o contexto de segurança.
+ */
+@Value
+@Builder
+public class AuditEvent {
+
+    @Builder.Default
+    Instant occurredAt = Instant.now();
+
+    AuditEventType type;
+
+    /** Affected user, when known / Usuário afetado, quando conhecido */
+    UUID userId;
+
+    /** Username or login attempted / Username ou login informado */
+    String principal;
+
+    /** Free-form detail such as a role name / Detalhe livre, como o nome de uma role */
+    String detail;
+
+    String remoteAddress;
+}
@@ -0,0 +1,24 @@
+package com.constructionhub.authentication.audit;
+
+/**
+ * Kinds of security-relevant actions recorded in the audit trail.
+ *
+ * EN: Stored as text in auth_audit.event_type; names must stay stable once written.
+ * PT: Gravado como texto em auth_audit.event_type; os nomes devem permanecer estáveis após gravados.
+ */
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    REGISTER,
+    TOKEN_REFRESH,
+    TOKEN_REFRESH_FAILURE,
+    LOGOUT,
+    ROLE_ADDED,
+    ROLE_REMOVED,
+    PASSWORD_CHANGED,
+    PASSWORD_CHANGE_FAILURE,
+    USER_UPDATED,
+    USER_DELETED,
+    REFRESH_TOKEN_REUSE,
+    ACCOUNT_LOCKED
+}
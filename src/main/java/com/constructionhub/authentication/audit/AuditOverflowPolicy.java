@@ -0,0 +1,15 @@
+package com.constructionhub.authentication.audit;
+
+/**
+ * What AuditPublisher does when the queue is full.
+ *
+ * EN: DROP_NEWEST discards the incoming event, DROP_OLDEST evicts the oldest queued event to make
+ * room, BLOCK waits up to auth.audit.block-timeout-ms and then discards the incoming event.
+ * PT: DROP_NEWEST descarta o evento novo, DROP_OLDEST remove o evento mais antigo da fila para abrir
+ * espaço, BLOCK espera até auth.audit.block-timeout-ms e então descarta o evento novo.
+ */
+public enum AuditOverflowPolicy {
+    DROP_NEWEST,
+    DROP_OLDEST,
+    BLOCK
+}
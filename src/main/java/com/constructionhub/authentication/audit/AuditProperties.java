@@ -0,0 +1,65 @@
+package com.constructionhub.authentication.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the asynchronous audit trail (auth.audit.*).
+ *
+ * EN: Queue capacity bounds the memory used when the database is slow or down; batch size and
+ * flush interval trade insert efficiency against how long events wait in memory.
+ * PT: A capacidade da fila limita a memória usada quando o banco está lento ou fora do ar; o tamanho
+ * do lote e o intervalo de flush equilibram a eficiência dos inserts e o tempo de espera em memória.
+ */
+@Component
+public class AuditProperties {
+
+    @Value("${auth.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth.audit.queue-capacity:8192}")
+    private int queueCapacity;
+
+    @Value("${auth.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${auth.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${auth.audit.overflow-policy:DROP_NEWEST}")
+    private AuditOverflowPolicy overflowPolicy;
+
+    @Value("${auth.audit.block-timeout-ms:5}")
+    private long blockTimeoutMs;
+
+    @Value("${auth.audit.partition-months-ahead:2}")
+    private int partitionMonthsAhead;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public AuditOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getBlockTimeoutMs() {
+        return blockTimeoutMs;
+    }
+
+    public int getPartitionMonthsAhead() {
+        return partitionMonthsAhead;
+    }
+}
@@ -0,0 +1,151 @@
+package com.constructionhub.authentication.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point for audit events: a bounded in-memory queue drained by AuditWriter.
+ *
+ * EN: Callers never wait on the database; a full queue applies the configured AuditOverflowPolicy.
+ * PT: Quem publica nunca espera pelo banco; com a fila cheia aplica-se a AuditOverflowPolicy configurada.
+ */
+@Component
+public class AuditPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPublisher.class);
+
+    private final AuditProperties properties;
+    private final BlockingQueue<AuditEvent> queue;
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+
+    public AuditPublisher(AuditProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.publishedCounter = Counter.builder("auth.audit.events")
+                .description("Audit events accepted by the in-memory queue")
+                .tag("result", "published")
+                .register(registry);
+        this.droppedCounter = Counter.builder("auth.audit.events")
+                .description("Audit events discarded because the queue was full")
+                .tag("result", "dropped")
+                .register(registry);
+        Gauge.builder("auth.audit.queue.size", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(registry);
+        Gauge.builder("auth.audit.queue.capacity", queue, q -> q.size() + q.remainingCapacity())
+                .register(registry);
+    }
+
+    /**
+     * Queues an event immediately (use for failures, which must be kept even if the transaction rolls back).
+     * Enfileira um evento imediatamente (usar para falhas, que devem ser mantidas mesmo com rollback).
+     */
+    public void publish(AuditEventType type, UUID userId, String principal, String detail) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        enqueue(buildEvent(type, userId, principal, detail));
+    }
+
+    /**
+     * Queues an event once the current transaction commits, or immediately when there is none.
+     * Enfileira um evento quando a transação atual fizer commit, ou imediatamente se não houver transação.
+     */
+    public void publishAfterCommit(AuditEventType type, UUID userId, String principal, String detail) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Capturado agora: o afterCommit ainda roda na thread da requisição, mas o horário deve ser o da ação
+        AuditEvent event = buildEvent(type, userId, principal, detail);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    /** Blocks up to the timeout for the next event / Espera até o timeout pelo próximo evento */
+    AuditEvent poll(long timeoutMs) throws InterruptedException {
+        return queue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    int drainTo(Collection<AuditEvent> batch, int maxElements) {
+        return queue.drainTo(batch, maxElements);
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    private void enqueue(AuditEvent event) {
+        boolean accepted;
+        switch (properties.getOverflowPolicy()) {
+            case DROP_OLDEST -> {
+                accepted = queue.offer(event);
+                while (!accepted) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                    accepted = queue.offer(event);
+                }
+            }
+            case BLOCK -> {
+                try {
+                    accepted = queue.offer(event, properties.getBlockTimeoutMs(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    accepted = false;
+                }
+            }
+            default -> accepted = queue.offer(event);
+        }
+
+        if (accepted) {
+            publishedCounter.increment();
+        } else {
+            droppedCounter.increment();
+            log.debug("Audit queue full, dropped {} event for {}", event.getType(), event.getPrincipal());
+        }
+    }
+
+    private AuditEvent buildEvent(AuditEventType type, UUID userId, String principal, String detail) {
+        return AuditEvent.builder()
+                .type(type)
+                .userId(userId)
+                .principal(principal)
+                .detail(detail)
+                .remoteAddress(currentRemoteAddress())
+                .build();
+    }
+
+    private static String currentRemoteAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.constructionhub.authentication.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps the monthly partitions of the auth_audit table ahead of the clock.
+ *
+ * EN: The table comes from the Flyway migration V3__auth_audit.sql; on PostgreSQL this adds one partition per month.
+ * PT: A tabela vem da migração Flyway V3__auth_audit.sql; no PostgreSQL esta classe cria uma partição por mês.
+ */
+@Component
+public class AuditTableManager {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTableManager.class);
+
+    static final String TABLE = "auth_audit";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditProperties properties;
+
+    private boolean ready;
+    private boolean partitioned;
+    private YearMonth partitionedThrough;
+
+    public AuditTableManager(JdbcTemplate jdbcTemplate, AuditProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Checks that the table exists; returns false while it is missing or the database is unreachable.
+     * Verifica que a tabela existe; retorna false enquanto ela faltar ou o banco estiver inacessível.
+     */
+    synchronized boolean prepare() {
+        if (ready) {
+            return true;
+        }
+        try {
+            // Falha (BadSqlGrammarException) enquanto as migrações não criaram a tabela
+            jdbcTemplate.queryForList("SELECT 1 FROM " + TABLE + " WHERE 1 = 0");
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            if ("PostgreSQL".equalsIgnoreCase(product)) {
+                // Uma tabela criada antes do particionamento continua simples; não tentamos convertê-la aqui
+                String relkind = jdbcTemplate.queryForObject(
+                        "SELECT c.relkind::text FROM pg_class c WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                        String.class, TABLE);
+                partitioned = "p".equals(relkind);
+                if (!partitioned) {
+                    log.warn("Existing {} table is not partitioned; audit rows will go to a single table.", TABLE);
+                }
+            }
+            ready = true;
+            log.info("Audit table {} ready (partitioned: {}).", TABLE, partitioned);
+        } catch (DataAccessException e) {
+            log.warn("Audit table {} is not available yet (it is created by the Flyway migrations): {}",
+                    TABLE, e.getMostSpecificCause().getMessage());
+        }
+        return ready;
+    }
+
+    /**
+     * Makes sure monthly partitions exist up to the month of the given instant plus the configured lookahead.
+     * Garante partições mensais até o mês do instante informado mais a antecedência configurada.
+     */
+    synchronized void ensurePartitions(Instant latest) {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth now = YearMonth.now(ZoneOffset.UTC);
+        YearMonth target = YearMonth.from(latest.atOffset(ZoneOffset.UTC)).plusMonths(properties.getPartitionMonthsAhead());
+        if (partitionedThrough != null && !target.isAfter(partitionedThrough)) {
+            return;
+        }
+        YearMonth month = partitionedThrough == null ? now : partitionedThrough.plusMonths(1);
+        while (!month.isAfter(target)) {
+            createPartition(month);
+            partitionedThrough = month;
+            month = month.plusMonths(1);
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = String.format("auth_audit_p%04d%02d", month.getYear(), month.getMonthValue());
+        String sql = String.format(
+                "CREATE TABLE IF NOT EXISTS %s PARTITION OF auth_audit FOR VALUES FROM ('%s-01 00:00:00+00') TO ('%s-01 00:00:00+00')",
+                name, month, month.plusMonths(1));
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            // Normalmente: linhas desse mês já caíram na partição DEFAULT. A gravação continua nela.
+            log.warn("Could not create audit partition {}: {}", name, e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.constructionhub.authentication.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread that drains AuditPublisher into auth_audit with JDBC batch inserts.
+ *
+ * EN: A failed batch is counted and dropped, not retried; the queue is flushed on shutdown.
+ * PT: Um lote com falha é contado e descartado, sem nova tentativa; a fila é esvaziada no desligamento.
+ */
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO auth_audit "
+            + "(occurred_at, event_type, user_id, principal, detail, remote_address) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final AuditPublisher publisher;
+    private final AuditTableManager tableManager;
+    private final AuditProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public AuditWriter(AuditPublisher publisher, AuditTableManager tableManager, AuditProperties properties,
+                       JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.publisher = publisher;
+        this.tableManager = tableManager;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writtenCounter = Counter.builder("auth.audit.writes")
+                .description("Audit rows inserted into auth_audit")
+                .tag("result", "written")
+                .register(registry);
+        this.failedCounter = Counter.builder("auth.audit.writes")
+                .description("Audit rows lost because their batch insert failed")
+                .tag("result", "failed")
+                .register(registry);
+        this.batchTimer = Timer.builder("auth.audit.batch")
+                .description("Duration of one audit batch insert")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        tableManager.prepare();
+        running = true;
+        thread = new Thread(this::run, "auth-audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!publisher.isEmpty()) {
+            log.warn("Audit writer stopped with events still queued.");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs before and stops after the web server (which uses phases close to Integer.MAX_VALUE).
+     * Inicia antes e para depois do servidor web (que usa fases próximas de Integer.MAX_VALUE).
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void run() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !publisher.isEmpty()) {
+            try {
+                collect(batch, batchSize);
+            } catch (InterruptedException e) {
+                // Ninguém deveria interromper esta thread; grava o que tiver e encerra
+                running = false;
+                publisher.drainTo(batch, Integer.MAX_VALUE);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<AuditEvent> batch, int batchSize) throws InterruptedException {
+        long flushIntervalMs = properties.getFlushIntervalMs();
+        AuditEvent first = publisher.poll(flushIntervalMs);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize && running) {
+            publisher.drainTo(batch, batchSize - batch.size());
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (batch.size() >= batchSize || remainingMs <= 0) {
+                break;
+            }
+            AuditEvent next = publisher.poll(remainingMs);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        if (!tableManager.prepare()) {
+            failedCounter.increment(batch.size());
+            return;
+        }
+        Instant latest = batch.get(batch.size() - 1).getOccurredAt();
+        tableManager.ensurePartitions(latest);
+
+        Timer.Sample sample = Timer.start();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setObject(1, OffsetDateTime.ofInstant(event.getOccurredAt(), ZoneOffset.UTC));
+                ps.setString(2, event.getType().name());
+                if (event.getUserId() != null) {
+                    ps.setObject(3, event.getUserId());
+                } else {
+                    ps.setNull(3, Types.OTHER);
+                }
+                ps.setString(4, truncate(event.getPrincipal(), 255));
+                ps.setString(5, truncate(event.getDetail(), 500));
+                ps.setString(6, truncate(event.getRemoteAddress(), 64));
+            });
+            writtenCounter.increment(batch.size());
+        } catch (DataAccessException e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write {} audit events: {}", batch.size(), e.getMostSpecificCause().getMessage());
+        } finally {
+            sample.stop(batchTimer);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,33 @@
+package com.constructionhub.authentication.authorization;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA listener on RoleEntity and PermissionEntity that refreshes the authorization snapshot.
+ *
+ * EN: Instantiated by Hibernate through Spring's bean container. The holder is looked up lazily
+ * because listeners are created while the EntityManagerFactory (which the holder depends on) boots.
+ * PT: Instanciado pelo Hibernate através do bean container do Spring. O holder é obtido sob demanda
+ * porque os listeners são criados durante a inicialização do EntityManagerFactory, do qual o holder depende.
+ */
+public class AuthorizationChangeListener {
+
+    private final ObjectProvider<AuthorizationSnapshotHolder> holder;
+
+    public AuthorizationChangeListener(ObjectProvider<AuthorizationSnapshotHolder> holder) {
+        this.holder = holder;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Object entity) {
+        AuthorizationSnapshotHolder snapshotHolder = holder.getIfAvailable();
+        if (snapshotHolder != null) {
+            snapshotHolder.rebuildAfterCommit();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.constructionhub.authentication.authorization;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, versioned copy of the role → permission graph.
+ *
+ * EN: A change produces a new snapshot; each role combination is resolved once per snapshot and memoized.
+ * PT: Uma alteração gera um novo snapshot; cada combinação de roles é resolvida uma vez por snapshot e memorizada.
+ */
+public final class AuthorizationSnapshot {
+
+    static final AuthorizationSnapshot EMPTY = new AuthorizationSnapshot(0, Map.of());
+
+    private final long version;
+    private final Map<String, List<String>> permissionsByRole;
+    private final Map<Set<String>, ResolvedAuthorities> combinations = new ConcurrentHashMap<>();
+
+    AuthorizationSnapshot(long version, Map<String, ? extends Collection<String>> permissionsByRole) {
+        this.version = version;
+        Map<String, List<String>> graph = new HashMap<>();
+        permissionsByRole.forEach((role, permissions) -> graph.put(role, List.copyOf(new TreeSet<>(permissions))));
+        this.permissionsByRole = Collections.unmodifiableMap(graph);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Set<String> getRoleNames() {
+        return permissionsByRole.keySet();
+    }
+
+    /**
+     * Resolves the authorities of a role combination, or returns null when a role is not part of this snapshot.
+     * Resolve as autoridades de uma combinação de roles, ou retorna null se alguma role não estiver no snapshot.
+     */
+    public ResolvedAuthorities resolve(Collection<String> roleNames) {
+        Set<String> key = roleNames instanceof Set<String> set ? set : new HashSet<>(roleNames);
+        ResolvedAuthorities resolved = combinations.get(key);
+        if (resolved != null) {
+            return resolved;
+        }
+        if (!permissionsByRole.keySet().containsAll(key)) {
+            return null;
+        }
+        return combinations.computeIfAbsent(Set.copyOf(key), this::build);
+    }
+
+    private ResolvedAuthorities build(Set<String> roleNames) {
+        List<String> roles = List.copyOf(new TreeSet<>(roleNames));
+        TreeSet<String> permissions = new TreeSet<>();
+        roles.forEach(role -> permissions.addAll(permissionsByRole.get(role)));
+
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        roles.forEach(role -> authorities.add(GrantedAuthorityInterner.intern(role)));
+        permissions.forEach(permission -> authorities.add(GrantedAuthorityInterner.intern(permission)));
+        return new ResolvedAuthorities(version, roles, List.copyOf(permissions),
+                Collections.unmodifiableSet(authorities));
+    }
+}
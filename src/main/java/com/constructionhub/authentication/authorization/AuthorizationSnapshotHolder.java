@@ -0,0 +1,178 @@
+package com.constructionhub.authentication.authorization;
+
+import com.constructionhub.authentication.datasource.ReplicaRoutingContext;
+import com.constructionhub.authentication.entity.PermissionEntity;
+import com.constructionhub.authentication.entity.RoleEntity;
+import com.constructionhub.authentication.entity.UserEntity;
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.invalidation.InvalidationType;
+import com.constructionhub.authentication.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current AuthorizationSnapshot and replaces it when roles or permissions change.
+ *
+ * EN: Readers only read an AtomicReference; rebuilds load the whole role graph and swap it atomically.
+ * PT: Leitores apenas leem uma AtomicReference; as reconstruções carregam todo o grafo de roles e o trocam atomicamente.
+ */
+@Component
+public class AuthorizationSnapshotHolder {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationSnapshotHolder.class);
+
+    private static final String PENDING_REBUILD_KEY = AuthorizationSnapshotHolder.class.getName() + ".pendingRebuild";
+
+    private final RoleRepository roleRepository;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicReference<AuthorizationSnapshot> current = new AtomicReference<>(AuthorizationSnapshot.EMPTY);
+    private final AtomicBoolean asyncRebuildQueued = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "authorization-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${auth.authorization.refresh-interval-ms:300000}")
+    private long refreshIntervalMs;
+
+    public AuthorizationSnapshotHolder(RoleRepository roleRepository, PlatformTransactionManager transactionManager,
+                                       InvalidationBus invalidationBus) {
+        this.roleRepository = roleRepository;
+        this.invalidationBus = invalidationBus;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // REQUIRES_NEW: o rebuild pode rodar em afterCommit, quando a transação original ainda está vinculada
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void scheduleRefresh() {
+        if (refreshIntervalMs > 0) {
+            executor.scheduleWithFixedDelay(this::rebuildQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public AuthorizationSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Resolves the effective authorities of a user from the current snapshot.
+     * Resolve as autoridades efetivas de um usuário a partir do snapshot atual.
+     *
+     * @return the shared resolution, or null when one of the user's roles is not in the snapshot yet
+     */
+    public ResolvedAuthorities resolve(UserEntity user) {
+        Set<String> roleNames = new HashSet<>();
+        for (RoleEntity role : user.getRoles()) {
+            roleNames.add(role.getName());
+        }
+        ResolvedAuthorities resolved = current.get().resolve(roleNames);
+        if (resolved == null) {
+            log.debug("Roles {} not in authorization snapshot v{}; scheduling rebuild.", roleNames, current.get().getVersion());
+            requestAsyncRebuild();
+        }
+        return resolved;
+    }
+
+    /**
+     * Loads the role graph and publishes a new snapshot.
+     * Carrega o grafo de roles e publica um novo snapshot.
+     */
+    public synchronized AuthorizationSnapshot rebuild() {
+        Map<String, List<String>> graph;
+        // Disparado logo após um commit: uma réplica atrasada devolveria o grafo antigo
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimary()) {
+            graph = readOnlyTransaction.execute(status -> {
+                Map<String, List<String>> permissionsByRole = new HashMap<>();
+                for (RoleEntity role : roleRepository.findAll()) {
+                    permissionsByRole.put(role.getName(),
+                            role.getPermissions().stream().map(PermissionEntity::getName).toList());
+                }
+                return permissionsByRole;
+            });
+        }
+        AuthorizationSnapshot snapshot = new AuthorizationSnapshot(current.get().getVersion() + 1, graph);
+        current.set(snapshot);
+        log.info("Authorization snapshot v{} built with {} roles.", snapshot.getVersion(), graph.size());
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds once after the current transaction commits (coalesced per transaction), or now if there
+     * is none, and tells the other instances to do the same.
+     * Reconstrói uma vez após o commit da transação atual (agrupado por transação), ou agora se não
+     * houver, e avisa as demais instâncias para fazerem o mesmo.
+     */
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildQuietly();
+            invalidationBus.broadcast(InvalidationType.AUTHORIZATION, null);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(PENDING_REBUILD_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PENDING_REBUILD_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuildQuietly();
+                invalidationBus.broadcast(InvalidationType.AUTHORIZATION, null);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_REBUILD_KEY);
+            }
+        });
+    }
+
+    /**
+     * Schedules a rebuild on the snapshot thread; requests made while one is queued are coalesced.
+     * Agenda uma reconstrução na thread do snapshot; pedidos feitos enquanto há uma na fila são agrupados.
+     */
+    public void requestAsyncRebuild() {
+        if (asyncRebuildQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                asyncRebuildQueued.set(false);
+                rebuildQuietly();
+            });
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild authorization snapshot; keeping v{}.", current.get().getVersion(), e);
+        }
+    }
+}
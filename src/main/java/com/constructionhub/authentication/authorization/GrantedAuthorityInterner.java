@@ -0,0 +1,28 @@
+package com.constructionhub.authentication.authorization;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide pool of SimpleGrantedAuthority instances, one per authority name.
+ *
+ * EN: Role and permission names form a small, closed vocabulary, so every user and every snapshot
+ * can share the same immutable instances instead of allocating new ones per request.
+ * PT: Nomes de roles e permissões formam um vocabulário pequeno e fechado, então todos os usuários
+ * e snapshots podem compartilhar as mesmas instâncias imutáveis em vez de alocar novas a cada requisição.
+ */
+public final class GrantedAuthorityInterner {
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private GrantedAuthorityInterner() {
+    }
+
+    public static GrantedAuthority intern(String name) {
+        GrantedAuthority authority = AUTHORITIES.get(name);
+        return authority != null ? authority : AUTHORITIES.computeIfAbsent(name, SimpleGrantedAuthority::new);
+    }
+}
@@ -0,0 +1,48 @@
+package com.constructionhub.authentication.authorization;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Effective authorities of one role combination, resolved from an AuthorizationSnapshot.
+ *
+ * EN: Shared by every user holding exactly the same roles; all collections are immutable, so the
+ * instance can be handed to Spring Security and to the token builder without copying.
+ * PT: Compartilhado por todos os usuários com exatamente as mesmas roles; todas as coleções são
+ * imutáveis, então a instância pode ser entregue ao Spring Security e ao gerador de tokens sem cópia.
+ */
+public final class ResolvedAuthorities {
+
+    private final long snapshotVersion;
+    private final List<String> roles;
+    private final List<String> permissions;
+    private final Set<GrantedAuthority> authorities;
+
+    ResolvedAuthorities(long snapshotVersion, List<String> roles, List<String> permissions, Set<GrantedAuthority> authorities) {
+        this.snapshotVersion = snapshotVersion;
+        this.roles = roles;
+        this.permissions = permissions;
+        this.authorities = authorities;
+    }
+
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /** Role names, sorted / Nomes das roles, ordenados */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /** Distinct permission names, sorted / Nomes distintos das permissões, ordenados */
+    public List<String> getPermissions() {
+        return permissions;
+    }
+
+    /** Roles plus permissions as GrantedAuthority / Roles e permissões como GrantedAuthority */
+    public Set<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
@@ -0,0 +1,74 @@
+package com.constructionhub.authentication.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limit of one route class.
+ *
+ * EN: A non-fair semaphore; a call that finds no permit waits up to maxWaitMs (0 = rejects at once).
+ * A maxConcurrent of 0 or less disables the limit but keeps the meters.
+ * PT: Um semáforo não justo; uma chamada sem permissão espera até maxWaitMs (0 = rejeita na hora).
+ * maxConcurrent 0 ou menor desativa o limite, mas mantém as métricas.
+ */
+final class Bulkhead {
+
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final Counter permitted;
+    private final Counter rejected;
+
+    Bulkhead(RouteClass routeClass, int maxConcurrent, long maxWaitMs, MeterRegistry registry) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(Math.max(maxConcurrent, 0));
+        this.permitted = callCounter(registry, routeClass, "permitted");
+        this.rejected = callCounter(registry, routeClass, "rejected");
+        Gauge.builder("auth.bulkhead.active", this, Bulkhead::active)
+                .description("Calls currently holding a bulkhead permit")
+                .tag("route", routeClass.getKey())
+                .register(registry);
+        Gauge.builder("auth.bulkhead.limit", this, bulkhead -> bulkhead.maxConcurrent)
+                .description("Maximum concurrent calls of the route class (0 = unlimited)")
+                .tag("route", routeClass.getKey())
+                .register(registry);
+    }
+
+    boolean isLimited() {
+        return maxConcurrent > 0;
+    }
+
+    /**
+     * @return whether the call may proceed; if so, release() must follow
+     */
+    boolean tryAcquire() throws InterruptedException {
+        boolean acquired = !isLimited()
+                || permits.tryAcquire()
+                || (maxWaitMs > 0 && permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS));
+        (acquired ? permitted : rejected).increment();
+        return acquired;
+    }
+
+    void release() {
+        if (isLimited()) {
+            permits.release();
+        }
+    }
+
+    private int active() {
+        return isLimited() ? maxConcurrent - permits.availablePermits() : 0;
+    }
+
+    private static Counter callCounter(MeterRegistry registry, RouteClass routeClass, String result) {
+        return Counter.builder("auth.bulkhead.calls")
+                .description("Calls admitted to or rejected by a route class bulkhead")
+                .tag("route", routeClass.getKey())
+                .tag("result", result)
+                .register(registry);
+    }
+}
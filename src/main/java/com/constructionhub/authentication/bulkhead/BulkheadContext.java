@@ -0,0 +1,38 @@
+package com.constructionhub.authentication.bulkhead;
+
+/**
+ * Thread-bound route class of the request being served.
+ *
+ * EN: Set by BulkheadFilter for the duration of the request; ReplicaRoutingDataSource reads it to
+ * hand out primary connections from the class's own pool partition. Background threads have no
+ * route class and use the shared primary pool.
+ * PT: Definido pelo BulkheadFilter durante a requisição; o ReplicaRoutingDataSource o lê para
+ * entregar conexões do primário a partir da partição de pool da própria classe. Threads de fundo não
+ * têm classe de rota e usam o pool primário compartilhado.
+ */
+public final class BulkheadContext {
+
+    private static final ThreadLocal<RouteClass> CURRENT = new ThreadLocal<>();
+
+    private BulkheadContext() {
+    }
+
+    /** Route class of the current request, or null / Classe de rota da requisição atual, ou null */
+    public static RouteClass current() {
+        return CURRENT.get();
+    }
+
+    /** Binds the route class until the returned scope is closed / Vincula a classe até o escopo ser fechado */
+    public static Scope enter(RouteClass routeClass) {
+        RouteClass previous = CURRENT.get();
+        CURRENT.set(routeClass);
+        return previous != null ? () -> CURRENT.set(previous) : CURRENT::remove;
+    }
+
+    /** AutoCloseable without checked exceptions, for try-with-resources / AutoCloseable sem exceções verificadas */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
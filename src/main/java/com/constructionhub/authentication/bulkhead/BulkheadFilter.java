@@ -0,0 +1,99 @@
+package com.constructionhub.authentication.bulkhead;
+
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bulkheads between credential, resource, lookup and admin traffic.
+ *
+ * EN: All endpoints share one Tomcat worker pool, so a login storm (BCrypt) or a slow admin export
+ * could hold every worker and starve token validation. Each request is classified by path
+ * (RouteClass) and must get a permit from its class's bulkhead before anything else runs, including
+ * Spring Security; a class at its limit answers 503 with Retry-After using a precomputed body,
+ * without touching the other classes. The class is also bound to the thread (BulkheadContext) so
+ * the routing DataSource hands out primary connections from the class's own pool partition.
+ * Limits are auth.bulkhead.&lt;credential|resource|lookup|admin&gt;.max-concurrent / max-wait-ms; meters
+ * auth.bulkhead.calls{route,result}, auth.bulkhead.active{route} and auth.bulkhead.limit{route}.
+ * PT: Todos os endpoints compartilham um único pool de workers do Tomcat, então uma enxurrada de
+ * logins (BCrypt) ou uma exportação administrativa lenta poderia ocupar todos os workers e deixar a
+ * validação de tokens sem atendimento. Cada requisição é classificada pelo caminho (RouteClass) e
+ * precisa de uma permissão do bulkhead da sua classe antes de qualquer outra coisa, inclusive do
+ * Spring Security; uma classe no limite responde 503 com Retry-After usando um corpo pré-calculado,
+ * sem afetar as outras classes. A classe também é vinculada à thread (BulkheadContext) para que o
+ * DataSource de roteamento entregue conexões do primário a partir da partição de pool da classe.
+ * Limites em auth.bulkhead.&lt;credential|resource|lookup|admin&gt;.max-concurrent / max-wait-ms; métricas
+ * auth.bulkhead.calls{route,result}, auth.bulkhead.active{route} e auth.bulkhead.limit{route}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final PrecomputedErrorBodies errorBodies;
+    private final Map<RouteClass, Bulkhead> bulkheads = new EnumMap<>(RouteClass.class);
+    private final boolean enabled;
+
+    public BulkheadFilter(PrecomputedErrorBodies errorBodies, Environment environment, MeterRegistry registry) {
+        this.errorBodies = errorBodies;
+        this.enabled = environment.getProperty("auth.bulkhead.enabled", Boolean.class, true);
+        for (RouteClass routeClass : RouteClass.values()) {
+            String prefix = "auth.bulkhead." + routeClass.getKey() + ".";
+            int maxConcurrent = enabled
+                    ? environment.getProperty(prefix + "max-concurrent", Integer.class, routeClass.getDefaultMaxConcurrent())
+                    : 0;
+            long maxWaitMs = environment.getProperty(prefix + "max-wait-ms", Long.class, routeClass.getDefaultMaxWaitMs());
+            bulkheads.put(routeClass, new Bulkhead(routeClass, maxConcurrent, maxWaitMs, registry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String path = RouteClass.pathOf(request);
+        RouteClass routeClass = RouteClass.of(path);
+        if (routeClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Bulkhead bulkhead = bulkheads.get(routeClass);
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Bulkhead {} full; rejecting {} {}", routeClass.getKey(), request.getMethod(), path);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            errorBodies.write(response, HttpStatus.SERVICE_UNAVAILABLE, "error.overloaded");
+            return;
+        }
+        try (BulkheadContext.Scope ignored = BulkheadContext.enter(routeClass)) {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
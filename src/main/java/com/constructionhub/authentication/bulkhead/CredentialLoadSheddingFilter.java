@@ -0,0 +1,120 @@
+package com.constructionhub.authentication.bulkhead;
+
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Adaptive load shedding in front of login, register and refresh.
+ *
+ * EN: Each credential operation has its own GradientConcurrencyLimiter, since a refresh costs a
+ * fraction of a BCrypt login and mixing their latencies would blur both limits. A call over the
+ * current limit is answered at once with 503 and Retry-After (precomputed body) instead of waiting
+ * for a BCrypt slot or a connection until it times out, so the calls that are admitted still finish
+ * in normal time and goodput holds under overload. Runs inside the security chain ahead of
+ * JwtAuthFilter, after the route class bulkhead. Meters: auth.limiter.limit{operation},
+ * auth.limiter.inflight{operation} and auth.limiter.calls{operation,result=accepted|shed}.
+ * PT: Cada operação de credencial tem seu próprio GradientConcurrencyLimiter, já que um refresh custa
+ * uma fração de um login com BCrypt e misturar suas latências borraria os dois limites. Uma chamada
+ * acima do limite atual é respondida na hora com 503 e Retry-After (corpo pré-calculado) em vez de
+ * esperar por uma vaga de BCrypt ou por uma conexão até o timeout, então as chamadas admitidas
+ * continuam terminando em tempo normal e o goodput se mantém sob sobrecarga. Roda dentro da cadeia de
+ * segurança antes do JwtAuthFilter, depois do bulkhead da classe de rota. Métricas:
+ * auth.limiter.limit{operation}, auth.limiter.inflight{operation} e
+ * auth.limiter.calls{operation,result=accepted|shed}.
+ */
+@Component
+public class CredentialLoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(CredentialLoadSheddingFilter.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final PrecomputedErrorBodies errorBodies;
+    private final boolean enabled;
+    private final Map<String, Operation> operations;
+
+    private record Operation(String name, GradientConcurrencyLimiter limiter, Counter accepted, Counter shed) {
+    }
+
+    public CredentialLoadSheddingFilter(PrecomputedErrorBodies errorBodies, MeterRegistry registry,
+                                        @Value("${auth.load-shedding.enabled:true}") boolean enabled,
+                                        @Value("${auth.load-shedding.initial-limit:20}") int initialLimit,
+                                        @Value("${auth.load-shedding.min-limit:4}") int minLimit,
+                                        @Value("${auth.load-shedding.max-limit:200}") int maxLimit) {
+        this.errorBodies = errorBodies;
+        this.enabled = enabled;
+        this.operations = Map.of(
+                "/auth/login", operation("login", initialLimit, minLimit, maxLimit, registry),
+                "/auth/register", operation("register", initialLimit, minLimit, maxLimit, registry),
+                "/auth/refresh", operation("refresh", initialLimit, minLimit, maxLimit, registry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Operation operation = operations.get(RouteClass.pathOf(request));
+        if (operation == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!operation.limiter().tryAcquire()) {
+            operation.shed().increment();
+            log.debug("Shedding {}: {} in flight at limit {}", operation.name(),
+                    operation.limiter().getInFlight(), operation.limiter().getLimit());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            errorBodies.write(response, HttpStatus.SERVICE_UNAVAILABLE, "error.overloaded");
+            return;
+        }
+        operation.accepted().increment();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            operation.limiter().release(start);
+        }
+    }
+
+    private static Operation operation(String name, int initialLimit, int minLimit, int maxLimit,
+                                       MeterRegistry registry) {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        Gauge.builder("auth.limiter.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit of a credential operation")
+                .tag("operation", name)
+                .register(registry);
+        Gauge.builder("auth.limiter.inflight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .description("Credential operation calls in flight")
+                .tag("operation", name)
+                .register(registry);
+        return new Operation(name, limiter, callCounter(registry, name, "accepted"), callCounter(registry, name, "shed"));
+    }
+
+    private static Counter callCounter(MeterRegistry registry, String operation, String result) {
+        return Counter.builder("auth.limiter.calls")
+                .description("Credential operation calls admitted or shed by the adaptive limiter")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,125 @@
+package com.constructionhub.authentication.bulkhead;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the observed latency (gradient algorithm).
+ *
+ * EN: Each completed call reports its latency. The lowest latency seen is the no-load baseline; the
+ * ratio between it (times a tolerance of 2) and the latest sample is the gradient, kept between 0.5
+ * and 1. The new limit is limit * gradient + sqrt(limit): while latency stays near the baseline the
+ * limit grows by the square-root headroom, and when the database slows down or BCrypt saturates the
+ * CPU, calls start queueing, latency rises and the limit shrinks, so excess calls are shed instead of
+ * queueing. Changes are smoothed, and samples taken while under half the limit is in use are ignored,
+ * since they say nothing about capacity. A baseline that only tracked recent latency would drift up
+ * with sustained overload; instead, every ~1000 samples (jittered, the first one sooner since the
+ * initial limit is a guess) the limiter probes: the limit drops by a quarter (never below minLimit),
+ * which drains the queue without shedding most of a healthy load, and the baseline is measured again
+ * from calls started after the probe, then the limit regrows.
+ * PT: Cada chamada concluída informa sua latência. A menor latência vista é a referência sem carga; a
+ * razão entre ela (vezes uma tolerância de 2) e a última amostra é o gradiente, mantido entre 0,5 e 1.
+ * O novo limite é limite * gradiente + sqrt(limite): enquanto a latência fica perto da referência o
+ * limite cresce pela folga da raiz quadrada, e quando o banco fica lento ou o BCrypt satura a CPU as
+ * chamadas começam a enfileirar, a latência sobe e o limite encolhe, então o excesso é descartado em
+ * vez de enfileirado. As mudanças são suavizadas, e amostras tomadas com menos da metade do limite em
+ * uso são ignoradas, pois não dizem nada sobre a capacidade. Uma referência que só acompanhasse a
+ * latência recente subiria junto com uma sobrecarga prolongada; em vez disso, a cada ~1000 amostras
+ * (com variação aleatória; a primeira antes, já que o limite inicial é um palpite) o limitador faz uma
+ * sondagem: o limite cai um quarto (nunca abaixo de minLimit), o que esvazia a fila sem descartar a
+ * maior parte de uma carga saudável, e a referência é medida de novo a partir de chamadas iniciadas
+ * depois da sondagem; então o limite volta a crescer.
+ */
+final class GradientConcurrencyLimiter {
+
+    private static final double TOLERANCE = 2.0;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int PROBE_INTERVAL = 1000; // Amostras entre sondagens da referência
+    private static final int FIRST_PROBE = 100;
+    private static final double PROBE_FACTOR = 0.75; // Limite durante a sondagem, relativo ao atual
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guardados pelo monitor do objeto
+    private double estimatedLimit;
+    private long baselineNanos; // 0 = ainda não medida
+    private long probeStartNanos = System.nanoTime();
+    private int probeCountdown = FIRST_PROBE + ThreadLocalRandom.current().nextInt(FIRST_PROBE);
+
+    GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.estimatedLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Takes a slot without waiting.
+     * Ocupa uma vaga sem esperar.
+     *
+     * @return false when the limit is reached (the call must be shed)
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot and feeds the latency of the call into the limit.
+     * Libera a vaga e usa a latência da chamada no cálculo do limite.
+     *
+     * @param startNanos System.nanoTime() when the call was admitted
+     */
+    void release(long startNanos) {
+        long endNanos = System.nanoTime();
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(startNanos, Math.max(1, endNanos - startNanos), inFlightAtCompletion);
+    }
+
+    private synchronized void update(long startNanos, long sampleNanos, int inFlightAtCompletion) {
+        if (baselineNanos == 0 && startNanos - probeStartNanos < 0) {
+            return; // Admitida antes da sondagem: ainda com a fila antiga, não serve de referência
+        }
+        if (--probeCountdown <= 0) {
+            // Sondagem: menos concorrência por um momento para medir a referência com menos fila
+            probeCountdown = PROBE_INTERVAL + ThreadLocalRandom.current().nextInt(PROBE_INTERVAL / 2);
+            probeStartNanos = System.nanoTime();
+            baselineNanos = 0;
+            setLimit(estimatedLimit * PROBE_FACTOR);
+            return;
+        }
+        if (baselineNanos == 0 || sampleNanos < baselineNanos) {
+            baselineNanos = sampleNanos;
+        }
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return; // Pouca carga: a amostra não diz nada sobre o limite
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * baselineNanos / sampleNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        setLimit(estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private void setLimit(double value) {
+        estimatedLimit = Math.min(maxLimit, Math.max(minLimit, value));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,97 @@
+package com.constructionhub.authentication.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Classes of traffic isolated from each other by bulkheads.
+ *
+ * EN: Each class has its own concurrency limit (auth.bulkhead.&lt;key&gt;.max-concurrent, max-wait-ms)
+ * and may have its own primary connection pool (auth.bulkhead.&lt;key&gt;.pool-size); the defaults
+ * below apply when the property is absent.
+ * PT: Cada classe tem seu próprio limite de concorrência (auth.bulkhead.&lt;key&gt;.max-concurrent,
+ * max-wait-ms) e pode ter seu próprio pool de conexões do primário (auth.bulkhead.&lt;key&gt;.pool-size);
+ * os padrões abaixo valem quando a propriedade não existe.
+ */
+public enum RouteClass {
+
+    /** /auth/**: login, register, refresh, introspect, logout (BCrypt e escritas) */
+    CREDENTIAL("credential", 32, 100, 4),
+    /** Any other authenticated call: token validation on every request / Validação de token a cada requisição */
+    RESOURCE("resource", 0, 0, 0),
+    /**
+     * POST /users/batch: lookups fanned in from downstream services, bounded apart from the admin class
+     * Buscas em lote vindas dos serviços downstream, limitadas à parte da classe admin
+     */
+    LOOKUP("lookup", 32, 50, 0),
+    /** /users/** and /clients/**: admin operations, including exports / Operações administrativas */
+    ADMIN("admin", 8, 0, 2);
+
+    private final String key;
+    private final int defaultMaxConcurrent;
+    private final long defaultMaxWaitMs;
+    private final int defaultPoolSize;
+
+    RouteClass(String key, int defaultMaxConcurrent, long defaultMaxWaitMs, int defaultPoolSize) {
+        this.key = key;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultMaxWaitMs = defaultMaxWaitMs;
+        this.defaultPoolSize = defaultPoolSize;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getDefaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+
+    public long getDefaultMaxWaitMs() {
+        return defaultMaxWaitMs;
+    }
+
+    public int getDefaultPoolSize() {
+        return defaultPoolSize;
+    }
+
+    /**
+     * Class of a request path (without the context path); null for infrastructure endpoints
+     * (actuator, docs), which are never limited so probes keep answering under load.
+     * Classe de um caminho de requisição (sem o context path); null para endpoints de infraestrutura
+     * (actuator, docs), nunca limitados para que as probes continuem respondendo sob carga.
+     */
+    public static RouteClass of(String path) {
+        if (matches(path, "/auth")) {
+            return CREDENTIAL;
+        }
+        if (path.equals("/users/batch")) {
+            return LOOKUP; // Tráfego de serviço a serviço: não disputa as 8 vagas das operações administrativas
+        }
+        if (matches(path, "/users") || matches(path, "/clients")) {
+            return ADMIN;
+        }
+        if (matches(path, "/actuator") || matches(path, "/docs") || matches(path, "/swagger-ui")
+                || matches(path, "/v3/api-docs") || path.equals("/swagger-ui.html") || path.equals("/error")) {
+            return null;
+        }
+        return RESOURCE;
+    }
+
+    /**
+     * Path of a request as the handler mappings see it: without the context path, percent-decoded,
+     * without ;parameters and with "//", "." and ".." resolved. Matching the raw URI would let
+     * /%61uth/login or /x/../auth/login reach the controllers while skipping the limits of its route.
+     * Caminho da requisição como os mapeamentos de handler o veem: sem o context path, decodificado,
+     * sem ;parâmetros e com "//", "." e ".." resolvidos. Comparar a URI crua deixaria /%61uth/login ou
+     * /x/../auth/login chegarem aos controllers escapando dos limites da sua rota.
+     */
+    public static String pathOf(HttpServletRequest request) {
+        return StringUtils.cleanPath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+
+    private static boolean matches(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+}
@@ -0,0 +1,180 @@
+package com.constructionhub.authentication.config;
+
+import com.constructionhub.authentication.bulkhead.RouteClass;
+import com.constructionhub.authentication.datasource.ReadYourWritesTracker;
+import com.constructionhub.authentication.datasource.ReplicaHealthChecker;
+import com.constructionhub.authentication.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.jdbc.HikariCheckpointRestoreLifecycle;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration of the primary and read-replica connection pools.
+ *
+ * EN: The primary pool comes from spring.datasource; replicas and per-route-class pools from auth.datasource and auth.bulkhead.
+ * PT: O pool primário vem de spring.datasource; réplicas e pools por classe de rota de auth.datasource e auth.bulkhead.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${auth.datasource.replica-urls:}")
+    private String replicaUrls;
+
+    @Value("${auth.datasource.replica-username:}")
+    private String replicaUsername;
+
+    @Value("${auth.datasource.replica-password:}")
+    private String replicaPassword;
+
+    @Value("${auth.datasource.replica-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${auth.datasource.max-replica-lag-ms:1000}")
+    private long maxReplicaLagMs;
+
+    @Value("${auth.datasource.health-check-interval-ms:2000}")
+    private long healthCheckIntervalMs;
+
+    /**
+     * Routing DataSource that owns all pools (closed on shutdown).
+     * DataSource de roteamento que é dono de todos os pools (fechados no desligamento).
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                             ReadYourWritesTracker readYourWritesTracker,
+                                                             MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        primary.setMetricsTrackerFactory(metrics);
+
+        Map<RouteClass, HikariDataSource> partitions = new EnumMap<>(RouteClass.class);
+        boolean bulkheads = environment.getProperty("auth.bulkhead.enabled", Boolean.class, true);
+        for (RouteClass routeClass : RouteClass.values()) {
+            int poolSize = environment.getProperty("auth.bulkhead." + routeClass.getKey() + ".pool-size",
+                    Integer.class, routeClass.getDefaultPoolSize());
+            if (!bulkheads || poolSize <= 0) {
+                continue;
+            }
+            HikariDataSource partition = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(partition));
+            partition.setPoolName(primary.getPoolName() + "-" + routeClass.getKey());
+            partition.setMaximumPoolSize(poolSize);
+            if (partition.getMinimumIdle() > poolSize) {
+                partition.setMinimumIdle(poolSize); // -1 (não definido) já vira o tamanho do pool
+            }
+            partition.setMetricsTrackerFactory(metrics);
+            partitions.put(routeClass, partition);
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        int index = 1;
+        for (String url : StringUtils.commaDelimitedListToStringArray(replicaUrls)) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(StringUtils.hasText(replicaUsername) ? replicaUsername : properties.determineUsername())
+                    .password(StringUtils.hasText(replicaPassword) ? replicaPassword : properties.determinePassword())
+                    .build();
+            replica.setPoolName("replica-" + index++);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, partitions, replicas, readYourWritesTracker, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaHealthChecker replicaHealthChecker(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaHealthChecker(replicaRoutingDataSource, healthCheckIntervalMs, maxReplicaLagMs);
+    }
+
+    /**
+     * Closes and reopens the pools' connections around a CRaC checkpoint.
+     *
+     * EN: Spring Boot only registers this for a DataSource bean that is itself a Hikari pool; ours are
+     * wrapped by the routing DataSource, so each pool gets its own lifecycle here. It runs in the lowest
+     * phase: pools are suspended after, and resumed before, everything that uses them (e.g. AuditWriter).
+     * PT: O Spring Boot só registra isto para um bean DataSource que seja o próprio pool Hikari; os
+     * nossos ficam atrás do DataSource de roteamento, então cada pool recebe seu lifecycle aqui. Roda na
+     * menor fase: os pools são suspensos depois, e retomados antes, de quem os usa (ex.: AuditWriter).
+     */
+    @Bean
+    @ConditionalOnClass(name = "org.crac.Resource")
+    public SmartLifecycle connectionPoolsCheckpointRestore(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        List<HikariCheckpointRestoreLifecycle> pools = replicaRoutingDataSource.getPools().stream()
+                .map(HikariCheckpointRestoreLifecycle::new)
+                .toList();
+        return new SmartLifecycle() {
+            @Override
+            public boolean isAutoStartup() {
+                return false; // Os pools já iniciam prontos; só há trabalho em torno de um checkpoint
+            }
+
+            @Override
+            public int getPhase() {
+                return Integer.MIN_VALUE;
+            }
+
+            @Override
+            public void start() {
+                pools.forEach(HikariCheckpointRestoreLifecycle::start);
+            }
+
+            @Override
+            public void stop() {
+                pools.forEach(HikariCheckpointRestoreLifecycle::stop);
+            }
+
+            @Override
+            public boolean isRunning() {
+                return pools.stream().anyMatch(HikariCheckpointRestoreLifecycle::isRunning);
+            }
+        };
+    }
+
+    /**
+     * The application DataSource: connections are only fetched at the first statement, once the
+     * transaction's read-only flag is known.
+     * O DataSource da aplicação: a conexão só é obtida no primeiro comando, quando o flag read-only
+     * da transação já é conhecido.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(replicaRoutingDataSource);
+        // Valores padrão explícitos evitam abrir uma conexão só para descobri-los na inicialização
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+}
@@ -0,0 +1,43 @@
+package com.constructionhub.authentication.config;
+
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import com.constructionhub.authentication.revocation.LocalRevocationStore;
+import com.constructionhub.authentication.revocation.RedisRevocationStore;
+import com.constructionhub.authentication.revocation.RevocationStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Chooses the token revocation store.
+ *
+ * EN: The choice is made at runtime from auth.redis.enabled rather than with a bean condition, so
+ * the same AOT-processed build (native profile) works with and without Redis.
+ * PT: A escolha é feita em tempo de execução a partir de auth.redis.enabled, e não com uma condição
+ * de bean, para que o mesmo build processado pelo AOT (perfil native) funcione com e sem Redis.
+ */
+@Configuration
+public class RevocationConfig {
+
+    @Bean
+    public RevocationStore revocationStore(
+            JwtConfig jwtConfig,
+            InvalidationBus invalidationBus,
+            StringRedisTemplate redis,
+            AuthMetrics authMetrics,
+            @Value("${auth.redis.key-prefix:auth:}") String keyPrefix,
+            @Value("${auth.revocation.near-cache-ttl-ms:30000}") long nearCacheTtlMs,
+            @Value("${auth.revocation.near-cache-max-entries:100000}") int nearCacheMaxEntries,
+            @Value("${auth.revocation.redis-retry-interval-ms:5000}") long redisRetryIntervalMs) {
+        // Um corte por usuário precisa durar tanto quanto o token mais longo que ele revoga
+        long longestTokenLifetimeMs = Math.max(jwtConfig.getValidityInMilliseconds(), jwtConfig.getRefreshValidityInMilliseconds());
+        LocalRevocationStore local = new LocalRevocationStore(longestTokenLifetimeMs);
+        if (!invalidationBus.isEnabled()) {
+            return local;
+        }
+        return new RedisRevocationStore(local, redis, invalidationBus, authMetrics, keyPrefix,
+                longestTokenLifetimeMs, nearCacheTtlMs, nearCacheMaxEntries, redisRetryIntervalMs);
+    }
+}
@@ -1,11 +1,23 @@
 package com.constructionhub.authentication.config;
 
+import com.constructionhub.authentication.activity.LoginActivityRecorder;
+import com.constructionhub.authentication.bulkhead.CredentialLoadSheddingFilter;
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import com.constructionhub.authentication.quota.ClientQuotaFilter;
+import com.constructionhub.authentication.security.ClientAuthenticationFilter;
+import com.constructionhub.authentication.security.ClientCredentialVerifier;
+import com.constructionhub.authentication.security.JsonAccessDeniedHandler;
+import com.constructionhub.authentication.security.JsonAuthenticationEntryPoint;
 import com.constructionhub.authentication.security.JwtAuthFilter;
+import com.constructionhub.authentication.security.LockoutAwareAuthenticationProvider;
+import com.constructionhub.authentication.security.MeteredPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,6 +29,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -40,7 +53,16 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final CredentialLoadSheddingFilter loadSheddingFilter;
+    private final ClientQuotaFilter clientQuotaFilter;
     private final UserDetailsService userDetailsService;
+    private final AuthMetrics authMetrics;
+    private final PrecomputedErrorBodies errorBodies;
+    private final LoginActivityRecorder loginActivity;
+    private final ClientCredentialVerifier clientCredentials;
+
+    @Value("${auth.client-quota.header:X-Client-Id}")
+    private String clientIdHeader;
 
     /**
      * Constructor for SecurityConfig.
@@ -49,11 +71,26 @@ public class SecurityConfig {
      * PT: Inicializa a configuração de segurança com as dependências necessárias.
      * 
      * @param jwtAuthFilter JWT authentication filter
+     * @param loadSheddingFilter Adaptive concurrency limit of login, register and refresh
+     * @param clientQuotaFilter Per-client token issuance quotas
      * @param userDetailsService Service to load user-specific data
+     * @param authMetrics Authentication pipeline meters
+     * @param errorBodies Precomputed 401/403 bodies
+     * @param loginActivity Failed-attempt counters and temporary lockouts
+     * @param clientCredentials Client application credentials (HTTP Basic)
      */
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, CredentialLoadSheddingFilter loadSheddingFilter,
+                          ClientQuotaFilter clientQuotaFilter, UserDetailsService userDetailsService, AuthMetrics authMetrics,
+                          PrecomputedErrorBodies errorBodies, LoginActivityRecorder loginActivity,
+                          ClientCredentialVerifier clientCredentials) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.loadSheddingFilter = loadSheddingFilter;
+        this.clientQuotaFilter = clientQuotaFilter;
         this.userDetailsService = userDetailsService;
+        this.authMetrics = authMetrics;
+        this.errorBodies = errorBodies;
+        this.loginActivity = loginActivity;
+        this.clientCredentials = clientCredentials;
     }
 
     /**
@@ -75,24 +112,41 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(authorize -> authorize
+                // Introspecção (RFC 7662): só aplicações cliente autenticadas ou ADMIN
+                .requestMatchers(HttpMethod.POST, "/auth/introspect").hasAnyRole("CLIENT", "ADMIN")
                 .requestMatchers(
                     "/auth/**",
                     "/docs/**",
                     "/swagger-ui/**",
                     "/swagger-ui.html",
                     "/v3/api-docs/**",
-                    "/actuator/health"
+                    "/actuator/health",
+                    "/actuator/health/liveness",
+                    "/actuator/health/readiness"
                 ).permitAll()
                 .requestMatchers("/users/**").hasRole("ADMIN")
                 .requestMatchers("/clients/**").hasRole("ADMIN")
+                // Métricas (prometheus), env, heavyhitters etc.: contadores por cliente, taxas de falha e nomes de pools
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // 401/403 em JSON, com corpos pré-calculados (antes: 403 vazio mesmo sem autenticação)
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new JsonAuthenticationEntryPoint(errorBodies))
+                .accessDeniedHandler(new JsonAccessDeniedHandler(errorBodies)))
             .authenticationProvider(authenticationProvider())
             // O ForwardedHeaderFilter geralmente não é adicionado aqui na cadeia SecurityFilterChain
             // Ele deve ser um Bean no contexto da aplicação para ser adicionado
             // no lugar correto na cadeia de filtros padrão do Spring Boot
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            // Client id e secret (HTTP Basic) de quem chama a introspecção
+            .addFilterAfter(new ClientAuthenticationFilter(clientCredentials,
+                    AntPathRequestMatcher.antMatcher(HttpMethod.POST, "/auth/introspect")), JwtAuthFilter.class)
+            // Descarte adaptativo de login/register/refresh antes de qualquer trabalho de autenticação
+            .addFilterBefore(loadSheddingFilter, JwtAuthFilter.class)
+            // Cota por aplicação cliente antes do descarte adaptativo: um cliente limitado não ocupa vagas
+            .addFilterBefore(clientQuotaFilter, CredentialLoadSheddingFilter.class);
 
         return http.build();
     }
@@ -100,14 +154,16 @@ public class SecurityConfig {
     /**
      * Creates an authentication provider.
      * 
-     * EN: Configures the authentication provider with user details service and password encoder.
-     * PT: Configura o provedor de autenticação com o serviço de detalhes do usuário e o codificador de senha.
+     * EN: Configures the authentication provider with user details service and password encoder,
+     * enforcing the temporary lockouts of the LoginActivityRecorder.
+     * PT: Configura o provedor de autenticação com o serviço de detalhes do usuário e o codificador de senha,
+     * aplicando os bloqueios temporários do LoginActivityRecorder.
      * 
      * @return Configured AuthenticationProvider
      */
     @Bean
     public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        LockoutAwareAuthenticationProvider authProvider = new LockoutAwareAuthenticationProvider(loginActivity);
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
@@ -116,14 +172,14 @@ public class SecurityConfig {
     /**
      * Creates a password encoder.
      * 
-     * EN: Provides BCrypt password encoder for secure password hashing.
-     * PT: Fornece um codificador de senha BCrypt para hash seguro de senhas.
+     * EN: Provides BCrypt password encoder for secure password hashing, timed by AuthMetrics.
+     * PT: Fornece um codificador de senha BCrypt para hash seguro de senhas, medido pelo AuthMetrics.
      * 
-     * @return BCryptPasswordEncoder instance
+     * @return BCryptPasswordEncoder instance wrapped with timing
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new MeteredPasswordEncoder(new BCryptPasswordEncoder(), authMetrics);
     }
 
     /**
@@ -154,8 +210,10 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", clientIdHeader));
+        // Cabeçalhos de cota (ClientQuotaFilter) legíveis por clientes de navegador
+        configuration.setExposedHeaders(List.of("Authorization", "RateLimit-Limit", "RateLimit-Remaining",
+                "RateLimit-Reset", "RateLimit-Policy", "Retry-After"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
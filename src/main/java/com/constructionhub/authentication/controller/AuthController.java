@@ -4,6 +4,7 @@ package com.constructionhub.authentication.controller;
 import com.constructionhub.authentication.dto.AuthResponseDTO;
 import com.constructionhub.authentication.dto.LoginRequestDTO;
 import com.constructionhub.authentication.dto.RegisterRequestDTO;
+import com.constructionhub.authentication.dto.TokenIntrospectionDTO;
 import com.constructionhub.authentication.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -85,6 +86,7 @@ public class AuthController {
         endpoints.put("register", "/auth/register");
         endpoints.put("refresh", "/auth/refresh");
         endpoints.put("logout", "/auth/logout");
+        endpoints.put("introspect", "/auth/introspect");
         endpoints.put("health", "/auth/health");
         endpoints.put("status", "/auth/status");
         
@@ -127,8 +129,10 @@ public class AuthController {
     /**
      * Refresh an access token.
      * 
-     * EN: Renews an access token using a valid refresh token.
-     * PT: Renova um token de acesso usando um refresh token válido.
+     * EN: Renews an access token using a valid refresh token. The refresh token is rotated: the
+     * response carries a new one and the presented one stops working.
+     * PT: Renova um token de acesso usando um refresh token válido. O refresh token é rotacionado: a
+     * resposta traz um novo e o apresentado deixa de funcionar.
      * 
      * @param refreshToken The refresh token to use for generating a new access token
      * @return ResponseEntity containing new authentication tokens
@@ -140,24 +144,48 @@ public class AuthController {
         return ResponseEntity.ok(authResponseDTO);
     }
     
+    /**
+     * Introspect an access token.
+     * 
+     * EN: Tells resource servers whether an access token (JWT or opaque) is active and returns its
+     * claims; opaque tokens can only be read this way. Inactive tokens, refresh tokens included, get 200
+     * with active=false. The caller must authenticate, as RFC 7662 requires: HTTP Basic with the
+     * client_id and client_secret of a client application, or an ADMIN bearer token.
+     * PT: Informa aos servidores de recursos se um token de acesso (JWT ou opaco) está ativo e devolve
+     * suas claims; tokens opacos só podem ser lidos assim. Tokens inativos, inclusive refresh tokens,
+     * recebem 200 com active=false. Quem chama precisa se autenticar, como a RFC 7662 exige: HTTP Basic
+     * com client_id e client_secret de uma aplicação cliente, ou bearer token de ADMIN.
+     * 
+     * @param token The access token to inspect
+     * @return ResponseEntity containing the introspection result
+     */
+    @PostMapping("/introspect")
+    @Operation(summary = "Inspecionar token",
+            description = "Informa se um token de acesso está ativo e devolve suas claims; exige credenciais de aplicação cliente (HTTP Basic) ou ADMIN")
+    public ResponseEntity<TokenIntrospectionDTO> introspect(@RequestParam String token) {
+        return ResponseEntity.ok(authService.introspect(token));
+    }
+    
     /**
      * Logout a user.
      * 
-     * EN: Invalidates the current token, effectively logging out the user.
-     * PT: Invalida o token atual, efetivamente desconectando o usuário.
+     * EN: Revokes the current access token and, when given, the refresh token, on every instance.
+     * PT: Revoga o token de acesso atual e, quando informado, o refresh token, em todas as instâncias.
      * 
      * @param token The authorization token from the request header
+     * @param refreshToken Optional refresh token of the same session
      * @return ResponseEntity with HTTP status 204 (No Content)
      * @throws IllegalArgumentException if the token format is invalid
      */
     @PostMapping("/logout")
     @Operation(summary = "Sair da sessão", description = "Invalida o token atual")
-    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String token,
+                                       @RequestParam(required = false) String refreshToken) {
         if (token == null || !token.startsWith("Bearer ")) {
             throw new IllegalArgumentException("Formato de token inválido");
         }
         String jwtToken = token.substring(7);
-        authService.logout(jwtToken);
+        authService.logout(jwtToken, refreshToken);
         return ResponseEntity.noContent().build();
     }
 }
@@ -11,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,9 +23,11 @@ import java.util.UUID;
 public class ClientAppController {
 
     private final ClientAppService clientAppService;
+    private final ConditionalGetSupport conditionalGet;
 
-    public ClientAppController(ClientAppService clientAppService) {
+    public ClientAppController(ClientAppService clientAppService, ConditionalGetSupport conditionalGet) {
         this.clientAppService = clientAppService;
+        this.conditionalGet = conditionalGet;
     }
 
     @GetMapping
@@ -37,22 +40,25 @@ public class ClientAppController {
     @GetMapping("/{id}")
     @Operation(summary = "Obter aplicação cliente por ID", description = "Retorna uma aplicação cliente pelo ID")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ClientApplicationEntity> getClientAppById(@PathVariable UUID id) {
-        return ResponseEntity.ok(clientAppService.getClientAppById(id));
+    public ResponseEntity<ClientApplicationEntity> getClientAppById(@PathVariable UUID id, WebRequest request) {
+        return conditionalGet.respond(request, clientAppService.getClientAppETag(id),
+                () -> clientAppService.getClientAppById(id));
     }
 
     @GetMapping("/client-id/{clientId}")
     @Operation(summary = "Obter aplicação cliente por Client ID", description = "Retorna uma aplicação cliente pelo Client ID")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ClientApplicationEntity> getClientAppByClientId(@PathVariable String clientId) {
-        return ResponseEntity.ok(clientAppService.getClientAppByClientId(clientId));
+    public ResponseEntity<ClientApplicationEntity> getClientAppByClientId(@PathVariable String clientId, WebRequest request) {
+        return conditionalGet.respond(request, clientAppService.getClientAppETagByClientId(clientId),
+                () -> clientAppService.getClientAppByClientId(clientId));
     }
 
     @GetMapping("/owner/{ownerId}")
     @Operation(summary = "Listar aplicações cliente por proprietário", description = "Retorna todas as aplicações cliente de um proprietário")
     @PreAuthorize("hasRole('ADMIN') or authentication.principal.id == #ownerId")
-    public ResponseEntity<List<ClientApplicationEntity>> getClientAppsByOwnerId(@PathVariable UUID ownerId) {
-        return ResponseEntity.ok(clientAppService.getClientAppsByOwnerId(ownerId));
+    public ResponseEntity<List<ClientApplicationEntity>> getClientAppsByOwnerId(@PathVariable UUID ownerId, WebRequest request) {
+        return conditionalGet.respond(request, clientAppService.getClientAppsETagByOwnerId(ownerId),
+                () -> clientAppService.getClientAppsByOwnerId(ownerId));
     }
 
     @PostMapping
@@ -70,8 +76,10 @@ public class ClientAppController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ClientApplicationEntity> updateClientApp(
             @PathVariable UUID id,
-            @Valid @RequestBody ClientApplicationEntity clientApp) {
-        return ResponseEntity.ok(clientAppService.updateClientApp(id, clientApp));
+            @Valid @RequestBody ClientApplicationEntity clientApp,
+            WebRequest request) {
+        ClientApplicationEntity updated = clientAppService.updateClientApp(id, clientApp, conditionalGet.expectedVersion(request, id));
+        return ResponseEntity.ok().eTag(clientAppService.toETag(updated)).body(updated);
     }
 
     @PostMapping("/{id}/regenerate-secret")
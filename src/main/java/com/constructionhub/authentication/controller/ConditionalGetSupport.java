@@ -0,0 +1,114 @@
+package com.constructionhub.authentication.controller;
+
+import com.constructionhub.authentication.dto.Versioned;
+import com.constructionhub.authentication.exception.ApiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET handling for the read endpoints.
+ *
+ * EN: The caller computes the ETag from a version-only query; the body supplier (full entity load and
+ * mapping) only runs when If-None-Match does not match, otherwise the answer is an empty 304. A 200
+ * carries the ETag the supplier read along with the body, not the one of the version-only query, since
+ * the row may change in between. Cache-Control comes from auth.http-cache.*: by default private with
+ * no-cache, so clients revalidate every time but a match costs no payload. Updates may send If-Match
+ * with a strong ETag of the row; expectedVersion turns it into the version the update must find.
+ *
+ * PT: Quem chama calcula o ETag com uma consulta só da versão; o supplier do corpo (carga completa
+ * da entidade e mapeamento) só roda quando o If-None-Match não confere, caso contrário a resposta é um
+ * 304 vazio. Um 200 leva o ETag que o supplier leu junto com o corpo, não o da consulta só da versão,
+ * já que a linha pode mudar no meio. O Cache-Control vem de auth.http-cache.*: por padrão private com
+ * no-cache, então os clientes revalidam sempre, mas uma correspondência não trafega payload. Updates
+ * podem mandar If-Match com um ETag forte da linha; expectedVersion o converte na versão que o update
+ * precisa encontrar.
+ */
+@Component
+public class ConditionalGetSupport {
+
+    private final CacheControl cacheControl;
+
+    public ConditionalGetSupport(@Value("${auth.http-cache.max-age-seconds:0}") long maxAgeSeconds,
+                                 @Value("${auth.http-cache.private:true}") boolean privateCache) {
+        CacheControl control = maxAgeSeconds > 0
+                ? CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                : CacheControl.noCache();
+        this.cacheControl = privateCache ? control.cachePrivate() : control.cachePublic();
+    }
+
+    public <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<Versioned<T>> body) {
+        if (matchesIfNoneMatch(request, etag)) {
+            return notModified(etag);
+        }
+        Versioned<T> loaded = body.get();
+        // A linha mudou entre as duas leituras e voltou a ser a versão que o cliente já tem
+        if (!loaded.etag().equals(etag) && matchesIfNoneMatch(request, loaded.etag())) {
+            return notModified(loaded.etag());
+        }
+        return ResponseEntity.ok().eTag(loaded.etag()).cacheControl(cacheControl).body(loaded.body());
+    }
+
+    /**
+     * Version required by the If-Match header of an update of the row id; null when absent or "*".
+     * Versão exigida pelo cabeçalho If-Match de um update da linha id; null se ausente ou "*".
+     *
+     * If-Match usa comparação forte (RFC 9110): ETag fraco, de outra linha ou ilegível não confere
+     * com nenhuma versão e a resposta é 412.
+     */
+    public Long expectedVersion(WebRequest request, UUID id) {
+        String[] headerValues = request.getHeaderValues(HttpHeaders.IF_MATCH);
+        if (headerValues == null) {
+            return null;
+        }
+        String prefix = "\"" + id + ".";
+        for (String headerValue : headerValues) {
+            for (String candidate : headerValue.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*")) {
+                    return null;
+                }
+                if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                    try {
+                        return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                    } catch (NumberFormatException ignored) {
+                        // Cai no 412 abaixo
+                    }
+                }
+            }
+        }
+        throw new ApiException("error.preconditionFailed", null, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    // Comparação fraca, como o If-None-Match pede (RFC 9110): W/"x" confere com "x"
+    private static boolean matchesIfNoneMatch(WebRequest request, String etag) {
+        String[] headerValues = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (headerValues == null) {
+            return false;
+        }
+        for (String headerValue : headerValues) {
+            for (String candidate : headerValue.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
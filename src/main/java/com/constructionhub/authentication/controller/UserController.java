@@ -1,7 +1,10 @@
 package com.constructionhub.authentication.controller;
 
 
+import com.constructionhub.authentication.dto.UserBatchRequestDTO;
+import com.constructionhub.authentication.dto.UserBatchResponseDTO;
 import com.constructionhub.authentication.dto.UserDTO;
+import com.constructionhub.authentication.dto.Versioned;
 import com.constructionhub.authentication.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -12,6 +15,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -22,9 +26,11 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final ConditionalGetSupport conditionalGet;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ConditionalGetSupport conditionalGet) {
         this.userService = userService;
+        this.conditionalGet = conditionalGet;
     }
 
     @GetMapping
@@ -36,23 +42,33 @@ public class UserController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Obter usuário por ID", description = "Retorna um usuário pelo ID")
-    @PreAuthorize("hasRole('ADMIN') or (authentication.principal.username != null && authentication.principal.username == @userService.getUserById(#id).username)")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable UUID id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+    @PreAuthorize("hasRole('ADMIN') or authentication.principal.id == #id")
+    public ResponseEntity<UserDTO> getUserById(@PathVariable UUID id, WebRequest request) {
+        return conditionalGet.respond(request, userService.getUserETag(id), () -> userService.getUserById(id));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Buscar usuários em lote",
+            description = "Resolve vários usuários por ID e/ou username em uma única chamada; os não encontrados voltam separados")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserBatchResponseDTO> getUsersBatch(@RequestBody UserBatchRequestDTO request) {
+        return ResponseEntity.ok(userService.getUsersBatch(request));
     }
 
     @GetMapping("/username/{username}")
     @Operation(summary = "Obter usuário por username", description = "Retorna um usuário pelo username")
     @PreAuthorize("hasRole('ADMIN') or authentication.principal.username == #username")
-    public ResponseEntity<UserDTO> getUserByUsername(@PathVariable String username) {
-        return ResponseEntity.ok(userService.getUserByUsername(username));
+    public ResponseEntity<UserDTO> getUserByUsername(@PathVariable String username, WebRequest request) {
+        return conditionalGet.respond(request, userService.getUserETagByUsername(username),
+                () -> userService.getUserByUsername(username));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar usuário", description = "Atualiza as informações de um usuário")
-    @PreAuthorize("hasRole('ADMIN') or authentication.principal.username == @userService.getUserById(#id).username")
-    public ResponseEntity<UserDTO> updateUser(@PathVariable UUID id, @Valid @RequestBody UserDTO userDto) {
-        return ResponseEntity.ok(userService.updateUser(id, userDto));
+    @PreAuthorize("hasRole('ADMIN') or authentication.principal.id == #id")
+    public ResponseEntity<UserDTO> updateUser(@PathVariable UUID id, @Valid @RequestBody UserDTO userDto, WebRequest request) {
+        Versioned<UserDTO> updated = userService.updateUser(id, userDto, conditionalGet.expectedVersion(request, id));
+        return ResponseEntity.ok().eTag(updated.etag()).body(updated.body());
     }
 
     @DeleteMapping("/{id}")
@@ -79,7 +95,7 @@ public class UserController {
 
     @PutMapping("/{id}/password")
     @Operation(summary = "Alterar senha", description = "Altera a senha de um usuário")
-    @PreAuthorize("hasRole('ADMIN') or authentication.principal.username == @userService.getUserById(#id).username")
+    @PreAuthorize("hasRole('ADMIN') or authentication.principal.id == #id")
     public ResponseEntity<Void> changePassword(
             @PathVariable UUID id,
             @RequestParam String currentPassword,
@@ -0,0 +1,113 @@
+package com.constructionhub.authentication.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers identities that wrote recently so their reads stay on the primary.
+ *
+ * EN: Covers the acting principal after a committed write and identities marked explicitly, such as a new user.
+ * PT: Vale para o principal após uma escrita confirmada e para identidades marcadas, como um usuário recém-registrado.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final String PENDING_MARK_KEY = ReadYourWritesTracker.class.getName() + ".pendingMark";
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final ConcurrentMap<String, Long> primaryUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(@Value("${auth.datasource.read-your-writes-window-ms:5000}") long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    /**
+     * Marks identities (username, email) as recently written.
+     * Marca identidades (username, email) como escritas recentemente.
+     */
+    public void markWrite(String... identities) {
+        if (windowNanos <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + windowNanos;
+        for (String identity : identities) {
+            if (identity != null) {
+                primaryUntil.put(normalize(identity), deadline);
+            }
+        }
+        if (primaryUntil.size() > PURGE_THRESHOLD) {
+            long now = System.nanoTime();
+            primaryUntil.values().removeIf(until -> until - now < 0);
+        }
+    }
+
+    /**
+     * Marks the authenticated principal once the current transaction commits (once per transaction).
+     * Marca o principal autenticado quando a transação atual fizer commit (uma vez por transação).
+     */
+    public void markCurrentPrincipalAfterCommit() {
+        if (windowNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PENDING_MARK_KEY)) {
+            return;
+        }
+        String principal = currentPrincipal();
+        if (principal == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PENDING_MARK_KEY, principal);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markWrite(principal);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_MARK_KEY);
+            }
+        });
+    }
+
+    public boolean requiresPrimary(String identity) {
+        if (identity == null || primaryUntil.isEmpty()) {
+            return false;
+        }
+        String key = normalize(identity);
+        Long until = primaryUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            primaryUntil.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    public boolean requiresPrimaryForCurrentPrincipal() {
+        return !primaryUntil.isEmpty() && requiresPrimary(currentPrincipal());
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static String normalize(String identity) {
+        return identity.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,79 @@
+package com.constructionhub.authentication.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically probes each replica and takes it out of rotation when it is down or lagging.
+ *
+ * EN: On PostgreSQL the lag is the age of the last replayed transaction; other databases get a liveness query.
+ * PT: No PostgreSQL o atraso é a idade da última transação reaplicada; outros bancos recebem só uma consulta de disponibilidade.
+ */
+public class ReplicaHealthChecker implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthChecker.class);
+
+    private static final String POSTGRES_LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END""";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long maxLagMs;
+    private final ScheduledExecutorService executor;
+
+    public ReplicaHealthChecker(ReplicaRoutingDataSource routingDataSource, long intervalMs, long maxLagMs) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagMs = maxLagMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!routingDataSource.getReplicas().isEmpty()) {
+            executor.scheduleWithFixedDelay(this::checkAll, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void checkAll() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            boolean wasUp = replica.isUsable();
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement()) {
+                long lagMs = 0;
+                if ("PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                    try (ResultSet rs = statement.executeQuery(POSTGRES_LAG_SQL)) {
+                        lagMs = rs.next() ? rs.getLong(1) : 0;
+                    }
+                } else if (!connection.isValid(2)) {
+                    throw new SQLException("Connection validation failed");
+                }
+                boolean healthy = lagMs <= maxLagMs;
+                replica.update(healthy, lagMs);
+                if (wasUp != healthy) {
+                    log.warn("Replica {} is now {} (lag {} ms, max {} ms).", replica.name(), healthy ? "in rotation" : "out of rotation", lagMs, maxLagMs);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.update(false, replica.lagMs());
+                if (wasUp) {
+                    log.warn("Replica {} failed health check: {}", replica.name(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,39 @@
+package com.constructionhub.authentication.datasource;
+
+/**
+ * Thread-bound override that pins reads to the primary.
+ *
+ * EN: For reads that must see a write not yet replicated; scopes nest until the outermost one closes.
+ * PT: Para leituras que precisam ver uma escrita ainda não replicada; escopos aninham até o mais externo fechar.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static final Scope NO_OP = () -> { };
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_DEPTH.get()[0] > 0;
+    }
+
+    /** Forces the primary until the returned scope is closed / Força o primário até o escopo ser fechado */
+    public static Scope forcePrimary() {
+        int[] depth = PRIMARY_DEPTH.get();
+        depth[0]++;
+        return () -> depth[0]--;
+    }
+
+    public static Scope forcePrimaryIf(boolean condition) {
+        return condition ? forcePrimary() : NO_OP;
+    }
+
+    /** AutoCloseable without checked exceptions, for try-with-resources / AutoCloseable sem exceções verificadas */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
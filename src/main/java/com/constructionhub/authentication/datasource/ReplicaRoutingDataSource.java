@@ -0,0 +1,201 @@
+package com.constructionhub.authentication.datasource;
+
+import com.constructionhub.authentication.bulkhead.BulkheadContext;
+import com.constructionhub.authentication.bulkhead.RouteClass;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to healthy replicas and everything else to the primary.
+ *
+ * EN: Must be wrapped in a LazyConnectionDataSourceProxy, since the read-only flag is bound after the
+ * connection is requested. A refused replica connection falls back to the primary.
+ * PT: Deve ser envolvido por um LazyConnectionDataSourceProxy, pois o flag read-only é vinculado depois
+ * de a conexão ser pedida. Uma conexão recusada pela réplica volta para o primário.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final Map<RouteClass, HikariDataSource> primaryPartitions;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, Map<RouteClass, HikariDataSource> primaryPartitions,
+                                    List<HikariDataSource> replicaPools, ReadYourWritesTracker readYourWrites,
+                                    MeterRegistry registry) {
+        this.primary = primary;
+        this.primaryPartitions = primaryPartitions.isEmpty() ? Map.of() : new EnumMap<>(primaryPartitions);
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.name(), replica.dataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        this.primaryRoutes = routeCounter(registry, "primary");
+        this.replicaRoutes = routeCounter(registry, "replica");
+        this.fallbackRoutes = routeCounter(registry, "fallback");
+        for (Replica replica : replicas) {
+            Gauge.builder("auth.datasource.replica.up", replica, r -> r.isUsable() ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .register(registry);
+            Gauge.builder("auth.datasource.replica.lag", replica, Replica::lagMs)
+                    .tag("replica", replica.name())
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * The primary pool, its route class partitions and the replica pools.
+     * O pool primário, suas partições por classe de rota e os pools de réplica.
+     */
+    public List<HikariDataSource> getPools() {
+        List<HikariDataSource> pools = new ArrayList<>(replicas.size() + primaryPartitions.size() + 1);
+        pools.add(primary);
+        pools.addAll(primaryPartitions.values());
+        replicas.forEach(replica -> pools.add(replica.dataSource()));
+        return pools;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = chooseReplica();
+        return replica != null ? replica.name() : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = chooseReplica();
+        if (replica == null) {
+            if (!replicas.isEmpty() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                // Escrita em andamento: as próximas leituras deste principal vão ao primário por um tempo
+                readYourWrites.markCurrentPrincipalAfterCommit();
+            }
+            primaryRoutes.increment();
+            return primaryForCurrentRoute().getConnection();
+        }
+        try {
+            Connection connection = replica.dataSource().getConnection();
+            replicaRoutes.increment();
+            return connection;
+        } catch (SQLException e) {
+            replica.markDown();
+            log.warn("Replica {} unavailable, falling back to primary: {}", replica.name(), e.getMessage());
+            fallbackRoutes.increment();
+            return primaryForCurrentRoute().getConnection();
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource().close());
+        primaryPartitions.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private HikariDataSource primaryForCurrentRoute() {
+        if (primaryPartitions.isEmpty()) {
+            return primary;
+        }
+        RouteClass routeClass = BulkheadContext.current();
+        HikariDataSource partition = routeClass != null ? primaryPartitions.get(routeClass) : null;
+        return partition != null ? partition : primary;
+    }
+
+    private Replica chooseReplica() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRoutingContext.isPrimaryForced()
+                || readYourWrites.requiresPrimaryForCurrentPrincipal()) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isUsable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, String target) {
+        return Counter.builder("auth.datasource.routes")
+                .description("Connections handed out by the routing DataSource, by target")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    /**
+     * A replica pool and its last known state / Um pool de réplica e seu último estado conhecido.
+     */
+    static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean up = true;
+        private volatile long lagMs;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+
+        HikariDataSource dataSource() {
+            return dataSource;
+        }
+
+        boolean isUsable() {
+            return up;
+        }
+
+        long lagMs() {
+            return lagMs;
+        }
+
+        void markDown() {
+            up = false;
+        }
+
+        void update(boolean healthy, long lagMs) {
+            this.lagMs = lagMs;
+            this.up = healthy;
+        }
+    }
+}
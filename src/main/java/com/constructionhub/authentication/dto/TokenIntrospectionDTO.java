@@ -0,0 +1,41 @@
+package com.constructionhub.authentication.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Token introspection result, following the field names of RFC 7662.
+ *
+ * EN: An inactive token (unknown, expired, revoked or malformed) yields only active=false, without
+ * saying why.
+ * PT: Um token inativo (desconhecido, expirado, revogado ou malformado) gera apenas active=false, sem
+ * dizer o motivo.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionDTO {
+
+    private boolean active;
+    private String sub;
+    private String username;
+    private UUID userId;
+    private List<String> roles;
+    private List<String> permissions;
+    private Long iat;
+    private Long exp;
+    private String jti;
+    private String tokenFormat; // "jwt" ou "opaque"
+
+    public static TokenIntrospectionDTO inactive() {
+        return new TokenIntrospectionDTO();
+    }
+}
@@ -0,0 +1,19 @@
+package com.constructionhub.authentication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchRequestDTO {
+
+    private List<UUID> ids;
+    private List<String> usernames; // Sem diferenciar maiúsculas, como no login
+}
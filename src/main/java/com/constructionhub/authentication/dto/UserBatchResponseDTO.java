@@ -0,0 +1,21 @@
+package com.constructionhub.authentication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchResponseDTO {
+
+    private Map<UUID, UserSummaryDTO> users; // Encontrados por id ou username, na ordem do pedido
+    private List<UUID> unknownIds;
+    private List<String> unknownUsernames;
+}
@@ -0,0 +1,10 @@
+package com.constructionhub.authentication.dto;
+
+import java.util.UUID;
+
+/**
+ * Display fields of a user, read straight into this record by the batch lookup queries.
+ * Campos de exibição de um usuário, lidos direto neste record pelas consultas da busca em lote.
+ */
+public record UserSummaryDTO(UUID id, String username, String firstName, String lastName, boolean enabled) {
+}
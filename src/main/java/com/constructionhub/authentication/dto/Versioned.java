@@ -0,0 +1,12 @@
+package com.constructionhub.authentication.dto;
+
+/**
+ * A response body together with the ETag of the entity version it was read from.
+ *
+ * EN: Both come from the same entity load, so a 200 never carries an ETag of a different version
+ * than its body, even when the row is updated between the version-only check and the full read.
+ * PT: Os dois vêm da mesma carga da entidade, então um 200 nunca leva um ETag de uma versão diferente
+ * da do corpo, mesmo quando a linha é atualizada entre a checagem só da versão e a leitura completa.
+ */
+public record Versioned<T>(T body, String etag) {
+}
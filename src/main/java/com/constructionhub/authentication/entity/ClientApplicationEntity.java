@@ -1,5 +1,6 @@
 package com.constructionhub.authentication.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,8 +19,8 @@ import java.util.UUID;
 @AllArgsConstructor
 @Entity
 @Table(name = "client_applications", uniqueConstraints = {
-    @UniqueConstraint(columnNames = "clientId", name = "uk_clientapp_clientid"),
-    @UniqueConstraint(columnNames = "applicationName", name = "uk_clientapp_appname")
+    @UniqueConstraint(columnNames = "client_id", name = "uk_clientapp_clientid"), // Nome da coluna, não do atributo
+    @UniqueConstraint(columnNames = "application_name", name = "uk_clientapp_appname")
 })
 public class ClientApplicationEntity {
 
@@ -77,12 +78,23 @@ public class ClientApplicationEntity {
     @Column(name = "enabled", nullable = false)
     private boolean enabled = true;
 
+    @Column(name = "token_quota_per_minute") // Tokens emitidos por minuto; null = padrão, 0 = sem limite
+    private Integer tokenQuotaPerMinute;
+
+    @Column(name = "token_quota_burst") // Rajada máxima acima do ritmo; null = padrão
+    private Integer tokenQuotaBurst;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version // Incrementada a cada atualização (inclusive das coleções); usada nos ETags
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = updatedAt = LocalDateTime.now();
@@ -1,5 +1,6 @@
 package com.constructionhub.authentication.entity;
 
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
 import com.constructionhub.authentication.repository.RoleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -12,6 +13,9 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private AuthorizationSnapshotHolder authorizationSnapshots;
+
     @Override
     public void run(String... args) {
         // Verifica se a role "ROLE_USER" existe. Se não, cria.
@@ -29,5 +33,8 @@ public class DataLoader implements CommandLineRunner {
             adminRole.setDescription("Administrador");
             roleRepository.save(adminRole);
         }
+
+        // Snapshot inicial de roles/permissões, com as roles padrão já garantidas
+        authorizationSnapshots.rebuild();
     }
 }
\ No newline at end of file
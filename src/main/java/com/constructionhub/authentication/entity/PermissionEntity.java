@@ -1,10 +1,13 @@
 package com.constructionhub.authentication.entity;
 
+import com.constructionhub.authentication.authorization.AuthorizationChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects; // Importar
 import java.util.UUID;
@@ -14,6 +17,8 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(AuthorizationChangeListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "auth.permissions")
 @Table(name = "permissions", uniqueConstraints = {
     @UniqueConstraint(columnNames = "name", name = "uk_permission_name")
 })
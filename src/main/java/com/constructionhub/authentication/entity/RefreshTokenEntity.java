@@ -0,0 +1,105 @@
+package com.constructionhub.authentication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A refresh token family: one login session and its current refresh handle.
+ *
+ * EN: Only the SHA-256 of the current handle (and of the previous one) is stored. The family id is
+ * part of the handle, so a refresh is a primary-key lookup. Profile fields and role names are a
+ * snapshot taken at login, used to mint access tokens without loading the user; snapshotStale
+ * forces a reload after the user changes. Rows are written through RefreshTokenRepository's
+ * compare-and-set updates, never by dirty checking.
+ * PT: Só o SHA-256 do handle atual (e do anterior) é guardado. O id da família faz parte do handle,
+ * então um refresh é uma busca pela chave primária. Os campos de perfil e os nomes das roles são um
+ * snapshot tirado no login, usado para emitir tokens de acesso sem carregar o usuário; snapshotStale
+ * força uma recarga depois que o usuário muda. As linhas são gravadas pelos updates compare-and-set
+ * do RefreshTokenRepository, nunca por dirty checking.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"tokenHash", "previousHash"})
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+    @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+public class RefreshTokenEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "family_id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID familyId; // Atribuído pelo serviço: vai dentro do handle
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "previous_hash", length = 64)
+    private String previousHash;
+
+    @Column(name = "user_id", nullable = false, columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "username", nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "email", nullable = false, length = 100)
+    private String email;
+
+    @Column(name = "first_name", length = 50)
+    private String firstName;
+
+    @Column(name = "last_name", length = 50)
+    private String lastName;
+
+    @Column(name = "roles", nullable = false, length = 1000)
+    private String roles; // Nomes separados por vírgula
+
+    @Column(name = "snapshot_stale", nullable = false)
+    private boolean snapshotStale;
+
+    @Column(name = "generation", nullable = false)
+    private int generation;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "rotated_at")
+    private Instant rotatedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Id atribuído: sem isto o save() faria um SELECT (merge) antes do INSERT
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public UUID getId() {
+        return familyId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
@@ -1,10 +1,13 @@
 package com.constructionhub.authentication.entity;
 
+import com.constructionhub.authentication.authorization.AuthorizationChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects; // Importar
@@ -16,6 +19,8 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(AuthorizationChangeListener.class) // Reconstrói o snapshot de autorização após commit
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "auth.roles") // Dados de referência, raramente alterados
 @Table(name = "roles", uniqueConstraints = {
     @UniqueConstraint(columnNames = "name", name = "uk_role_name")
 })
@@ -36,6 +41,7 @@ public class RoleEntity {
     @JoinTable(name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id", foreignKey = @ForeignKey(name = "fk_roleperm_role")),
             inverseJoinColumns = @JoinColumn(name = "permission_id", foreignKey = @ForeignKey(name = "fk_roleperm_permission")))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "auth.role-permissions")
     @Builder.Default
     private Set<PermissionEntity> permissions = new HashSet<>();
 
@@ -1,22 +1,30 @@
 package com.constructionhub.authentication.entity;
 
+import com.constructionhub.authentication.authorization.GrantedAuthorityInterner;
+import com.constructionhub.authentication.authorization.ResolvedAuthorities;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 /**
  * Entity class representing a user in the system.
@@ -138,6 +146,30 @@ public class UserEntity implements UserDetails { // Implementa UserDetails para
     @Column(name = "credentials_non_expired", nullable = false)
     private boolean credentialsNonExpired = true;
 
+    /**
+     * Login activity and temporary lockout.
+     *
+     * EN: Written only by LoginActivityRecorder in batched JDBC updates, hence read-only here: a JPA
+     * update of the user never overwrites them with stale values. Lockout decisions are made from the
+     * recorder's in-memory state; lockedUntil lets a lockout flushed by another instance apply too.
+     * PT: Gravados apenas pelo LoginActivityRecorder em updates JDBC em lote, por isso somente leitura
+     * aqui: um update JPA do usuário nunca os sobrescreve com valores antigos. As decisões de bloqueio
+     * são tomadas pelo estado em memória do recorder; lockedUntil faz valer também um bloqueio gravado
+     * por outra instância.
+     */
+    @Column(name = "last_login_at", insertable = false, updatable = false)
+    private Instant lastLoginAt;
+
+    @Column(name = "last_failed_login_at", insertable = false, updatable = false)
+    private Instant lastFailedLoginAt;
+
+    @ColumnDefault("0") // Para o schema gerado pelo Hibernate (H2 nos perfis de teste)
+    @Column(name = "failed_login_attempts", nullable = false, insertable = false, updatable = false)
+    private int failedLoginAttempts;
+
+    @Column(name = "locked_until", insertable = false, updatable = false)
+    private Instant lockedUntil;
+
     /**
      * Set of roles assigned to the user.
      * 
@@ -151,6 +183,28 @@ public class UserEntity implements UserDetails { // Implementa UserDetails para
     @Builder.Default
     private Set<RoleEntity> roles = new HashSet<>();
 
+    /**
+     * Authorities resolved from the authorization snapshot.
+     *
+     * EN: Set by UserDetailsServiceImpl after loading the user; shared with every user holding the same
+     * roles. When absent, getAuthorities() falls back to walking the role and permission collections.
+     * PT: Definido pelo UserDetailsServiceImpl após carregar o usuário; compartilhado com todos os usuários
+     * que possuem as mesmas roles. Se ausente, getAuthorities() percorre as coleções de roles e permissões.
+     */
+    @Transient
+    @ToString.Exclude
+    private ResolvedAuthorities resolvedAuthorities;
+
+    /**
+     * Memoized fallback authorities; cleared by every change of the roles (setRoles, addRole, removeRoleIf).
+     * Autoridades memorizadas do fallback; limpas a cada alteração das roles (setRoles, addRole, removeRoleIf).
+     */
+    @Transient
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Set<GrantedAuthority> memoizedAuthorities;
+
     /**
      * Timestamp of when the user record was created.
      * 
@@ -169,6 +223,16 @@ public class UserEntity implements UserDetails { // Implementa UserDetails para
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Optimistic-lock version of the user record.
+     *
+     * EN: Incremented by Hibernate on every update, including role changes; used for ETags.
+     * PT: Incrementada pelo Hibernate a cada atualização, inclusive de roles; usada nos ETags.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Sets creation timestamp before persisting the entity.
      * 
@@ -201,19 +265,87 @@ public class UserEntity implements UserDetails { // Implementa UserDetails para
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // Coleta as roles e as permissões associadas a essas roles
-        // EN: Collects roles and permissions associated with those roles
-        Set<GrantedAuthority> authorities = roles.stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))
-                .collect(Collectors.toSet());
-
-        // Adiciona permissões individuais (se houver um campo direto de permissões no usuário)
-        // ou permissões das roles
-        // EN: Adds individual permissions from roles
-        roles.forEach(role -> role.getPermissions().forEach(permission ->
-            authorities.add(new SimpleGrantedAuthority(permission.getName()))
-        ));
-        return authorities;
+        if (resolvedAuthorities != null) {
+            return resolvedAuthorities.getAuthorities();
+        }
+        // Spring Security chama getAuthorities() várias vezes por requisição: reutiliza o conjunto
+        // até a próxima alteração das roles
+        // EN: Reuses the set until the roles change
+        Set<GrantedAuthority> memoized = memoizedAuthorities;
+        if (memoized != null) {
+            return memoized;
+        }
+
+        // Coleta as roles e as permissões associadas a essas roles (instâncias compartilhadas)
+        // EN: Collects roles and permissions associated with those roles (shared instances)
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (RoleEntity role : roles) {
+            authorities.add(GrantedAuthorityInterner.intern(role.getName()));
+            for (PermissionEntity permission : role.getPermissions()) {
+                authorities.add(GrantedAuthorityInterner.intern(permission.getName()));
+            }
+        }
+        memoized = Set.copyOf(authorities);
+        memoizedAuthorities = memoized;
+        return memoized;
+    }
+
+    /**
+     * Roles of the user, read-only: changes go through setRoles, addRole or removeRoleIf.
+     * Roles do usuário, somente leitura: alterações passam por setRoles, addRole ou removeRoleIf.
+     */
+    public Set<RoleEntity> getRoles() {
+        return Collections.unmodifiableSet(roles);
+    }
+
+    public void setRoles(Set<RoleEntity> roles) {
+        this.roles = roles;
+        memoizedAuthorities = null;
+    }
+
+    /**
+     * Adds a role and drops the memoized authorities.
+     * Adiciona uma role e descarta as autoridades memorizadas.
+     *
+     * @return false if the user already had the role
+     */
+    public boolean addRole(RoleEntity role) {
+        boolean added = roles.add(role);
+        if (added) {
+            memoizedAuthorities = null;
+        }
+        return added;
+    }
+
+    /**
+     * Removes the matching roles and drops the memoized authorities.
+     * Remove as roles correspondentes e descarta as autoridades memorizadas.
+     *
+     * @return false if no role matched
+     */
+    public boolean removeRoleIf(Predicate<RoleEntity> filter) {
+        boolean removed = roles.removeIf(filter);
+        if (removed) {
+            memoizedAuthorities = null;
+        }
+        return removed;
+    }
+
+    /**
+     * Detached copy of the user, for callers that must not share this instance.
+     *
+     * EN: Copies every column, the resolved authorities (immutable and shared by design) and the roles
+     * into a new set, so changes to the copy never reach this instance or other copies. The memoized
+     * fallback authorities are not copied; the copy rebuilds them if needed.
+     * PT: Copia todas as colunas, as autoridades resolvidas (imutáveis e compartilhadas por projeto) e
+     * as roles em um novo conjunto, para que alterações na cópia nunca cheguem a esta instância ou a
+     * outras cópias. As autoridades memorizadas do fallback não são copiadas; a cópia as recria se preciso.
+     */
+    public UserEntity copy() {
+        return new UserEntity(id, username, password, email, firstName, lastName, enabled,
+                accountNonExpired, accountNonLocked, credentialsNonExpired, lastLoginAt, lastFailedLoginAt,
+                failedLoginAttempts, lockedUntil, new HashSet<>(roles), resolvedAuthorities, null,
+                createdAt, updatedAt, version);
     }
 
     /**
@@ -245,14 +377,14 @@ public class UserEntity implements UserDetails { // Implementa UserDetails para
     /**
      * Indicates whether the user account is not locked.
      * 
-     * EN: Returns whether the user account is not locked.
-     * PT: Retorna se a conta do usuário não está bloqueada.
+     * EN: Returns whether the user account is not locked, administratively or by a temporary lockout.
+     * PT: Retorna se a conta do usuário não está bloqueada, administrativamente ou por um bloqueio temporário.
      * 
      * @return true if the account is not locked, false otherwise
      */
     @Override
     public boolean isAccountNonLocked() {
-        return accountNonLocked;
+        return accountNonLocked && (lockedUntil == null || !lockedUntil.isAfter(Instant.now()));
     }
 
     /**
@@ -26,6 +26,25 @@ public class ApiException extends RuntimeException {
         this.messageArgs = messageArgs;
     }
     
+    /**
+     * For expected failures (rejected tokens, bad credentials): no stack trace is captured.
+     * Para falhas esperadas (tokens rejeitados, credenciais inválidas): sem captura de stack trace.
+     */
+    protected ApiException(String messageCode, HttpStatus status, boolean writableStackTrace) {
+        super(messageCode, null, writableStackTrace, writableStackTrace);
+        this.status = status;
+        this.messageCode = messageCode;
+        this.messageArgs = null;
+    }
+
+    /**
+     * Stackless exception for an expected outcome of normal traffic.
+     * Exceção sem stack trace para um resultado esperado do tráfego normal.
+     */
+    public static ApiException expected(String messageCode, HttpStatus status) {
+        return new ApiException(messageCode, status, false);
+    }
+    
     public HttpStatus getStatus() {
         return status;
     }
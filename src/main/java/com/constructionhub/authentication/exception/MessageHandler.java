@@ -4,6 +4,10 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Component for handling message resolution and internationalization
  * Componente para tratamento de resolução e internacionalização de mensagens
@@ -12,6 +16,11 @@ import org.springframework.stereotype.Component;
 public class MessageHandler {
     
     private final MessageSource messageSource;
+    // O locale vem do Accept-Language do cliente: limita quantos são guardados
+    private static final int MAX_CACHED_LOCALES = 16;
+
+    // Mensagens sem argumentos por locale: resolvidas uma vez (falhas esperadas repetem sempre as mesmas)
+    private final Map<Locale, Map<String, String>> resolved = new ConcurrentHashMap<>();
     
     public MessageHandler(MessageSource messageSource) {
         this.messageSource = messageSource;
@@ -26,7 +35,18 @@ public class MessageHandler {
      * @return The resolved message / A mensagem resolvida
      */
     public String getMessage(String code, Object... args) {
-        return messageSource.getMessage(code, args, LocaleContextHolder.getLocale());
+        Locale locale = LocaleContextHolder.getLocale();
+        if (args == null || args.length == 0) {
+            Map<String, String> messages = resolved.get(locale);
+            if (messages == null && resolved.size() < MAX_CACHED_LOCALES) {
+                messages = resolved.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+            }
+            if (messages != null) {
+                return messages.computeIfAbsent(code, c -> messageSource.getMessage(c, null, c, locale));
+            }
+        }
+        // Código sem mensagem cadastrada: devolve o próprio código em vez de falhar o tratamento do erro
+        return messageSource.getMessage(code, args, code, locale);
     }
     
     /**
@@ -0,0 +1,105 @@
+package com.constructionhub.authentication.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-serialized ApiErrorResponse bodies for the failures security rejects before any controller.
+ *
+ * EN: The JSON for a (status, message code, locale) is rendered once, split around the timestamp, and
+ * cached as bytes; the timestamp itself is formatted at most once per second. Writing a 401/403 then
+ * costs no MessageSource lookup, no Jackson serialization and no per-request allocation beyond the
+ * servlet's own. The shape matches what GlobalExceptionHandler returns.
+ * PT: O JSON de um (status, código de mensagem, locale) é renderizado uma vez, dividido em torno do
+ * timestamp e guardado em bytes; o timestamp em si é formatado no máximo uma vez por segundo.
+ * Escrever um 401/403 então não custa consulta ao MessageSource, serialização Jackson nem alocação por
+ * requisição além da do próprio servlet. O formato é o mesmo retornado pelo GlobalExceptionHandler.
+ */
+@Component
+public class PrecomputedErrorBodies {
+
+    private static final String TIMESTAMP_PLACEHOLDER = "__timestamp__";
+    // Cada locale distinto (Accept-Language do cliente) gera entradas: limita o tamanho do cache
+    private static final int MAX_CACHED_BODIES = 256;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final MessageHandler messageHandler;
+    private final ObjectMapper objectMapper;
+    private final Map<BodyKey, Body> bodies = new ConcurrentHashMap<>();
+    private volatile Timestamp timestamp = new Timestamp(-1, new byte[0]);
+
+    public PrecomputedErrorBodies(MessageHandler messageHandler, ObjectMapper objectMapper) {
+        this.messageHandler = messageHandler;
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(HttpServletResponse response, HttpStatus status, String messageCode) throws IOException {
+        BodyKey key = new BodyKey(status, messageCode, LocaleContextHolder.getLocale());
+        Body body = bodies.get(key);
+        if (body == null) {
+            body = bodies.size() < MAX_CACHED_BODIES ? bodies.computeIfAbsent(key, this::render) : render(key);
+        }
+        byte[] now = currentTimestamp();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.prefix.length + now.length + body.suffix.length);
+        ServletOutputStream out = response.getOutputStream();
+        out.write(body.prefix);
+        out.write(now);
+        out.write(body.suffix);
+        out.flush();
+    }
+
+    private Body render(BodyKey key) {
+        // Mesma ordem de campos que a serialização de ApiErrorResponse
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", key.status().value());
+        fields.put("error", key.status().getReasonPhrase());
+        fields.put("message", messageHandler.getMessage(key.messageCode()));
+        fields.put("details", null);
+        fields.put("timestamp", TIMESTAMP_PLACEHOLDER);
+        try {
+            String json = objectMapper.writeValueAsString(fields);
+            int at = json.indexOf('"' + TIMESTAMP_PLACEHOLDER + '"');
+            return new Body(json.substring(0, at).getBytes(StandardCharsets.UTF_8),
+                    json.substring(at + TIMESTAMP_PLACEHOLDER.length() + 2).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot render error body for " + key, e);
+        }
+    }
+
+    private byte[] currentTimestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        Timestamp current = timestamp;
+        if (current.second != second) {
+            String formatted = '"' + LocalDateTime.now().format(TIMESTAMP_FORMAT) + '"';
+            current = new Timestamp(second, formatted.getBytes(StandardCharsets.UTF_8));
+            timestamp = current;
+        }
+        return current.json;
+    }
+
+    private record BodyKey(HttpStatus status, String messageCode, Locale locale) {
+    }
+
+    private record Body(byte[] prefix, byte[] suffix) {
+    }
+
+    private record Timestamp(long second, byte[] json) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.constructionhub.authentication.heavyhitter;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-Min sketch: approximate per-key counts in fixed memory.
+ *
+ * EN: Never undercounts; overcounts by at most e/width of the total with probability 1 - e^-depth.
+ * PT: Nunca conta a menos; conta a mais no máximo e/width do total com probabilidade 1 - e^-depth.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicIntegerArray counters;
+
+    CountMinSketch(int depth, int width) {
+        this.depth = Math.max(1, depth);
+        int rounded = Integer.highestOneBit(Math.max(16, width));
+        this.width = rounded < width ? rounded << 1 : rounded;
+        this.counters = new AtomicIntegerArray(this.depth * this.width);
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * Counts one occurrence and returns the new estimate of the key.
+     * Conta uma ocorrência e devolve a nova estimativa da chave.
+     */
+    long add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.incrementAndGet(row * width + ((h1 + row * h2) & (width - 1))));
+        }
+        return min;
+    }
+
+    long estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(row * width + ((h1 + row * h2) & (width - 1))));
+        }
+        return min;
+    }
+
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    /**
+     * 64-bit hash of a key (FNV-1a followed by the MurmurHash3 finalizer); String.hashCode has only 32 bits.
+     * Hash de 64 bits de uma chave (FNV-1a seguido do finalizador do MurmurHash3); String.hashCode tem só 32 bits.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
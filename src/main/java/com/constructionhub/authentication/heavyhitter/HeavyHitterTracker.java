@@ -0,0 +1,181 @@
+package com.constructionhub.authentication.heavyhitter;
+
+import com.constructionhub.authentication.quota.ClientQuotaFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heavy hitters of login and token traffic by username, client IP and verified client application.
+ * Heavy hitters do tráfego de login e de tokens por username, IP do cliente e aplicação cliente verificada.
+ */
+@Component
+public class HeavyHitterTracker {
+
+    enum TrafficStream {
+        LOGIN_ATTEMPTS("login-attempts"),
+        LOGIN_FAILURES("login-failures"),
+        TOKEN_VALIDATIONS("token-validations");
+
+        private final String key;
+
+        TrafficStream(String key) {
+            this.key = key;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        static TrafficStream fromKey(String key) {
+            for (TrafficStream stream : values()) {
+                if (stream.key.equals(key)) {
+                    return stream;
+                }
+            }
+            return null;
+        }
+    }
+
+    enum Dimension {
+        USERNAME("username"),
+        IP("ip"),
+        CLIENT("client");
+
+        private final String key;
+
+        Dimension(String key) {
+            this.key = key;
+        }
+
+        String getKey() {
+            return key;
+        }
+    }
+
+    private final boolean enabled;
+    private final long windowSeconds;
+    private final int topK;
+    private final Map<TrafficStream, Map<Dimension, WindowedTopK>> windows = new EnumMap<>(TrafficStream.class);
+
+    public HeavyHitterTracker(@Value("${auth.heavy-hitters.enabled:true}") boolean enabled,
+                              @Value("${auth.heavy-hitters.top-k:10}") int topK,
+                              @Value("${auth.heavy-hitters.window-seconds:300}") long windowSeconds,
+                              @Value("${auth.heavy-hitters.buckets:5}") int buckets,
+                              @Value("${auth.heavy-hitters.sketch-depth:4}") int depth,
+                              @Value("${auth.heavy-hitters.sketch-width:2048}") int width) {
+        this.enabled = enabled;
+        this.windowSeconds = windowSeconds;
+        this.topK = topK;
+        if (!enabled) {
+            return;
+        }
+        long windowNanos = TimeUnit.SECONDS.toNanos(Math.max(1, windowSeconds));
+        for (TrafficStream stream : TrafficStream.values()) {
+            Map<Dimension, WindowedTopK> byDimension = new EnumMap<>(Dimension.class);
+            for (Dimension dimension : Dimension.values()) {
+                byDimension.put(dimension, new WindowedTopK(topK, windowNanos, buckets, depth, width));
+            }
+            windows.put(stream, byDimension);
+        }
+    }
+
+    /**
+     * Counts a login attempt of the current request, and a failure when it did not succeed.
+     * Conta uma tentativa de login da requisição atual, e uma falha quando não deu certo.
+     */
+    public void recordLogin(String username, boolean succeeded) {
+        if (!enabled) {
+            return;
+        }
+        HttpServletRequest request = currentRequest();
+        long now = System.nanoTime();
+        record(TrafficStream.LOGIN_ATTEMPTS, request, username, now);
+        if (!succeeded) {
+            record(TrafficStream.LOGIN_FAILURES, request, username, now);
+        }
+    }
+
+    /**
+     * Counts a bearer token validation; subject is null when the token was rejected.
+     * Conta uma validação de bearer token; subject é null quando o token foi rejeitado.
+     */
+    public void recordTokenValidation(HttpServletRequest request, String subject) {
+        if (enabled) {
+            record(TrafficStream.TOKEN_VALIDATIONS, request, subject, System.nanoTime());
+        }
+    }
+
+    /**
+     * Heavy hitters of every stream, by dimension.
+     * Heavy hitters de todos os fluxos, por dimensão.
+     */
+    Map<String, Object> report() {
+        Map<String, Object> streams = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        for (TrafficStream stream : windows.keySet()) {
+            streams.put(stream.getKey(), snapshot(stream, now));
+        }
+        return describe(streams);
+    }
+
+    /**
+     * Heavy hitters of one stream (login-attempts, login-failures or token-validations); null when unknown.
+     * Heavy hitters de um fluxo (login-attempts, login-failures ou token-validations); null se desconhecido.
+     */
+    Map<String, Object> report(String streamKey) {
+        TrafficStream stream = TrafficStream.fromKey(streamKey);
+        if (stream == null || !windows.containsKey(stream)) {
+            return null;
+        }
+        return describe(Map.of(stream.getKey(), snapshot(stream, System.nanoTime())));
+    }
+
+    private Map<String, Object> describe(Map<String, Object> streams) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", enabled);
+        report.put("windowSeconds", windowSeconds);
+        report.put("topK", topK);
+        report.put("streams", streams);
+        return report;
+    }
+
+    private Map<String, WindowedTopK.Snapshot> snapshot(TrafficStream stream, long now) {
+        Map<String, WindowedTopK.Snapshot> byDimension = new LinkedHashMap<>();
+        windows.get(stream).forEach((dimension, window) -> byDimension.put(dimension.getKey(), window.snapshot(now)));
+        return byDimension;
+    }
+
+    private void record(TrafficStream stream, HttpServletRequest request, String username, long now) {
+        Map<Dimension, WindowedTopK> byDimension = windows.get(stream);
+        if (username != null && !username.isBlank()) {
+            byDimension.get(Dimension.USERNAME).add(username.toLowerCase(Locale.ROOT), now);
+        }
+        if (request == null) {
+            return;
+        }
+        String ip = request.getRemoteAddr();
+        if (ip != null) {
+            byDimension.get(Dimension.IP).add(ip, now);
+        }
+        // Só o client id verificado pelo ClientQuotaFilter: o cabeçalho qualquer um troca ou copia
+        if (request.getAttribute(ClientQuotaFilter.VERIFIED_CLIENT_ATTRIBUTE) instanceof String client) {
+            byDimension.get(Dimension.CLIENT).add(client, now);
+        }
+    }
+
+    // O AuthService não recebe a requisição: lida do contexto da thread do Spring MVC
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest() : null;
+    }
+}
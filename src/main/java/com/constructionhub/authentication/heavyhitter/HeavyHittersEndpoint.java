@@ -0,0 +1,35 @@
+package com.constructionhub.authentication.heavyhitter;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint with the heavy hitters of login and token traffic (ADMIN only).
+ *
+ * EN: Counts are upper estimates, off by at most errorBound.
+ * PT: As contagens são estimativas para cima, com erro de no máximo errorBound.
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+public class HeavyHittersEndpoint {
+
+    private final HeavyHitterTracker tracker;
+
+    public HeavyHittersEndpoint(HeavyHitterTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public Map<String, Object> heavyHitters() {
+        return tracker.report();
+    }
+
+    @ReadOperation
+    public Map<String, Object> stream(@Selector String stream) {
+        return tracker.report(stream);
+    }
+}
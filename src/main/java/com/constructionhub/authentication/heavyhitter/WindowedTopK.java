@@ -0,0 +1,148 @@
+package com.constructionhub.authentication.heavyhitter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Top-K keys of one event stream over a sliding time window.
+ *
+ * EN: A ring of buckets, each with its own CountMinSketch and at most k candidate keys.
+ * PT: Um anel de buckets, cada um com seu próprio CountMinSketch e no máximo k chaves candidatas.
+ */
+final class WindowedTopK {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    /**
+     * One heavy hitter; count is an upper estimate.
+     * Um heavy hitter; count é uma estimativa para cima.
+     */
+    public record HeavyHitter(String key, long count) {
+    }
+
+    /**
+     * Top keys of the window, with the number of events and the maximum overcount of the estimates.
+     * Chaves do topo da janela, com o número de eventos e o erro máximo para cima das estimativas.
+     */
+    public record Snapshot(long total, long errorBound, List<HeavyHitter> top) {
+    }
+
+    private static final class Bucket {
+        final CountMinSketch sketch;
+        final Map<String, Long> candidates = new ConcurrentHashMap<>();
+        final LongAdder total = new LongAdder();
+        volatile long epoch = Long.MIN_VALUE;
+        volatile long floor; // Menor estimativa entre os candidatos quando cheio; 0 enquanto houver vaga
+
+        Bucket(int depth, int width) {
+            this.sketch = new CountMinSketch(depth, width);
+        }
+    }
+
+    private final Bucket[] buckets;
+    private final long bucketNanos;
+    private final int k;
+
+    WindowedTopK(int k, long windowNanos, int bucketCount, int depth, int width) {
+        this.k = Math.max(1, k);
+        this.buckets = new Bucket[Math.max(1, bucketCount)];
+        this.bucketNanos = Math.max(1, windowNanos / buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket(depth, width);
+        }
+    }
+
+    void add(String key, long nowNanos) {
+        String bounded = key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+        Bucket bucket = current(Math.floorDiv(nowNanos, bucketNanos));
+        long estimate = bucket.sketch.add(CountMinSketch.hash(bounded));
+        bucket.total.increment();
+        if (estimate <= bucket.floor) {
+            return; // Caso comum: longe do topo
+        }
+        if (bucket.candidates.computeIfPresent(bounded, (ignored, previous) -> Math.max(previous, estimate)) == null) {
+            offer(bucket, bounded, estimate);
+        }
+    }
+
+    Snapshot snapshot(long nowNanos) {
+        long epoch = Math.floorDiv(nowNanos, bucketNanos);
+        List<Bucket> live = new ArrayList<>(buckets.length);
+        Set<String> keys = new HashSet<>();
+        long total = 0;
+        for (Bucket bucket : buckets) {
+            long bucketEpoch = bucket.epoch;
+            if (bucketEpoch <= epoch && bucketEpoch > epoch - buckets.length) {
+                live.add(bucket);
+                keys.addAll(bucket.candidates.keySet());
+                total += bucket.total.sum();
+            }
+        }
+        List<HeavyHitter> top = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            long hash = CountMinSketch.hash(key);
+            long count = 0;
+            for (Bucket bucket : live) {
+                count += bucket.sketch.estimate(hash);
+            }
+            top.add(new HeavyHitter(key, count));
+        }
+        top.sort(Comparator.comparingLong(HeavyHitter::count).reversed());
+        int width = buckets[0].sketch.getWidth();
+        long errorBound = (long) Math.ceil(Math.E * total / width);
+        return new Snapshot(total, errorBound, List.copyOf(top.subList(0, Math.min(k, top.size()))));
+    }
+
+    private Bucket current(long epoch) {
+        Bucket bucket = buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+        if (bucket.epoch < epoch) {
+            synchronized (bucket) {
+                if (bucket.epoch < epoch) {
+                    // O bucket guardava uma volta antiga do anel: recomeça vazio
+                    bucket.sketch.clear();
+                    bucket.candidates.clear();
+                    bucket.total.reset();
+                    bucket.floor = 0;
+                    bucket.epoch = epoch;
+                }
+            }
+        }
+        return bucket;
+    }
+
+    private void offer(Bucket bucket, String key, long estimate) {
+        synchronized (bucket) {
+            Map<String, Long> candidates = bucket.candidates;
+            if (candidates.containsKey(key) || candidates.size() < k) {
+                candidates.merge(key, estimate, Math::max);
+            } else {
+                Map.Entry<String, Long> smallest = smallest(candidates);
+                if (smallest == null || estimate <= smallest.getValue()) {
+                    return;
+                }
+                candidates.remove(smallest.getKey());
+                candidates.put(key, estimate);
+            }
+            if (candidates.size() >= k) {
+                Map.Entry<String, Long> smallest = smallest(candidates);
+                bucket.floor = smallest != null ? smallest.getValue() : 0;
+            }
+        }
+    }
+
+    private static Map.Entry<String, Long> smallest(Map<String, Long> candidates) {
+        Map.Entry<String, Long> smallest = null;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) {
+                smallest = entry;
+            }
+        }
+        return smallest;
+    }
+}
@@ -0,0 +1,205 @@
+package com.constructionhub.authentication.invalidation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub channel that keeps per-instance caches coherent across instances.
+ *
+ * EN: Best effort; messages from this instance are ignored and caches keep their own TTL as a bound.
+ * PT: Melhor esforço; mensagens desta instância são ignoradas e os caches mantêm seu TTL como limite.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private static final char SEPARATOR = '|';
+
+    private final boolean enabled;
+    private final StringRedisTemplate redis;
+    private final String channel;
+    private final byte[] channelBytes;
+    private final String origin = UUID.randomUUID().toString(); // Identifica as mensagens desta instância
+    private final Map<InvalidationType, List<Consumer<String>>> listeners = new EnumMap<>(InvalidationType.class);
+    private final List<Runnable> resubscribeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private RedisMessageListenerContainer container;
+
+    public InvalidationBus(@Value("${auth.redis.enabled:false}") boolean enabled,
+                           @Value("${auth.redis.key-prefix:auth:}") String keyPrefix,
+                           StringRedisTemplate redis) {
+        this.enabled = enabled;
+        this.redis = redis;
+        this.channel = keyPrefix + "invalidation";
+        this.channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        for (InvalidationType type : InvalidationType.values()) {
+            listeners.put(type, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("Redis disabled (auth.redis.enabled=false): cache invalidation and token revocation stay local to this instance.");
+            return;
+        }
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redis.getRequiredConnectionFactory());
+        // Redis fora do ar na subida ou depois: tenta reassinar indefinidamente
+        container.setRecoveryBackoff(new FixedBackOff(5000, FixedBackOff.UNLIMITED_ATTEMPTS));
+        container.addMessageListener(new Receiver(), new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+        log.info("Invalidation bus listening on Redis channel '{}' as {}.", channel, origin);
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers a handler for messages of a type published by other instances.
+     * Registra um tratador para mensagens de um tipo publicadas por outras instâncias.
+     */
+    public void subscribe(InvalidationType type, Consumer<String> listener) {
+        listeners.get(type).add(listener);
+    }
+
+    /**
+     * Registers a hook run when the subscription is re-established (messages may have been lost).
+     * Registra um gancho executado quando a assinatura é restabelecida (mensagens podem ter se perdido).
+     */
+    public void onResubscribe(Runnable listener) {
+        resubscribeListeners.add(listener);
+    }
+
+    /**
+     * Publishes now; a Redis failure is logged and swallowed (caches fall back to their own expiry).
+     * Publica agora; uma falha do Redis é registrada e ignorada (os caches recaem na própria expiração).
+     */
+    public void broadcast(InvalidationType type, String key) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redis.convertAndSend(channel, encode(type, key));
+        } catch (DataAccessException e) {
+            log.warn("Could not publish {} invalidation for '{}': {}", type, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Appends the publication to an open connection, e.g. inside a pipeline that also writes the change.
+     * Acrescenta a publicação a uma conexão aberta, por exemplo dentro de um pipeline que também grava a alteração.
+     */
+    public void broadcast(RedisConnection connection, InvalidationType type, String key) {
+        connection.publish(channelBytes, encode(type, key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Publishes after the current transaction commits, or now if there is none.
+     * Publica após o commit da transação atual, ou agora se não houver.
+     */
+    public void broadcastAfterCommit(InvalidationType type, String key) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(type, key);
+                }
+            });
+        } else {
+            broadcast(type, key);
+        }
+    }
+
+    private String encode(InvalidationType type, String key) {
+        return type.name() + SEPARATOR + origin + SEPARATOR + (key != null ? key : "");
+    }
+
+    void receive(String body) {
+        int first = body.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : body.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            log.warn("Ignoring malformed invalidation message: {}", body);
+            return;
+        }
+        if (body.substring(first + 1, second).equals(origin)) {
+            return; // Publicada por esta instância, que já se invalidou
+        }
+        InvalidationType type;
+        try {
+            type = InvalidationType.valueOf(body.substring(0, first));
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring invalidation message of unknown type: {}", body); // Versão mais nova em rolling deploy
+            return;
+        }
+        String key = body.substring(second + 1);
+        log.debug("Received {} invalidation for '{}'.", type, key);
+        for (Consumer<String> listener : listeners.get(type)) {
+            try {
+                listener.accept(key);
+            } catch (RuntimeException e) {
+                log.error("Invalidation listener failed for {} '{}'.", type, key, e);
+            }
+        }
+    }
+
+    private final class Receiver implements MessageListener, SubscriptionListener {
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            receive(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onChannelSubscribed(byte[] subscribedChannel, long count) {
+            if (subscriptions.getAndIncrement() == 0) {
+                return; // Primeira assinatura: nada foi perdido
+            }
+            log.info("Resubscribed to Redis channel '{}'; dropping caches that may have missed invalidations.", channel);
+            for (Runnable listener : resubscribeListeners) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    log.error("Resubscribe hook failed.", e);
+                }
+            }
+        }
+    }
+}
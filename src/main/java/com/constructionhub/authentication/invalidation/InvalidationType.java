@@ -0,0 +1,21 @@
+package com.constructionhub.authentication.invalidation;
+
+/**
+ * Kinds of messages exchanged on the InvalidationBus.
+ *
+ * EN: The key carried by each message is described per constant.
+ * PT: A chave transportada por cada mensagem está descrita em cada constante.
+ */
+public enum InvalidationType {
+
+    /** User changed or deleted; key = user id / Usuário alterado ou removido; chave = id */
+    USER,
+    /** Client application changed or deleted; key = id / Aplicação cliente alterada ou removida; chave = id */
+    CLIENT_APP,
+    /** Roles or permissions changed; no key / Roles ou permissões alteradas; sem chave */
+    AUTHORIZATION,
+    /** Token revoked; key = jti:expiresAtMillis / Token revogado; chave = jti:expiraEmMillis */
+    TOKEN_REVOKED,
+    /** All tokens of a user issued before a cutoff revoked; key = userId:cutoffEpochSeconds */
+    USER_TOKENS_REVOKED
+}
@@ -0,0 +1,62 @@
+package com.constructionhub.authentication.invalidation;
+
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
+import com.constructionhub.authentication.entity.ClientApplicationEntity;
+import com.constructionhub.authentication.entity.PermissionEntity;
+import com.constructionhub.authentication.entity.RoleEntity;
+import com.constructionhub.authentication.entity.UserEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Applies invalidations received from other instances to this instance's caches.
+ *
+ * EN: Cache regions are evicted before the authorization snapshot is rebuilt.
+ * PT: As regiões de cache são esvaziadas antes da reconstrução do snapshot de autorização.
+ */
+@Component
+public class LocalCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalCacheInvalidator.class);
+
+    private final Cache cache;
+    private final AuthorizationSnapshotHolder authorizationSnapshots;
+
+    public LocalCacheInvalidator(InvalidationBus bus, EntityManagerFactory entityManagerFactory,
+                                 AuthorizationSnapshotHolder authorizationSnapshots) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.authorizationSnapshots = authorizationSnapshots;
+        bus.subscribe(InvalidationType.AUTHORIZATION, key -> authorizationChanged());
+        bus.subscribe(InvalidationType.USER, key -> evict(UserEntity.class, key));
+        bus.subscribe(InvalidationType.CLIENT_APP, key -> evict(ClientApplicationEntity.class, key));
+        bus.onResubscribe(this::evictAll);
+    }
+
+    void authorizationChanged() {
+        cache.evictEntityData(RoleEntity.class);
+        cache.evictEntityData(PermissionEntity.class);
+        cache.evictCollectionData(RoleEntity.class.getName() + ".permissions");
+        cache.evictQueryRegion("auth.role-by-name");
+        authorizationSnapshots.requestAsyncRebuild();
+    }
+
+    void evictAll() {
+        cache.evictEntityData(UserEntity.class);
+        cache.evictEntityData(ClientApplicationEntity.class);
+        authorizationChanged();
+    }
+
+    private void evict(Class<?> entityClass, String key) {
+        try {
+            cache.evictEntityData(entityClass, UUID.fromString(key));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring {} invalidation with invalid id '{}'.", entityClass.getSimpleName(), key);
+        }
+    }
+}
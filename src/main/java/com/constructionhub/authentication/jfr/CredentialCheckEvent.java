@@ -0,0 +1,29 @@
+package com.constructionhub.authentication.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a credential operation handled by AuthService.
+ *
+ * EN: Spans the whole login, registration or refresh, so it can be compared with the nested
+ * PasswordHash, UserLoad and TokenMint events of the same thread.
+ * PT: Cobre todo o login, registro ou refresh, permitindo comparar com os eventos PasswordHash,
+ * UserLoad e TokenMint aninhados na mesma thread.
+ */
+@Name("com.constructionhub.auth.CredentialCheck")
+@Label("Credential Check")
+@Category({"ConstructionHub", "Authentication"})
+@Description("Login, registration or token refresh handled by AuthService")
+@StackTrace(false)
+public class CredentialCheckEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,30 @@
+package com.constructionhub.authentication.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one BCrypt hash or verification.
+ *
+ * EN: Emitted by MeteredPasswordEncoder, which covers registration, password changes and the
+ * DaoAuthenticationProvider login path.
+ * PT: Emitido pelo MeteredPasswordEncoder, cobrindo registro, troca de senha e o login via
+ * DaoAuthenticationProvider.
+ */
+@Name("com.constructionhub.auth.PasswordHash")
+@Label("Password Hash")
+@Category({"ConstructionHub", "Authentication"})
+@Description("BCrypt password hashing or verification")
+@StackTrace(false)
+public class PasswordHashEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("encode or match")
+    public String operation;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,37 @@
+package com.constructionhub.authentication.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event covering the whole bearer authentication of one request.
+ *
+ * EN: Emitted by JwtAuthFilter; includes token verification and the user load.
+ * PT: Emitido pelo JwtAuthFilter; inclui a verificação do token e a carga do usuário.
+ */
+@Name("com.constructionhub.auth.RequestAuthentication")
+@Label("Request Authentication")
+@Category({"ConstructionHub", "Authentication"})
+@Description("Bearer token authentication of an incoming request")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RequestAuthenticationEvent extends jdk.jfr.Event {
+
+    @Label("Token Size")
+    @DataAmount(DataAmount.BYTES)
+    public int tokenSize;
+
+    @Label("Claim Count")
+    public int claimCount;
+
+    @Label("Authority Count")
+    public int authorityCount;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,39 @@
+package com.constructionhub.authentication.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the generation of an access/refresh token pair.
+ *
+ * EN: Emitted by JwtTokenProvider.generateTokens.
+ * PT: Emitido por JwtTokenProvider.generateTokens.
+ */
+@Name("com.constructionhub.auth.TokenMint")
+@Label("Token Mint")
+@Category({"ConstructionHub", "Authentication"})
+@Description("Generation of an access and refresh token pair")
+@StackTrace(false)
+public class TokenMintEvent extends jdk.jfr.Event {
+
+    @Label("Access Token Size")
+    @DataAmount(DataAmount.BYTES)
+    public int accessTokenSize;
+
+    @Label("Refresh Token Size")
+    @DataAmount(DataAmount.BYTES)
+    public int refreshTokenSize;
+
+    @Label("Role Count")
+    public int roleCount;
+
+    @Label("Permission Count")
+    public int permissionCount;
+
+    @Label("Outcome")
+    public String outcome;
+}
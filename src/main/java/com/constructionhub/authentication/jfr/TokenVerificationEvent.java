@@ -0,0 +1,34 @@
+package com.constructionhub.authentication.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for one bearer token signature and claims verification.
+ *
+ * EN: Emitted by JwtTokenProvider.getClaims.
+ * PT: Emitido por JwtTokenProvider.getClaims.
+ */
+@Name("com.constructionhub.auth.TokenVerification")
+@Label("Token Verification")
+@Category({"ConstructionHub", "Authentication"})
+@Description("Verification of a bearer token signature and claims")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TokenVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Token Size")
+    @DataAmount(DataAmount.BYTES)
+    public int tokenSize;
+
+    @Label("Claim Count")
+    public int claimCount;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,40 @@
+package com.constructionhub.authentication.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for loading a user by username or email.
+ *
+ * EN: Emitted by UserDetailsServiceImpl for every call, including the per-request load in JwtAuthFilter.
+ * PT: Emitido pelo UserDetailsServiceImpl em toda chamada, incluindo a carga por requisição do JwtAuthFilter.
+ */
+@Name("com.constructionhub.auth.UserLoad")
+@Label("User Load")
+@Category({"ConstructionHub", "Authentication"})
+@Description("Lookup of a user and its roles for authentication")
+@StackTrace(false)
+@Threshold("1 ms")
+public class UserLoadEvent extends jdk.jfr.Event {
+
+    @Label("Lookup")
+    @Description("Attribute that matched: username, email or none")
+    public String lookup;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+
+    @Label("Coalesced")
+    @Description("Result shared from a concurrent load of the same login instead of a query of its own")
+    public boolean coalesced;
+
+    @Label("Authority Count")
+    public int authorityCount;
+}
@@ -0,0 +1,137 @@
+package com.constructionhub.authentication.metrics;
+
+import com.constructionhub.authentication.revocation.RevocationLookup;
+import com.constructionhub.authentication.security.TokenOutcome;
+import com.constructionhub.authentication.security.UserLoadCoalescing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Named meters for the authentication pipeline.
+ *
+ * EN: All timers and counters are registered once at startup so the hot paths only record values.
+ * Histogram buckets and SLO boundaries are configured per meter name under
+ * management.metrics.distribution in application.yml.
+ *
+ * PT: Todos os timers e contadores são registrados uma única vez na inicialização, de modo que os
+ * caminhos críticos apenas registram valores. Buckets de histograma e limites de SLO são configurados
+ * por nome de métrica em management.metrics.distribution no application.yml.
+ */
+@Component
+public class AuthMetrics {
+
+    public static final String JWT_VERIFY = "auth.jwt.verify";
+    public static final String TOKEN_MINT = "auth.token.mint";
+    public static final String USER_LOAD = "auth.user.load";
+    public static final String USER_LOAD_COALESCING = "auth.user.load.coalescing";
+    public static final String PASSWORD_ENCODE = "auth.password.encode";
+    public static final String PASSWORD_MATCH = "auth.password.match";
+    public static final String FILTER_REQUESTS = "auth.filter.requests";
+    public static final String REVOCATION_LOOKUPS = "auth.revocation.lookups";
+
+    private final MeterRegistry registry;
+    private final Map<TokenOutcome, Timer> jwtVerifyTimers = new EnumMap<>(TokenOutcome.class);
+    private final Map<TokenOutcome, Counter> filterCounters = new EnumMap<>(TokenOutcome.class);
+    private final Map<RevocationLookup, Counter> revocationLookupCounters = new EnumMap<>(RevocationLookup.class);
+    private final Map<UserLoadCoalescing, Counter> userLoadCoalescingCounters = new EnumMap<>(UserLoadCoalescing.class);
+    private final Timer tokenMintTimer;
+    private final Timer userLoadFoundTimer;
+    private final Timer userLoadNotFoundTimer;
+    private final Timer passwordEncodeTimer;
+    private final Timer passwordMatchTimer;
+    private final Timer passwordMismatchTimer;
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (TokenOutcome outcome : TokenOutcome.values()) {
+            // Sem timer para resultados decididos fora da verificação da assinatura
+            if (outcome != TokenOutcome.ABSENT && outcome != TokenOutcome.USER_NOT_FOUND && outcome != TokenOutcome.REVOKED) {
+                jwtVerifyTimers.put(outcome, Timer.builder(JWT_VERIFY)
+                        .description("JWT signature and claims verification")
+                        .tag("outcome", outcome.getTag())
+                        .register(registry));
+            }
+            filterCounters.put(outcome, Counter.builder(FILTER_REQUESTS)
+                    .description("Requests seen by JwtAuthFilter, by authentication outcome")
+                    .tag("outcome", outcome.getTag())
+                    .register(registry));
+        }
+        for (RevocationLookup source : RevocationLookup.values()) {
+            revocationLookupCounters.put(source, Counter.builder(REVOCATION_LOOKUPS)
+                    .description("Token revocation checks against the shared store, by where they were answered")
+                    .tag("source", source.getTag())
+                    .register(registry));
+        }
+        for (UserLoadCoalescing result : UserLoadCoalescing.values()) {
+            userLoadCoalescingCounters.put(result, Counter.builder(USER_LOAD_COALESCING)
+                    .description("User loads by their role in single-flight coalescing of concurrent loads of the same login")
+                    .tag("result", result.getTag())
+                    .register(registry));
+        }
+        this.tokenMintTimer = Timer.builder(TOKEN_MINT)
+                .description("Access and refresh token generation")
+                .register(registry);
+        this.userLoadFoundTimer = userLoadTimer("found");
+        this.userLoadNotFoundTimer = userLoadTimer("not_found");
+        this.passwordEncodeTimer = Timer.builder(PASSWORD_ENCODE)
+                .description("BCrypt password hashing")
+                .register(registry);
+        this.passwordMatchTimer = passwordMatchTimer("match");
+        this.passwordMismatchTimer = passwordMatchTimer("mismatch");
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void recordJwtVerification(Timer.Sample sample, TokenOutcome outcome) {
+        sample.stop(jwtVerifyTimers.getOrDefault(outcome, jwtVerifyTimers.get(TokenOutcome.INVALID)));
+    }
+
+    public void recordTokenMint(Timer.Sample sample) {
+        sample.stop(tokenMintTimer);
+    }
+
+    public void recordUserLoad(Timer.Sample sample, boolean found) {
+        sample.stop(found ? userLoadFoundTimer : userLoadNotFoundTimer);
+    }
+
+    public void recordUserLoadCoalescing(UserLoadCoalescing result) {
+        userLoadCoalescingCounters.get(result).increment();
+    }
+
+    public void recordPasswordEncode(Timer.Sample sample) {
+        sample.stop(passwordEncodeTimer);
+    }
+
+    public void recordPasswordMatch(Timer.Sample sample, boolean matched) {
+        sample.stop(matched ? passwordMatchTimer : passwordMismatchTimer);
+    }
+
+    public void recordFilterOutcome(TokenOutcome outcome) {
+        filterCounters.get(outcome).increment();
+    }
+
+    public void recordRevocationLookup(RevocationLookup source) {
+        revocationLookupCounters.get(source).increment();
+    }
+
+    private Timer userLoadTimer(String result) {
+        return Timer.builder(USER_LOAD)
+                .description("User lookup by username or email in UserDetailsServiceImpl")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Timer passwordMatchTimer(String result) {
+        return Timer.builder(PASSWORD_MATCH)
+                .description("BCrypt password verification")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,268 @@
+package com.constructionhub.authentication.opaque;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table of opaque access tokens in a single direct (off-heap) buffer.
+ *
+ * EN: Every token is a fixed 128-byte slot keyed by the 128 random bits of its handle, so the heap
+ * holds only this object and the buffer reference no matter how many tokens are live, and the
+ * garbage collector never scans them. Keys are random, so the low bits of the key pick the home
+ * slot directly and linear probing keeps chains short at the fixed maximum load of 75%. Lookups are
+ * lock-free optimistic reads (StampedLock) retried under the read lock only when a write overlapped;
+ * writes take the write lock. Removal uses backward-shift deletion, so there are no tombstones, and
+ * an expired slot found while inserting is reused in place.
+ * PT: Cada token é um slot fixo de 128 bytes com chave nos 128 bits aleatórios do seu handle, então
+ * o heap guarda apenas este objeto e a referência do buffer, não importa quantos tokens estejam
+ * ativos, e o coletor de lixo nunca os percorre. As chaves são aleatórias, então os bits baixos da
+ * chave escolhem o slot inicial diretamente e a sondagem linear mantém as cadeias curtas na carga
+ * máxima fixa de 75%. Consultas são leituras otimistas sem lock (StampedLock), repetidas sob o lock
+ * de leitura só quando uma escrita se sobrepôs; escritas usam o lock de escrita. A remoção usa
+ * backward-shift deletion, então não há tombstones, e um slot expirado encontrado numa inserção é
+ * reaproveitado no lugar.
+ */
+final class OffHeapTokenTable {
+
+    static final int MAX_USERNAME_BYTES = 74;
+    static final int MAX_SLOTS = 1 << 23; // 1 GiB de buffer (~6,3 milhões de tokens): um ByteBuffer é indexado por int
+
+    private static final int SLOT_SIZE = 128;
+    // Layout do slot
+    private static final int KEY_HI = 0;
+    private static final int KEY_LO = 8;
+    private static final int EXPIRES_AT = 16; // epoch s
+    private static final int ISSUED_AT = 24; // epoch s
+    private static final int USER_MSB = 32;
+    private static final int USER_LSB = 40;
+    private static final int ROLE_SET = 48;
+    private static final int USERNAME_LENGTH = 52; // short
+    private static final int USERNAME = 54;
+
+    private static final int CHUNK_SLOTS = 4096; // Slots varridos por aquisição do lock em purgeExpired
+
+    private final ByteBuffer slots;
+    private final int mask;
+    private final int maxEntries;
+    private final StampedLock lock = new StampedLock();
+    private int size; // Slots ocupados, incluindo expirados ainda não removidos; guardado pelo lock de escrita
+
+    /**
+     * An entry read from the table; roleSet is an id from the caller's role-set dictionary.
+     * Uma entrada lida da tabela; roleSet é um id do dicionário de conjuntos de roles de quem chama.
+     */
+    record Entry(UUID userId, String username, int roleSet, long issuedAt, long expiresAt) {
+    }
+
+    /**
+     * @param maxEntries live tokens the table must hold; slots are sized for a 75% load
+     */
+    OffHeapTokenTable(int maxEntries) {
+        long wanted = Math.max(16L, (long) maxEntries * 4 / 3);
+        int slotCount = (int) Math.min(MAX_SLOTS, Long.highestOneBit(wanted - 1) << 1);
+        this.slots = ByteBuffer.allocateDirect(slotCount * SLOT_SIZE);
+        this.mask = slotCount - 1;
+        this.maxEntries = slotCount / 4 * 3;
+    }
+
+    int capacity() {
+        return maxEntries;
+    }
+
+    long sizeInBytes() {
+        return (long) slots.capacity();
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stores a token, reusing an expired slot of the probe chain when there is one.
+     * Guarda um token, reaproveitando um slot expirado da cadeia de sondagem quando houver.
+     *
+     * @return false when the table is full of live tokens
+     */
+    boolean put(long keyHi, long keyLo, UUID userId, byte[] username, int roleSet, long issuedAt, long expiresAt,
+                long nowSeconds) {
+        if (username.length > MAX_USERNAME_BYTES) {
+            throw new IllegalArgumentException("username longer than " + MAX_USERNAME_BYTES + " bytes");
+        }
+        long stamp = lock.writeLock();
+        try {
+            int index = home(keyLo);
+            for (int probes = 0; probes <= mask; probes++, index = (index + 1) & mask) {
+                int base = index * SLOT_SIZE;
+                boolean empty = isEmpty(base);
+                if (empty || slots.getLong(base + EXPIRES_AT) <= nowSeconds
+                        || (slots.getLong(base + KEY_HI) == keyHi && slots.getLong(base + KEY_LO) == keyLo)) {
+                    if (empty) {
+                        if (size >= maxEntries) {
+                            return false;
+                        }
+                        size++;
+                    }
+                    slots.putLong(base + KEY_HI, keyHi);
+                    slots.putLong(base + KEY_LO, keyLo);
+                    slots.putLong(base + EXPIRES_AT, expiresAt);
+                    slots.putLong(base + ISSUED_AT, issuedAt);
+                    slots.putLong(base + USER_MSB, userId.getMostSignificantBits());
+                    slots.putLong(base + USER_LSB, userId.getLeastSignificantBits());
+                    slots.putInt(base + ROLE_SET, roleSet);
+                    slots.putShort(base + USERNAME_LENGTH, (short) username.length);
+                    slots.put(base + USERNAME, username);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Looks a token up, expired or not; the caller decides what an expired entry means.
+     * Busca um token, expirado ou não; quem chama decide o que uma entrada expirada significa.
+     *
+     * @return the entry, or null when the key is not in the table
+     */
+    Entry get(long keyHi, long keyLo) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Entry entry = find(keyHi, keyLo);
+            if (lock.validate(stamp)) {
+                return entry;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(keyHi, keyLo);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Removes a token.
+     * Remove um token.
+     *
+     * @return whether the key was present
+     */
+    boolean remove(long keyHi, long keyLo) {
+        long stamp = lock.writeLock();
+        try {
+            int index = indexOf(keyHi, keyLo);
+            if (index < 0) {
+                return false;
+            }
+            delete(index);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every token expired at nowSeconds, a chunk of slots per lock acquisition so lookups and
+     * inserts are never held up for a whole pass.
+     * Remove todos os tokens expirados em nowSeconds, um bloco de slots por aquisição do lock para que
+     * consultas e inserções nunca esperem uma varredura inteira.
+     *
+     * @return how many tokens were removed
+     */
+    int purgeExpired(long nowSeconds) {
+        int removed = 0;
+        for (int start = 0; start <= mask; start += CHUNK_SLOTS) {
+            long stamp = lock.writeLock();
+            try {
+                int end = Math.min(start + CHUNK_SLOTS, mask + 1);
+                for (int index = start; index < end; index++) {
+                    int base = index * SLOT_SIZE;
+                    // O backward shift pode trazer outro expirado para o mesmo índice
+                    while (!isEmpty(base) && slots.getLong(base + EXPIRES_AT) <= nowSeconds) {
+                        delete(index);
+                        removed++;
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        return removed;
+    }
+
+    // Sob o lock (ou leitura otimista, validada por quem chama): os valores podem ser inconsistentes até a validação
+    private Entry find(long keyHi, long keyLo) {
+        int index = indexOf(keyHi, keyLo);
+        if (index < 0) {
+            return null;
+        }
+        int base = index * SLOT_SIZE;
+        int length = Math.min(Math.max(slots.getShort(base + USERNAME_LENGTH), 0), MAX_USERNAME_BYTES);
+        byte[] username = new byte[length];
+        slots.get(base + USERNAME, username);
+        return new Entry(new UUID(slots.getLong(base + USER_MSB), slots.getLong(base + USER_LSB)),
+                new String(username, StandardCharsets.UTF_8), slots.getInt(base + ROLE_SET),
+                slots.getLong(base + ISSUED_AT), slots.getLong(base + EXPIRES_AT));
+    }
+
+    private int indexOf(long keyHi, long keyLo) {
+        int index = home(keyLo);
+        for (int probes = 0; probes <= mask; probes++, index = (index + 1) & mask) {
+            int base = index * SLOT_SIZE;
+            long hi = slots.getLong(base + KEY_HI);
+            long lo = slots.getLong(base + KEY_LO);
+            if (hi == keyHi && lo == keyLo) {
+                return index;
+            }
+            if (hi == 0 && lo == 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion: puxa para o buraco as entradas seguintes cuja posição inicial não está entre o buraco e elas
+    private void delete(int index) {
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            int nextBase = next * SLOT_SIZE;
+            if (isEmpty(nextBase)) {
+                break;
+            }
+            int home = home(slots.getLong(nextBase + KEY_LO));
+            boolean homeBetween = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!homeBetween) {
+                copySlot(nextBase, hole * SLOT_SIZE);
+                hole = next;
+            }
+        }
+        int holeBase = hole * SLOT_SIZE;
+        slots.putLong(holeBase + KEY_HI, 0);
+        slots.putLong(holeBase + KEY_LO, 0);
+        size--;
+    }
+
+    private void copySlot(int from, int to) {
+        for (int offset = 0; offset < SLOT_SIZE; offset += Long.BYTES) {
+            slots.putLong(to + offset, slots.getLong(from + offset));
+        }
+    }
+
+    private boolean isEmpty(int base) {
+        return slots.getLong(base + KEY_HI) == 0 && slots.getLong(base + KEY_LO) == 0;
+    }
+
+    private int home(long keyLo) {
+        return (int) keyLo & mask;
+    }
+}
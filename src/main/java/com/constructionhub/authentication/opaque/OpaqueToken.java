@@ -0,0 +1,13 @@
+package com.constructionhub.authentication.opaque;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The claims behind an opaque access token; times are epoch seconds, as in a JWT.
+ * As claims por trás de um token de acesso opaco; os tempos são epoch em segundos, como em um JWT.
+ *
+ * @param jti id used by the revocation store, derived from the handle
+ */
+public record OpaqueToken(String jti, UUID userId, String username, List<String> roles, long issuedAt, long expiresAt) {
+}
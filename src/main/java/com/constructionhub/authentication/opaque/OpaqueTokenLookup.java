@@ -0,0 +1,27 @@
+package com.constructionhub.authentication.opaque;
+
+/**
+ * Where an opaque token lookup was answered; the "source" tag of auth.opaque.lookups.
+ * Onde uma consulta de token opaco foi respondida; a tag "source" de auth.opaque.lookups.
+ */
+public enum OpaqueTokenLookup {
+
+    /** Found in this instance's off-heap table / Encontrado na tabela off-heap desta instância */
+    LOCAL("local"),
+    /** Issued by another instance and read from Redis / Emitido por outra instância e lido do Redis */
+    REDIS("redis"),
+    /** Unknown handle / Handle desconhecido */
+    MISS("miss"),
+    /** Not local and Redis failed or is in its retry interval / Não local e o Redis falhou */
+    UNAVAILABLE("unavailable");
+
+    private final String tag;
+
+    OpaqueTokenLookup(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,383 @@
+package com.constructionhub.authentication.opaque;
+
+import com.constructionhub.authentication.config.JwtConfig;
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.revocation.RevocationStore;
+import com.constructionhub.authentication.security.TokenOutcome;
+import com.constructionhub.authentication.security.TokenRejectedException;
+import com.constructionhub.authentication.security.TokenSubject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional opaque access tokens: short random handles instead of JWTs.
+ *
+ * EN: With auth.opaque-token.enabled=true, access tokens are 22-character handles (128 random bits,
+ * base64url) instead of JWTs carrying every role and permission, for clients with tight header
+ * budgets. The claims live in an OffHeapTokenTable sized by auth.opaque-token.max-entries; role
+ * names are stored as an id into a small on-heap dictionary of distinct role combinations, and
+ * permissions are resolved from the current authorization snapshot when needed. When Redis is
+ * enabled, each token is also written to Redis under the SHA-256 of its handle, so another
+ * instance copies it into its own table on the first miss. Revocation goes through the
+ * RevocationStore with a jti derived from the handle, exactly like JWTs, including per-user
+ * cutoffs. When the table (or the dictionary) is full, JWTs are issued instead.
+ * PT: Com auth.opaque-token.enabled=true, os tokens de acesso são handles de 22 caracteres (128 bits
+ * aleatórios, base64url) em vez de JWTs com todas as roles e permissões, para clientes com pouco
+ * espaço de cabeçalho. As claims ficam em uma OffHeapTokenTable dimensionada por
+ * auth.opaque-token.max-entries; os nomes das roles são guardados como um id de um pequeno
+ * dicionário em heap das combinações distintas de roles, e as permissões são resolvidas pelo
+ * snapshot de autorização atual quando necessário. Com o Redis ativo, cada token também é gravado no
+ * Redis sob o SHA-256 do seu handle, de modo que outra instância o copia para a própria tabela na
+ * primeira falta. A revogação passa pelo RevocationStore com um jti derivado do handle, exatamente
+ * como nos JWTs, incluindo os cortes por usuário. Com a tabela (ou o dicionário) cheia, são emitidos
+ * JWTs.
+ */
+@Service
+public class OpaqueTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(OpaqueTokenService.class);
+
+    private static final int HANDLE_LENGTH = 22; // base64url sem padding de 16 bytes
+    private static final int MAX_ROLE_SETS = 4096;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final boolean enabled;
+    private final JwtConfig jwtConfig;
+    private final RevocationStore revocationStore;
+    private final InvalidationBus invalidationBus;
+    private final StringRedisTemplate redis;
+    private final String redisKeyPrefix;
+    private final long sweepIntervalMs;
+    private final long redisRetryIntervalNanos;
+    private final OffHeapTokenTable table;
+    private final SecureRandom random = new SecureRandom();
+    private final List<List<String>> roleSets = new CopyOnWriteArrayList<>(); // id -> nomes das roles
+    private final Map<List<String>, Integer> roleSetIds = new ConcurrentHashMap<>();
+    private final Map<OpaqueTokenLookup, Counter> lookupCounters = new EnumMap<>(OpaqueTokenLookup.class);
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "opaque-token-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long redisRetryAt; // nanoTime; 0 = Redis disponível
+    private volatile boolean fullWarned;
+
+    public OpaqueTokenService(JwtConfig jwtConfig,
+                              RevocationStore revocationStore,
+                              InvalidationBus invalidationBus,
+                              StringRedisTemplate redis,
+                              MeterRegistry registry,
+                              @Value("${auth.opaque-token.enabled:false}") boolean enabled,
+                              @Value("${auth.opaque-token.max-entries:250000}") int maxEntries,
+                              @Value("${auth.opaque-token.sweep-interval-ms:60000}") long sweepIntervalMs,
+                              @Value("${auth.redis.key-prefix:auth:}") String keyPrefix,
+                              @Value("${auth.revocation.redis-retry-interval-ms:5000}") long redisRetryIntervalMs) {
+        this.enabled = enabled;
+        this.jwtConfig = jwtConfig;
+        this.revocationStore = revocationStore;
+        this.invalidationBus = invalidationBus;
+        this.redis = redis;
+        this.redisKeyPrefix = keyPrefix + "opaque:";
+        this.sweepIntervalMs = sweepIntervalMs;
+        this.redisRetryIntervalNanos = redisRetryIntervalMs * 1_000_000;
+        // O buffer só é alocado com o modo ativo; conta em -XX:MaxDirectMemorySize (padrão: o tamanho máximo do heap)
+        this.table = enabled ? new OffHeapTokenTable(maxEntries) : null;
+        if (table != null) {
+            Gauge.builder("auth.opaque.tokens", table, OffHeapTokenTable::size)
+                    .description("Opaque access tokens in the off-heap table, including expired ones not yet swept")
+                    .register(registry);
+            Gauge.builder("auth.opaque.capacity", table, OffHeapTokenTable::capacity)
+                    .description("Maximum opaque access tokens the off-heap table holds")
+                    .register(registry);
+            for (OpaqueTokenLookup source : OpaqueTokenLookup.values()) {
+                lookupCounters.put(source, Counter.builder("auth.opaque.lookups")
+                        .description("Opaque access token lookups, by where they were answered")
+                        .tag("source", source.getTag())
+                        .register(registry));
+            }
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (table != null) {
+            log.info("Opaque access tokens enabled: up to {} tokens in {} MiB of off-heap memory.",
+                    table.capacity(), table.sizeInBytes() >> 20);
+            if (sweepIntervalMs > 0) {
+                sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Tells an opaque access token from a JWT (or a refresh handle) by its shape.
+     * Distingue um token de acesso opaco de um JWT (ou de um refresh handle) pelo formato.
+     */
+    public static boolean isHandle(String token) {
+        return token != null && token.length() == HANDLE_LENGTH && token.indexOf('.') < 0;
+    }
+
+    /**
+     * Issues an opaque access token for the subject.
+     * Emite um token de acesso opaco para o subject.
+     *
+     * @return the handle, or null when opaque tokens are disabled or cannot be stored (the caller issues a JWT)
+     */
+    public String issue(TokenSubject subject) {
+        if (table == null) {
+            return null;
+        }
+        byte[] username = subject.username().getBytes(StandardCharsets.UTF_8);
+        Integer roleSet = roleSetId(subject.roles());
+        if (username.length > OffHeapTokenTable.MAX_USERNAME_BYTES || roleSet == null) {
+            return null;
+        }
+        long keyHi;
+        long keyLo;
+        do {
+            keyHi = random.nextLong();
+            keyLo = random.nextLong();
+        } while (keyHi == 0 && keyLo == 0); // Chave zero marca slot vazio
+        long now = System.currentTimeMillis() / 1000;
+        long expiresAt = now + jwtConfig.getValidityInMilliseconds() / 1000;
+        if (!table.put(keyHi, keyLo, subject.userId(), username, roleSet, now, expiresAt, now)) {
+            if (!fullWarned) {
+                fullWarned = true; // Um aviso por varredura
+                log.warn("Opaque token table is full ({} tokens); issuing JWTs until expired tokens are swept. "
+                        + "Raise auth.opaque-token.max-entries.", table.capacity());
+            }
+            return null;
+        }
+        byte[] key = ByteBuffer.allocate(16).putLong(keyHi).putLong(keyLo).array();
+        if (invalidationBus.isEnabled()) {
+            share(key, subject.userId(), subject.username(), subject.roles(), now, expiresAt);
+        }
+        return ENCODER.encodeToString(key);
+    }
+
+    /**
+     * Resolves an opaque access token that is known, unexpired and not revoked.
+     * Resolve um token de acesso opaco conhecido, não expirado e não revogado.
+     *
+     * @throws TokenRejectedException MALFORMED, INVALID (unknown), EXPIRED or REVOKED
+     */
+    public OpaqueToken resolve(String handle) {
+        long[] key = keyOf(handle);
+        if (key == null || table == null) {
+            throw TokenRejectedException.of(key == null ? TokenOutcome.MALFORMED : TokenOutcome.INVALID);
+        }
+        OffHeapTokenTable.Entry entry = table.get(key[0], key[1]);
+        OpaqueTokenLookup source = OpaqueTokenLookup.LOCAL;
+        if (entry == null) {
+            source = invalidationBus.isEnabled() ? loadShared(key) : OpaqueTokenLookup.MISS;
+            if (source == OpaqueTokenLookup.REDIS) {
+                entry = table.get(key[0], key[1]);
+            }
+        }
+        lookupCounters.get(source).increment();
+        if (entry == null) {
+            throw TokenRejectedException.of(TokenOutcome.INVALID);
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis() / 1000) {
+            throw TokenRejectedException.of(TokenOutcome.EXPIRED);
+        }
+        String jti = new UUID(key[0], key[1]).toString();
+        if (revocationStore.isRevoked(jti, entry.userId().toString(), new Date(entry.issuedAt() * 1000))) {
+            throw TokenRejectedException.of(TokenOutcome.REVOKED);
+        }
+        return new OpaqueToken(jti, entry.userId(), entry.username(), roleSets.get(entry.roleSet()),
+                entry.issuedAt(), entry.expiresAt());
+    }
+
+    /**
+     * Removes an opaque token from this instance and returns it so the caller can revoke its jti on
+     * every instance; null when the handle is unknown, expired or already revoked.
+     * Remove um token opaco desta instância e o devolve para que quem chama revogue seu jti em todas
+     * as instâncias; null quando o handle é desconhecido, expirado ou já revogado.
+     */
+    public OpaqueToken remove(String handle) {
+        OpaqueToken token;
+        try {
+            token = resolve(handle);
+        } catch (TokenRejectedException e) {
+            return null;
+        }
+        long[] key = keyOf(handle);
+        table.remove(key[0], key[1]);
+        return token;
+    }
+
+    private void sweep() {
+        try {
+            int removed = table.purgeExpired(System.currentTimeMillis() / 1000);
+            fullWarned = false;
+            if (removed > 0) {
+                log.debug("Swept {} expired opaque access tokens.", removed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to sweep expired opaque access tokens.", e);
+        }
+    }
+
+    // Null quando o limite de combinações distintas foi atingido
+    private Integer roleSetId(List<String> roles) {
+        Integer id = roleSetIds.get(roles);
+        if (id != null) {
+            return id;
+        }
+        synchronized (roleSets) {
+            id = roleSetIds.get(roles);
+            if (id == null && roleSets.size() < MAX_ROLE_SETS) {
+                List<String> copy = List.copyOf(roles);
+                id = roleSets.size();
+                roleSets.add(copy);
+                roleSetIds.put(copy, id);
+            }
+            return id;
+        }
+    }
+
+    private void share(byte[] key, UUID userId, String username, List<String> roles, long issuedAt, long expiresAt) {
+        long ttlMs = (expiresAt - issuedAt) * 1000;
+        byte[] value = encode(userId, username, roles, issuedAt, expiresAt);
+        try {
+            redis.execute((RedisCallback<Object>) connection -> connection.stringCommands()
+                    .set(sharedKey(key), value, Expiration.milliseconds(ttlMs), SetOption.upsert()));
+        } catch (DataAccessException e) {
+            // O token continua válido nesta instância; as demais o recusarão
+            log.error("Could not store opaque token in Redis; it only works on this instance: {}", e.getMessage());
+        }
+    }
+
+    // Copia para a tabela local um token emitido por outra instância
+    private OpaqueTokenLookup loadShared(long[] key) {
+        long now = System.nanoTime();
+        long retryAt = redisRetryAt;
+        if (retryAt != 0 && now - retryAt < 0) {
+            return OpaqueTokenLookup.UNAVAILABLE;
+        }
+        byte[] raw = ByteBuffer.allocate(16).putLong(key[0]).putLong(key[1]).array();
+        byte[] value;
+        try {
+            value = redis.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(sharedKey(raw)));
+        } catch (DataAccessException e) {
+            redisRetryAt = (now + redisRetryIntervalNanos) | 1; // Nunca 0
+            log.warn("Redis opaque token lookup failed; only local tokens are accepted for the next {} ms: {}",
+                    redisRetryIntervalNanos / 1_000_000, e.getMessage());
+            return OpaqueTokenLookup.UNAVAILABLE;
+        }
+        redisRetryAt = 0;
+        if (value == null) {
+            return OpaqueTokenLookup.MISS;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            UUID userId = new UUID(in.readLong(), in.readLong());
+            String username = in.readUTF();
+            int roleCount = in.readUnsignedShort();
+            List<String> roles = new ArrayList<>(roleCount);
+            for (int i = 0; i < roleCount; i++) {
+                roles.add(in.readUTF());
+            }
+            long issuedAt = in.readLong();
+            long expiresAt = in.readLong();
+            Integer roleSet = roleSetId(roles);
+            if (roleSet == null || !table.put(key[0], key[1], userId, username.getBytes(StandardCharsets.UTF_8), roleSet,
+                    issuedAt, expiresAt, System.currentTimeMillis() / 1000)) {
+                return OpaqueTokenLookup.MISS;
+            }
+            return OpaqueTokenLookup.REDIS;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring malformed opaque token record in Redis: {}", e.getMessage());
+            return OpaqueTokenLookup.MISS;
+        }
+    }
+
+    // Registro binário compacto no Redis (as roles vão por nome: os ids do dicionário são locais)
+    private static byte[] encode(UUID userId, String username, List<String> roles, long issuedAt, long expiresAt) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(userId.getMostSignificantBits());
+            out.writeLong(userId.getLeastSignificantBits());
+            out.writeUTF(username);
+            out.writeShort(roles.size());
+            for (String role : roles) {
+                out.writeUTF(role);
+            }
+            out.writeLong(issuedAt);
+            out.writeLong(expiresAt);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Não ocorre com ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    // O handle em si nunca é gravado no Redis
+    private byte[] sharedKey(byte[] key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key);
+            return (redisKeyPrefix + ENCODER.encodeToString(digest)).getBytes(StandardCharsets.UTF_8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long[] keyOf(String handle) {
+        if (!isHandle(handle)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(handle);
+            if (bytes.length != 16) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new long[]{buffer.getLong(), buffer.getLong()};
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
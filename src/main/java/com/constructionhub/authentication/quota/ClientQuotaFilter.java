@@ -0,0 +1,115 @@
+package com.constructionhub.authentication.quota;
+
+import com.constructionhub.authentication.bulkhead.RouteClass;
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import com.constructionhub.authentication.security.ClientCredentialVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client quotas on the token-issuing endpoints, charged only to verified client credentials.
+ * Cotas por cliente nos endpoints que emitem tokens, cobradas só de credenciais de cliente verificadas.
+ */
+@Component
+public class ClientQuotaFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientQuotaFilter.class);
+
+    /**
+     * Request attribute with the client id whose credentials were verified; absent otherwise.
+     * Atributo da requisição com o client id cujas credenciais foram verificadas; ausente caso contrário.
+     */
+    public static final String VERIFIED_CLIENT_ATTRIBUTE = ClientQuotaFilter.class.getName() + ".verifiedClientId";
+
+    private static final Set<String> TOKEN_ENDPOINTS = Set.of("/auth/login", "/auth/register", "/auth/refresh");
+
+    private final ClientQuotaRegistry registry;
+    private final ClientCredentialVerifier verifier;
+    private final PrecomputedErrorBodies errorBodies;
+    private final boolean enabled;
+    private final String header;
+
+    private record Charge(String bucket, GcraRateLimiter.Decision decision) {
+    }
+
+    public ClientQuotaFilter(ClientQuotaRegistry registry, ClientCredentialVerifier verifier,
+                             PrecomputedErrorBodies errorBodies,
+                             @Value("${auth.client-quota.enabled:true}") boolean enabled,
+                             @Value("${auth.client-quota.header:X-Client-Id}") String header) {
+        this.registry = registry;
+        this.verifier = verifier;
+        this.errorBodies = errorBodies;
+        this.enabled = enabled;
+        this.header = header;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod())
+                || !TOKEN_ENDPOINTS.contains(RouteClass.pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Charge charge = charge(request, System.nanoTime());
+        GcraRateLimiter.Decision decision = charge.decision();
+        GcraRateLimiter.Policy policy = decision.policy();
+        if (!policy.isUnlimited()) {
+            long windowSeconds = seconds(policy.emissionIntervalNanos() * Math.max(1, policy.burst()));
+            response.setHeader("RateLimit-Policy", policy.burst() + ";w=" + windowSeconds);
+            response.setHeader("RateLimit-Limit", Integer.toString(policy.burst()));
+            response.setHeader("RateLimit-Remaining", Long.toString(decision.remaining()));
+            response.setHeader("RateLimit-Reset", Long.toString(seconds(decision.resetNanos())));
+        }
+        if (!decision.allowed()) {
+            log.debug("Token quota exceeded for client {}", charge.bucket());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, seconds(decision.retryAfterNanos()))));
+            errorBodies.write(response, HttpStatus.TOO_MANY_REQUESTS, "error.rateLimited");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // Bucket do cliente só com credenciais verificadas (e cabeçalho igual, se enviado); senão o anônimo
+    private Charge charge(HttpServletRequest request, long now) {
+        ClientCredentialVerifier.ClientCredentials credentials =
+                ClientCredentialVerifier.fromAuthorization(request.getHeader(HttpHeaders.AUTHORIZATION));
+        String claimed = request.getHeader(header);
+        if (credentials == null || (claimed != null && !claimed.equals(credentials.clientId()))) {
+            return anonymous(now);
+        }
+        if (!verifier.isRemembered(credentials)) {
+            // Conferir o secret custa um BCrypt: limitado por um bucket próprio, não pelo dos usuários finais
+            Charge unverified = new Charge(ClientQuotaRegistry.UNVERIFIED, registry.unverifiedLimiter().tryAcquire(now));
+            if (!unverified.decision().allowed() || !verifier.verify(credentials)) {
+                return unverified;
+            }
+        }
+        request.setAttribute(VERIFIED_CLIENT_ATTRIBUTE, credentials.clientId());
+        return new Charge(credentials.clientId(), registry.limiterFor(credentials.clientId()).tryAcquire(now));
+    }
+
+    private Charge anonymous(long now) {
+        return new Charge(ClientQuotaRegistry.ANONYMOUS, registry.limiterFor(null).tryAcquire(now));
+    }
+
+    // Arredondado para cima: nunca anuncia uma espera menor que a real
+    private static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
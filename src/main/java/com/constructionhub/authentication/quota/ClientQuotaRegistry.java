@@ -0,0 +1,197 @@
+package com.constructionhub.authentication.quota;
+
+import com.constructionhub.authentication.datasource.ReplicaRoutingContext;
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.invalidation.InvalidationType;
+import com.constructionhub.authentication.repository.ClientAppRepository;
+import com.constructionhub.authentication.repository.ClientQuotaSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory token issuance quotas: one GcraRateLimiter per enabled client application, reloaded on change.
+ * Cotas de emissão de tokens em memória: um GcraRateLimiter por aplicação cliente ativa, recarregado a cada alteração.
+ */
+@Component
+public class ClientQuotaRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientQuotaRegistry.class);
+
+    static final String ANONYMOUS = "anonymous";
+    static final String UNVERIFIED = "unverified";
+
+    private static final String PENDING_RELOAD_KEY = ClientQuotaRegistry.class.getName() + ".pendingReload";
+
+    private final ClientAppRepository clientAppRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final GcraRateLimiter anonymous;
+    private final GcraRateLimiter unverified;
+    private final AtomicBoolean asyncReloadQueued = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "client-quotas");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Map<String, GcraRateLimiter> limiters = Map.of();
+
+    @Value("${auth.client-quota.default-per-minute:600}")
+    private int defaultPerMinute;
+
+    @Value("${auth.client-quota.default-burst:60}")
+    private int defaultBurst;
+
+    @Value("${auth.client-quota.refresh-interval-ms:60000}")
+    private long refreshIntervalMs;
+
+    public ClientQuotaRegistry(ClientAppRepository clientAppRepository, PlatformTransactionManager transactionManager,
+                               InvalidationBus invalidationBus, MeterRegistry meterRegistry,
+                               @Value("${auth.client-quota.anonymous-per-minute:0}") int anonymousPerMinute,
+                               @Value("${auth.client-quota.anonymous-burst:60}") int anonymousBurst,
+                               @Value("${auth.client-quota.unverified-per-minute:600}") int unverifiedPerMinute,
+                               @Value("${auth.client-quota.unverified-burst:60}") int unverifiedBurst) {
+        this.clientAppRepository = clientAppRepository;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // REQUIRES_NEW: a recarga pode rodar em afterCommit, quando a transação original ainda está vinculada
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.anonymous = newLimiter(ANONYMOUS, new GcraRateLimiter.Policy(anonymousPerMinute, anonymousBurst));
+        this.unverified = newLimiter(UNVERIFIED, new GcraRateLimiter.Policy(unverifiedPerMinute, unverifiedBurst));
+        invalidationBus.subscribe(InvalidationType.CLIENT_APP, key -> requestAsyncReload());
+        invalidationBus.onResubscribe(this::requestAsyncReload);
+    }
+
+    @PostConstruct
+    void scheduleReloads() {
+        requestAsyncReload();
+        if (refreshIntervalMs > 0) {
+            executor.scheduleWithFixedDelay(this::reloadQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Bucket of an authenticated client id; the shared anonymous bucket when null or not an enabled client.
+     * Bucket de um client id autenticado; o bucket anônimo compartilhado quando null ou não for um cliente ativo.
+     */
+    GcraRateLimiter limiterFor(String clientId) {
+        GcraRateLimiter limiter = clientId != null ? limiters.get(clientId) : null;
+        return limiter != null ? limiter : anonymous;
+    }
+
+    /**
+     * Bucket paid before checking client credentials not verified recently (each check is a BCrypt).
+     * Bucket pago antes de conferir credenciais de cliente não verificadas há pouco (cada conferência é um BCrypt).
+     */
+    GcraRateLimiter unverifiedLimiter() {
+        return unverified;
+    }
+
+    /**
+     * Reads the quotas of all enabled clients and swaps the map.
+     * Lê as cotas de todos os clientes ativos e troca o mapa.
+     */
+    public synchronized void reload() {
+        List<ClientQuotaSettings> settings;
+        // Disparado logo após um commit: uma réplica atrasada devolveria a cota antiga
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimary()) {
+            settings = readOnlyTransaction.execute(status -> clientAppRepository.findEnabledQuotaSettings());
+        }
+        Map<String, GcraRateLimiter> previous = limiters;
+        Map<String, GcraRateLimiter> next = new HashMap<>(settings.size() * 4 / 3 + 1);
+        for (ClientQuotaSettings setting : settings) {
+            GcraRateLimiter.Policy policy = new GcraRateLimiter.Policy(
+                    setting.perMinute() != null ? setting.perMinute() : defaultPerMinute,
+                    setting.burst() != null ? setting.burst() : defaultBurst);
+            GcraRateLimiter limiter = previous.get(setting.clientId());
+            if (limiter == null) {
+                limiter = newLimiter(setting.clientId(), policy);
+            } else if (!limiter.getPolicy().equals(policy)) {
+                limiter.setPolicy(policy);
+            }
+            next.put(setting.clientId(), limiter);
+        }
+        limiters = Map.copyOf(next);
+        log.debug("Loaded token quotas of {} client applications.", next.size());
+    }
+
+    /**
+     * Reloads once after the current transaction commits (coalesced per transaction), or now if there is none.
+     * Recarrega uma vez após o commit da transação atual (agrupado por transação), ou agora se não houver.
+     */
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadQuietly();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(PENDING_RELOAD_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PENDING_RELOAD_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reloadQuietly();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_RELOAD_KEY);
+            }
+        });
+    }
+
+    private void requestAsyncReload() {
+        if (asyncReloadQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                asyncReloadQueued.set(false);
+                reloadQuietly();
+            });
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Failed to reload client token quotas; keeping the current ones.", e);
+        }
+    }
+
+    // Contadores por cliente: limitados ao número de clientes cadastrados (mais o anônimo e o não verificado)
+    private GcraRateLimiter newLimiter(String clientId, GcraRateLimiter.Policy policy) {
+        return new GcraRateLimiter(policy, usageCounter(clientId, "allowed"), usageCounter(clientId, "throttled"));
+    }
+
+    private Counter usageCounter(String clientId, String result) {
+        return Counter.builder("auth.client.token.requests")
+                .description("Token issuance calls per client application, admitted or throttled by its quota")
+                .tag("client", clientId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.constructionhub.authentication.quota;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of one client, as a generic cell rate algorithm (GCRA).
+ *
+ * EN: The whole state is one AtomicLong (the theoretical arrival time), updated by compare-and-set.
+ * PT: Todo o estado é um AtomicLong (o tempo teórico de chegada), atualizado por compare-and-set.
+ */
+final class GcraRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    /**
+     * Rate and burst of a client; perMinute 0 = unlimited.
+     * Taxa e rajada de um cliente; perMinute 0 = sem limite.
+     */
+    record Policy(int perMinute, int burst) {
+
+        boolean isUnlimited() {
+            return perMinute <= 0;
+        }
+
+        long emissionIntervalNanos() {
+            return NANOS_PER_MINUTE / perMinute;
+        }
+    }
+
+    /**
+     * Outcome of one call; times in nanoseconds from now.
+     * Resultado de uma chamada; tempos em nanossegundos a partir de agora.
+     *
+     * @param remaining calls that could still be admitted right now
+     * @param resetNanos until the bucket is full again
+     * @param retryAfterNanos until the next call would be admitted (0 when allowed)
+     */
+    record Decision(boolean allowed, Policy policy, long remaining, long resetNanos, long retryAfterNanos) {
+    }
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    private final Counter allowed;
+    private final Counter throttled;
+    private volatile Policy policy;
+
+    GcraRateLimiter(Policy policy, Counter allowed, Counter throttled) {
+        this.policy = policy;
+        this.allowed = allowed;
+        this.throttled = throttled;
+    }
+
+    Policy getPolicy() {
+        return policy;
+    }
+
+    void setPolicy(Policy policy) {
+        this.policy = policy;
+    }
+
+    Decision tryAcquire(long nowNanos) {
+        Policy current = policy;
+        if (current.isUnlimited()) {
+            allowed.increment();
+            return new Decision(true, current, Long.MAX_VALUE, 0, 0);
+        }
+        long interval = current.emissionIntervalNanos();
+        long capacity = interval * Math.max(1, current.burst());
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = tat == Long.MIN_VALUE || tat - nowNanos < 0 ? nowNanos : tat;
+            long next = start + interval;
+            long used = next - nowNanos;
+            if (used > capacity) {
+                throttled.increment();
+                long backlog = tat - nowNanos;
+                return new Decision(false, current, 0, backlog, used - capacity);
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                allowed.increment();
+                return new Decision(true, current, (capacity - used) / interval, used, 0);
+            }
+        }
+    }
+}
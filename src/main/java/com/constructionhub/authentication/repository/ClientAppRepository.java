@@ -3,6 +3,8 @@ package com.constructionhub.authentication.repository;// em com.constructionhub.
 import com.constructionhub.authentication.entity.ClientApplicationEntity;
 // import com.constructionhub.authentication.entity.UserEntity; // Removido se não usar findByOwner(UserEntity owner)
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -22,4 +24,22 @@ public interface ClientAppRepository extends JpaRepository<ClientApplicationEnti
     boolean existsByApplicationName(String applicationName);
 
     boolean existsByClientId(String clientId);
-}
\ No newline at end of file
+
+    // Só id e versão, para ETags: sem carregar as coleções da aplicação
+    @Query("select new com.constructionhub.authentication.repository.EntityVersion(c.id, c.version) from ClientApplicationEntity c where c.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("select new com.constructionhub.authentication.repository.EntityVersion(c.id, c.version) from ClientApplicationEntity c where c.clientId = :clientId")
+    Optional<EntityVersion> findVersionByClientId(@Param("clientId") String clientId);
+
+    @Query("select new com.constructionhub.authentication.repository.EntityVersion(c.id, c.version) from ClientApplicationEntity c where c.owner.id = :ownerId order by c.id")
+    List<EntityVersion> findVersionsByOwnerId(@Param("ownerId") UUID ownerId);
+
+    // Hash do secret de uma aplicação ativa, para o ClientCredentialVerifier
+    @Query("select c.clientSecret from ClientApplicationEntity c where c.clientId = :clientId and c.enabled = true")
+    Optional<String> findEnabledSecretByClientId(@Param("clientId") String clientId);
+
+    // Só as cotas das aplicações ativas, para o ClientQuotaRegistry: sem carregar as coleções
+    @Query("select new com.constructionhub.authentication.repository.ClientQuotaSettings(c.clientId, c.tokenQuotaPerMinute, c.tokenQuotaBurst) from ClientApplicationEntity c where c.enabled = true")
+    List<ClientQuotaSettings> findEnabledQuotaSettings();
+}
@@ -0,0 +1,10 @@
+package com.constructionhub.authentication.repository;
+
+/**
+ * Token issuance quota of a client application, read without loading the entity graph.
+ *
+ * EN: Null values mean the defaults in auth.client-quota.*; perMinute = 0 means no limit.
+ * PT: Valores nulos significam os padrões de auth.client-quota.*; perMinute = 0 significa sem limite.
+ */
+public record ClientQuotaSettings(String clientId, Integer perMinute, Integer burst) {
+}
@@ -0,0 +1,40 @@
+package com.constructionhub.authentication.repository;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Identity and optimistic-lock version of a row, read without loading the entity graph.
+ *
+ * EN: Enough to build an ETag and answer a conditional GET with 304.
+ * PT: Suficiente para montar um ETag e responder um GET condicional com 304.
+ */
+public record EntityVersion(UUID id, Long version) {
+
+    /**
+     * Strong ETag value (quoted) for this row / Valor de ETag forte (entre aspas) para esta linha.
+     */
+    public String toETag() {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * Strong ETag for a collection: changes when any row is added, removed or updated.
+     * ETag forte para uma coleção: muda quando alguma linha é incluída, removida ou atualizada.
+     */
+    public static String toETag(List<EntityVersion> versions) {
+        // Ordem pelo texto do id: independe da ordem da consulta e da ordenação de uuid do banco
+        List<EntityVersion> sorted = versions.stream()
+                .sorted(Comparator.comparing(version -> version.id().toString()))
+                .toList();
+        StringBuilder source = new StringBuilder(sorted.size() * 40);
+        for (EntityVersion version : sorted) {
+            source.append(version.id()).append('.').append(version.version()).append(';');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,59 @@
+package com.constructionhub.authentication.repository;
+
+import com.constructionhub.authentication.entity.RefreshTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, UUID> {
+
+    /**
+     * Rotates the handle of a family if it still is the one presented (compare-and-set).
+     * Troca o handle de uma família se ele ainda for o apresentado (compare-and-set).
+     *
+     * @return 1 when rotated, 0 when another request rotated or removed the family first
+     */
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.previousHash = r.tokenHash, r.tokenHash = :newHash, "
+            + "r.generation = r.generation + 1, r.rotatedAt = :now, r.expiresAt = :expiresAt "
+            + "where r.familyId = :familyId and r.tokenHash = :currentHash")
+    int rotate(@Param("familyId") UUID familyId, @Param("currentHash") String currentHash, @Param("newHash") String newHash,
+               @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    // Igual a rotate, gravando também o snapshot recarregado do usuário
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.previousHash = r.tokenHash, r.tokenHash = :newHash, "
+            + "r.generation = r.generation + 1, r.rotatedAt = :now, r.expiresAt = :expiresAt, "
+            + "r.username = :username, r.email = :email, r.firstName = :firstName, r.lastName = :lastName, "
+            + "r.roles = :roles, r.snapshotStale = false "
+            + "where r.familyId = :familyId and r.tokenHash = :currentHash")
+    int rotateWithSnapshot(@Param("familyId") UUID familyId, @Param("currentHash") String currentHash,
+                           @Param("newHash") String newHash, @Param("now") Instant now, @Param("expiresAt") Instant expiresAt,
+                           @Param("username") String username, @Param("email") String email,
+                           @Param("firstName") String firstName, @Param("lastName") String lastName,
+                           @Param("roles") String roles);
+
+    boolean existsByFamilyIdAndTokenHash(UUID familyId, String tokenHash);
+
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.snapshotStale = true where r.userId = :userId")
+    int markStaleByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.familyId = :familyId and r.tokenHash = :tokenHash")
+    int deleteByFamilyIdAndTokenHash(@Param("familyId") UUID familyId, @Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
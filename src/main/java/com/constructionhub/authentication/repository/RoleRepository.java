@@ -2,7 +2,10 @@ package com.constructionhub.authentication.repository;
 
 
 import com.constructionhub.authentication.entity.RoleEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,5 +14,10 @@ import java.util.UUID;
 @Repository
 public interface RoleRepository extends JpaRepository<RoleEntity, UUID> {
 
+    // Executada em todo registro (ROLE_USER); o resultado fica no cache de queries
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "auth.role-by-name")
+    })
     Optional<RoleEntity> findByName(String name);
 }
\ No newline at end of file
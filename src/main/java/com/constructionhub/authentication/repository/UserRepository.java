@@ -1,10 +1,15 @@
 package com.constructionhub.authentication.repository;
 
 
+import com.constructionhub.authentication.dto.UserSummaryDTO;
 import com.constructionhub.authentication.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,10 +17,47 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
 
     Optional<UserEntity> findByUsername(String username);
-    
+
     Optional<UserEntity> findByEmail(String email);
-    
-    boolean existsByUsername(String username);
-    
-    boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Só id e versão, para ETags: sem carregar roles/permissões
+    @Query("select new com.constructionhub.authentication.repository.EntityVersion(u.id, u.version) from UserEntity u where u.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("select new com.constructionhub.authentication.repository.EntityVersion(u.id, u.version) from UserEntity u where u.username = :username")
+    Optional<EntityVersion> findVersionByUsername(@Param("username") String username);
+
+    // lower() explícito (e não IgnoreCase, que gera upper()) para usar os índices de expressão do V4
+    @Query("select count(u) > 0 from UserEntity u where lower(u.username) = lower(:username)")
+    boolean existsByUsernameIgnoreCase(@Param("username") String username);
+
+    @Query("select count(u) > 0 from UserEntity u where lower(u.email) = lower(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    // Uma única consulta indexada para username ou email, com correspondência por username primeiro
+    @Query("select u from UserEntity u where lower(u.username) = lower(:login) or lower(u.email) = lower(:login) "
+            + "order by case when lower(u.username) = lower(:login) then 0 else 1 end")
+    List<UserEntity> findAllByLogin(@Param("login") String login);
+
+    // Busca em lote: só os campos de exibição, sem roles/permissões (listas IN limitadas pelo UserService)
+    @Query("select new com.constructionhub.authentication.dto.UserSummaryDTO(u.id, u.username, u.firstName, u.lastName, u.enabled) "
+            + "from UserEntity u where u.id in :ids")
+    List<UserSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Recebe os usernames já em minúsculas, para usar o índice de expressão lower(username) do V4
+    @Query("select new com.constructionhub.authentication.dto.UserSummaryDTO(u.id, u.username, u.firstName, u.lastName, u.enabled) "
+            + "from UserEntity u where lower(u.username) in :usernames")
+    List<UserSummaryDTO> findSummariesByLowerUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Finds a user by username or email, ignoring case.
+     *
+     * EN: A username may look like another account's email, so both can match; the username wins,
+     * as it did with the former findByUsername-then-findByEmail sequence.
+     * PT: Um username pode coincidir com o email de outra conta, então ambos podem corresponder; o
+     * username tem prioridade, como na sequência anterior findByUsername-e-depois-findByEmail.
+     */
+    default Optional<UserEntity> findByLogin(String login) {
+        return findAllByLogin(login).stream().findFirst();
+    }
+}
@@ -0,0 +1,65 @@
+package com.constructionhub.authentication.revocation;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory revocation store.
+ *
+ * EN: Used alone without Redis and as the known revocations inside RedisRevocationStore.
+ * PT: Usado sozinho sem Redis e como as revogações conhecidas dentro do RedisRevocationStore.
+ */
+public class LocalRevocationStore implements RevocationStore {
+
+    private static final long PURGE_INTERVAL_MS = 60_000;
+
+    private final long userCutoffRetentionMs;
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>(); // jti -> expiração (epoch ms)
+    private final Map<String, Long> userCutoffs = new ConcurrentHashMap<>(); // userId -> corte (epoch s)
+    private final AtomicLong nextPurgeAt = new AtomicLong();
+
+    /**
+     * @param userCutoffRetentionMs how long a per-user cutoff is kept: the longest token lifetime
+     */
+    public LocalRevocationStore(long userCutoffRetentionMs) {
+        this.userCutoffRetentionMs = userCutoffRetentionMs;
+    }
+
+    @Override
+    public void revokeTokens(Map<String, Instant> expiryByJti) {
+        expiryByJti.forEach((jti, expiresAt) -> revokedTokens.put(jti, expiresAt.toEpochMilli()));
+        purgeIfDue();
+    }
+
+    @Override
+    public void revokeUserTokens(String userId, Instant issuedBefore) {
+        userCutoffs.merge(userId, issuedBefore.getEpochSecond(), Math::max);
+        purgeIfDue();
+    }
+
+    @Override
+    public boolean isRevoked(String jti, String userId, Date issuedAt) {
+        if (jti != null && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (userId == null || issuedAt == null) {
+            return false;
+        }
+        Long cutoff = userCutoffs.get(userId);
+        // iat tem precisão de segundos: um token emitido no mesmo segundo do corte continua válido
+        return cutoff != null && issuedAt.getTime() / 1000 < cutoff;
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        long due = nextPurgeAt.get();
+        if (now < due || !nextPurgeAt.compareAndSet(due, now + PURGE_INTERVAL_MS)) {
+            return;
+        }
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        userCutoffs.values().removeIf(cutoff -> cutoff * 1000 + userCutoffRetentionMs < now);
+    }
+}
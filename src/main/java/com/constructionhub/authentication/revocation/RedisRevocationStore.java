@@ -0,0 +1,205 @@
+package com.constructionhub.authentication.revocation;
+
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.invalidation.InvalidationType;
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Revocation store shared by all instances through Redis, with a local near cache.
+ *
+ * EN: Known revocations answer locally; only a near-cache miss reaches Redis (one MGET).
+ * PT: Revogações já conhecidas respondem localmente; só uma falta no near cache chega ao Redis (um MGET).
+ */
+public class RedisRevocationStore implements RevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRevocationStore.class);
+
+    private final LocalRevocationStore known;
+    private final StringRedisTemplate redis;
+    private final InvalidationBus invalidationBus;
+    private final AuthMetrics authMetrics;
+    private final String tokenKeyPrefix;
+    private final String userKeyPrefix;
+    private final long userCutoffTtlMs;
+    private final long nearCacheTtlNanos;
+    private final int nearCacheMaxEntries;
+    private final long retryIntervalNanos;
+    private final Map<String, Long> notRevoked = new ConcurrentHashMap<>(); // jti -> válido até (nanoTime)
+    private volatile long redisRetryAt; // nanoTime; 0 = Redis disponível
+
+    public RedisRevocationStore(LocalRevocationStore known, StringRedisTemplate redis, InvalidationBus invalidationBus,
+                                AuthMetrics authMetrics, String keyPrefix, long userCutoffTtlMs,
+                                long nearCacheTtlMs, int nearCacheMaxEntries, long retryIntervalMs) {
+        this.known = known;
+        this.redis = redis;
+        this.invalidationBus = invalidationBus;
+        this.authMetrics = authMetrics;
+        this.tokenKeyPrefix = keyPrefix + "revoked:";
+        this.userKeyPrefix = keyPrefix + "revoked-before:";
+        this.userCutoffTtlMs = userCutoffTtlMs;
+        this.nearCacheTtlNanos = nearCacheTtlMs * 1_000_000;
+        this.nearCacheMaxEntries = nearCacheMaxEntries;
+        this.retryIntervalNanos = retryIntervalMs * 1_000_000;
+        invalidationBus.subscribe(InvalidationType.TOKEN_REVOKED, parsed(this::tokenRevokedElsewhere));
+        invalidationBus.subscribe(InvalidationType.USER_TOKENS_REVOKED, parsed(this::userTokensRevokedElsewhere));
+        invalidationBus.onResubscribe(notRevoked::clear);
+    }
+
+    @Override
+    public void revokeTokens(Map<String, Instant> expiryByJti) {
+        known.revokeTokens(expiryByJti);
+        expiryByJti.keySet().forEach(notRevoked::remove);
+        long now = System.currentTimeMillis();
+        write(connection -> expiryByJti.forEach((jti, expiresAt) -> {
+            long ttlMs = expiresAt.toEpochMilli() - now;
+            if (ttlMs > 0) {
+                connection.stringCommands().set(bytes(tokenKeyPrefix + jti), bytes(Long.toString(expiresAt.toEpochMilli())),
+                        Expiration.milliseconds(ttlMs), SetOption.upsert());
+                invalidationBus.broadcast(connection, InvalidationType.TOKEN_REVOKED, jti + ':' + expiresAt.toEpochMilli());
+            }
+        }), "token revocation");
+    }
+
+    @Override
+    public void revokeUserTokens(String userId, Instant issuedBefore) {
+        known.revokeUserTokens(userId, issuedBefore);
+        notRevoked.clear(); // Sem índice por usuário; cortes são raros
+        long cutoff = issuedBefore.getEpochSecond();
+        write(connection -> {
+            connection.stringCommands().set(bytes(userKeyPrefix + userId), bytes(Long.toString(cutoff)),
+                    Expiration.milliseconds(userCutoffTtlMs), SetOption.upsert());
+            invalidationBus.broadcast(connection, InvalidationType.USER_TOKENS_REVOKED, userId + ':' + cutoff);
+        }, "user token revocation");
+    }
+
+    @Override
+    public boolean isRevoked(String jti, String userId, Date issuedAt) {
+        if (known.isRevoked(jti, userId, issuedAt)) {
+            authMetrics.recordRevocationLookup(RevocationLookup.KNOWN);
+            return true;
+        }
+        // Tokens sem jti (emitidos antes dele existir): identificados pelo usuário + emissão
+        String cacheKey = jti != null ? jti : userId + '@' + (issuedAt != null ? issuedAt.getTime() : 0);
+        long now = System.nanoTime();
+        Long validUntil = notRevoked.get(cacheKey);
+        if (validUntil != null && now - validUntil < 0) {
+            authMetrics.recordRevocationLookup(RevocationLookup.NEAR_CACHE);
+            return false;
+        }
+        long retryAt = redisRetryAt;
+        if (retryAt != 0 && now - retryAt < 0) {
+            authMetrics.recordRevocationLookup(RevocationLookup.UNAVAILABLE);
+            return false;
+        }
+
+        List<String> keys = new ArrayList<>(2);
+        if (jti != null) {
+            keys.add(tokenKeyPrefix + jti);
+        }
+        if (userId != null) {
+            keys.add(userKeyPrefix + userId);
+        }
+        if (keys.isEmpty()) {
+            return false;
+        }
+        List<String> values;
+        try {
+            values = redis.opsForValue().multiGet(keys); // Uma ida ao Redis para jti e corte do usuário
+        } catch (DataAccessException e) {
+            redisRetryAt = (now + retryIntervalNanos) | 1; // Nunca 0
+            log.warn("Redis revocation lookup failed; using local revocations only for the next {} ms: {}",
+                    retryIntervalNanos / 1_000_000, e.getMessage());
+            authMetrics.recordRevocationLookup(RevocationLookup.UNAVAILABLE);
+            return false;
+        }
+        redisRetryAt = 0;
+        authMetrics.recordRevocationLookup(RevocationLookup.REDIS);
+
+        int index = 0;
+        if (jti != null) {
+            String expiresAt = values.get(index++);
+            if (expiresAt != null) {
+                known.revokeTokens(Map.of(jti, Instant.ofEpochMilli(Long.parseLong(expiresAt))));
+                return true;
+            }
+        }
+        if (userId != null) {
+            String cutoff = values.get(index);
+            if (cutoff != null) {
+                known.revokeUserTokens(userId, Instant.ofEpochSecond(Long.parseLong(cutoff)));
+                if (known.isRevoked(jti, userId, issuedAt)) {
+                    return true;
+                }
+            }
+        }
+        if (notRevoked.size() >= nearCacheMaxEntries) {
+            notRevoked.clear(); // Limite simples de memória; o pior caso é uma rodada extra de MGETs
+        }
+        notRevoked.put(cacheKey, now + nearCacheTtlNanos);
+        return false;
+    }
+
+    private void tokenRevokedElsewhere(String jti, long expiresAtMillis) {
+        known.revokeTokens(Map.of(jti, Instant.ofEpochMilli(expiresAtMillis)));
+        notRevoked.remove(jti);
+    }
+
+    private void userTokensRevokedElsewhere(String userId, long cutoffSeconds) {
+        known.revokeUserTokens(userId, Instant.ofEpochSecond(cutoffSeconds));
+        notRevoked.clear();
+    }
+
+    private void write(Consumer<RedisConnection> commands, String what) {
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                commands.accept(connection);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            // Continua valendo nesta instância; as demais não a verão
+            log.error("Could not store {} in Redis; it only applies to this instance: {}", what, e.getMessage());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Mensagens "id:número" do barramento
+    private static Consumer<String> parsed(IdAndNumberConsumer target) {
+        return key -> {
+            int separator = key.lastIndexOf(':');
+            if (separator <= 0) {
+                log.warn("Ignoring malformed revocation message '{}'.", key);
+                return;
+            }
+            try {
+                target.accept(key.substring(0, separator), Long.parseLong(key.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed revocation message '{}'.", key);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface IdAndNumberConsumer {
+        void accept(String id, long value);
+    }
+}
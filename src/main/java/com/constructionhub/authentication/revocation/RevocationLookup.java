@@ -0,0 +1,27 @@
+package com.constructionhub.authentication.revocation;
+
+/**
+ * Where a RedisRevocationStore lookup was answered; the "source" tag of auth.revocation.lookups.
+ * Onde uma consulta do RedisRevocationStore foi respondida; a tag "source" de auth.revocation.lookups.
+ */
+public enum RevocationLookup {
+
+    /** Revocation already known locally / Revogação já conhecida localmente */
+    KNOWN("known"),
+    /** Recently confirmed as not revoked / Confirmado recentemente como não revogado */
+    NEAR_CACHE("near_cache"),
+    /** Read from Redis / Lido do Redis */
+    REDIS("redis"),
+    /** Redis failed or is in its retry interval; only local state applied / Redis falhou; só o estado local vale */
+    UNAVAILABLE("unavailable");
+
+    private final String tag;
+
+    RevocationLookup(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
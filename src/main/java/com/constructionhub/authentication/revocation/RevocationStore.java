@@ -0,0 +1,38 @@
+package com.constructionhub.authentication.revocation;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Revoked tokens, checked on every authenticated request and on refresh.
+ *
+ * EN: Tokens are revoked by jti (logout) or per user by an issued-at cutoff (password change).
+ * PT: Tokens são revogados pelo jti (logout) ou por usuário com um corte por emissão (troca de senha).
+ */
+public interface RevocationStore {
+
+    /**
+     * Revokes tokens by jti until their expiration.
+     * Revoga tokens pelo jti até a expiração de cada um.
+     *
+     * @param expiryByJti expiration of each token, keyed by jti
+     */
+    void revokeTokens(Map<String, Instant> expiryByJti);
+
+    /**
+     * Revokes every token of the user issued before the cutoff.
+     * Revoga todos os tokens do usuário emitidos antes do corte.
+     */
+    void revokeUserTokens(String userId, Instant issuedBefore);
+
+    /**
+     * Tells whether a verified token has been revoked.
+     * Indica se um token já verificado foi revogado.
+     *
+     * @param jti      the token id, null for tokens issued before jti was added
+     * @param userId   the userId claim
+     * @param issuedAt the iat claim
+     */
+    boolean isRevoked(String jti, String userId, Date issuedAt);
+}
@@ -0,0 +1,59 @@
+package com.constructionhub.authentication.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates client applications by HTTP Basic (client_id:client_secret) on selected endpoints.
+ *
+ * EN: Used for the endpoints called by other services rather than users, such as token introspection
+ * (RFC 7662 requires the caller to authenticate). A verified client gets ROLE_CLIENT with the client id
+ * as principal; wrong credentials leave the request unauthenticated, so the usual 401 applies. A
+ * request already authenticated by a bearer token is left as it is.
+ * PT: Usado nos endpoints chamados por outros serviços e não por usuários, como a introspecção de
+ * tokens (a RFC 7662 exige que quem chama se autentique). Um cliente verificado recebe ROLE_CLIENT com
+ * o client id como principal; credenciais erradas deixam a requisição sem autenticação, então vale o
+ * 401 de sempre. Uma requisição já autenticada por bearer token fica como está.
+ */
+public class ClientAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String ROLE_CLIENT = "ROLE_CLIENT";
+
+    private final ClientCredentialVerifier verifier;
+    private final RequestMatcher endpoints;
+
+    public ClientAuthenticationFilter(ClientCredentialVerifier verifier, RequestMatcher endpoints) {
+        this.verifier = verifier;
+        this.endpoints = endpoints;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !endpoints.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ClientCredentialVerifier.ClientCredentials credentials =
+                ClientCredentialVerifier.fromAuthorization(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (credentials != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && verifier.verify(credentials)) {
+            SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                    credentials.clientId(), null, List.of(new SimpleGrantedAuthority(ROLE_CLIENT))));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
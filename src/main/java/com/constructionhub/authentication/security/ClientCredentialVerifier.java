@@ -0,0 +1,160 @@
+package com.constructionhub.authentication.security;
+
+import com.constructionhub.authentication.datasource.ReplicaRoutingContext;
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.invalidation.InvalidationType;
+import com.constructionhub.authentication.repository.ClientAppRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies client application credentials sent as HTTP Basic (client_id:client_secret).
+ *
+ * EN: Client secrets are stored as BCrypt hashes, too slow to check on every call of a resource
+ * server or integration. A successful check is remembered per client id as the SHA-256 of the secret
+ * for auth.client-auth.cache-ttl-ms, so repeated calls cost one digest; the memory is bounded by the
+ * number of registered clients since failures are never remembered. Any client application change
+ * (secret regenerated, client disabled or removed), on this instance or announced on the
+ * InvalidationBus, drops everything remembered. Only enabled clients are accepted.
+ * PT: Os secrets das aplicações cliente são guardados como hash BCrypt, lento demais para conferir a
+ * cada chamada de um servidor de recursos ou integração. Uma verificação bem-sucedida é lembrada por
+ * client id como o SHA-256 do secret por auth.client-auth.cache-ttl-ms, então chamadas repetidas custam
+ * um digest; a memória é limitada pelo número de clientes cadastrados, já que falhas nunca são
+ * lembradas. Qualquer alteração de aplicação cliente (secret regenerado, cliente desativado ou
+ * removido), nesta instância ou anunciada no InvalidationBus, descarta tudo o que foi lembrado. Só
+ * clientes ativos são aceitos.
+ */
+@Component
+public class ClientCredentialVerifier {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    /**
+     * Client id and secret of a request / Client id e secret de uma requisição.
+     */
+    public record ClientCredentials(String clientId, String secret) {
+        @Override
+        public String toString() {
+            return "ClientCredentials[clientId=" + clientId + "]"; // Nunca o secret nos logs
+        }
+    }
+
+    private record Verified(byte[] secretDigest, long expiresAtNanos) {
+    }
+
+    private final ClientAppRepository clientAppRepository;
+    private final ObjectProvider<PasswordEncoder> passwordEncoder; // Lazy: o encoder é um bean do SecurityConfig
+    private final TransactionTemplate readOnlyTransaction;
+    private final long cacheTtlNanos;
+    private final Map<String, Verified> verified = new ConcurrentHashMap<>();
+
+    public ClientCredentialVerifier(ClientAppRepository clientAppRepository, ObjectProvider<PasswordEncoder> passwordEncoder,
+                                    PlatformTransactionManager transactionManager, InvalidationBus invalidationBus,
+                                    @Value("${auth.client-auth.cache-ttl-ms:600000}") long cacheTtlMs) {
+        this.clientAppRepository = clientAppRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtlMs);
+        invalidationBus.subscribe(InvalidationType.CLIENT_APP, key -> verified.clear());
+        invalidationBus.onResubscribe(verified::clear);
+    }
+
+    /**
+     * Credentials of an Authorization: Basic header; null when absent or not Basic.
+     * Credenciais de um cabeçalho Authorization: Basic; null se ausente ou não for Basic.
+     */
+    public static ClientCredentials fromAuthorization(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length())) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(authorization.substring(BASIC_PREFIX.length()).trim()),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int colon = decoded.indexOf(':');
+        if (colon <= 0 || colon == decoded.length() - 1) {
+            return null;
+        }
+        return new ClientCredentials(decoded.substring(0, colon), decoded.substring(colon + 1));
+    }
+
+    /**
+     * Whether the credentials were verified recently; never touches the database or BCrypt.
+     * Se as credenciais foram verificadas recentemente; nunca consulta o banco nem o BCrypt.
+     */
+    public boolean isRemembered(ClientCredentials credentials) {
+        Verified entry = verified.get(credentials.clientId());
+        if (entry == null) {
+            return false;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            verified.remove(credentials.clientId(), entry);
+            return false;
+        }
+        return MessageDigest.isEqual(entry.secretDigest(), digest(credentials.secret()));
+    }
+
+    /**
+     * Whether the credentials belong to an enabled client; BCrypt only when not remembered.
+     * Se as credenciais são de um cliente ativo; BCrypt só quando não lembradas.
+     */
+    public boolean verify(ClientCredentials credentials) {
+        if (isRemembered(credentials)) {
+            return true;
+        }
+        String secretHash;
+        // Logo após regenerar o secret, uma réplica atrasada ainda teria o hash antigo
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimary()) {
+            secretHash = readOnlyTransaction.execute(status ->
+                    clientAppRepository.findEnabledSecretByClientId(credentials.clientId()).orElse(null));
+        }
+        if (secretHash == null || !passwordEncoder.getObject().matches(credentials.secret(), secretHash)) {
+            return false;
+        }
+        verified.put(credentials.clientId(), new Verified(digest(credentials.secret()), System.nanoTime() + cacheTtlNanos));
+        return true;
+    }
+
+    /**
+     * Forgets every verification once the current transaction commits (or now, without one).
+     * Esquece todas as verificações quando a transação atual fizer commit (ou agora, sem transação).
+     */
+    public void clearAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            verified.clear();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                verified.clear();
+            }
+        });
+    }
+
+    private static byte[] digest(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.constructionhub.authentication.security;
+
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.web.access.AccessDeniedHandler;
+
+import java.io.IOException;
+
+/**
+ * 403 from the URL authorization rules, with the same precomputed body as the 401s.
+ * 403 das regras de autorização por URL, com o mesmo corpo pré-calculado dos 401.
+ */
+public class JsonAccessDeniedHandler implements AccessDeniedHandler {
+
+    private final PrecomputedErrorBodies errorBodies;
+
+    public JsonAccessDeniedHandler(PrecomputedErrorBodies errorBodies) {
+        this.errorBodies = errorBodies;
+    }
+
+    @Override
+    public void handle(HttpServletRequest request, HttpServletResponse response,
+                       AccessDeniedException accessDeniedException) throws IOException {
+        errorBodies.write(response, HttpStatus.FORBIDDEN, "auth.accessDenied");
+    }
+}
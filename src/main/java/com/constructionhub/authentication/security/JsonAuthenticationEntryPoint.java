@@ -0,0 +1,46 @@
+package com.constructionhub.authentication.security;
+
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+import java.io.IOException;
+
+/**
+ * 401 for protected endpoints reached without a valid bearer token.
+ *
+ * EN: The message reflects why JwtAuthFilter did not authenticate the request (expired, bad signature,
+ * no token...). Bodies are precomputed, so a flood of rejected tokens is cheap to answer.
+ * PT: A mensagem reflete por que o JwtAuthFilter não autenticou a requisição (expirado, assinatura
+ * inválida, sem token...). Os corpos são pré-calculados, então responder a uma enxurrada de tokens
+ * rejeitados é barato.
+ */
+public class JsonAuthenticationEntryPoint implements AuthenticationEntryPoint {
+
+    private final PrecomputedErrorBodies errorBodies;
+
+    public JsonAuthenticationEntryPoint(PrecomputedErrorBodies errorBodies) {
+        this.errorBodies = errorBodies;
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException {
+        errorBodies.write(response, HttpStatus.UNAUTHORIZED, messageCode(request));
+    }
+
+    private static String messageCode(HttpServletRequest request) {
+        if (request.getAttribute(JwtAuthFilter.OUTCOME_ATTRIBUTE) instanceof TokenOutcome outcome) {
+            if (outcome.getMessageCode() != null) {
+                return outcome.getMessageCode();
+            }
+            if (outcome == TokenOutcome.USER_NOT_FOUND) {
+                return "auth.invalidToken";
+            }
+        }
+        return "auth.unauthorized";
+    }
+}
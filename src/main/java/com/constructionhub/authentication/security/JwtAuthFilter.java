@@ -1,19 +1,27 @@
 package com.constructionhub.authentication.security;
 
+import com.constructionhub.authentication.heavyhitter.HeavyHitterTracker;
+import com.constructionhub.authentication.jfr.RequestAuthenticationEvent;
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import com.constructionhub.authentication.opaque.OpaqueTokenService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -21,12 +29,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private static final String AUTH_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
+    /**
+     * Request attribute with the TokenOutcome of a rejected token, read by JsonAuthenticationEntryPoint.
+     * Atributo da requisição com o TokenOutcome de um token rejeitado, lido pelo JsonAuthenticationEntryPoint.
+     */
+    static final String OUTCOME_ATTRIBUTE = JwtAuthFilter.class.getName() + ".OUTCOME";
+
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final AuthMetrics authMetrics;
+    private final OpaqueTokenService opaqueTokens;
+    private final HeavyHitterTracker heavyHitters;
 
-    public JwtAuthFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService, AuthMetrics authMetrics,
+                         OpaqueTokenService opaqueTokens, HeavyHitterTracker heavyHitters) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.authMetrics = authMetrics;
+        this.opaqueTokens = opaqueTokens;
+        this.heavyHitters = heavyHitters;
     }
 
     @Override
@@ -38,25 +59,62 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader(AUTH_HEADER);
         if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            authMetrics.recordFilterOutcome(TokenOutcome.ABSENT);
             filterChain.doFilter(request, response);
             return;
         }
 
         String jwt = authHeader.substring(BEARER_PREFIX.length());
+        RequestAuthenticationEvent event = new RequestAuthenticationEvent();
+        event.begin();
+        TokenOutcome outcome = TokenOutcome.VALID;
+        int claimCount = 0;
+        int authorityCount = 0;
+        String subject = null;
 
         try {
-            if (jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsername(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (OpaqueTokenService.isHandle(jwt)) {
+                // Token opaco: consulta O(1) na tabela off-heap, mais a revogação
+                subject = opaqueTokens.resolve(jwt).username();
+            } else {
+                // Uma única verificação de assinatura por requisição (antes: validateToken + getUsername), mais a revogação
+                Claims claims = jwtTokenProvider.getActiveClaims(jwt);
+                if (!JwtTokenProvider.isAccessToken(claims)) {
+                    throw TokenRejectedException.of(TokenOutcome.UNSUPPORTED); // Refresh token JWT legado
+                }
+                claimCount = claims.size();
+                subject = claims.getSubject();
+            }
+            UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
+            Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
+            authorityCount = authorities.size();
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, authorities);
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        } catch (TokenRejectedException e) {
+            // Token inválido, segue sem autenticar (exceção sem stack trace, já registrada)
+            outcome = e.getOutcome();
+        } catch (UsernameNotFoundException e) {
+            outcome = TokenOutcome.USER_NOT_FOUND;
         } catch (Exception ignored) {
-            // Token inválido, segue sem autenticar
+            outcome = TokenOutcome.INVALID;
+        }
+
+        authMetrics.recordFilterOutcome(outcome);
+        heavyHitters.recordTokenValidation(request, outcome == TokenOutcome.VALID ? subject : null);
+        if (outcome != TokenOutcome.VALID) {
+            request.setAttribute(OUTCOME_ATTRIBUTE, outcome);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.tokenSize = jwt.length();
+            event.claimCount = claimCount;
+            event.authorityCount = authorityCount;
+            event.outcome = outcome.getTag();
+            event.commit();
         }
 
         filterChain.doFilter(request, response);
@@ -65,6 +123,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
-        return path.startsWith("/auth/") || path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs");
+        // A introspecção aceita bearer token de ADMIN; os demais /auth/** são públicos
+        return (path.startsWith("/auth/") && !path.equals("/auth/introspect"))
+                || path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs");
     }
 }
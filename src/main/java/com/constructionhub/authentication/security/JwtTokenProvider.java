@@ -1,16 +1,23 @@
 package com.constructionhub.authentication.security;
 
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
+import com.constructionhub.authentication.authorization.ResolvedAuthorities;
 import com.constructionhub.authentication.config.JwtConfig;
 import com.constructionhub.authentication.dto.AuthResponseDTO;
 import com.constructionhub.authentication.entity.PermissionEntity; // Importar PermissionEntity
 import com.constructionhub.authentication.entity.RoleEntity;
 import com.constructionhub.authentication.entity.UserEntity;
-import com.constructionhub.authentication.exception.ApiException;
+import com.constructionhub.authentication.jfr.TokenMintEvent;
+import com.constructionhub.authentication.jfr.TokenVerificationEvent;
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import com.constructionhub.authentication.opaque.OpaqueTokenService;
+import com.constructionhub.authentication.revocation.RevocationStore;
 import io.jsonwebtoken.*;
+import io.micrometer.core.instrument.Timer;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 
@@ -18,6 +25,7 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,17 +33,33 @@ public class JwtTokenProvider {
 
     private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
     private final JwtConfig jwtConfig;
+    private final AuthMetrics authMetrics;
+    private final AuthorizationSnapshotHolder authorizationSnapshots;
+    private final RevocationStore revocationStore;
+    private final OpaqueTokenService opaqueTokens;
+    private final TokenFailureLogger failureLog;
     private SecretKey secretKey;
+    private JwtParser jwtParser; // Imutável e thread-safe: construído uma única vez
 
-    public JwtTokenProvider(JwtConfig jwtConfig) {
+    public JwtTokenProvider(JwtConfig jwtConfig, AuthMetrics authMetrics, AuthorizationSnapshotHolder authorizationSnapshots,
+                            RevocationStore revocationStore, OpaqueTokenService opaqueTokens,
+                            @Value("${auth.token.failure-log-interval-ms:10000}") long failureLogIntervalMs) {
         this.jwtConfig = jwtConfig;
+        this.authMetrics = authMetrics;
+        this.authorizationSnapshots = authorizationSnapshots;
+        this.revocationStore = revocationStore;
+        this.opaqueTokens = opaqueTokens;
+        this.failureLog = new TokenFailureLogger(log, failureLogIntervalMs);
     }
 
     @PostConstruct
     public void init() {
         try {
             this.secretKey = Keys.hmacShaKeyFor(jwtConfig.getSecretKey().getBytes(StandardCharsets.UTF_8));
+            this.jwtParser = Jwts.parserBuilder().setSigningKey(secretKey).build();
             log.info("JWT Secret Key initialized successfully.");
         } catch (Exception e) {
             log.error("Error initializing JWT Secret Key. Ensure the key is correctly configured and has sufficient length.", e);
@@ -55,54 +79,86 @@ public class JwtTokenProvider {
         log.debug("Creating JWT access token for user: {}, userId: {}", username, userId);
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // jti: permite revogar este token isoladamente
                 .setIssuedAt(now)
                 .setExpiration(validity)
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String createRefreshToken(String username, String userId) {
-        Claims claims = Jwts.claims().setSubject(username);
-        claims.put("userId", userId); // Adiciona userId como String
-
-        Date now = new Date();
-        Date validity = new Date(now.getTime() + jwtConfig.getRefreshValidityInMilliseconds());
+    /**
+     * Resolves the roles and permissions of a loaded user into a TokenSubject.
+     * Resolve as roles e permissões de um usuário carregado em um TokenSubject.
+     */
+    public TokenSubject subjectOf(UserEntity userEntity) {
+        List<String> roleNames;
+        List<String> permissionNames;
+        ResolvedAuthorities resolved = authorizationSnapshots.resolve(userEntity);
+        if (resolved != null) {
+            // Listas imutáveis compartilhadas do snapshot: sem percorrer as coleções JPA
+            roleNames = resolved.getRoles();
+            permissionNames = resolved.getPermissions();
+        } else {
+            roleNames = userEntity.getRoles().stream() // Nome da coleção de roles em UserEntity
+                    .map(RoleEntity::getName)
+                    .collect(Collectors.toList());
 
-        log.debug("Creating JWT refresh token for user: {}, userId: {}", username, userId);
-        return Jwts.builder()
-                .setClaims(claims)
-                .setIssuedAt(now)
-                .setExpiration(validity)
-                .signWith(secretKey, SignatureAlgorithm.HS256)
-                .compact();
+            // Coletar nomes das permissões diretamente
+            permissionNames = userEntity.getRoles().stream()
+                    .flatMap(role -> role.getPermissions().stream()) // Nome da coleção de permissions em RoleEntity
+                    .map(PermissionEntity::getName) // Mapeia para o nome da permissão
+                    .distinct()
+                    .collect(Collectors.toList());
+        }
+        return new TokenSubject(userEntity.getId(), userEntity.getUsername(), userEntity.getEmail(),
+                userEntity.getFirstName(), userEntity.getLastName(), roleNames, permissionNames);
     }
 
-    public AuthResponseDTO generateTokens(UserEntity userEntity) {
-        List<String> roleNames = userEntity.getRoles().stream() // Nome da coleção de roles em UserEntity
-                .map(RoleEntity::getName)
-                .collect(Collectors.toList());
-
-        // Coletar nomes das permissões diretamente
-        List<String> permissionNames = userEntity.getRoles().stream()
-                .flatMap(role -> role.getPermissions().stream()) // Nome da coleção de permissions em RoleEntity
-                .map(PermissionEntity::getName) // Mapeia para o nome da permissão
-                .distinct()
-                .collect(Collectors.toList());
+    /**
+     * Mints the access token for the subject and pairs it with an already issued refresh handle.
+     * Emite o token de acesso do subject e o junta a um refresh handle já emitido.
+     */
+    public AuthResponseDTO generateTokens(TokenSubject subject, String refreshToken) {
+        Timer.Sample sample = authMetrics.start();
+        TokenMintEvent event = new TokenMintEvent();
+        event.begin();
+        AuthResponseDTO tokens = null;
+        try {
+            tokens = buildTokens(subject, refreshToken);
+            return tokens;
+        } finally {
+            authMetrics.recordTokenMint(sample);
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = tokens != null ? "ok" : "error";
+                event.permissionCount = subject.permissions().size();
+                if (tokens != null) {
+                    event.accessTokenSize = tokens.getAccessToken().length();
+                    event.refreshTokenSize = tokens.getRefreshToken().length();
+                    event.roleCount = tokens.getRoles().size();
+                }
+                event.commit();
+            }
+        }
+    }
 
-        String userIdStr = userEntity.getId().toString();
-        String accessToken = createToken(userEntity.getUsername(), userIdStr, roleNames, permissionNames);
-        String refreshToken = createRefreshToken(userEntity.getUsername(), userIdStr);
+    private AuthResponseDTO buildTokens(TokenSubject subject, String refreshToken) {
+        // Modo opaco: handle curto no lugar do JWT; null (desativado ou tabela cheia) cai no JWT
+        String accessToken = opaqueTokens.issue(subject);
+        if (accessToken == null) {
+            accessToken = createToken(subject.username(), subject.userId().toString(), subject.roles(), subject.permissions());
+        }
 
-        log.info("Tokens generated successfully for user: {}", userEntity.getUsername());
+        log.info("Tokens generated successfully for user: {}", subject.username());
         return AuthResponseDTO.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
-                .userId(userEntity.getId())
-                .username(userEntity.getUsername())
-                .email(userEntity.getEmail())
-                .firstName(userEntity.getFirstName())
-                .lastName(userEntity.getLastName())
-                .roles(roleNames)
+                .userId(subject.userId())
+                .username(subject.username())
+                .email(subject.email())
+                .firstName(subject.firstName())
+                .lastName(subject.lastName())
+                .roles(subject.roles())
                 // .permissions(permissionNames) // Opcional, se AuthResponseDTO tiver campo para permissions
                 .build();
     }
@@ -116,44 +172,98 @@ public class JwtTokenProvider {
     }
 
     public Claims getClaims(String token) {
+        Timer.Sample sample = authMetrics.start();
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        if (!looksLikeJws(token)) {
+            // Lixo óbvio é recusado antes do parser, que lançaria (e preencheria o stack de) uma MalformedJwtException
+            throw verificationFailure(sample, event, token, TokenOutcome.MALFORMED, "not a compact JWS");
+        }
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            recordVerification(sample, event, token, claims.size(), TokenOutcome.VALID);
+            return claims;
         } catch (ExpiredJwtException e) {
-            log.warn("JWT token is expired: {}", e.getMessage());
-            throw new ApiException("auth.tokenExpired", null, HttpStatus.UNAUTHORIZED);
+            throw verificationFailure(sample, event, token, TokenOutcome.EXPIRED, e.getMessage());
         } catch (UnsupportedJwtException e) {
-            log.warn("JWT token is unsupported: {}", e.getMessage());
-            throw new ApiException("auth.tokenUnsupported", null, HttpStatus.UNAUTHORIZED);
+            throw verificationFailure(sample, event, token, TokenOutcome.UNSUPPORTED, e.getMessage());
         } catch (MalformedJwtException e) {
-            log.warn("JWT token is malformed: {}", e.getMessage());
-            throw new ApiException("auth.tokenMalformed", null, HttpStatus.UNAUTHORIZED);
+            throw verificationFailure(sample, event, token, TokenOutcome.MALFORMED, e.getMessage());
         } catch (io.jsonwebtoken.security.SignatureException e) { // Exceção correta para falha de assinatura
-            log.warn("JWT signature validation failed: {}", e.getMessage());
-            throw new ApiException("auth.tokenSignatureInvalid", null, HttpStatus.UNAUTHORIZED);
-        } catch (IllegalArgumentException e) {
-            log.warn("JWT token argument validation failed: {}", e.getMessage());
-            throw new ApiException("auth.tokenIllegalArgument", null, HttpStatus.UNAUTHORIZED);
+            throw verificationFailure(sample, event, token, TokenOutcome.SIGNATURE, e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw verificationFailure(sample, event, token, TokenOutcome.INVALID, e.getMessage());
         }
     }
 
+    /**
+     * Verifies the token like getClaims and also rejects it when it has been revoked.
+     * Verifica o token como getClaims e também o rejeita quando foi revogado.
+     *
+     * @throws TokenRejectedException with TokenOutcome.REVOKED for a revoked token
+     */
+    public Claims getActiveClaims(String token) {
+        Claims claims = getClaims(token);
+        if (revocationStore.isRevoked(claims.getId(), claims.get("userId", String.class), claims.getIssuedAt())) {
+            failureLog.rejected(TokenOutcome.REVOKED, "revoked token presented");
+            throw TokenRejectedException.of(TokenOutcome.REVOKED);
+        }
+        return claims;
+    }
+
+    /**
+     * Whether verified claims are of an access token; the legacy refresh JWTs carry no roles claim.
+     * Se as claims verificadas são de um token de acesso; os refresh JWTs legados não têm a claim roles.
+     */
+    public static boolean isAccessToken(Claims claims) {
+        return claims.containsKey("roles");
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jws<Claims> claimsJws = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
-            if (claimsJws.getBody().getExpiration().before(new Date())) {
-                log.warn("Attempted to validate an expired token for subject: {}", claimsJws.getBody().getSubject());
+            Claims claims = getActiveClaims(token);
+            if (claims.getExpiration().before(new Date())) {
+                log.warn("Attempted to validate an expired token for subject: {}", claims.getSubject());
                 return false;
             }
             return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.warn("Token validation failed: {}", e.getClass().getSimpleName(), e.getMessage()); // Simplificado log
+        } catch (TokenRejectedException e) {
+            return false; // Já registrado (com limite de taxa) por getClaims
+        }
+    }
+
+    // header.payload.signature, sem espaços e com tamanho plausível
+    private static boolean looksLikeJws(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
             return false;
         }
+        int dots = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                dots++;
+            } else if (c <= ' ') {
+                return false;
+            }
+        }
+        return dots == 2;
+    }
+
+    private TokenRejectedException verificationFailure(Timer.Sample sample, TokenVerificationEvent event, String token,
+                                                       TokenOutcome outcome, String detail) {
+        recordVerification(sample, event, token, 0, outcome);
+        failureLog.rejected(outcome, detail);
+        return TokenRejectedException.of(outcome);
+    }
+
+    private void recordVerification(Timer.Sample sample, TokenVerificationEvent event, String token, int claimCount, TokenOutcome outcome) {
+        authMetrics.recordJwtVerification(sample, outcome);
+        event.end();
+        if (event.shouldCommit()) {
+            event.tokenSize = token != null ? token.length() : 0;
+            event.claimCount = claimCount;
+            event.outcome = outcome.getTag();
+            event.commit();
+        }
     }
 }
\ No newline at end of file
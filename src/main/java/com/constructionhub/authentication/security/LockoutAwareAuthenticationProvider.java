@@ -0,0 +1,44 @@
+package com.constructionhub.authentication.security;
+
+import com.constructionhub.authentication.activity.LoginActivityRecorder;
+import com.constructionhub.authentication.entity.UserEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * DaoAuthenticationProvider that enforces temporary lockouts and counts wrong passwords.
+ *
+ * EN: Locked accounts are rejected before BCrypt runs; wrong passwords are reported to the recorder.
+ * PT: Contas bloqueadas são recusadas antes do BCrypt; senhas erradas são informadas ao recorder.
+ */
+public class LockoutAwareAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final LoginActivityRecorder loginActivity;
+
+    public LockoutAwareAuthenticationProvider(LoginActivityRecorder loginActivity) {
+        this.loginActivity = loginActivity;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        if (!(userDetails instanceof UserEntity user)) {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return;
+        }
+        if (loginActivity.isLocked(user.getId())) {
+            throw new LockedException("User account is locked");
+        }
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+        } catch (BadCredentialsException e) {
+            loginActivity.recordFailure(user);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.constructionhub.authentication.security;
+
+import com.constructionhub.authentication.jfr.PasswordHashEvent;
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder decorator that times hashing and verification.
+ *
+ * EN: Wraps the BCrypt encoder so both registration (encode) and the DaoAuthenticationProvider
+ * login path (matches) are measured, as Micrometer timers and PasswordHash JFR events, without
+ * touching their call sites.
+ * PT: Envolve o encoder BCrypt para medir tanto o registro (encode) quanto o login via
+ * DaoAuthenticationProvider (matches), como timers Micrometer e eventos JFR PasswordHash, sem
+ * alterar quem os chama.
+ */
+public class MeteredPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final AuthMetrics authMetrics;
+
+    public MeteredPasswordEncoder(PasswordEncoder delegate, AuthMetrics authMetrics) {
+        this.delegate = delegate;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        Timer.Sample sample = authMetrics.start();
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        String encoded = null;
+        try {
+            encoded = delegate.encode(rawPassword);
+            return encoded;
+        } finally {
+            authMetrics.recordPasswordEncode(sample);
+            commit(event, "encode", encoded != null ? "ok" : "error");
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer.Sample sample = authMetrics.start();
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        boolean matched = false;
+        try {
+            matched = delegate.matches(rawPassword, encodedPassword);
+            return matched;
+        } finally {
+            authMetrics.recordPasswordMatch(sample, matched);
+            commit(event, "match", matched ? "match" : "mismatch");
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static void commit(PasswordHashEvent event, String operation, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+}
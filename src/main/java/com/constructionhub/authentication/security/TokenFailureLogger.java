@@ -0,0 +1,63 @@
+package com.constructionhub.authentication.security;
+
+import org.slf4j.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-limited WARN logging of token verification failures.
+ *
+ * EN: At most one line per outcome per interval; the next line reports how many similar failures were
+ * suppressed in between. Every failure is still counted by the auth.jwt.verify metric, so nothing is
+ * lost for alerting, but a token-spraying burst no longer turns into a log flood.
+ * PT: No máximo uma linha por resultado a cada intervalo; a linha seguinte informa quantas falhas
+ * semelhantes foram suprimidas nesse meio-tempo. Toda falha continua contada pela métrica
+ * auth.jwt.verify, então nada se perde para alertas, mas uma rajada de token spraying não vira uma
+ * enxurrada de logs.
+ */
+final class TokenFailureLogger {
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final Map<TokenOutcome, Window> windows = new EnumMap<>(TokenOutcome.class);
+
+    TokenFailureLogger(Logger log, long intervalMs) {
+        this.log = log;
+        this.intervalNanos = intervalMs * 1_000_000L;
+        long now = System.nanoTime();
+        for (TokenOutcome outcome : TokenOutcome.values()) {
+            windows.put(outcome, new Window(now));
+        }
+    }
+
+    void rejected(TokenOutcome outcome, String detail) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        Window window = windows.get(outcome);
+        long now = System.nanoTime();
+        long nextAt = window.nextLogAt.get();
+        if (intervalNanos > 0 && (now - nextAt < 0 || !window.nextLogAt.compareAndSet(nextAt, now + intervalNanos))) {
+            window.suppressed.increment();
+            return;
+        }
+        long suppressed = window.suppressed.sumThenReset();
+        if (suppressed > 0) {
+            log.warn("JWT token rejected ({}): {} [{} similar failures suppressed]", outcome.getTag(), detail, suppressed);
+        } else {
+            log.warn("JWT token rejected ({}): {}", outcome.getTag(), detail);
+        }
+    }
+
+    private static final class Window {
+        private final AtomicLong nextLogAt;
+        private final LongAdder suppressed = new LongAdder();
+
+        private Window(long now) {
+            this.nextLogAt = new AtomicLong(now);
+        }
+    }
+}
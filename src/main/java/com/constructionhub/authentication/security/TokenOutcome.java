@@ -0,0 +1,36 @@
+package com.constructionhub.authentication.security;
+
+/**
+ * Possible results of verifying a bearer token.
+ *
+ * EN: Used as the "outcome" tag of token metrics and to map parser failures to message codes.
+ * PT: Usado como tag "outcome" das métricas de token e para mapear falhas do parser para códigos de mensagem.
+ */
+public enum TokenOutcome {
+
+    VALID("valid", null),
+    EXPIRED("expired", "auth.tokenExpired"),
+    MALFORMED("malformed", "auth.tokenMalformed"),
+    SIGNATURE("signature", "auth.tokenSignatureInvalid"),
+    UNSUPPORTED("unsupported", "auth.tokenUnsupported"),
+    INVALID("invalid", "auth.tokenIllegalArgument"),
+    REVOKED("revoked", "auth.tokenRevoked"),
+    ABSENT("absent", null),
+    USER_NOT_FOUND("user_not_found", null);
+
+    private final String tag;
+    private final String messageCode;
+
+    TokenOutcome(String tag, String messageCode) {
+        this.tag = tag;
+        this.messageCode = messageCode;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public String getMessageCode() {
+        return messageCode;
+    }
+}
@@ -0,0 +1,46 @@
+package com.constructionhub.authentication.security;
+
+import com.constructionhub.authentication.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A bearer token failed verification.
+ *
+ * EN: Rejected tokens are ordinary traffic (expired sessions, scanners, token spraying), so these
+ * exceptions carry no stack trace and one immutable instance per outcome is reused: throwing one
+ * allocates nothing. Callers read the outcome directly instead of mapping the message code back.
+ * PT: Tokens rejeitados são tráfego comum (sessões expiradas, scanners, token spraying), então estas
+ * exceções não têm stack trace e uma instância imutável por resultado é reutilizada: lançar uma não
+ * aloca nada. Quem captura lê o resultado diretamente em vez de mapear o código de mensagem de volta.
+ */
+public final class TokenRejectedException extends ApiException {
+
+    private static final Map<TokenOutcome, TokenRejectedException> INSTANCES = new EnumMap<>(TokenOutcome.class);
+
+    static {
+        for (TokenOutcome outcome : TokenOutcome.values()) {
+            if (outcome.getMessageCode() != null) {
+                INSTANCES.put(outcome, new TokenRejectedException(outcome));
+            }
+        }
+    }
+
+    private final transient TokenOutcome outcome;
+
+    private TokenRejectedException(TokenOutcome outcome) {
+        super(outcome.getMessageCode(), HttpStatus.UNAUTHORIZED, false);
+        this.outcome = outcome;
+    }
+
+    public static TokenRejectedException of(TokenOutcome outcome) {
+        TokenRejectedException exception = INSTANCES.get(outcome);
+        return exception != null ? exception : INSTANCES.get(TokenOutcome.INVALID);
+    }
+
+    public TokenOutcome getOutcome() {
+        return outcome;
+    }
+}
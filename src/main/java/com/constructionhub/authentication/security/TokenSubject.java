@@ -0,0 +1,16 @@
+package com.constructionhub.authentication.security;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Everything needed to mint an access token and build the AuthResponseDTO.
+ *
+ * EN: Built from a loaded UserEntity (login, register) or from the snapshot cached in a refresh
+ * token family (refresh), so refresh does not need the user's entity graph.
+ * PT: Montado a partir de um UserEntity carregado (login, registro) ou do snapshot guardado em uma
+ * família de refresh tokens (refresh), para que o refresh não precise do grafo de entidades do usuário.
+ */
+public record TokenSubject(UUID userId, String username, String email, String firstName, String lastName,
+                           List<String> roles, List<String> permissions) {
+}
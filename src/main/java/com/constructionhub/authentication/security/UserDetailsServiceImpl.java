@@ -1,26 +1,170 @@
 package com.constructionhub.authentication.security;
 
 
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
+import com.constructionhub.authentication.datasource.ReadYourWritesTracker;
+import com.constructionhub.authentication.datasource.ReplicaRoutingContext;
+import com.constructionhub.authentication.entity.UserEntity;
+import com.constructionhub.authentication.jfr.UserLoadEvent;
+import com.constructionhub.authentication.metrics.AuthMetrics;
 import com.constructionhub.authentication.repository.UserRepository;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads users for authentication, coalescing concurrent loads of the same login.
+ *
+ * EN: A client fanning out parallel calls with one token, or every client right after a deploy,
+ * asks for the same user many times at once. The first load of a login becomes the leader and runs
+ * the query; loads of the same login (case-insensitive) that arrive while it is in flight wait for
+ * its result instead of querying too (single flight). Nothing is cached: the entry is removed as
+ * soon as the leader finishes, so later requests query again. Followers wait at most
+ * auth.user-load.coalescing.max-wait-ms and then run their own query. Logins that wrote recently
+ * (read-your-writes) are never coalesced, so they cannot receive a result read before their write.
+ * The entity is mutable, so the leader publishes a private copy that nobody else touches and every
+ * follower gets its own copy of it; no two requests share an instance.
+ * PT: Um cliente que dispara chamadas paralelas com um token, ou todos os clientes logo após um
+ * deploy, pedem o mesmo usuário muitas vezes ao mesmo tempo. A primeira carga de um login vira a
+ * líder e executa a consulta; as cargas do mesmo login (sem distinção de maiúsculas) que chegam
+ * enquanto ela está em andamento esperam o seu resultado em vez de consultar também (single flight).
+ * Nada fica em cache: a entrada sai assim que a líder termina, então as requisições seguintes
+ * consultam de novo. As seguidoras esperam no máximo auth.user-load.coalescing.max-wait-ms e então
+ * executam a própria consulta. Logins que escreveram há pouco (read-your-writes) nunca são agrupados,
+ * para não receberem um resultado lido antes da escrita. A entidade é mutável, então a líder publica
+ * uma cópia privada que ninguém mais altera e cada seguidora recebe a sua própria cópia dela; duas
+ * requisições nunca compartilham uma instância.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
+
     private final UserRepository userRepository;
+    private final AuthMetrics authMetrics;
+    private final AuthorizationSnapshotHolder authorizationSnapshots;
+    private final ReadYourWritesTracker readYourWrites;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<String, CompletableFuture<UserEntity>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${auth.user-load.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    @Value("${auth.user-load.coalescing.max-wait-ms:1000}")
+    private long maxWaitMs;
+
+    public UserDetailsServiceImpl(UserRepository userRepository, AuthMetrics authMetrics,
+                                  AuthorizationSnapshotHolder authorizationSnapshots,
+                                  ReadYourWritesTracker readYourWrites,
+                                  PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.authMetrics = authMetrics;
+        this.authorizationSnapshots = authorizationSnapshots;
+        this.readYourWrites = readYourWrites;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Tenta encontrar o usuário pelo username ou email
-        return userRepository.findByUsername(username)
-                .orElseGet(() -> userRepository.findByEmail(username)
-                        .orElseThrow(() -> new UsernameNotFoundException("UserEntity not found")));
+        Timer.Sample sample = authMetrics.start();
+        UserLoadEvent event = new UserLoadEvent();
+        event.begin();
+        String lookup = "none";
+        UserEntity user = null;
+        boolean coalesced = false;
+        try {
+            boolean requiresPrimary = readYourWrites.requiresPrimary(username);
+            if (!coalescingEnabled || requiresPrimary) {
+                user = load(username, requiresPrimary);
+            } else {
+                String key = username.toLowerCase(Locale.ROOT);
+                CompletableFuture<UserEntity> flight = new CompletableFuture<>();
+                CompletableFuture<UserEntity> existing = inFlight.putIfAbsent(key, flight);
+                if (existing == null) {
+                    user = lead(key, flight, username);
+                } else {
+                    user = join(existing, username);
+                    coalesced = true;
+                }
+            }
+            lookup = user.getUsername().equalsIgnoreCase(username) ? "username" : "email";
+            return user;
+        } finally {
+            authMetrics.recordUserLoad(sample, user != null);
+            event.end();
+            if (event.shouldCommit()) {
+                event.lookup = lookup;
+                event.outcome = user != null ? "found" : "not_found";
+                event.cacheHit = false; // Ainda não há cache de usuários entre a requisição e o banco
+                event.coalesced = coalesced;
+                event.authorityCount = user != null ? user.getAuthorities().size() : 0;
+                event.commit();
+            }
+        }
+    }
+
+    // Executa a consulta e entrega o resultado (ou a exceção) às cargas que chegaram enquanto ela rodava
+    private UserEntity lead(String key, CompletableFuture<UserEntity> flight, String username) {
+        authMetrics.recordUserLoadCoalescing(UserLoadCoalescing.LEADER);
+        try {
+            UserEntity user = load(username, false);
+            flight.complete(user.copy()); // A líder segue alterando a própria instância à vontade
+            return user;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private UserEntity join(CompletableFuture<UserEntity> flight, String username) {
+        try {
+            UserEntity user = flight.get(maxWaitMs, TimeUnit.MILLISECONDS).copy();
+            authMetrics.recordUserLoadCoalescing(UserLoadCoalescing.JOINED);
+            return user;
+        } catch (ExecutionException e) {
+            authMetrics.recordUserLoadCoalescing(UserLoadCoalescing.JOINED);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // UsernameNotFoundException da líder, por exemplo
+            }
+            throw new IllegalStateException("User load failed", e.getCause());
+        } catch (TimeoutException e) {
+            log.debug("Gave up waiting {} ms for a concurrent load of the same user; querying directly.", maxWaitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        authMetrics.recordUserLoadCoalescing(UserLoadCoalescing.TIMEOUT);
+        return load(username, false);
+    }
+
+    // Somente leitura: roteado para uma réplica, salvo se o usuário escreveu há pouco
+    private UserEntity load(String username, boolean requiresPrimary) {
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimaryIf(requiresPrimary)) {
+            return readOnlyTransaction.execute(status -> {
+                // Username ou email, sem distinção de maiúsculas: uma única consulta indexada
+                UserEntity user = userRepository.findByLogin(username)
+                        .orElseThrow(() -> new UsernameNotFoundException("UserEntity not found"));
+                // Autoridades compartilhadas do snapshot, em vez de reconstruídas a cada getAuthorities()
+                user.setResolvedAuthorities(authorizationSnapshots.resolve(user));
+                return user;
+            });
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.constructionhub.authentication.security;
+
+/**
+ * Role of a user load in single-flight coalescing; the "result" tag of auth.user.load.coalescing.
+ * Papel de uma carga de usuário no single-flight; a tag "result" de auth.user.load.coalescing.
+ */
+public enum UserLoadCoalescing {
+
+    /** Ran the query for itself and any concurrent loads / Executou a consulta para si e para as cargas simultâneas */
+    LEADER("leader"),
+    /** Shared the result of a query already in flight / Usou o resultado de uma consulta já em andamento */
+    JOINED("joined"),
+    /** Gave up waiting for the query in flight and ran its own / Desistiu de esperar e executou a própria consulta */
+    TIMEOUT("timeout");
+
+    private final String tag;
+
+    UserLoadCoalescing(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
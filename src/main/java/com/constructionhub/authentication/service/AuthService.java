@@ -1,27 +1,52 @@
 package com.constructionhub.authentication.service;
 
+import com.constructionhub.authentication.activity.LoginActivityRecorder;
+import com.constructionhub.authentication.audit.AuditEventType;
+import com.constructionhub.authentication.audit.AuditPublisher;
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
+import com.constructionhub.authentication.authorization.ResolvedAuthorities;
+import com.constructionhub.authentication.datasource.ReadYourWritesTracker;
+import com.constructionhub.authentication.datasource.ReplicaRoutingContext;
 import com.constructionhub.authentication.dto.AuthResponseDTO;
 import com.constructionhub.authentication.dto.LoginRequestDTO;
 import com.constructionhub.authentication.dto.RegisterRequestDTO;
+import com.constructionhub.authentication.dto.TokenIntrospectionDTO;
 import com.constructionhub.authentication.entity.RoleEntity;
 import com.constructionhub.authentication.entity.UserEntity;
 import com.constructionhub.authentication.exception.ApiException;
+import com.constructionhub.authentication.heavyhitter.HeavyHitterTracker;
+import com.constructionhub.authentication.jfr.CredentialCheckEvent;
+import com.constructionhub.authentication.opaque.OpaqueToken;
+import com.constructionhub.authentication.opaque.OpaqueTokenService;
 import com.constructionhub.authentication.repository.RoleRepository;
 import com.constructionhub.authentication.repository.UserRepository;
+import com.constructionhub.authentication.revocation.RevocationStore;
 import com.constructionhub.authentication.security.JwtTokenProvider;
+import com.constructionhub.authentication.security.TokenRejectedException;
+import com.constructionhub.authentication.security.TokenSubject;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger; // Adicionar Logger
 import org.slf4j.LoggerFactory; // Adicionar LoggerFactory
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException; // Capturar exceção mais específica
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set; // Importar Set
+import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 public class AuthService {
@@ -33,24 +58,80 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final AuditPublisher auditPublisher;
+    private final ReadYourWritesTracker readYourWrites;
+    private final RevocationStore revocationStore;
+    private final RefreshTokenService refreshTokenService;
+    private final OpaqueTokenService opaqueTokens;
+    private final AuthorizationSnapshotHolder authorizationSnapshots;
+    private final LoginActivityRecorder loginActivity;
+    private final HeavyHitterTracker heavyHitters;
+
+    @Value("${auth.refresh-token.accept-legacy-jwt:true}")
+    private boolean acceptLegacyRefreshTokens;
+
+    // ISO-8601; vazio = início desta instância (nenhum refresh token JWT é emitido depois disso)
+    @Value("${auth.refresh-token.legacy-jwt-issued-before:}")
+    private String legacyJwtIssuedBefore;
+
+    private Instant legacyJwtCutoff;
 
     public AuthService(
             UserRepository userRepository,
             RoleRepository roleRepository,
             PasswordEncoder passwordEncoder,
             JwtTokenProvider jwtTokenProvider,
-            AuthenticationManager authenticationManager) {
+            AuthenticationManager authenticationManager,
+            AuditPublisher auditPublisher,
+            ReadYourWritesTracker readYourWrites,
+            RevocationStore revocationStore,
+            RefreshTokenService refreshTokenService,
+            OpaqueTokenService opaqueTokens,
+            AuthorizationSnapshotHolder authorizationSnapshots,
+            LoginActivityRecorder loginActivity,
+            HeavyHitterTracker heavyHitters) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtTokenProvider = jwtTokenProvider;
         this.authenticationManager = authenticationManager;
+        this.auditPublisher = auditPublisher;
+        this.readYourWrites = readYourWrites;
+        this.revocationStore = revocationStore;
+        this.refreshTokenService = refreshTokenService;
+        this.opaqueTokens = opaqueTokens;
+        this.authorizationSnapshots = authorizationSnapshots;
+        this.loginActivity = loginActivity;
+        this.heavyHitters = heavyHitters;
+    }
+
+    @PostConstruct
+    void resolveLegacyJwtCutoff() {
+        legacyJwtCutoff = legacyJwtIssuedBefore.isBlank() ? Instant.now() : Instant.parse(legacyJwtIssuedBefore.trim());
     }
 
     public AuthResponseDTO login(LoginRequestDTO request) {
+        // Usuário recém-registrado: lê do primário até a réplica alcançá-lo
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimaryIf(
+                readYourWrites.requiresPrimary(request.getUsername()))) {
+            return credentialCheck("login", () -> doLogin(request));
+        }
+    }
+
+    @Transactional
+    public AuthResponseDTO register(RegisterRequestDTO request) {
+        return credentialCheck("register", () -> doRegister(request));
+    }
+
+    public AuthResponseDTO refreshToken(String refreshToken) {
+        return credentialCheck("refresh", () -> doRefreshToken(refreshToken));
+    }
+
+    private AuthResponseDTO doLogin(LoginRequestDTO request) {
         log.info("Attempting login for user: {}", request.getUsername());
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getUsername(),
                             request.getPassword()
@@ -58,29 +139,31 @@ public class AuthService {
             );
         } catch (AuthenticationException e) {
             log.warn("Login failed for user {}: Invalid credentials", request.getUsername());
-            throw new ApiException("auth.invalidCredentials", null, HttpStatus.UNAUTHORIZED);
+            heavyHitters.recordLogin(request.getUsername(), false);
+            auditPublisher.publish(AuditEventType.LOGIN_FAILURE, null, request.getUsername(), e.getClass().getSimpleName());
+            throw ApiException.expected("auth.invalidCredentials", HttpStatus.UNAUTHORIZED);
         }
 
-        UserEntity userEntity = userRepository.findByUsername(request.getUsername())
-                .orElseGet(() -> userRepository.findByEmail(request.getUsername())
-                        .orElseThrow(() -> {
-                            // Isso não deveria acontecer se o authenticationManager.authenticate passou
-                            log.error("User {} authenticated but not found in repository.", request.getUsername());
-                            return new ApiException("auth.userNotFoundAfterAuthentication", null, HttpStatus.INTERNAL_SERVER_ERROR);
-                        }));
+        // O principal é a entidade já carregada pelo UserDetailsServiceImpl: nada de segunda consulta
+        if (!(authentication.getPrincipal() instanceof UserEntity userEntity)) {
+            log.error("User {} authenticated but principal is not a UserEntity.", request.getUsername());
+            throw new ApiException("auth.userNotFoundAfterAuthentication", null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
         log.info("Login successful for user: {}", userEntity.getUsername());
-        return jwtTokenProvider.generateTokens(userEntity);
+        heavyHitters.recordLogin(request.getUsername(), true);
+        loginActivity.recordSuccess(userEntity.getId()); // Gravado em lote pelo recorder, fora da requisição
+        auditPublisher.publish(AuditEventType.LOGIN_SUCCESS, userEntity.getId(), userEntity.getUsername(), null);
+        return issueTokens(userEntity);
     }
 
-    @Transactional
-    public AuthResponseDTO register(RegisterRequestDTO request) {
+    private AuthResponseDTO doRegister(RegisterRequestDTO request) {
         log.info("Attempting to register new user with username: {}", request.getUsername());
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userRepository.existsByUsernameIgnoreCase(request.getUsername())) {
             log.warn("Registration failed: Username {} already exists.", request.getUsername());
             throw new ApiException("auth.userExists", new Object[]{request.getUsername()}, HttpStatus.CONFLICT);
         }
 
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userRepository.existsByEmailIgnoreCase(request.getEmail())) {
             log.warn("Registration failed: Email {} already exists.", request.getEmail());
             throw new ApiException("auth.emailExists", new Object[]{request.getEmail()}, HttpStatus.CONFLICT);
         }
@@ -105,33 +188,203 @@ public class AuthService {
                 .build();
 
         userEntity = userRepository.save(userEntity);
+        readYourWrites.markWrite(userEntity.getUsername(), userEntity.getEmail());
         log.info("User registered successfully: {}", userEntity.getUsername());
-        return jwtTokenProvider.generateTokens(userEntity);
+        auditPublisher.publishAfterCommit(AuditEventType.REGISTER, userEntity.getId(), userEntity.getUsername(), null);
+        return issueTokens(userEntity);
     }
 
-    public AuthResponseDTO refreshToken(String refreshToken) {
+    private AuthResponseDTO doRefreshToken(String refreshToken) {
         log.info("Attempting to refresh token.");
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            log.warn("Refresh token validation failed.");
-            throw new ApiException("auth.invalidOrExpiredRefreshToken", null, HttpStatus.UNAUTHORIZED);
+        if (!RefreshTokenService.isLegacyJwt(refreshToken)) {
+            return refreshTokenService.rotate(refreshToken); // Uma busca por chave e um update compare-and-set
+        }
+        if (!acceptLegacyRefreshTokens) {
+            auditPublisher.publish(AuditEventType.TOKEN_REFRESH_FAILURE, null, null, "legacy_token");
+            throw ApiException.expected("auth.invalidOrExpiredRefreshToken", HttpStatus.UNAUTHORIZED);
         }
+        return doLegacyRefresh(refreshToken);
+    }
 
-        String username = jwtTokenProvider.getUsername(refreshToken);
-        // String userId = jwtTokenProvider.getUserIdFromToken(refreshToken); // Se quiser usar ID para buscar
+    // Refresh token JWT emitido antes da tabela refresh_tokens: aceito uma única vez e migrado para um handle
+    private AuthResponseDTO doLegacyRefresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtTokenProvider.getActiveClaims(refreshToken);
+        } catch (TokenRejectedException e) {
+            log.debug("Refresh token validation failed."); // Motivo já registrado (com limite de taxa) pelo JwtTokenProvider
+            auditPublisher.publish(AuditEventType.TOKEN_REFRESH_FAILURE, null, null, "invalid_token");
+            throw ApiException.expected("auth.invalidOrExpiredRefreshToken", HttpStatus.UNAUTHORIZED);
+        }
+        // Token de acesso não é refresh token: trocá-lo transformaria um token de 1 h vazado em uma sessão
+        if (JwtTokenProvider.isAccessToken(claims)) {
+            log.warn("Access token presented as refresh token for user: {}", claims.getSubject());
+            auditPublisher.publish(AuditEventType.TOKEN_REFRESH_FAILURE, null, claims.getSubject(), "access_token");
+            throw ApiException.expected("auth.invalidOrExpiredRefreshToken", HttpStatus.UNAUTHORIZED);
+        }
+        // Só os emitidos antes da migração para refresh_tokens são legados
+        if (claims.getIssuedAt() == null || !claims.getIssuedAt().toInstant().isBefore(legacyJwtCutoff)) {
+            log.warn("JWT refresh token issued after the legacy cutoff for user: {}", claims.getSubject());
+            auditPublisher.publish(AuditEventType.TOKEN_REFRESH_FAILURE, null, claims.getSubject(), "legacy_after_cutoff");
+            throw ApiException.expected("auth.invalidOrExpiredRefreshToken", HttpStatus.UNAUTHORIZED);
+        }
 
-        UserEntity userEntity = userRepository.findByUsername(username) // Ou findById(UUID.fromString(userId))
-                .orElseThrow(() -> {
-                    log.warn("User {} not found for refresh token.", username);
-                    return new ApiException("user.notFoundFromToken", null, HttpStatus.NOT_FOUND);
-                });
-        log.info("Token refreshed successfully for user: {}", username);
-        return jwtTokenProvider.generateTokens(userEntity);
+        String username = claims.getSubject();
+        UserEntity userEntity;
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimaryIf(readYourWrites.requiresPrimary(username))) {
+            userEntity = userRepository.findByUsername(username)
+                    .orElseThrow(() -> {
+                        log.warn("User {} not found for refresh token.", username);
+                        auditPublisher.publish(AuditEventType.TOKEN_REFRESH_FAILURE, null, username, "user_not_found");
+                        return new ApiException("user.notFoundFromToken", null, HttpStatus.NOT_FOUND);
+                    });
+        }
+        // Não pode ser reapresentado: a sessão continua pelo handle emitido abaixo. Tokens sem jti (anteriores
+        // à revogação por jti) são marcados por usuário e data de emissão, conferidos aqui mesmo
+        String revocationKey = claims.getId() != null ? claims.getId() : legacyRevocationKey(claims);
+        if (revocationKey == null || (claims.getId() == null && revocationStore.isRevoked(revocationKey, null, null))) {
+            log.warn("Legacy refresh token without jti presented again for user: {}", username);
+            auditPublisher.publish(AuditEventType.TOKEN_REFRESH_FAILURE, userEntity.getId(), username, "legacy_reused");
+            throw ApiException.expected("auth.invalidOrExpiredRefreshToken", HttpStatus.UNAUTHORIZED);
+        }
+        revocationStore.revokeTokens(Map.of(revocationKey, claims.getExpiration().toInstant()));
+        log.info("Legacy refresh token exchanged for user: {}", username);
+        auditPublisher.publish(AuditEventType.TOKEN_REFRESH, userEntity.getId(), username, "legacy");
+        return issueTokens(userEntity);
+    }
+
+    // Chave de revogação de um refresh token JWT sem jti; null sem iat (não daria para aceitá-lo uma única vez)
+    private static String legacyRevocationKey(Claims claims) {
+        if (claims.getIssuedAt() == null) {
+            return null;
+        }
+        return "legacy-refresh:" + claims.getSubject() + ":" + claims.getIssuedAt().toInstant().getEpochSecond();
+    }
+
+    // Nova sessão: família de refresh tokens no servidor + token de acesso
+    private AuthResponseDTO issueTokens(UserEntity userEntity) {
+        TokenSubject subject = jwtTokenProvider.subjectOf(userEntity);
+        return jwtTokenProvider.generateTokens(subject, refreshTokenService.issue(subject));
+    }
+
+    /**
+     * Runs a credential operation inside a CredentialCheck JFR event.
+     * Executa uma operação de credencial dentro de um evento JFR CredentialCheck.
+     */
+    private AuthResponseDTO credentialCheck(String operation, Supplier<AuthResponseDTO> action) {
+        CredentialCheckEvent event = new CredentialCheckEvent();
+        event.begin();
+        AuthResponseDTO response = null;
+        try {
+            response = action.get();
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.outcome = response != null ? "success" : "failure";
+                event.commit();
+            }
+        }
+    }
+
+    public void logout(String token, String refreshToken) {
+        // Os tokens são revogados pelo jti até expirarem; tokens inválidos ou expirados não têm o que revogar
+        Map<String, Instant> revoked = new HashMap<>(2);
+        String username = revocable(token, revoked);
+        boolean sessionEnded = false;
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            // Possuir o refresh token basta para revogá-lo, mesmo com o token de acesso já expirado
+            if (RefreshTokenService.isLegacyJwt(refreshToken)) {
+                String refreshUsername = revocable(refreshToken, revoked);
+                if (username == null) {
+                    username = refreshUsername;
+                }
+            } else {
+                sessionEnded = refreshTokenService.revoke(refreshToken);
+            }
+        }
+        if (!revoked.isEmpty()) {
+            revocationStore.revokeTokens(revoked); // Uma única escrita (pipeline) para os tokens JWT e opacos
+        }
+        log.info("User logout processed for {}; {} token(s) revoked, refresh session ended: {}.", username, revoked.size(), sessionEnded);
+        auditPublisher.publish(AuditEventType.LOGOUT, null, username, null);
+    }
+
+    /**
+     * Describes an access token (JWT or opaque) for resource servers, as in RFC 7662.
+     * Descreve um token de acesso (JWT ou opaco) para servidores de recursos, como na RFC 7662.
+     */
+    public TokenIntrospectionDTO introspect(String token) {
+        try {
+            if (OpaqueTokenService.isHandle(token)) {
+                OpaqueToken opaque = opaqueTokens.resolve(token);
+                // Permissões do snapshot atual: o token opaco só guarda os nomes das roles
+                ResolvedAuthorities resolved = authorizationSnapshots.current().resolve(opaque.roles());
+                return TokenIntrospectionDTO.builder()
+                        .active(true)
+                        .sub(opaque.username())
+                        .username(opaque.username())
+                        .userId(opaque.userId())
+                        .roles(opaque.roles())
+                        .permissions(resolved != null ? resolved.getPermissions() : List.of())
+                        .iat(opaque.issuedAt())
+                        .exp(opaque.expiresAt())
+                        .jti(opaque.jti())
+                        .tokenFormat("opaque")
+                        .build();
+            }
+            if (!RefreshTokenService.isLegacyJwt(token)) {
+                return TokenIntrospectionDTO.inactive(); // Refresh handle ou lixo
+            }
+            Claims claims = jwtTokenProvider.getActiveClaims(token);
+            if (!JwtTokenProvider.isAccessToken(claims)) {
+                return TokenIntrospectionDTO.inactive(); // Refresh token JWT legado: não autoriza chamadas
+            }
+            String userId = claims.get("userId", String.class);
+            return TokenIntrospectionDTO.builder()
+                    .active(true)
+                    .sub(claims.getSubject())
+                    .username(claims.getSubject())
+                    .userId(userId != null ? UUID.fromString(userId) : null)
+                    .roles(stringList(claims.get("roles")))
+                    .permissions(stringList(claims.get("permissions")))
+                    .iat(claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() / 1000 : null)
+                    .exp(claims.getExpiration().getTime() / 1000)
+                    .jti(claims.getId())
+                    .tokenFormat("jwt")
+                    .build();
+        } catch (ApiException | IllegalArgumentException e) {
+            return TokenIntrospectionDTO.inactive(); // Motivo já registrado (com limite de taxa) na verificação
+        }
     }
 
-    public void logout(String token) {
-        // A invalidação de JWT geralmente é feita no lado do cliente (removendo o token).
-        // Se for necessária uma blacklist no servidor, essa lógica seria implementada aqui
-        // (ex: armazenar o JTI - JWT ID - do token em uma lista de tokens revogados até a expiração).
-        log.info("User logout processed for token (invalidation typically client-side or via blacklist).");
+    // Claims de lista do JWT (roles, permissions); refresh tokens legados não as têm
+    private static List<String> stringList(Object claim) {
+        if (!(claim instanceof List<?> list)) {
+            return null;
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    // Adiciona o jti do token a revoked e devolve o subject, ou null se o token não for válido
+    private String revocable(String token, Map<String, Instant> revoked) {
+        if (OpaqueTokenService.isHandle(token)) {
+            OpaqueToken opaque = opaqueTokens.remove(token);
+            if (opaque == null) {
+                return null;
+            }
+            revoked.put(opaque.jti(), Instant.ofEpochSecond(opaque.expiresAt()));
+            return opaque.username();
+        }
+        try {
+            Claims claims = jwtTokenProvider.getClaims(token);
+            if (claims.getId() != null) {
+                revoked.put(claims.getId(), claims.getExpiration().toInstant());
+            }
+            return claims.getSubject();
+        } catch (ApiException e) {
+            return null; // Logout com token inválido ou expirado ainda é registrado, sem principal
+        }
     }
-}
\ No newline at end of file
+}
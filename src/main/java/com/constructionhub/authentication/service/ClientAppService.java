@@ -1,10 +1,16 @@
 package com.constructionhub.authentication.service;
 
+import com.constructionhub.authentication.dto.Versioned;
 import com.constructionhub.authentication.entity.ClientApplicationEntity;
 import com.constructionhub.authentication.entity.UserEntity;
 import com.constructionhub.authentication.exception.ApiException;
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.invalidation.InvalidationType;
+import com.constructionhub.authentication.quota.ClientQuotaRegistry;
 import com.constructionhub.authentication.repository.ClientAppRepository;
+import com.constructionhub.authentication.repository.EntityVersion;
 import com.constructionhub.authentication.repository.UserRepository;
+import com.constructionhub.authentication.security.ClientCredentialVerifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,14 +32,23 @@ public class ClientAppService {
     private final ClientAppRepository clientAppRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final InvalidationBus invalidationBus;
+    private final ClientQuotaRegistry clientQuotas;
+    private final ClientCredentialVerifier clientCredentials;
 
     @Autowired
     public ClientAppService(ClientAppRepository clientAppRepository,
                             UserRepository userRepository,
-                            PasswordEncoder passwordEncoder) {
+                            PasswordEncoder passwordEncoder,
+                            InvalidationBus invalidationBus,
+                            ClientQuotaRegistry clientQuotas,
+                            ClientCredentialVerifier clientCredentials) {
         this.clientAppRepository = clientAppRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.invalidationBus = invalidationBus;
+        this.clientQuotas = clientQuotas;
+        this.clientCredentials = clientCredentials;
     }
 
     @Transactional(readOnly = true)
@@ -42,22 +57,28 @@ public class ClientAppService {
         return clientAppRepository.findAll();
     }
 
+    /**
+     * Client application by id with the ETag of the version that was read.
+     * Aplicação cliente por id com o ETag da versão lida.
+     */
     @Transactional(readOnly = true)
-    public ClientApplicationEntity getClientAppById(UUID id) {
+    public Versioned<ClientApplicationEntity> getClientAppById(UUID id) {
         log.debug("Fetching client application by ID: {}", id);
-        return clientAppRepository.findById(id)
+        ClientApplicationEntity clientApp = clientAppRepository.findById(id)
                 .orElseThrow(() -> new ApiException("client.notFoundById", new Object[]{id}, HttpStatus.NOT_FOUND));
+        return new Versioned<>(clientApp, toETag(clientApp));
     }
 
     @Transactional(readOnly = true)
-    public ClientApplicationEntity getClientAppByClientId(String clientId) {
+    public Versioned<ClientApplicationEntity> getClientAppByClientId(String clientId) {
         log.debug("Fetching client application by client ID: {}", clientId);
-        return clientAppRepository.findByClientId(clientId)
+        ClientApplicationEntity clientApp = clientAppRepository.findByClientId(clientId)
                 .orElseThrow(() -> new ApiException("client.notFoundByClientId", new Object[]{clientId}, HttpStatus.NOT_FOUND));
+        return new Versioned<>(clientApp, toETag(clientApp));
     }
 
     @Transactional(readOnly = true)
-    public List<ClientApplicationEntity> getClientAppsByOwnerId(UUID ownerId) {
+    public Versioned<List<ClientApplicationEntity>> getClientAppsByOwnerId(UUID ownerId) {
         log.debug("Fetching client applications by owner user ID: {}", ownerId);
         // Primeiro, verifica se o UserEntity (owner) existe.
         // Isso não é estritamente necessário se o repositório já lida com isso,
@@ -66,10 +87,48 @@ public class ClientAppService {
             throw new ApiException("user.notFound", new Object[]{ownerId}, HttpStatus.NOT_FOUND);
         }
         // A chamada CORRETA para o método do repositório que definimos
-        return clientAppRepository.findByOwner_Id(ownerId);
+        List<ClientApplicationEntity> clientApps = clientAppRepository.findByOwner_Id(ownerId);
+        return new Versioned<>(clientApps, EntityVersion.toETag(clientApps.stream()
+                .map(clientApp -> new EntityVersion(clientApp.getId(), clientApp.getVersion()))
+                .toList()));
+    }
+
+    /**
+     * ETag of the version an update returned / ETag da versão devolvida por um update.
+     */
+    public String toETag(ClientApplicationEntity clientApp) {
+        return new EntityVersion(clientApp.getId(), clientApp.getVersion()).toETag();
     }
 
 
+    /**
+     * ETags of client applications, read from their versions only.
+     * ETags de aplicações cliente, lidos apenas das suas versões.
+     */
+    @Transactional(readOnly = true)
+    public String getClientAppETag(UUID id) {
+        return clientAppRepository.findVersionById(id)
+                .map(EntityVersion::toETag)
+                .orElseThrow(() -> new ApiException("client.notFoundById", new Object[]{id}, HttpStatus.NOT_FOUND));
+    }
+
+    @Transactional(readOnly = true)
+    public String getClientAppETagByClientId(String clientId) {
+        return clientAppRepository.findVersionByClientId(clientId)
+                .map(EntityVersion::toETag)
+                .orElseThrow(() -> new ApiException("client.notFoundByClientId", new Object[]{clientId}, HttpStatus.NOT_FOUND));
+    }
+
+    @Transactional(readOnly = true)
+    public String getClientAppsETagByOwnerId(UUID ownerId) {
+        List<EntityVersion> versions = clientAppRepository.findVersionsByOwnerId(ownerId);
+        // Lista vazia: mesmo 404 de getClientAppsByOwnerId se o proprietário não existir
+        if (versions.isEmpty() && !userRepository.existsById(ownerId)) {
+            throw new ApiException("user.notFound", new Object[]{ownerId}, HttpStatus.NOT_FOUND);
+        }
+        return EntityVersion.toETag(versions);
+    }
+
     @Transactional
     public ClientApplicationEntity createClientApp(ClientApplicationEntity clientApp, UUID ownerId) {
         log.info("Creating new client application: {}", clientApp.getApplicationName());
@@ -107,14 +166,23 @@ public class ClientAppService {
 
         ClientApplicationEntity savedClientApp = clientAppRepository.save(clientApp);
         log.info("Client application '{}' created with ID: {} and Client ID: {}", savedClientApp.getApplicationName(), savedClientApp.getId(), savedClientApp.getClientId());
+        clientQuotas.reloadAfterCommit();
+        invalidationBus.broadcastAfterCommit(InvalidationType.CLIENT_APP, savedClientApp.getId().toString());
         return savedClientApp;
     }
 
+    /**
+     * Updates a client application; expectedVersion (from If-Match, null to skip) must be the current version.
+     * Atualiza uma aplicação cliente; expectedVersion (do If-Match, null para ignorar) precisa ser a versão atual.
+     */
     @Transactional
-    public ClientApplicationEntity updateClientApp(UUID id, ClientApplicationEntity clientAppDetails) {
+    public ClientApplicationEntity updateClientApp(UUID id, ClientApplicationEntity clientAppDetails, Long expectedVersion) {
         log.info("Updating client application with ID: {}", id);
         ClientApplicationEntity clientApp = clientAppRepository.findById(id)
                 .orElseThrow(() -> new ApiException("client.notFoundById", new Object[]{id}, HttpStatus.NOT_FOUND));
+        if (expectedVersion != null && !expectedVersion.equals(clientApp.getVersion())) {
+            throw new ApiException("error.preconditionFailed", null, HttpStatus.PRECONDITION_FAILED);
+        }
 
         if (StringUtils.hasText(clientAppDetails.getApplicationName()) &&
             !clientApp.getApplicationName().equals(clientAppDetails.getApplicationName())) {
@@ -131,9 +199,16 @@ public class ClientAppService {
         if (clientAppDetails.getAuthorizedGrantTypes() != null) clientApp.setAuthorizedGrantTypes(new HashSet<>(clientAppDetails.getAuthorizedGrantTypes()));
 
         clientApp.setEnabled(clientAppDetails.isEnabled());
+        // Cotas nulas voltam aos padrões de auth.client-quota.*
+        clientApp.setTokenQuotaPerMinute(clientAppDetails.getTokenQuotaPerMinute());
+        clientApp.setTokenQuotaBurst(clientAppDetails.getTokenQuotaBurst());
 
-        ClientApplicationEntity updatedClientApp = clientAppRepository.save(clientApp);
+        // Flush aqui para que o ETag da resposta já tenha a versão nova
+        ClientApplicationEntity updatedClientApp = clientAppRepository.saveAndFlush(clientApp);
         log.info("Client application ID {} updated successfully.", updatedClientApp.getId());
+        clientQuotas.reloadAfterCommit();
+        clientCredentials.clearAfterCommit();
+        invalidationBus.broadcastAfterCommit(InvalidationType.CLIENT_APP, id.toString());
         return updatedClientApp;
     }
 
@@ -148,6 +223,8 @@ public class ClientAppService {
         ClientApplicationEntity savedClientApp = clientAppRepository.save(clientApp);
         log.info("Client secret regenerated for client application ID {}.", id);
         // Não logar ou retornar `newSecret` em produção
+        clientCredentials.clearAfterCommit();
+        invalidationBus.broadcastAfterCommit(InvalidationType.CLIENT_APP, id.toString());
         return savedClientApp;
     }
 
@@ -159,5 +236,8 @@ public class ClientAppService {
         }
         clientAppRepository.deleteById(id);
         log.info("Client application ID {} deleted successfully.", id);
+        clientQuotas.reloadAfterCommit();
+        clientCredentials.clearAfterCommit();
+        invalidationBus.broadcastAfterCommit(InvalidationType.CLIENT_APP, id.toString());
     }
 }
\ No newline at end of file
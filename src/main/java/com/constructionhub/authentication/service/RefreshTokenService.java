@@ -0,0 +1,385 @@
+package com.constructionhub.authentication.service;
+
+import com.constructionhub.authentication.audit.AuditEventType;
+import com.constructionhub.authentication.audit.AuditPublisher;
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
+import com.constructionhub.authentication.authorization.ResolvedAuthorities;
+import com.constructionhub.authentication.config.JwtConfig;
+import com.constructionhub.authentication.dto.AuthResponseDTO;
+import com.constructionhub.authentication.entity.RefreshTokenEntity;
+import com.constructionhub.authentication.entity.UserEntity;
+import com.constructionhub.authentication.exception.ApiException;
+import com.constructionhub.authentication.repository.RefreshTokenRepository;
+import com.constructionhub.authentication.repository.UserRepository;
+import com.constructionhub.authentication.security.JwtTokenProvider;
+import com.constructionhub.authentication.security.TokenSubject;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and rotates opaque refresh tokens backed by the refresh_tokens table.
+ *
+ * EN: A handle is base64url(family id + 32 bytes). The first handle of a family is random; each
+ * successor is an HMAC of the handle it replaces, so it is unpredictable from outside but can be
+ * derived again from its predecessor. A refresh is one primary-key lookup and one compare-and-set
+ * UPDATE that swaps the stored hash; the access token is minted from the profile and role names
+ * cached in the row, with permissions resolved from the in-memory authorization snapshot. Presenting a
+ * handle of the family that is no longer current means it was copied: the whole family is revoked and
+ * a REFRESH_TOKEN_REUSE audit event is written. The one exception is a client retry: the handle
+ * replaced less than auth.refresh-token.reuse-grace-ms ago, while its successor is still the current
+ * handle, gets that same successor back with a new access token, without another rotation; the losing
+ * side of two concurrent refreshes is answered the same way. Rotations slide the expiry by the
+ * refresh validity, but never past auth.refresh-token.max-session-lifetime-ms after the login that
+ * created the family.
+ * PT: Um handle é base64url(id da família + 32 bytes). O primeiro handle de uma família é aleatório;
+ * cada sucessor é um HMAC do handle que ele substitui, então não é previsível de fora mas pode ser
+ * derivado de novo a partir do antecessor. Um refresh é uma busca pela chave primária e um UPDATE
+ * compare-and-set que troca o hash guardado; o token de acesso é emitido a partir do perfil e dos
+ * nomes de roles guardados na linha, com as permissões resolvidas pelo snapshot de autorização em
+ * memória. Apresentar um handle da família que já não é o atual significa que ele foi copiado: a
+ * família inteira é revogada e um evento de auditoria REFRESH_TOKEN_REUSE é gravado. A única exceção
+ * é o retry do cliente: o handle substituído há menos de auth.refresh-token.reuse-grace-ms, enquanto
+ * seu sucessor ainda é o handle atual, recebe esse mesmo sucessor de volta com um novo token de
+ * acesso, sem nova rotação; o lado perdedor de dois refreshes simultâneos é respondido do mesmo jeito.
+ * As rotações empurram a expiração pela validade do refresh, mas nunca além de
+ * auth.refresh-token.max-session-lifetime-ms depois do login que criou a família.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int SECRET_BYTES = 32;
+    private static final int HANDLE_BYTES = 16 + SECRET_BYTES;
+    private static final int HANDLE_LENGTH = 64; // base64url sem padding de 48 bytes
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final String ROLE_SEPARATOR = ",";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final AuthorizationSnapshotHolder authorizationSnapshots;
+    private final AuditPublisher auditPublisher;
+    private final JwtConfig jwtConfig;
+    private final TransactionTemplate transaction;
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec successorKey;
+    private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "refresh-token-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${auth.refresh-token.reuse-grace-ms:10000}")
+    private long reuseGraceMs;
+
+    @Value("${auth.refresh-token.max-session-lifetime-ms:2592000000}")
+    private long maxSessionLifetimeMs;
+
+    @Value("${auth.refresh-token.cleanup-interval-ms:3600000}")
+    private long cleanupIntervalMs;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               JwtTokenProvider jwtTokenProvider,
+                               AuthorizationSnapshotHolder authorizationSnapshots,
+                               AuditPublisher auditPublisher,
+                               JwtConfig jwtConfig,
+                               PlatformTransactionManager transactionManager) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.authorizationSnapshots = authorizationSnapshots;
+        this.auditPublisher = auditPublisher;
+        this.jwtConfig = jwtConfig;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // Derivada da chave dos JWTs: igual em todas as instâncias, mas separada do uso de assinatura
+        this.successorKey = new SecretKeySpec(
+                sha256(("refresh-token-successor:" + jwtConfig.getSecretKey()).getBytes(StandardCharsets.UTF_8)), "HmacSHA256");
+    }
+
+    @PostConstruct
+    void scheduleCleanup() {
+        if (cleanupIntervalMs > 0) {
+            cleanupExecutor.scheduleWithFixedDelay(this::deleteExpiredQuietly, cleanupIntervalMs, cleanupIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleanupExecutor.shutdownNow();
+    }
+
+    /**
+     * Tells a refresh handle from a JWT refresh token issued before server-side refresh tokens.
+     * Distingue um refresh handle de um refresh token JWT emitido antes dos refresh tokens no servidor.
+     */
+    public static boolean isLegacyJwt(String token) {
+        return token != null && token.indexOf('.') >= 0;
+    }
+
+    /**
+     * Starts a new family (login session) and returns its first handle.
+     * Inicia uma nova família (sessão de login) e devolve seu primeiro handle.
+     */
+    @Transactional
+    public String issue(TokenSubject subject) {
+        UUID familyId = UUID.randomUUID();
+        String handle = newHandle(familyId);
+        Instant now = Instant.now();
+        refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .familyId(familyId)
+                .tokenHash(hash(handle))
+                .userId(subject.userId())
+                .username(subject.username())
+                .email(subject.email())
+                .firstName(subject.firstName())
+                .lastName(subject.lastName())
+                .roles(String.join(ROLE_SEPARATOR, subject.roles()))
+                .createdAt(now)
+                .expiresAt(expiresAt(now, now))
+                .build());
+        return handle;
+    }
+
+    /**
+     * Exchanges a current handle for a new access token and handle.
+     * Troca um handle atual por um novo token de acesso e um novo handle.
+     *
+     * @throws ApiException 401 auth.invalidOrExpiredRefreshToken for unknown, expired, replaced or reused handles
+     */
+    // noRollbackFor: a revogação da família em caso de reutilização precisa ser gravada mesmo com o 401
+    @Transactional(noRollbackFor = ApiException.class)
+    public AuthResponseDTO rotate(String handle) {
+        UUID familyId = familyIdOf(handle);
+        RefreshTokenEntity family = familyId != null ? refreshTokenRepository.findById(familyId).orElse(null) : null;
+        if (family == null) {
+            throw rejected(null, null, "unknown_token");
+        }
+        Instant now = Instant.now();
+        String presentedHash = hash(handle);
+        String newHandle = successorOf(familyId, handle);
+        String newHash = hash(newHandle);
+        if (!constantTimeEquals(presentedHash, family.getTokenHash())) {
+            if (isRetry(family, presentedHash, newHash, now)) {
+                // Retry de um refresh que já trocou o handle: devolve o mesmo sucessor, sem nova rotação
+                return reissue(family, newHandle, now, "retry");
+            }
+            refreshTokenRepository.delete(family);
+            log.warn("Refresh token reuse detected for user {} (family {}, generation {}); family revoked.",
+                    family.getUsername(), familyId, family.getGeneration());
+            auditPublisher.publish(AuditEventType.REFRESH_TOKEN_REUSE, family.getUserId(), family.getUsername(), "family=" + familyId);
+            throw rejected(family, "reuse_detected");
+        }
+        if (!family.getExpiresAt().isAfter(now)) {
+            refreshTokenRepository.delete(family);
+            throw rejected(family, "expired");
+        }
+
+        Instant expiresAt = expiresAt(family.getCreatedAt(), now);
+        TokenSubject subject = family.isSnapshotStale() ? null : cachedSubject(family);
+        int rotated;
+        if (subject != null) {
+            rotated = refreshTokenRepository.rotate(familyId, family.getTokenHash(), newHash, now, expiresAt);
+        } else {
+            // Usuário alterado (ou role desconhecida pelo snapshot): recarrega uma vez e regrava o snapshot
+            subject = reloadSubject(family);
+            rotated = refreshTokenRepository.rotateWithSnapshot(familyId, family.getTokenHash(), newHash, now, expiresAt,
+                    subject.username(), subject.email(), subject.firstName(), subject.lastName(),
+                    String.join(ROLE_SEPARATOR, subject.roles()));
+        }
+        if (rotated == 0) {
+            // Outra requisição trocou o handle entre a leitura e o update: se foi com o mesmo handle, o
+            // sucessor que ela gravou é o mesmo calculado aqui
+            if (refreshTokenRepository.existsByFamilyIdAndTokenHash(familyId, newHash)) {
+                auditPublisher.publish(AuditEventType.TOKEN_REFRESH, family.getUserId(), family.getUsername(), "concurrent");
+                return jwtTokenProvider.generateTokens(subject, newHandle);
+            }
+            throw rejected(family, "concurrent_rotation");
+        }
+        auditPublisher.publish(AuditEventType.TOKEN_REFRESH, family.getUserId(), family.getUsername(), null);
+        return jwtTokenProvider.generateTokens(subject, newHandle);
+    }
+
+    /**
+     * Ends the family of a current handle (logout).
+     * Encerra a família de um handle atual (logout).
+     *
+     * @return whether a family was removed
+     */
+    @Transactional
+    public boolean revoke(String handle) {
+        UUID familyId = familyIdOf(handle);
+        return familyId != null && refreshTokenRepository.deleteByFamilyIdAndTokenHash(familyId, hash(handle)) > 0;
+    }
+
+    /**
+     * Ends every session of the user, in the caller's transaction.
+     * Encerra todas as sessões do usuário, na transação de quem chama.
+     */
+    @Transactional
+    public void revokeAll(UUID userId) {
+        int removed = refreshTokenRepository.deleteAllByUserId(userId);
+        log.debug("Revoked {} refresh token families of user {}.", removed, userId);
+    }
+
+    /**
+     * Makes the next refresh of each session reload the user instead of using the cached snapshot.
+     * Faz o próximo refresh de cada sessão recarregar o usuário em vez de usar o snapshot guardado.
+     */
+    @Transactional
+    public void userChanged(UUID userId) {
+        refreshTokenRepository.markStaleByUserId(userId);
+    }
+
+    private void deleteExpiredQuietly() {
+        try {
+            Integer removed = transaction.execute(status -> refreshTokenRepository.deleteExpired(Instant.now()));
+            if (removed != null && removed > 0) {
+                log.info("Removed {} expired refresh token families.", removed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to remove expired refresh token families.", e);
+        }
+    }
+
+    // O handle anterior, dentro da janela de graça, enquanto o sucessor dele ainda é o atual
+    private boolean isRetry(RefreshTokenEntity family, String presentedHash, String successorHash, Instant now) {
+        return constantTimeEquals(presentedHash, family.getPreviousHash())
+                && constantTimeEquals(successorHash, family.getTokenHash())
+                && family.getRotatedAt() != null
+                && family.getRotatedAt().plusMillis(reuseGraceMs).isAfter(now);
+    }
+
+    private AuthResponseDTO reissue(RefreshTokenEntity family, String currentHandle, Instant now, String detail) {
+        if (!family.getExpiresAt().isAfter(now)) {
+            refreshTokenRepository.delete(family);
+            throw rejected(family, "expired");
+        }
+        TokenSubject subject = family.isSnapshotStale() ? null : cachedSubject(family);
+        if (subject == null) {
+            subject = reloadSubject(family);
+        }
+        auditPublisher.publish(AuditEventType.TOKEN_REFRESH, family.getUserId(), family.getUsername(), detail);
+        return jwtTokenProvider.generateTokens(subject, currentHandle);
+    }
+
+    // A validade desliza a cada rotação, limitada pela duração máxima da sessão desde o login
+    private Instant expiresAt(Instant familyCreatedAt, Instant now) {
+        Instant sliding = now.plusMillis(jwtConfig.getRefreshValidityInMilliseconds());
+        if (maxSessionLifetimeMs <= 0) {
+            return sliding;
+        }
+        Instant absolute = familyCreatedAt.plusMillis(maxSessionLifetimeMs);
+        return sliding.isBefore(absolute) ? sliding : absolute;
+    }
+
+    private TokenSubject reloadSubject(RefreshTokenEntity family) {
+        UserEntity user = userRepository.findById(family.getUserId())
+                .filter(u -> u.isEnabled() && u.isAccountNonLocked())
+                .orElse(null);
+        if (user == null) {
+            refreshTokenRepository.delete(family);
+            throw rejected(family, "user_unavailable");
+        }
+        return jwtTokenProvider.subjectOf(user);
+    }
+
+    // Null quando alguma role já não está no snapshot de autorização (removida ou renomeada)
+    private TokenSubject cachedSubject(RefreshTokenEntity family) {
+        List<String> roleNames = family.getRoles().isEmpty() ? List.of() : Arrays.asList(family.getRoles().split(ROLE_SEPARATOR));
+        ResolvedAuthorities resolved = authorizationSnapshots.current().resolve(roleNames);
+        if (resolved == null) {
+            return null;
+        }
+        return new TokenSubject(family.getUserId(), family.getUsername(), family.getEmail(),
+                family.getFirstName(), family.getLastName(), resolved.getRoles(), resolved.getPermissions());
+    }
+
+    private ApiException rejected(RefreshTokenEntity family, String reason) {
+        return rejected(family != null ? family.getUserId() : null, family != null ? family.getUsername() : null, reason);
+    }
+
+    private ApiException rejected(UUID userId, String username, String reason) {
+        log.debug("Refresh rejected ({}) for {}.", reason, username);
+        auditPublisher.publish(AuditEventType.TOKEN_REFRESH_FAILURE, userId, username, reason);
+        return ApiException.expected("auth.invalidOrExpiredRefreshToken", HttpStatus.UNAUTHORIZED);
+    }
+
+    private String newHandle(UUID familyId) {
+        ByteBuffer buffer = ByteBuffer.allocate(HANDLE_BYTES);
+        buffer.putLong(familyId.getMostSignificantBits()).putLong(familyId.getLeastSignificantBits());
+        byte[] secret = new byte[SECRET_BYTES];
+        random.nextBytes(secret);
+        buffer.put(secret);
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    // Sucessor determinístico: HMAC do handle atual, com o mesmo id de família
+    private String successorOf(UUID familyId, String handle) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(successorKey);
+            ByteBuffer buffer = ByteBuffer.allocate(HANDLE_BYTES);
+            buffer.putLong(familyId.getMostSignificantBits()).putLong(familyId.getLeastSignificantBits());
+            buffer.put(mac.doFinal(handle.getBytes(StandardCharsets.US_ASCII)));
+            return ENCODER.encodeToString(buffer.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static UUID familyIdOf(String handle) {
+        if (handle == null || handle.length() != HANDLE_LENGTH) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(handle));
+            return buffer.remaining() == HANDLE_BYTES ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String hash(String handle) {
+        return HexFormat.of().formatHex(sha256(handle.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean constantTimeEquals(String a, String b) {
+        return b != null && MessageDigest.isEqual(a.getBytes(StandardCharsets.US_ASCII), b.getBytes(StandardCharsets.US_ASCII));
+    }
+}
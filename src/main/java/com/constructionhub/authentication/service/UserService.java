@@ -1,20 +1,43 @@
 package com.constructionhub.authentication.service;
 
+import com.constructionhub.authentication.audit.AuditEventType;
+import com.constructionhub.authentication.audit.AuditPublisher;
+import com.constructionhub.authentication.dto.UserBatchRequestDTO;
+import com.constructionhub.authentication.dto.UserBatchResponseDTO;
 import com.constructionhub.authentication.dto.UserDTO;
+import com.constructionhub.authentication.dto.UserSummaryDTO;
+import com.constructionhub.authentication.dto.Versioned;
 import com.constructionhub.authentication.entity.RoleEntity;
 import com.constructionhub.authentication.entity.UserEntity;
 import com.constructionhub.authentication.exception.ApiException;
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.invalidation.InvalidationType;
+import com.constructionhub.authentication.repository.EntityVersion;
 import com.constructionhub.authentication.repository.RoleRepository;
 import com.constructionhub.authentication.repository.UserRepository;
+import com.constructionhub.authentication.revocation.RevocationStore;
 import org.slf4j.Logger; // Adicionar Logger
 import org.slf4j.LoggerFactory; // Adicionar LoggerFactory
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -26,14 +49,32 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuditPublisher auditPublisher;
+    private final InvalidationBus invalidationBus;
+    private final RevocationStore revocationStore;
+    private final RefreshTokenService refreshTokenService;
+
+    @Value("${auth.user-batch.max-size:1000}")
+    private int batchMaxSize;
+
+    @Value("${auth.user-batch.chunk-size:500}")
+    private int batchChunkSize;
 
     public UserService(
             UserRepository userRepository,
             RoleRepository roleRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            AuditPublisher auditPublisher,
+            InvalidationBus invalidationBus,
+            RevocationStore revocationStore,
+            RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.auditPublisher = auditPublisher;
+        this.invalidationBus = invalidationBus;
+        this.revocationStore = revocationStore;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Transactional(readOnly = true)
@@ -43,27 +84,123 @@ public class UserService {
                 .map(this::mapToDto);
     }
 
+    /**
+     * User by id with the ETag of the version that was read / Usuário por id com o ETag da versão lida.
+     */
     @Transactional(readOnly = true)
-    public UserDTO getUserById(UUID id) {
+    public Versioned<UserDTO> getUserById(UUID id) {
         log.debug("Fetching user by ID: {}", id);
         UserEntity userEntity = userRepository.findById(id)
                 .orElseThrow(() -> new ApiException("user.notFound", new Object[]{id}, HttpStatus.NOT_FOUND));
-        return mapToDto(userEntity);
+        return versioned(userEntity);
     }
 
     @Transactional(readOnly = true)
-    public UserDTO getUserByUsername(String username) {
+    public Versioned<UserDTO> getUserByUsername(String username) {
         log.debug("Fetching user by username: {}", username);
         UserEntity userEntity = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ApiException("user.notFoundByUsername", new Object[]{username}, HttpStatus.NOT_FOUND));
-        return mapToDto(userEntity);
+        return versioned(userEntity);
+    }
+
+    /**
+     * Resolves many users by id and/or username at once.
+     *
+     * EN: Replaces one GET /users/{id} per user for services that render lists: the ids and the
+     * usernames (case-insensitive, deduplicated) are each read with IN-list projection queries of at
+     * most auth.user-batch.chunk-size values, without loading roles. The total as sent, repetitions
+     * included, is capped by auth.user-batch.max-size. Found users are keyed by id in request order; the ids and usernames
+     * that match no user are returned separately.
+     * PT: Substitui um GET /users/{id} por usuário para serviços que montam listas: os ids e os
+     * usernames (sem diferenciar maiúsculas, sem repetição) são lidos com consultas de projeção com
+     * lista IN de no máximo auth.user-batch.chunk-size valores, sem carregar roles. O total enviado,
+     * repetições incluídas, é limitado por auth.user-batch.max-size. Os usuários encontrados vão indexados por id na ordem do pedido; os
+     * ids e usernames que não correspondem a nenhum usuário voltam separados.
+     */
+    @Transactional(readOnly = true)
+    public UserBatchResponseDTO getUsersBatch(UserBatchRequestDTO request) {
+        // Tamanho bruto antes de deduplicar: repetições também custam memória e trabalho
+        int sent = (request.getIds() != null ? request.getIds().size() : 0)
+                + (request.getUsernames() != null ? request.getUsernames().size() : 0);
+        if (sent > batchMaxSize) {
+            throw new ApiException("user.batchTooLarge", new Object[]{batchMaxSize}, HttpStatus.BAD_REQUEST);
+        }
+        Set<UUID> ids = new LinkedHashSet<>();
+        if (request.getIds() != null) {
+            request.getIds().stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        // username em minúsculas -> como veio no pedido
+        Map<String, String> usernames = new LinkedHashMap<>();
+        if (request.getUsernames() != null) {
+            request.getUsernames().stream()
+                    .filter(username -> username != null && !username.isBlank())
+                    .forEach(username -> usernames.putIfAbsent(username.toLowerCase(Locale.ROOT), username));
+        }
+
+        Map<UUID, UserSummaryDTO> foundById = new HashMap<>();
+        for (List<UUID> chunk : chunks(ids)) {
+            userRepository.findSummariesByIdIn(chunk).forEach(user -> foundById.put(user.id(), user));
+        }
+        Map<String, UserSummaryDTO> foundByUsername = new HashMap<>();
+        for (List<String> chunk : chunks(usernames.keySet())) {
+            userRepository.findSummariesByLowerUsernameIn(chunk)
+                    .forEach(user -> foundByUsername.put(user.username().toLowerCase(Locale.ROOT), user));
+        }
+
+        Map<UUID, UserSummaryDTO> users = new LinkedHashMap<>();
+        List<UUID> unknownIds = new ArrayList<>();
+        for (UUID id : ids) {
+            UserSummaryDTO user = foundById.get(id);
+            if (user != null) {
+                users.put(id, user);
+            } else {
+                unknownIds.add(id);
+            }
+        }
+        List<String> unknownUsernames = new ArrayList<>();
+        usernames.forEach((lower, requested) -> {
+            UserSummaryDTO user = foundByUsername.get(lower);
+            if (user != null) {
+                users.putIfAbsent(user.id(), user);
+            } else {
+                unknownUsernames.add(requested);
+            }
+        });
+        log.debug("Batch lookup of {} ids and {} usernames: {} users found", ids.size(), usernames.size(), users.size());
+        return UserBatchResponseDTO.builder()
+                .users(users)
+                .unknownIds(unknownIds)
+                .unknownUsernames(unknownUsernames)
+                .build();
+    }
+
+    /**
+     * ETag of a user, read from its version only / ETag de um usuário, lido apenas da sua versão.
+     */
+    @Transactional(readOnly = true)
+    public String getUserETag(UUID id) {
+        return userRepository.findVersionById(id)
+                .map(EntityVersion::toETag)
+                .orElseThrow(() -> new ApiException("user.notFound", new Object[]{id}, HttpStatus.NOT_FOUND));
     }
 
+    @Transactional(readOnly = true)
+    public String getUserETagByUsername(String username) {
+        return userRepository.findVersionByUsername(username)
+                .map(EntityVersion::toETag)
+                .orElseThrow(() -> new ApiException("user.notFoundByUsername", new Object[]{username}, HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Updates a user; expectedVersion (from If-Match, null to skip) must be the current version.
+     * Atualiza um usuário; expectedVersion (do If-Match, null para ignorar) precisa ser a versão atual.
+     */
     @Transactional
-    public UserDTO updateUser(UUID id, UserDTO userDto) {
+    public Versioned<UserDTO> updateUser(UUID id, UserDTO userDto, Long expectedVersion) {
         log.info("Updating user with ID: {}", id);
         UserEntity userEntity = userRepository.findById(id)
                 .orElseThrow(() -> new ApiException("user.notFound", new Object[]{id}, HttpStatus.NOT_FOUND));
+        requireVersion(expectedVersion, userEntity.getVersion());
 
         if (userDto.getFirstName() != null) {
             userEntity.setFirstName(userDto.getFirstName());
@@ -76,9 +213,12 @@ public class UserService {
             userEntity.setEnabled(userDto.getIsEnabled()); // <<< CORRIGIDO de setIsEnabled para setEnabled
         }
 
-        UserEntity updatedUser = userRepository.save(userEntity);
+        // Flush aqui para que o ETag devolvido já tenha a versão nova
+        UserEntity updatedUser = userRepository.saveAndFlush(userEntity);
         log.info("User ID {} updated successfully.", updatedUser.getId());
-        return mapToDto(updatedUser);
+        auditPublisher.publishAfterCommit(AuditEventType.USER_UPDATED, updatedUser.getId(), updatedUser.getUsername(), null);
+        userChanged(id, false);
+        return versioned(updatedUser);
     }
 
     @Transactional
@@ -89,6 +229,8 @@ public class UserService {
         }
         userRepository.deleteById(id);
         log.info("User ID {} deleted successfully.", id);
+        auditPublisher.publishAfterCommit(AuditEventType.USER_DELETED, id, null, null);
+        userChanged(id, true);
     }
 
     @Transactional
@@ -100,11 +242,12 @@ public class UserService {
         RoleEntity roleEntity = roleRepository.findByName(roleName)
                 .orElseThrow(() -> new ApiException("role.notFound", new Object[]{roleName}, HttpStatus.NOT_FOUND));
 
-        // O getter para o campo "roles" em UserEntity é "getRoles()"
-        boolean added = userEntity.getRoles().add(roleEntity); // <<< CORRIGIDO de getRoleEntities para getRoles
+        boolean added = userEntity.addRole(roleEntity); // Descarta as autoridades memorizadas
         if (added) {
             UserEntity updatedUser = userRepository.save(userEntity);
             log.info("Role '{}' added to user ID {}.", roleName, userId);
+            auditPublisher.publishAfterCommit(AuditEventType.ROLE_ADDED, userId, updatedUser.getUsername(), roleName);
+            userChanged(userId, false);
             return mapToDto(updatedUser);
         } else {
             log.info("Role '{}' was already assigned to user ID {}. No changes made.", roleName, userId);
@@ -119,12 +262,13 @@ public class UserService {
                 .orElseThrow(() -> new ApiException("user.notFound", new Object[]{userId}, HttpStatus.NOT_FOUND));
 
         // Não é necessário buscar a RoleEntity aqui se você está apenas removendo pelo nome.
-        // O getter para o campo "roles" em UserEntity é "getRoles()"
-        boolean removed = userEntity.getRoles().removeIf(r -> r.getName().equals(roleName)); // <<< CORRIGIDO de getRoleEntities para getRoles
+        boolean removed = userEntity.removeRoleIf(r -> r.getName().equals(roleName)); // Descarta as autoridades memorizadas
 
         if (removed) {
             UserEntity updatedUser = userRepository.save(userEntity);
             log.info("Role '{}' removed from user ID {}.", roleName, userId);
+            auditPublisher.publishAfterCommit(AuditEventType.ROLE_REMOVED, userId, updatedUser.getUsername(), roleName);
+            userChanged(userId, false);
             return mapToDto(updatedUser);
         } else {
             log.info("Role '{}' was not assigned to user ID {}. No changes made.", roleName, userId);
@@ -140,11 +284,13 @@ public class UserService {
 
         if (!passwordEncoder.matches(currentPassword, userEntity.getPassword())) {
             log.warn("Password change failed for user ID {}: Current password does not match.", userId);
+            auditPublisher.publish(AuditEventType.PASSWORD_CHANGE_FAILURE, userId, userEntity.getUsername(), "current_password_mismatch");
             throw new ApiException("auth.invalidPassword", null, HttpStatus.BAD_REQUEST);
         }
 
         if (currentPassword.equals(newPassword)) {
             log.warn("Password change failed for user ID {}: New password is the same as the current password.", userId);
+            auditPublisher.publish(AuditEventType.PASSWORD_CHANGE_FAILURE, userId, userEntity.getUsername(), "same_as_current");
             throw new ApiException("auth.newPasswordSameAsOld", null, HttpStatus.BAD_REQUEST);
         }
         // Adicionar validação de complexidade para newPassword se necessário
@@ -152,6 +298,58 @@ public class UserService {
         userEntity.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(userEntity);
         log.info("Password changed successfully for user ID: {}", userId);
+        auditPublisher.publishAfterCommit(AuditEventType.PASSWORD_CHANGED, userId, userEntity.getUsername(), null);
+        userChanged(userId, true); // Sessões abertas com a senha antiga deixam de valer
+    }
+
+    /**
+     * Refreshes or ends the user's refresh sessions in this transaction and, after commit, tells the
+     * other instances the user changed and optionally revokes every access token issued so far.
+     * A rolled-back change must neither invalidate caches nor end sessions.
+     * Atualiza ou encerra as sessões de refresh do usuário nesta transação e, após o commit, avisa as
+     * demais instâncias que o usuário mudou e opcionalmente revoga todos os tokens de acesso emitidos
+     * até agora. Uma alteração revertida não deve invalidar caches nem encerrar sessões.
+     */
+    private void userChanged(UUID userId, boolean revokeTokens) {
+        invalidationBus.broadcastAfterCommit(InvalidationType.USER, userId.toString());
+        if (!revokeTokens) {
+            refreshTokenService.userChanged(userId); // Próximo refresh recarrega perfil e roles
+            return;
+        }
+        refreshTokenService.revokeAll(userId);
+        Instant cutoff = Instant.now(); // Horário da alteração, não do commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revocationStore.revokeUserTokens(userId.toString(), cutoff);
+                }
+            });
+        } else {
+            revocationStore.revokeUserTokens(userId.toString(), cutoff);
+        }
+    }
+
+    // Listas IN limitadas: evita o limite de parâmetros do driver e planos diferentes para cada tamanho
+    private <T> List<List<T>> chunks(Set<T> values) {
+        List<T> all = new ArrayList<>(values);
+        int size = Math.max(1, batchChunkSize);
+        List<List<T>> chunks = new ArrayList<>((all.size() + size - 1) / size);
+        for (int start = 0; start < all.size(); start += size) {
+            chunks.add(all.subList(start, Math.min(all.size(), start + size)));
+        }
+        return chunks;
+    }
+
+    private Versioned<UserDTO> versioned(UserEntity userEntity) {
+        return new Versioned<>(mapToDto(userEntity), new EntityVersion(userEntity.getId(), userEntity.getVersion()).toETag());
+    }
+
+    // If-Match que não confere com a versão lida: 412 antes de alterar qualquer coisa
+    private static void requireVersion(Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ApiException("error.preconditionFailed", null, HttpStatus.PRECONDITION_FAILED);
+        }
     }
 
     private UserDTO mapToDto(UserEntity userEntity) {
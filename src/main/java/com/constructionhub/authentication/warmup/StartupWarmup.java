@@ -0,0 +1,276 @@
+package com.constructionhub.authentication.warmup;
+
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
+import com.constructionhub.authentication.config.JwtConfig;
+import com.constructionhub.authentication.datasource.ReplicaRoutingDataSource;
+import com.constructionhub.authentication.dto.AuthResponseDTO;
+import com.constructionhub.authentication.dto.LoginRequestDTO;
+import com.constructionhub.authentication.repository.ClientAppRepository;
+import com.constructionhub.authentication.repository.RoleRepository;
+import com.constructionhub.authentication.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the service up after startup, before it reports itself ready.
+ *
+ * EN: Runs once after ApplicationReadyEvent; readiness stays OUT_OF_SERVICE until it ends.
+ * PT: Roda uma vez após o ApplicationReadyEvent; a readiness fica OUT_OF_SERVICE até ele terminar.
+ */
+@Component
+public class StartupWarmup implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final int MIN_JIT_ROUNDS = 3;
+    private static final int QUIET_ROUNDS_TO_SETTLE = 2;
+    private static final int BCRYPT_PER_ROUND = 2;
+
+    /**
+     * Warm-up progress, as reported by WarmupHealthIndicator.
+     * Progresso do aquecimento, como informado pelo WarmupHealthIndicator.
+     */
+    public enum State { PENDING, RUNNING, COMPLETED, TIMED_OUT, FAILED, DISABLED }
+
+    private final AuthorizationSnapshotHolder authorizationSnapshots;
+    private final RoleRepository roleRepository;
+    private final ClientAppRepository clientAppRepository;
+    private final ReplicaRoutingDataSource dataSource;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final JwtConfig jwtConfig;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final long maxDurationMs;
+    private final int iterationsPerRound;
+    private final long settleThresholdMs;
+    private final Map<String, Object> details = new LinkedHashMap<>(); // Guardado por this
+    private volatile State state;
+
+    public StartupWarmup(AuthorizationSnapshotHolder authorizationSnapshots,
+                         RoleRepository roleRepository,
+                         ClientAppRepository clientAppRepository,
+                         ReplicaRoutingDataSource dataSource,
+                         JwtTokenProvider jwtTokenProvider,
+                         JwtConfig jwtConfig,
+                         ObjectMapper objectMapper,
+                         MeterRegistry registry,
+                         @Value("${auth.warmup.enabled:true}") boolean enabled,
+                         @Value("${auth.warmup.max-duration-ms:30000}") long maxDurationMs,
+                         @Value("${auth.warmup.iterations-per-round:200}") int iterationsPerRound,
+                         @Value("${auth.warmup.settle-threshold-ms:10}") long settleThresholdMs) {
+        this.authorizationSnapshots = authorizationSnapshots;
+        this.roleRepository = roleRepository;
+        this.clientAppRepository = clientAppRepository;
+        this.dataSource = dataSource;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.jwtConfig = jwtConfig;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.maxDurationMs = maxDurationMs;
+        this.iterationsPerRound = iterationsPerRound;
+        this.settleThresholdMs = settleThresholdMs;
+        this.state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled || state != State.PENDING) {
+            return;
+        }
+        state = State.RUNNING;
+        Thread thread = new Thread(this::run, "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getDetails() {
+        return new LinkedHashMap<>(details);
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        State outcome = State.COMPLETED;
+        try {
+            phase("authorization", this::warmAuthorization);
+            phase("clients", this::warmClientRegistry);
+            phase("pool", this::warmPools);
+            if (!phase("jit", () -> warmJit(deadline))) {
+                outcome = State.TIMED_OUT;
+            }
+        } catch (RuntimeException e) {
+            outcome = State.FAILED;
+            detail("error", e.getClass().getSimpleName() + ": " + e.getMessage());
+            log.error("Startup warm-up failed; reporting ready without it.", e);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        record("total", elapsedNanos);
+        detail("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        state = outcome;
+        log.info("Startup warm-up {} in {} ms: {}", outcome.name().toLowerCase(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getDetails());
+    }
+
+    // Executa uma fase e registra sua duração; devolve o resultado da fase (false = interrompida pelo prazo)
+    private boolean phase(String name, PhaseAction action) {
+        long start = System.nanoTime();
+        boolean finished = action.run();
+        long elapsed = System.nanoTime() - start;
+        record(name, elapsed);
+        detail(name + "Ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return finished;
+    }
+
+    // Entidades Role/Permission no cache L2 e a query por nome no cache de queries (usada em todo registro)
+    private boolean warmAuthorization() {
+        List<String> roleNames = new ArrayList<>(authorizationSnapshots.current().getRoleNames());
+        roleNames.forEach(roleRepository::findByName);
+        detail("roles", roleNames.size());
+        return true;
+    }
+
+    // Não há cache de clientes: aquece planos de query e prepared statements do caminho de leitura
+    private boolean warmClientRegistry() {
+        int clients = clientAppRepository.findAll(PageRequest.of(0, 100)).getNumberOfElements();
+        clientAppRepository.findVersionByClientId("warmup-" + UUID.randomUUID());
+        detail("clients", clients);
+        return true;
+    }
+
+    // Segura minimumIdle conexões de cada pool ao mesmo tempo para que todas sejam abertas agora
+    private boolean warmPools() {
+        int opened = 0;
+        for (HikariDataSource pool : dataSource.getPools()) {
+            // minimumIdle -1 (não definido, como nas partições do bulkhead) vale o tamanho do pool para o Hikari
+            int minimumIdle = pool.getMinimumIdle() < 0 ? pool.getMaximumPoolSize() : pool.getMinimumIdle();
+            int wanted = Math.min(minimumIdle, pool.getMaximumPoolSize());
+            List<Connection> held = new ArrayList<>(wanted);
+            try {
+                for (int i = 0; i < wanted; i++) {
+                    held.add(pool.getConnection());
+                }
+                opened += held.size();
+            } catch (SQLException e) {
+                log.warn("Could not open {} connections in pool {}: {}", wanted, pool.getPoolName(), e.getMessage());
+            } finally {
+                for (Connection connection : held) {
+                    try {
+                        connection.close();
+                    } catch (SQLException ignored) {
+                        // Devolvida ao pool de qualquer forma
+                    }
+                }
+            }
+        }
+        detail("connections", opened);
+        return true;
+    }
+
+    private boolean warmJit(long deadline) {
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        // Sem JIT mensurável (ex.: imagem nativa) uma rodada basta para os caminhos de classe e caches
+        boolean measurable = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        JwtParser parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(jwtConfig.getSecretKey().getBytes(StandardCharsets.UTF_8)))
+                .build();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(); // Mesma classe do bean, sem as métricas
+        String hash = bcrypt.encode("warmup-password");
+        int rounds = 0;
+        int quietRounds = 0;
+        long lastCompilationMs = 0;
+        boolean settled = false;
+        while (System.nanoTime() - deadline < 0) {
+            long before = measurable ? compiler.getTotalCompilationTime() : 0;
+            jitRound(parser, bcrypt, hash);
+            rounds++;
+            if (!measurable) {
+                settled = true;
+                break;
+            }
+            lastCompilationMs = compiler.getTotalCompilationTime() - before;
+            quietRounds = lastCompilationMs <= settleThresholdMs ? quietRounds + 1 : 0;
+            if (rounds >= MIN_JIT_ROUNDS && quietRounds >= QUIET_ROUNDS_TO_SETTLE) {
+                settled = true;
+                break;
+            }
+        }
+        detail("jitRounds", rounds);
+        detail("lastRoundCompilationMs", lastCompilationMs);
+        return settled;
+    }
+
+    private void jitRound(JwtParser parser, BCryptPasswordEncoder bcrypt, String hash) {
+        List<String> roles = List.of("ROLE_USER");
+        List<String> permissions = List.of("warmup:read", "warmup:write");
+        try {
+            for (int i = 0; i < iterationsPerRound; i++) {
+                String token = jwtTokenProvider.createToken("warmup-user", UUID.randomUUID().toString(), roles, permissions);
+                Claims claims = parser.parseClaimsJws(token).getBody();
+                AuthResponseDTO response = AuthResponseDTO.builder()
+                        .accessToken(token)
+                        .refreshToken(token)
+                        .userId(UUID.fromString(claims.get("userId", String.class)))
+                        .username(claims.getSubject())
+                        .email("warmup@example.invalid")
+                        .roles(roles)
+                        .build();
+                objectMapper.readValue(objectMapper.writeValueAsBytes(response), AuthResponseDTO.class);
+                objectMapper.readValue("{\"username\":\"warmup-user\",\"password\":\"warmup-password\"}", LoginRequestDTO.class);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("JSON warm-up failed", e);
+        }
+        for (int i = 0; i < BCRYPT_PER_ROUND; i++) {
+            bcrypt.matches("warmup-password", hash);
+        }
+    }
+
+    private void record(String phase, long nanos) {
+        Timer.builder("auth.warmup.duration")
+                .description("Startup warm-up duration, by phase")
+                .tag("phase", phase)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void detail(String key, Object value) {
+        details.put(key, value);
+    }
+
+    @FunctionalInterface
+    private interface PhaseAction {
+        boolean run();
+    }
+}
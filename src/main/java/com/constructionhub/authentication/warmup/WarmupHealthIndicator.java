@@ -0,0 +1,32 @@
+package com.constructionhub.authentication.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health contributor "warmup", part of the readiness group.
+ *
+ * EN: OUT_OF_SERVICE while StartupWarmup is pending or running, UP once it has ended in any way.
+ * PT: OUT_OF_SERVICE enquanto o StartupWarmup está pendente ou rodando, UP depois que termina.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmup warmup;
+
+    public WarmupHealthIndicator(StartupWarmup warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        StartupWarmup.State state = warmup.getState();
+        Health.Builder builder = state == StartupWarmup.State.PENDING || state == StartupWarmup.State.RUNNING
+                ? Health.outOfService()
+                : Health.up();
+        return builder.withDetail("state", state.name().toLowerCase())
+                .withDetails(warmup.getDetails())
+                .build();
+    }
+}
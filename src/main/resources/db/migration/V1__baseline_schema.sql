@@ -0,0 +1,115 @@
+-- =====================================================================
+-- V1: Schema matching the JPA entity model (users, roles, permissions, client applications)
+-- V1: Schema alinhado ao modelo de entidades JPA
+--
+-- Idempotent so it can run on databases previously created by ddl-auto=update
+-- (spring.flyway.baseline-version=0 makes Flyway apply it there too).
+-- Idempotente para rodar em bancos criados anteriormente por ddl-auto=update.
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS users (
+    id                      uuid         NOT NULL,
+    username                varchar(50)  NOT NULL,
+    email                   varchar(100) NOT NULL,
+    password                varchar(255) NOT NULL,
+    first_name              varchar(50),
+    last_name               varchar(50),
+    enabled                 boolean      NOT NULL DEFAULT true,
+    account_non_expired     boolean      NOT NULL DEFAULT true,
+    account_non_locked      boolean      NOT NULL DEFAULT true,
+    credentials_non_expired boolean      NOT NULL DEFAULT true,
+    created_at              timestamp(6) NOT NULL,
+    updated_at              timestamp(6) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_user_username UNIQUE (username),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS roles (
+    id          uuid         NOT NULL,
+    name        varchar(50)  NOT NULL,
+    description varchar(255),
+    CONSTRAINT roles_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_role_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS permissions (
+    id          uuid         NOT NULL,
+    name        varchar(100) NOT NULL,
+    description varchar(255),
+    CONSTRAINT permissions_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_permission_name UNIQUE (name)
+);
+
+-- Mesma ordem de chave primária que o Hibernate gera (role_id, user_id); o índice reverso fica no V2
+CREATE TABLE IF NOT EXISTS user_roles (
+    role_id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    CONSTRAINT user_roles_pkey PRIMARY KEY (role_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS role_permissions (
+    permission_id uuid NOT NULL,
+    role_id       uuid NOT NULL,
+    CONSTRAINT role_permissions_pkey PRIMARY KEY (permission_id, role_id)
+);
+
+CREATE TABLE IF NOT EXISTS client_applications (
+    id               uuid         NOT NULL,
+    client_id        varchar(100) NOT NULL,
+    client_secret    varchar(255) NOT NULL,
+    application_name varchar(100) NOT NULL,
+    description      varchar(255),
+    owner_user_id    uuid,
+    enabled          boolean      NOT NULL DEFAULT true,
+    created_at       timestamp(6) NOT NULL,
+    updated_at       timestamp(6) NOT NULL,
+    CONSTRAINT client_applications_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_clientapp_clientid UNIQUE (client_id),
+    CONSTRAINT uk_clientapp_appname UNIQUE (application_name)
+);
+
+CREATE TABLE IF NOT EXISTS client_application_scopes (
+    client_app_id uuid NOT NULL,
+    scope         varchar(50)
+);
+
+CREATE TABLE IF NOT EXISTS client_application_grant_types (
+    client_app_id uuid NOT NULL,
+    grant_type    varchar(50)
+);
+
+CREATE TABLE IF NOT EXISTS client_application_redirect_uris (
+    client_app_id uuid NOT NULL,
+    redirect_uri  varchar(500)
+);
+
+CREATE TABLE IF NOT EXISTS client_application_allowed_origins (
+    client_app_id  uuid NOT NULL,
+    allowed_origin varchar(255)
+);
+
+-- Chaves estrangeiras (nomes iguais aos das entidades); criadas apenas se ainda não existirem
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT * FROM (VALUES
+            ('user_roles',                         'fk_userroles_user',             'user_id',       'users'),
+            ('user_roles',                         'fk_userroles_role',             'role_id',       'roles'),
+            ('role_permissions',                   'fk_roleperm_role',              'role_id',       'roles'),
+            ('role_permissions',                   'fk_roleperm_permission',        'permission_id', 'permissions'),
+            ('client_applications',                'fk_clientapp_owner',            'owner_user_id', 'users'),
+            ('client_application_scopes',          'fk_clientappscopes_clientapp',  'client_app_id', 'client_applications'),
+            ('client_application_grant_types',     'fk_clientappgrants_clientapp',  'client_app_id', 'client_applications'),
+            ('client_application_redirect_uris',   'fk_clientappuris_clientapp',    'client_app_id', 'client_applications'),
+            ('client_application_allowed_origins', 'fk_clientapporigins_clientapp', 'client_app_id', 'client_applications')
+        ) AS t(table_name, constraint_name, column_name, referenced_table)
+    LOOP
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = fk.constraint_name) THEN
+            EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (%I) REFERENCES %I (id)',
+                           fk.table_name, fk.constraint_name, fk.column_name, fk.referenced_table);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,18 @@
+-- =====================================================================
+-- V2: Indexes for the hot paths / Índices para os caminhos críticos
+-- =====================================================================
+
+-- Carregar as roles de um usuário (a PK começa por role_id, então não serve para busca por user_id)
+CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles (user_id);
+
+-- Carregar as permissões de uma role (a PK começa por permission_id)
+CREATE INDEX IF NOT EXISTS idx_role_permissions_role_id ON role_permissions (role_id);
+
+-- ClientAppService.getClientAppsByOwnerId e verificação da FK ao remover usuários
+CREATE INDEX IF NOT EXISTS idx_client_applications_owner ON client_applications (owner_user_id);
+
+-- Coleções @ElementCollection são carregadas por client_app_id
+CREATE INDEX IF NOT EXISTS idx_client_app_scopes_app ON client_application_scopes (client_app_id);
+CREATE INDEX IF NOT EXISTS idx_client_app_grant_types_app ON client_application_grant_types (client_app_id);
+CREATE INDEX IF NOT EXISTS idx_client_app_redirect_uris_app ON client_application_redirect_uris (client_app_id);
+CREATE INDEX IF NOT EXISTS idx_client_app_allowed_origins_app ON client_application_allowed_origins (client_app_id);
@@ -0,0 +1,26 @@
+-- =====================================================================
+-- V3: Audit trail table, range-partitioned by month
+-- V3: Tabela de auditoria, particionada por mês
+--
+-- Monthly partitions are created ahead of time by AuditTableManager at runtime;
+-- rows outside any monthly partition land in auth_audit_default.
+-- As partições mensais são criadas antecipadamente pelo AuditTableManager em tempo de execução;
+-- linhas fora de qualquer partição mensal vão para auth_audit_default.
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS auth_audit (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY,
+    occurred_at    timestamptz  NOT NULL,
+    event_type     varchar(40)  NOT NULL,
+    user_id        uuid,
+    principal      varchar(255),
+    detail         varchar(500),
+    remote_address varchar(64),
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE IF NOT EXISTS auth_audit_default PARTITION OF auth_audit DEFAULT;
+
+-- Histórico por usuário e por tipo de evento, sempre filtrado por período
+CREATE INDEX IF NOT EXISTS idx_auth_audit_user_time ON auth_audit (user_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_auth_audit_type_time ON auth_audit (event_type, occurred_at);
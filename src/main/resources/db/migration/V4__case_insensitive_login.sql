@@ -0,0 +1,24 @@
+-- =====================================================================
+-- V4: Case-insensitive login identifiers / Identificadores de login sem distinção de maiúsculas
+-- =====================================================================
+
+-- Contas que só diferem na caixa precisam ser resolvidas manualmente antes: o índice único abaixo
+-- falharia com uma mensagem pouco clara, então a migração aborta listando os conflitos.
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(identifier, ', ') INTO conflicts FROM (
+        SELECT 'username:' || lower(username) AS identifier FROM users GROUP BY lower(username) HAVING count(*) > 1
+        UNION ALL
+        SELECT 'email:' || lower(email) FROM users GROUP BY lower(email) HAVING count(*) > 1
+    ) duplicated;
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Case-insensitive duplicates in users must be merged before V4: %', conflicts;
+    END IF;
+END $$;
+
+-- Unicidade e busca pela forma normalizada; as colunas mantêm a grafia informada no cadastro,
+-- então não há backfill de dados, apenas a construção dos índices sobre as linhas existentes.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_username_lower ON users (lower(username));
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_lower ON users (lower(email));
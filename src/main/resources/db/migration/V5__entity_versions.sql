@@ -0,0 +1,7 @@
+-- =====================================================================
+-- V5: Optimistic-lock versions for ETags / Versões de lock otimista para ETags
+-- =====================================================================
+
+-- Linhas existentes começam na versão 0; o Hibernate incrementa a cada atualização
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE client_applications ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
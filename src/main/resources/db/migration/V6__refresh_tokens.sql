@@ -0,0 +1,37 @@
+-- =====================================================================
+-- V6: Server-side refresh token families / Famílias de refresh tokens no servidor
+--
+-- One row per login session (family). The opaque refresh handle carries the family id and a
+-- random secret; only the SHA-256 of the current handle is stored. Each refresh replaces
+-- token_hash in a single compare-and-set UPDATE, keeping the previous hash to tell a client
+-- retry from the replay of a stolen handle. The row also caches the profile and role names
+-- used to mint the next access token.
+-- Uma linha por sessão de login (família). O handle opaco leva o id da família e um segredo
+-- aleatório; só o SHA-256 do handle atual é guardado. Cada refresh troca token_hash em um único
+-- UPDATE do tipo compare-and-set, mantendo o hash anterior para distinguir um retry do cliente
+-- da reutilização de um handle roubado. A linha também guarda o perfil e os nomes das roles
+-- usados para emitir o próximo token de acesso.
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    family_id      uuid          NOT NULL,
+    token_hash     varchar(64)   NOT NULL,
+    previous_hash  varchar(64),
+    user_id        uuid          NOT NULL,
+    username       varchar(50)   NOT NULL,
+    email          varchar(100)  NOT NULL,
+    first_name     varchar(50),
+    last_name      varchar(50),
+    roles          varchar(1000) NOT NULL,
+    snapshot_stale boolean       NOT NULL DEFAULT false,
+    generation     integer       NOT NULL DEFAULT 0,
+    created_at     timestamptz   NOT NULL,
+    rotated_at     timestamptz,
+    expires_at     timestamptz   NOT NULL,
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (family_id),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Revogação/invalidação por usuário (troca de senha, alteração de roles) e limpeza das expiradas
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires ON refresh_tokens (expires_at);
@@ -0,0 +1,17 @@
+-- =====================================================================
+-- V7: Login activity and lockout / Atividade de login e bloqueio
+--
+-- Written only by LoginActivityRecorder, in batched UPDATEs on an interval (never by JPA), so
+-- login storms do not turn into one UPDATE and one row lock per attempt.
+-- locked_until is a temporary lockout after too many consecutive failures; account_non_locked
+-- remains the administrative (permanent) lock.
+-- Gravadas apenas pelo LoginActivityRecorder, em UPDATEs em lote a cada intervalo (nunca pelo
+-- JPA), para que picos de login não virem um UPDATE e um lock de linha por tentativa.
+-- locked_until é um bloqueio temporário após falhas consecutivas demais; account_non_locked
+-- continua sendo o bloqueio administrativo (permanente).
+-- =====================================================================
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_login_at timestamptz;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_failed_login_at timestamptz;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS failed_login_attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS locked_until timestamptz;
@@ -0,0 +1,11 @@
+-- =====================================================================
+-- V8: Token issuance quotas per client application / Cotas de emissão de tokens por aplicação cliente
+--
+-- Read by ClientQuotaRegistry and enforced in memory (GCRA) on login, register and refresh.
+-- NULL = the defaults in auth.client-quota.*; token_quota_per_minute = 0 = no limit.
+-- Lidas pelo ClientQuotaRegistry e aplicadas em memória (GCRA) em login, register e refresh.
+-- NULL = os padrões de auth.client-quota.*; token_quota_per_minute = 0 = sem limite.
+-- =====================================================================
+
+ALTER TABLE client_applications ADD COLUMN IF NOT EXISTS token_quota_per_minute INTEGER;
+ALTER TABLE client_applications ADD COLUMN IF NOT EXISTS token_quota_burst INTEGER;
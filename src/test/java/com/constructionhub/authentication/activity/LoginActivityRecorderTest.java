@@ -0,0 +1,138 @@
+package com.constructionhub.authentication.activity;
+
+import com.constructionhub.authentication.audit.AuditEventType;
+import com.constructionhub.authentication.audit.AuditPublisher;
+import com.constructionhub.authentication.entity.UserEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory lockout decisions and coalesced write-behind of LoginActivityRecorder.
+ * Decisões de bloqueio em memória e gravação agrupada em segundo plano do LoginActivityRecorder.
+ */
+class LoginActivityRecorderTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AuditPublisher auditPublisher = mock(AuditPublisher.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LoginActivityRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new LoginActivityRecorder(jdbcTemplate, auditPublisher, registry);
+        ReflectionTestUtils.setField(recorder, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(recorder, "batchSize", 500);
+        ReflectionTestUtils.setField(recorder, "maxFailedAttempts", 3);
+        ReflectionTestUtils.setField(recorder, "failureWindowMs", 60_000L);
+        ReflectionTestUtils.setField(recorder, "lockoutDurationMs", 60_000L);
+    }
+
+    @Test
+    void locksAfterTheConfiguredConsecutiveFailures() {
+        UserEntity user = user(0, null);
+
+        assertThat(recorder.recordFailure(user)).isFalse();
+        assertThat(recorder.recordFailure(user)).isFalse();
+        assertThat(recorder.isLocked(user.getId())).isFalse();
+        assertThat(recorder.recordFailure(user)).isTrue();
+        assertThat(recorder.isLocked(user.getId())).isTrue();
+        // Já bloqueado: novas falhas não renovam o bloqueio nem geram outro evento
+        assertThat(recorder.recordFailure(user)).isFalse();
+
+        verify(auditPublisher, times(1)).publish(eq(AuditEventType.ACCOUNT_LOCKED), eq(user.getId()), eq("alice"), anyString());
+        assertThat(registry.get("auth.login.lockouts").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        UserEntity user = user(0, null);
+        recorder.recordFailure(user);
+        recorder.recordFailure(user);
+
+        recorder.recordSuccess(user.getId());
+
+        assertThat(recorder.recordFailure(user)).isFalse();
+        assertThat(recorder.recordFailure(user)).isFalse();
+        assertThat(recorder.isLocked(user.getId())).isFalse();
+    }
+
+    @Test
+    void firstFailureStartsFromTheCountersAlreadyFlushed() {
+        UserEntity recent = user(2, Instant.now().minusSeconds(5));
+        UserEntity stale = user(2, Instant.now().minusSeconds(120));
+
+        assertThat(recorder.recordFailure(recent)).isTrue();
+        // Falhas gravadas fora da janela não contam: recomeça em 1
+        assertThat(recorder.recordFailure(stale)).isFalse();
+        assertThat(recorder.isLocked(stale.getId())).isFalse();
+    }
+
+    @Test
+    void flushWritesEachChangedUserOnceAndRetriesFailedBatches() {
+        UserEntity alice = user(0, null);
+        UserEntity bob = user(0, null);
+        recorder.recordFailure(alice);
+        recorder.recordFailure(alice);
+        recorder.recordSuccess(bob.getId());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("down"))
+                .thenReturn(new int[][]{{1, 1}});
+
+        flush();
+        flush();
+        flush(); // Nada mudou desde a última gravação
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), argThat((Collection<?> batch) -> batch.size() == 2),
+                eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(registry.get("auth.login.activity.writes").tag("result", "failed").counter().count()).isEqualTo(2);
+        assertThat(registry.get("auth.login.activity.writes").tag("result", "written").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void stopFlushesPendingActivity() {
+        recorder.start();
+        recorder.recordSuccess(UUID.randomUUID());
+
+        recorder.stop();
+
+        assertThat(recorder.isRunning()).isFalse();
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        verify(auditPublisher, never()).publish(any(), any(), any(), any());
+    }
+
+    private void flush() {
+        ReflectionTestUtils.invokeMethod(recorder, "flush");
+    }
+
+    private static UserEntity user(int failedAttempts, Instant lastFailure) {
+        return UserEntity.builder()
+                .id(UUID.randomUUID())
+                .username("alice")
+                .email("alice@example.com")
+                .failedLoginAttempts(failedAttempts)
+                .lastFailedLoginAt(lastFailure)
+                .build();
+    }
+}
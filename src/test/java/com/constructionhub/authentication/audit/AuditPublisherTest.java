@@ -0,0 +1,124 @@
+package com.constructionhub.authentication.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bounded audit queue: overflow policies, drop counting and after-commit publishing.
+ * Fila limitada de auditoria: políticas de estouro, contagem de descartes e publicação após o commit.
+ */
+class AuditPublisherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void dropNewestKeepsTheQueuedEventsAndCountsTheLoss() {
+        AuditPublisher publisher = publisher(AuditOverflowPolicy.DROP_NEWEST, 2);
+
+        publishAll(publisher, "a", "b", "c");
+
+        assertThat(principals(publisher)).containsExactly("a", "b");
+        assertThat(count("published")).isEqualTo(2);
+        assertThat(count("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void dropOldestMakesRoomForTheNewEvent() {
+        AuditPublisher publisher = publisher(AuditOverflowPolicy.DROP_OLDEST, 2);
+
+        publishAll(publisher, "a", "b", "c", "d");
+
+        assertThat(principals(publisher)).containsExactly("c", "d");
+        assertThat(count("published")).isEqualTo(4);
+        assertThat(count("dropped")).isEqualTo(2);
+    }
+
+    @Test
+    void blockWaitsForTheTimeoutThenDrops() {
+        AuditPublisher publisher = publisher(AuditOverflowPolicy.BLOCK, 1);
+
+        long start = System.nanoTime();
+        publishAll(publisher, "a", "b");
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(20_000_000L);
+        assertThat(principals(publisher)).containsExactly("a");
+        assertThat(count("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void afterCommitEventsWaitForTheCommitAndVanishOnRollback() {
+        AuditPublisher publisher = publisher(AuditOverflowPolicy.DROP_NEWEST, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.publishAfterCommit(AuditEventType.REGISTER, null, "committed", null);
+        publisher.publish(AuditEventType.LOGIN_FAILURE, null, "immediate", null);
+        assertThat(principals(publisher)).containsExactly("immediate");
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(principals(publisher)).containsExactly("committed");
+
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publishAfterCommit(AuditEventType.REGISTER, null, "rolled-back", null);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(publisher.isEmpty()).isTrue();
+    }
+
+    @Test
+    void disabledAuditQueuesNothing() {
+        AuditPublisher publisher = publisher(AuditOverflowPolicy.DROP_NEWEST, 2);
+        ReflectionTestUtils.setField(properties(publisher), "enabled", false);
+
+        publishAll(publisher, "a");
+
+        assertThat(publisher.isEmpty()).isTrue();
+        assertThat(count("published")).isZero();
+    }
+
+    private AuditPublisher publisher(AuditOverflowPolicy policy, int capacity) {
+        AuditProperties properties = new AuditProperties();
+        ReflectionTestUtils.setField(properties, "enabled", true);
+        ReflectionTestUtils.setField(properties, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(properties, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(properties, "blockTimeoutMs", 20L);
+        return new AuditPublisher(properties, registry);
+    }
+
+    private static AuditProperties properties(AuditPublisher publisher) {
+        return (AuditProperties) ReflectionTestUtils.getField(publisher, "properties");
+    }
+
+    private static void publishAll(AuditPublisher publisher, String... principals) {
+        for (String principal : principals) {
+            publisher.publish(AuditEventType.LOGIN_SUCCESS, null, principal, null);
+        }
+    }
+
+    private static List<String> principals(AuditPublisher publisher) {
+        List<AuditEvent> events = new ArrayList<>();
+        publisher.drainTo(events, Integer.MAX_VALUE);
+        return events.stream().map(AuditEvent::getPrincipal).toList();
+    }
+
+    private double count(String result) {
+        return registry.get("auth.audit.events").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,52 @@
+package com.constructionhub.authentication.audit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The table belongs to the migrations: AuditTableManager only checks for it and never creates it.
+ * A tabela pertence às migrações: o AuditTableManager só verifica sua existência e nunca a cria.
+ */
+class AuditTableManagerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AuditTableManager manager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        manager = new AuditTableManager(jdbcTemplate, new AuditProperties());
+    }
+
+    @Test
+    void isNotReadyAndCreatesNothingWhileTheTableIsMissing() {
+        assertThat(manager.prepare()).isFalse();
+
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.tables WHERE lower(table_name) = 'auth_audit'", Integer.class);
+        assertThat(tables).isZero();
+    }
+
+    @Test
+    void becomesReadyOnceTheTableExists() {
+        assertThat(manager.prepare()).isFalse();
+
+        jdbcTemplate.execute("CREATE TABLE auth_audit (id bigint PRIMARY KEY, occurred_at timestamp with time zone NOT NULL)");
+
+        assertThat(manager.prepare()).isTrue();
+        // Fora do PostgreSQL a tabela não é particionada: nada a criar
+        manager.ensurePartitions(Instant.now());
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.tables WHERE lower(table_name) LIKE 'auth_audit%'", Integer.class);
+        assertThat(tables).isEqualTo(1);
+    }
+}
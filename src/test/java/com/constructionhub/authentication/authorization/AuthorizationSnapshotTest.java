@@ -0,0 +1,75 @@
+package com.constructionhub.authentication.authorization;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Role combinations resolved once per snapshot, sorted, deduplicated and shared.
+ * Combinações de roles resolvidas uma vez por snapshot, ordenadas, sem repetição e compartilhadas.
+ */
+class AuthorizationSnapshotTest {
+
+    private final AuthorizationSnapshot snapshot = new AuthorizationSnapshot(7, Map.of(
+            "ROLE_ADMIN", List.of("USERS_WRITE", "USERS_READ"),
+            "ROLE_USER", List.of("USERS_READ", "PROJECTS_READ", "PROJECTS_READ"),
+            "ROLE_EMPTY", List.of()));
+
+    @Test
+    void resolvesRolesThenPermissionsSortedAndDistinct() {
+        ResolvedAuthorities resolved = snapshot.resolve(List.of("ROLE_USER", "ROLE_ADMIN"));
+
+        assertThat(resolved.getSnapshotVersion()).isEqualTo(7);
+        assertThat(resolved.getRoles()).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(resolved.getPermissions()).containsExactly("PROJECTS_READ", "USERS_READ", "USERS_WRITE");
+        assertThat(resolved.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "ROLE_USER", "PROJECTS_READ", "USERS_READ", "USERS_WRITE");
+    }
+
+    @Test
+    void sameCombinationIsSharedWhateverTheCollectionType() {
+        ResolvedAuthorities first = snapshot.resolve(Set.of("ROLE_USER", "ROLE_ADMIN"));
+
+        assertThat(snapshot.resolve(new TreeSet<>(List.of("ROLE_ADMIN", "ROLE_USER")))).isSameAs(first);
+        assertThat(snapshot.resolve(List.of("ROLE_ADMIN", "ROLE_USER", "ROLE_ADMIN"))).isSameAs(first);
+        assertThat(snapshot.resolve(List.of("ROLE_USER"))).isNotSameAs(first);
+    }
+
+    @Test
+    void authoritiesAreInternedAcrossCombinations() {
+        GrantedAuthority fromUser = authority(snapshot.resolve(List.of("ROLE_USER")), "USERS_READ");
+        GrantedAuthority fromAdmin = authority(snapshot.resolve(List.of("ROLE_ADMIN")), "USERS_READ");
+
+        assertThat(fromUser).isSameAs(fromAdmin);
+    }
+
+    @Test
+    void unknownRoleIsNotResolved() {
+        assertThat(snapshot.resolve(List.of("ROLE_USER", "ROLE_GHOST"))).isNull();
+        assertThat(snapshot.resolve(List.of("ROLE_EMPTY")).getPermissions()).isEmpty();
+        assertThat(snapshot.resolve(List.of()).getAuthorities()).isEmpty();
+    }
+
+    @Test
+    void resolvedCollectionsAreImmutable() {
+        ResolvedAuthorities resolved = snapshot.resolve(List.of("ROLE_USER"));
+
+        assertThatThrownBy(() -> resolved.getAuthorities().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> resolved.getPermissions().add("X")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.getRoleNames().remove("ROLE_USER")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static GrantedAuthority authority(ResolvedAuthorities resolved, String name) {
+        return resolved.getAuthorities().stream()
+                .filter(authority -> authority.getAuthority().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
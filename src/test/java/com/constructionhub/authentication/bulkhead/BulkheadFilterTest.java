@@ -0,0 +1,52 @@
+package com.constructionhub.authentication.bulkhead;
+
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Route classification of BulkheadFilter on the decoded, normalized path.
+ * Classificação de rota do BulkheadFilter pelo caminho decodificado e normalizado.
+ */
+class BulkheadFilterTest {
+
+    private final BulkheadFilter filter = new BulkheadFilter(mock(PrecomputedErrorBodies.class),
+            new MockEnvironment(), new SimpleMeterRegistry());
+
+    @Test
+    void encodedAndDotSegmentPathsGetTheirRealClass() throws Exception {
+        assertThat(routeOf("/%61uth/login")).isEqualTo(RouteClass.CREDENTIAL);
+        assertThat(routeOf("/x/../auth/refresh")).isEqualTo(RouteClass.CREDENTIAL);
+        assertThat(routeOf("//users/1")).isEqualTo(RouteClass.ADMIN);
+        assertThat(routeOf("/%75sers;x=1/1")).isEqualTo(RouteClass.ADMIN);
+        assertThat(routeOf("/projects/1")).isEqualTo(RouteClass.RESOURCE);
+        assertThat(routeOf("/users/batch")).isEqualTo(RouteClass.LOOKUP);
+        assertThat(routeOf("/users/%62atch")).isEqualTo(RouteClass.LOOKUP);
+        assertThat(routeOf("/users/batchx")).isEqualTo(RouteClass.ADMIN);
+        assertThat(routeOf("/actuator/health")).isNull();
+    }
+
+    @Test
+    void pathIsTakenWithinTheContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/%61uth/login");
+        request.setContextPath("/api");
+
+        assertThat(RouteClass.pathOf(request)).isEqualTo("/auth/login");
+    }
+
+    // Classe vinculada à thread enquanto a cadeia roda
+    private RouteClass routeOf(String uri) throws Exception {
+        AtomicReference<RouteClass> seen = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest("POST", uri), new MockHttpServletResponse(),
+                (request, response) -> seen.set(BulkheadContext.current()));
+        return seen.get();
+    }
+}
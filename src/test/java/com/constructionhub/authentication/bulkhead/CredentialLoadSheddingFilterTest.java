@@ -0,0 +1,65 @@
+package com.constructionhub.authentication.bulkhead;
+
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * CredentialLoadSheddingFilter sheds calls over the limit whatever the spelling of the path.
+ * O CredentialLoadSheddingFilter descarta chamadas acima do limite qualquer que seja a grafia do caminho.
+ */
+class CredentialLoadSheddingFilterTest {
+
+    private final PrecomputedErrorBodies errorBodies = mock(PrecomputedErrorBodies.class);
+    // Limite fixo em 1: a segunda chamada simultânea é descartada
+    private final CredentialLoadSheddingFilter filter = new CredentialLoadSheddingFilter(errorBodies,
+            new SimpleMeterRegistry(), true, 1, 1, 1);
+
+    @Test
+    void encodedPathIsLimitedLikeThePlainOne() throws Exception {
+        AtomicReference<MockHttpServletResponse> concurrent = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/login"), new MockHttpServletResponse(),
+                (request, response) -> concurrent.set(call("/%61uth/login")));
+
+        assertThat(concurrent.get().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        verify(errorBodies).write(any(), eq(HttpStatus.SERVICE_UNAVAILABLE), eq("error.overloaded"));
+    }
+
+    @Test
+    void dotSegmentsCountAgainstTheResolvedOperationOnly() throws Exception {
+        AtomicReference<MockHttpServletResponse> refresh = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> introspect = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/x/../refresh"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    refresh.set(call("/auth/refresh"));
+                    introspect.set(call("/auth/introspect"));
+                });
+
+        assertThat(refresh.get().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(introspect.get().getHeader(HttpHeaders.RETRY_AFTER)).isNull();
+        verify(errorBodies, times(1)).write(any(), any(), any());
+    }
+
+    private MockHttpServletResponse call(String uri) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("POST", uri), response, (request, ignored) -> { });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,132 @@
+package com.constructionhub.authentication.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Admission, growth, shrinking and baseline probes of GradientConcurrencyLimiter.
+ * Admissão, crescimento, redução e sondagens da referência do GradientConcurrencyLimiter.
+ */
+class GradientConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void admitsUpToTheLimitAndFreesSlotsOnRelease() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release(System.nanoTime());
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void initialLimitIsClampedToTheBounds() {
+        assertThat(new GradientConcurrencyLimiter(500, 1, 64).getLimit()).isEqualTo(64);
+        assertThat(new GradientConcurrencyLimiter(0, 4, 64).getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void growsWhileLatencyStaysAtTheBaselineAndShrinksWhenItRises() throws Exception {
+        GradientConcurrencyLimiter limiter = created(10, 1, 1000);
+        fill(limiter);
+
+        saturatedSamples(limiter, 30, FAST);
+        int grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        saturatedSamples(limiter, 40, SLOW);
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void lightLoadSamplesDoNotMoveTheLimit() throws Exception {
+        GradientConcurrencyLimiter limiter = created(10, 1, 1000);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(System.nanoTime() - (i == 0 ? FAST : SLOW));
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void probeDropsTheLimitByAQuarterAndIgnoresCallsAdmittedBeforeIt() throws Exception {
+        GradientConcurrencyLimiter limiter = created(100, 1, 100);
+        fill(limiter);
+
+        // A primeira sondagem vem antes de 200 amostras
+        int lowest = limiter.getLimit();
+        for (int i = 0; i < 200 && lowest == 100; i++) {
+            limiter.release(System.nanoTime() - FAST);
+            limiter.tryAcquire();
+            lowest = Math.min(lowest, limiter.getLimit());
+        }
+        assertThat(lowest).isEqualTo(75);
+
+        // Admitida antes da sondagem: ainda com a fila antiga, não muda o limite
+        limiter.release(System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.getLimit()).isEqualTo(75);
+
+        // Admitida depois: nova referência, e o limite volta a crescer
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(FAST) * 2);
+        for (int i = 0; i < 5; i++) {
+            limiter.release(System.nanoTime() - FAST);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(75);
+    }
+
+    @Test
+    void probeShedsAtMostAQuarterOfAHealthyLoad() throws Exception {
+        GradientConcurrencyLimiter limiter = created(400, 1, 400);
+        fill(limiter);
+        for (int i = 0; i < 200 && limiter.getLimit() == 400; i++) {
+            limiter.release(System.nanoTime() - FAST);
+            limiter.tryAcquire();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(300);
+
+        // Carga estável: uma chegada por chamada concluída, todas admitidas antes da sondagem
+        int shed = 0;
+        for (int i = 0; i < 400; i++) {
+            limiter.release(System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+            if (!limiter.tryAcquire()) {
+                shed++;
+            }
+        }
+
+        // Só o excesso sobre o limite da sondagem é descartado (com sqrt(400) = 20 seriam ~380)
+        assertThat(shed).isBetween(99, 100);
+        assertThat(limiter.getInFlight()).isEqualTo(300);
+    }
+
+    // As chamadas simuladas começam até SLOW antes de terminar: cria o limitador antes disso
+    private static GradientConcurrencyLimiter created(int initialLimit, int minLimit, int maxLimit) throws InterruptedException {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(SLOW) * 2);
+        return limiter;
+    }
+
+    private static void fill(GradientConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // Ocupa todas as vagas
+        }
+    }
+
+    // Cada amostra termina com o limitador cheio, então sempre conta para o limite
+    private static void saturatedSamples(GradientConcurrencyLimiter limiter, int samples, long latencyNanos) {
+        for (int i = 0; i < samples; i++) {
+            limiter.release(System.nanoTime() - latencyNanos);
+            fill(limiter);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.constructionhub.authentication.controller;
+
+import com.constructionhub.authentication.dto.Versioned;
+import com.constructionhub.authentication.exception.ApiException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConditionalGetSupportTest {
+
+    private final ConditionalGetSupport support = new ConditionalGetSupport(0, true);
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    void matchingIfNoneMatchAnswers304WithoutLoadingTheBody() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "W/" + etag(3));
+        AtomicBoolean loaded = new AtomicBoolean();
+
+        ResponseEntity<String> response = support.respond(new ServletWebRequest(request), etag(3), () -> {
+            loaded.set(true);
+            return new Versioned<>("body", etag(3));
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(loaded).isFalse();
+    }
+
+    @Test
+    void okCarriesTheETagOfTheVersionActuallyLoaded() {
+        // A linha foi atualizada entre a consulta da versão (3) e a carga do corpo (4)
+        ResponseEntity<String> response = support.respond(new ServletWebRequest(new MockHttpServletRequest()),
+                etag(3), () -> new Versioned<>("body v4", etag(4)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag(4));
+        assertThat(response.getBody()).isEqualTo("body v4");
+    }
+
+    @Test
+    void ifMatchIsParsedIntoTheExpectedVersion() {
+        assertThat(support.expectedVersion(ifMatch(etag(7)), id)).isEqualTo(7L);
+        assertThat(support.expectedVersion(ifMatch("*"), id)).isNull();
+        assertThat(support.expectedVersion(new ServletWebRequest(new MockHttpServletRequest()), id)).isNull();
+    }
+
+    @Test
+    void weakForeignOrMalformedIfMatchFailsThePrecondition() {
+        for (String header : new String[]{"W/" + etag(7), "\"" + UUID.randomUUID() + ".7\"", "\"" + id + ".x\""}) {
+            assertThatThrownBy(() -> support.expectedVersion(ifMatch(header), id))
+                    .isInstanceOf(ApiException.class)
+                    .extracting(ex -> ((ApiException) ex).getStatus())
+                    .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    private String etag(long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    private static ServletWebRequest ifMatch(String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-Match", value);
+        return new ServletWebRequest(request);
+    }
+}
@@ -0,0 +1,124 @@
+package com.constructionhub.authentication.controller;
+
+import com.constructionhub.authentication.dto.AuthResponseDTO;
+import com.constructionhub.authentication.dto.RegisterRequestDTO;
+import com.constructionhub.authentication.entity.ClientApplicationEntity;
+import com.constructionhub.authentication.service.AuthService;
+import com.constructionhub.authentication.service.ClientAppService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /auth/introspect requires client credentials or ADMIN and only reports access tokens as active.
+ * POST /auth/introspect exige credenciais de cliente ou ADMIN e só informa tokens de acesso como ativos.
+ */
+@SpringBootTest(properties = "auth.warmup.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IntrospectionSecurityTest {
+
+    private static final String SECRET = "introspection-secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ClientAppService clientAppService;
+
+    @Value("${security.jwt.token.secret-key}")
+    private String jwtSecret;
+
+    private String clientId;
+    private AuthResponseDTO session;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        clientId = "rs-" + suffix;
+        clientAppService.createClientApp(ClientApplicationEntity.builder()
+                .clientId(clientId)
+                .clientSecret(SECRET)
+                .applicationName("Resource server " + suffix)
+                .build(), null);
+        session = authService.register(RegisterRequestDTO.builder()
+                .username("in" + suffix)
+                .email("in" + suffix + "@example.com")
+                .password("Secret123!")
+                .firstName("Intro")
+                .build());
+    }
+
+    @Test
+    void anonymousCallersAreRejected() throws Exception {
+        mockMvc.perform(post("/auth/introspect").param("token", session.getAccessToken()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void wrongClientSecretIsRejected() throws Exception {
+        mockMvc.perform(post("/auth/introspect").param("token", session.getAccessToken())
+                        .with(httpBasic(clientId, "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void ordinaryUsersAreForbidden() throws Exception {
+        mockMvc.perform(post("/auth/introspect").param("token", session.getAccessToken())
+                        .header("Authorization", "Bearer " + session.getAccessToken()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void authenticatedClientSeesAnActiveAccessToken() throws Exception {
+        mockMvc.perform(post("/auth/introspect").param("token", session.getAccessToken())
+                        .with(httpBasic(clientId, SECRET)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.username").value(session.getUsername()));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void refreshTokensAreNeverActive() throws Exception {
+        mockMvc.perform(post("/auth/introspect").param("token", session.getRefreshToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false));
+        mockMvc.perform(post("/auth/introspect").param("token", legacyRefreshJwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false));
+    }
+
+    // Refresh token JWT como era emitido antes dos refresh handles: sem roles
+    private String legacyRefreshJwt() {
+        return Jwts.builder()
+                .setSubject(session.getUsername())
+                .claim("userId", session.getUserId().toString())
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(Instant.now().plusSeconds(600)))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,74 @@
+package com.constructionhub.authentication.controller;
+
+import com.constructionhub.authentication.entity.UserEntity;
+import com.constructionhub.authentication.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /users/batch: found users by id and username, unknown ones apart, and the size cap.
+ * POST /users/batch: usuários encontrados por id e username, desconhecidos à parte, e o limite de tamanho.
+ */
+@SpringBootTest(properties = "auth.warmup.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class UserBatchLookupTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UUID id;
+    private String username;
+
+    @BeforeEach
+    void createUser() {
+        username = "batch" + UUID.randomUUID().toString().substring(0, 8);
+        UserEntity user = UserEntity.builder()
+                .username(username)
+                .password("{noop}secret")
+                .email(username + "@example.com")
+                .firstName("Batch")
+                .build();
+        id = userRepository.saveAndFlush(user).getId();
+    }
+
+    @Test
+    void resolvesIdsAndUsernamesAndReportsUnknownOnesSeparately() throws Exception {
+        UUID unknown = UUID.randomUUID();
+        mockMvc.perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + id + "\",\"" + unknown + "\",\"" + id + "\"],"
+                                + "\"usernames\":[\"" + username.toUpperCase() + "\",\"nobody-here\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users['" + id + "'].username").value(username))
+                .andExpect(jsonPath("$.unknownIds").value(unknown.toString()))
+                .andExpect(jsonPath("$.unknownUsernames").value("nobody-here"));
+    }
+
+    @Test
+    void repeatedIdsCountTowardsTheLimit() throws Exception {
+        // 1001 vezes o mesmo id: um só depois de deduplicar, mas acima de auth.user-batch.max-size (1000)
+        String ids = String.join(",", Collections.nCopies(1001, "\"" + id + "\""));
+        mockMvc.perform(post("/users/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + ids + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
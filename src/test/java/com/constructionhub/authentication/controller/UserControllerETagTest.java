@@ -0,0 +1,84 @@
+package com.constructionhub.authentication.controller;
+
+import com.constructionhub.authentication.entity.UserEntity;
+import com.constructionhub.authentication.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GET and If-Match on /users/{id} / GET condicional e If-Match em /users/{id}.
+ */
+@SpringBootTest(properties = "auth.warmup.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class UserControllerETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UUID id;
+
+    @BeforeEach
+    void createUser() {
+        String username = "etag" + UUID.randomUUID().toString().substring(0, 8);
+        UserEntity user = UserEntity.builder()
+                .username(username)
+                .password("{noop}secret")
+                .email(username + "@example.com")
+                .firstName("Etag")
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build();
+        id = userRepository.saveAndFlush(user).getId();
+    }
+
+    @Test
+    void getAnswers304ForTheCurrentETag() throws Exception {
+        String etag = mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/users/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updateWithStaleIfMatchFailsAndCurrentIfMatchReturnsTheNewETag() throws Exception {
+        String etag = mockMvc.perform(get("/users/{id}", id))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String newETag = mockMvc.perform(put("/users/{id}", id).header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"Primeiro\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(newETag).isNotEqualTo(etag);
+
+        // O ETag antigo já não confere com a versão da linha
+        mockMvc.perform(put("/users/{id}", id).header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"Segundo\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(header().string("ETag", newETag));
+    }
+}
@@ -0,0 +1,119 @@
+package com.constructionhub.authentication.datasource;
+
+import com.constructionhub.authentication.bulkhead.BulkheadContext;
+import com.constructionhub.authentication.bulkhead.RouteClass;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Read-only transactions go to usable replicas; writes, forced reads and recent writers to the primary.
+ * Transações somente leitura vão para réplicas disponíveis; escritas, leituras forçadas e quem escreveu há
+ * pouco vão para o primário.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(5000);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection adminConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+    private HikariDataSource replica1;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariDataSource primary = pool("primary", primaryConnection);
+        HikariDataSource admin = pool("primary-admin", adminConnection);
+        replica1 = pool("replica-1", replica1Connection);
+        HikariDataSource replica2 = pool("replica-2", replica2Connection);
+        routing = new ReplicaRoutingDataSource(primary, Map.of(RouteClass.ADMIN, admin),
+                List.of(replica1, replica2), readYourWrites, registry);
+    }
+
+    @AfterEach
+    void clearThreadState() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsRotateOverReplicasAndWritesUsePrimary() throws SQLException {
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(List.of(routing.getConnection(), routing.getConnection()))
+                .containsExactlyInAnyOrder(replica1Connection, replica2Connection);
+
+        assertThat(count("primary")).isEqualTo(1);
+        assertThat(count("replica")).isEqualTo(2);
+    }
+
+    @Test
+    void forcedPrimaryAndRecentWritersReadFromThePrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimary()) {
+            assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("Alice", null, List.of()));
+        readYourWrites.markWrite("alice");
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("bob", null, List.of()));
+        assertThat(routing.getConnection()).isIn(replica1Connection, replica2Connection);
+    }
+
+    @Test
+    void refusedReplicaFallsBackToPrimaryAndIsSkippedUntilHealthy() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(routing.getConnection()).isIn(primaryConnection, replica2Connection);
+        }
+
+        assertThat(count("fallback")).isEqualTo(1);
+        assertThat(count("replica")).isEqualTo(3);
+        assertThat(registry.get("auth.datasource.replica.up").tag("replica", "replica-1").gauge().value()).isZero();
+    }
+
+    @Test
+    void primaryConnectionsComeFromTheRouteClassPartition() throws SQLException {
+        try (BulkheadContext.Scope ignored = BulkheadContext.enter(RouteClass.ADMIN)) {
+            assertThat(routing.getConnection()).isSameAs(adminConnection);
+        }
+        try (BulkheadContext.Scope ignored = BulkheadContext.enter(RouteClass.CREDENTIAL)) {
+            assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        }
+        assertThat(routing.getPools()).hasSize(4);
+    }
+
+    private double count(String target) {
+        return registry.get("auth.datasource.routes").tag("target", target).counter().count();
+    }
+
+    private static HikariDataSource pool(String name, Connection connection) throws SQLException {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getPoolName()).thenReturn(name);
+        when(pool.getConnection()).thenReturn(connection);
+        return pool;
+    }
+}
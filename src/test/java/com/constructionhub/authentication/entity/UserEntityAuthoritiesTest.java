@@ -0,0 +1,85 @@
+package com.constructionhub.authentication.entity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Memoized fallback authorities of UserEntity: reused between calls, dropped on every role change.
+ * Autoridades memorizadas do UserEntity: reutilizadas entre chamadas, descartadas a cada mudança de roles.
+ */
+class UserEntityAuthoritiesTest {
+
+    @Test
+    void reusesTheSameSetWhileRolesAreUnchanged() {
+        UserEntity user = user(role("ROLE_USER", "PROJECTS_READ"));
+
+        Collection<? extends GrantedAuthority> first = user.getAuthorities();
+
+        assertThat(names(first)).containsExactlyInAnyOrder("ROLE_USER", "PROJECTS_READ");
+        assertThat(user.getAuthorities()).isSameAs(first);
+    }
+
+    @Test
+    void rolesWithCollidingHashCodesAreNotConfused() {
+        // "Aa" e "BB" têm o mesmo hashCode: um carimbo por soma de hashes devolvia o conjunto antigo
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        UserEntity user = user(role("Aa"));
+        assertThat(names(user.getAuthorities())).containsExactly("Aa");
+
+        user.setRoles(new HashSet<>(Set.of(role("BB"))));
+
+        assertThat(names(user.getAuthorities())).containsExactly("BB");
+    }
+
+    @Test
+    void addRoleAndRemoveRoleIfDropTheMemo() {
+        UserEntity user = user(role("ROLE_USER"));
+        user.getAuthorities();
+
+        assertThat(user.addRole(role("ROLE_ADMIN", "USERS_WRITE"))).isTrue();
+        assertThat(names(user.getAuthorities())).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN", "USERS_WRITE");
+
+        assertThat(user.removeRoleIf(role -> role.getName().equals("ROLE_ADMIN"))).isTrue();
+        assertThat(names(user.getAuthorities())).containsExactly("ROLE_USER");
+
+        assertThat(user.removeRoleIf(role -> role.getName().equals("ROLE_MISSING"))).isFalse();
+    }
+
+    @Test
+    void rolesCannotBeChangedBehindTheMemo() {
+        UserEntity user = user(role("ROLE_USER"));
+
+        assertThatThrownBy(() -> user.getRoles().add(role("ROLE_ADMIN")))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static UserEntity user(RoleEntity... roles) {
+        return UserEntity.builder()
+                .username("user")
+                .roles(new HashSet<>(Set.of(roles)))
+                .build();
+    }
+
+    private static RoleEntity role(String name, String... permissions) {
+        Set<PermissionEntity> permissionEntities = new HashSet<>();
+        for (String permission : permissions) {
+            permissionEntities.add(PermissionEntity.builder().id(UUID.randomUUID()).name(permission).build());
+        }
+        // equals/hashCode das entidades usam o id
+        return RoleEntity.builder().id(UUID.randomUUID()).name(name).permissions(permissionEntities).build();
+    }
+
+    private static Set<String> names(Collection<? extends GrantedAuthority> authorities) {
+        Set<String> names = new HashSet<>();
+        authorities.forEach(authority -> names.add(authority.getAuthority()));
+        return names;
+    }
+}
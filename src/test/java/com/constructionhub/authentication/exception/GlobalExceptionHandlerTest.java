@@ -0,0 +1,31 @@
+package com.constructionhub.authentication.exception;
+
+import com.constructionhub.authentication.entity.UserEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GlobalExceptionHandlerTest {
+
+    @Test
+    void optimisticLockConflictIs409NotInternalError() {
+        MessageHandler messages = mock(MessageHandler.class);
+        when(messages.getMessage(eq("error.concurrentModification"), any(Object[].class))).thenReturn("conflict");
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(messages);
+
+        ResponseEntity<ApiErrorResponse> response = handler.handleOptimisticLockingFailure(
+                new ObjectOptimisticLockingFailureException(UserEntity.class, UUID.randomUUID()));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getStatus()).isEqualTo(409);
+    }
+}
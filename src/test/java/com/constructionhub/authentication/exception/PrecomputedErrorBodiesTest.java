@@ -0,0 +1,92 @@
+package com.constructionhub.authentication.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pre-serialized error bodies: same JSON as GlobalExceptionHandler, message resolved once per locale.
+ * Corpos de erro pré-serializados: mesmo JSON do GlobalExceptionHandler, mensagem resolvida uma vez por locale.
+ */
+class PrecomputedErrorBodiesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final MessageHandler messages = mock(MessageHandler.class);
+    private final PrecomputedErrorBodies bodies = new PrecomputedErrorBodies(messages, objectMapper);
+
+    @AfterEach
+    void resetLocale() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    void bodyMatchesTheApiErrorResponseShape() throws Exception {
+        when(messages.getMessage("error.unauthorized")).thenReturn("Não autorizado");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        bodies.write(response, HttpStatus.UNAUTHORIZED, "error.unauthorized");
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        byte[] written = response.getContentAsByteArray();
+        assertThat(response.getContentLength()).isEqualTo(written.length);
+
+        JsonNode actual = objectMapper.readTree(written);
+        JsonNode expected = objectMapper.valueToTree(
+                new ApiErrorResponse(401, HttpStatus.UNAUTHORIZED.getReasonPhrase(), "Não autorizado", null));
+        assertThat(fieldNames(actual)).isEqualTo(fieldNames(expected));
+        assertThat(actual.get("timestamp").asText()).matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}");
+        ((ObjectNode) actual).remove("timestamp");
+        ((ObjectNode) expected).remove("timestamp");
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void messageIsResolvedOncePerStatusCodeAndLocale() throws Exception {
+        when(messages.getMessage("error.forbidden")).thenReturn("forbidden");
+
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        bodies.write(new MockHttpServletResponse(), HttpStatus.FORBIDDEN, "error.forbidden");
+        bodies.write(new MockHttpServletResponse(), HttpStatus.FORBIDDEN, "error.forbidden");
+        verify(messages, times(1)).getMessage("error.forbidden");
+
+        // Outro locale gera outro corpo
+        LocaleContextHolder.setLocale(Locale.forLanguageTag("pt-BR"));
+        bodies.write(new MockHttpServletResponse(), HttpStatus.FORBIDDEN, "error.forbidden");
+        verify(messages, times(2)).getMessage("error.forbidden");
+    }
+
+    @Test
+    void escapesTheResolvedMessage() throws Exception {
+        when(messages.getMessage("error.quoted")).thenReturn("say \"no\"\n");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        bodies.write(response, HttpStatus.TOO_MANY_REQUESTS, "error.quoted");
+
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("status").asInt()).isEqualTo(429);
+        assertThat(body.get("message").asText()).isEqualTo("say \"no\"\n");
+        assertThat(body.get("details").isNull()).isTrue();
+    }
+
+    private static String fieldNames(JsonNode node) {
+        StringBuilder names = new StringBuilder();
+        node.fieldNames().forEachRemaining(name -> names.append(name).append(','));
+        return names.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.constructionhub.authentication.heavyhitter;
+
+import com.constructionhub.authentication.quota.ClientQuotaFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dimensions and report of HeavyHitterTracker.
+ * Dimensões e relatório do HeavyHitterTracker.
+ */
+class HeavyHitterTrackerTest {
+
+    @Test
+    void tokenValidationsAreCountedByUsernameIpAndVerifiedClient() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(true, 5, 300, 5, 4, 1024);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.7");
+        request.setAttribute(ClientQuotaFilter.VERIFIED_CLIENT_ATTRIBUTE, "mobile-app");
+        MockHttpServletRequest claimedOnly = new MockHttpServletRequest();
+        claimedOnly.setRemoteAddr("10.0.0.7");
+        claimedOnly.addHeader("X-Client-Id", "framed-app"); // Sem credenciais verificadas: não conta
+
+        tracker.recordTokenValidation(request, "Alice");
+        tracker.recordTokenValidation(request, "alice");
+        tracker.recordTokenValidation(claimedOnly, null); // Token rejeitado: sem usuário
+
+        Map<String, Object> report = tracker.report("token-validations");
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, WindowedTopK.Snapshot>> streams = (Map<String, Map<String, WindowedTopK.Snapshot>>) report.get("streams");
+        Map<String, WindowedTopK.Snapshot> byDimension = streams.get("token-validations");
+        assertThat(byDimension.get("username").top()).containsExactly(new WindowedTopK.HeavyHitter("alice", 2));
+        assertThat(byDimension.get("ip").top()).containsExactly(new WindowedTopK.HeavyHitter("10.0.0.7", 3));
+        assertThat(byDimension.get("client").top()).containsExactly(new WindowedTopK.HeavyHitter("mobile-app", 2));
+        assertThat(tracker.report("unknown")).isNull();
+    }
+
+    @Test
+    void disabledTrackerReportsNoStreams() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(false, 5, 300, 5, 4, 1024);
+
+        tracker.recordLogin("alice", false);
+        tracker.recordTokenValidation(new MockHttpServletRequest(), "alice");
+
+        assertThat(tracker.report()).containsEntry("enabled", false).containsEntry("streams", Map.of());
+        assertThat(tracker.report("login-attempts")).isNull();
+    }
+}
@@ -0,0 +1,101 @@
+package com.constructionhub.authentication.heavyhitter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Count-Min estimates and sliding top-K of the heavy-hitter tracking.
+ * Estimativas Count-Min e top-K deslizante do rastreamento de heavy hitters.
+ */
+class WindowedTopKTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void sketchNeverUndercountsAndRoundsTheWidthUp() {
+        CountMinSketch sketch = new CountMinSketch(4, 100);
+        assertThat(sketch.getWidth()).isEqualTo(128);
+
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(CountMinSketch.hash("key-" + (i % 200)));
+        }
+        long hot = CountMinSketch.hash("hot");
+        for (int i = 0; i < 50; i++) {
+            assertThat(sketch.add(hot)).isGreaterThanOrEqualTo(i + 1);
+        }
+
+        assertThat(sketch.estimate(hot)).isBetween(50L, 50L + (long) Math.ceil(Math.E * 1050 / 128));
+        sketch.clear();
+        assertThat(sketch.estimate(hot)).isZero();
+    }
+
+    @Test
+    void topKeysAreReportedInOrderWithinTheErrorBound() {
+        WindowedTopK window = new WindowedTopK(3, 10 * SECOND, 5, 4, 1024);
+        long now = 100 * SECOND;
+        add(window, "stuffer", 500, now);
+        add(window, "replayer", 200, now);
+        add(window, "scanner", 100, now);
+        for (int i = 0; i < 300; i++) {
+            window.add("user-" + i, now);
+        }
+
+        WindowedTopK.Snapshot snapshot = window.snapshot(now);
+
+        assertThat(snapshot.total()).isEqualTo(1100);
+        assertThat(snapshot.top()).extracting(WindowedTopK.HeavyHitter::key).containsExactly("stuffer", "replayer", "scanner");
+        Map<String, Long> counts = Map.of("stuffer", 500L, "replayer", 200L, "scanner", 100L);
+        for (WindowedTopK.HeavyHitter hitter : snapshot.top()) {
+            assertThat(hitter.count()).isBetween(counts.get(hitter.key()), counts.get(hitter.key()) + snapshot.errorBound());
+        }
+    }
+
+    @Test
+    void countsAcrossBucketsAndForgetsThemOnceTheWindowSlidesPast() {
+        WindowedTopK window = new WindowedTopK(2, 10 * SECOND, 5, 4, 1024); // Buckets de 2 s
+        long start = 100 * SECOND;
+        add(window, "alice", 30, start);
+        add(window, "alice", 20, start + 4 * SECOND);
+        add(window, "bob", 40, start + 4 * SECOND);
+
+        WindowedTopK.Snapshot both = window.snapshot(start + 4 * SECOND);
+        assertThat(both.total()).isEqualTo(90);
+        assertThat(both.top()).extracting(WindowedTopK.HeavyHitter::key).containsExactly("alice", "bob");
+        assertThat(both.top().get(0).count()).isEqualTo(50);
+
+        // O bucket do início saiu da janela: só restam as contagens mais recentes
+        WindowedTopK.Snapshot later = window.snapshot(start + 10 * SECOND);
+        assertThat(later.total()).isEqualTo(60);
+        assertThat(later.top()).extracting(WindowedTopK.HeavyHitter::key).containsExactly("bob", "alice");
+
+        assertThat(window.snapshot(start + 20 * SECOND).top()).isEmpty();
+    }
+
+    @Test
+    void reusedBucketStartsEmptyAndKeysAreTruncated() {
+        WindowedTopK window = new WindowedTopK(2, 10 * SECOND, 5, 4, 1024);
+        long start = 100 * SECOND;
+        add(window, "old", 10, start);
+        String longKey = "x".repeat(200);
+
+        // Mesmo bucket do anel, uma volta depois
+        add(window, longKey, 3, start + 10 * SECOND);
+
+        WindowedTopK.Snapshot snapshot = window.snapshot(start + 10 * SECOND);
+        assertThat(snapshot.total()).isEqualTo(3);
+        assertThat(snapshot.top()).singleElement().satisfies(hitter -> {
+            assertThat(hitter.key()).hasSize(128);
+            assertThat(hitter.count()).isEqualTo(3);
+        });
+    }
+
+    private static void add(WindowedTopK window, String key, int times, long nowNanos) {
+        for (int i = 0; i < times; i++) {
+            window.add(key, nowNanos);
+        }
+    }
+}
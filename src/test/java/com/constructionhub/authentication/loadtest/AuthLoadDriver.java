@@ -0,0 +1,438 @@
+package com.constructionhub.authentication.loadtest;
+
+import com.constructionhub.authentication.AuthenticationServiceApplication;
+import com.constructionhub.authentication.entity.RoleEntity;
+import com.constructionhub.authentication.entity.UserEntity;
+import com.constructionhub.authentication.loadtest.LoadSettings.Operation;
+import com.constructionhub.authentication.repository.RoleRepository;
+import com.constructionhub.authentication.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load driver for the authentication service.
+ *
+ * EN: Boots the service in-process on the configured Spring profiles (H2 by default, see
+ * application-loadtest.yml, or a local Postgres with "loadtest,loadtest-postgres"), seeds users and
+ * admins, then drives a mixed open-model workload (login, refresh, GET /users/{id}, register) at a
+ * fixed arrival rate through the JDK HttpClient. Arrivals are scheduled independently of
+ * completions, so a saturated service shows up as growing latency instead of a lower offered load.
+ * Latency percentiles are reported with HdrHistogram.
+ *
+ * PT: Sobe o serviço no mesmo processo com os perfis configurados (H2 por padrão ou um Postgres
+ * local), cria usuários e administradores e gera uma carga mista em modelo aberto (login, refresh,
+ * GET /users/{id}, registro) a uma taxa fixa de chegadas com o HttpClient da JDK.
+ *
+ * Usage / Uso:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.constructionhub.authentication.loadtest.AuthLoadDriver \
+ *     -Dload.rate=500 -Dload.durationSeconds=120 -Dload.users=5000
+ * </pre>
+ * Java 21+ runs each request on a virtual thread; on older runtimes a cached platform thread
+ * pool is used instead.
+ */
+public final class AuthLoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private final LoadSettings settings;
+    private final HttpClient http;
+    private final ExecutorService executor;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] schedule;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong registrations = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private String baseUrl;
+    private List<String> usernames;
+    private List<UUID> userIds;
+    private AtomicReferenceArray<Session> userSessions;
+    private AtomicReferenceArray<Session> adminSessions;
+
+    private AuthLoadDriver(LoadSettings settings) {
+        this.settings = settings;
+        this.executor = newRequestExecutor();
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation.key));
+        }
+        this.schedule = buildSchedule(settings.mix);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        System.out.println("Load settings: " + settings);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthenticationServiceApplication.class)
+                .profiles(settings.profiles.split(","))
+                .run(withRandomPort(args));
+        try {
+            AuthLoadDriver driver = new AuthLoadDriver(settings);
+            driver.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            driver.seed(context);
+            driver.openAdminSessions();
+            driver.run();
+        } finally {
+            context.close();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Seeding / Preparação dos dados
+    // ------------------------------------------------------------------
+
+    private void seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        // Um único hash BCrypt para todos: o custo de seed não deve depender de N.
+        String passwordHash = passwordEncoder.encode(settings.password);
+        int total = settings.users + settings.admins;
+
+        long started = System.nanoTime();
+        usernames = new ArrayList<>(settings.users);
+        userIds = new ArrayList<>(settings.users);
+        for (int from = 0; from < total; from += SEED_BATCH_SIZE) {
+            int batchStart = from;
+            int batchEnd = Math.min(total, from + SEED_BATCH_SIZE);
+            transaction.executeWithoutResult(status -> {
+                RoleEntity userRole = roleRepository.findByName("ROLE_USER").orElseThrow();
+                RoleEntity adminRole = roleRepository.findByName("ROLE_ADMIN").orElseThrow();
+                List<UserEntity> batch = new ArrayList<>(batchEnd - batchStart);
+                for (int i = batchStart; i < batchEnd; i++) {
+                    boolean admin = i >= settings.users;
+                    String username = (admin ? "lt-admin-" : "lt-user-") + runId + "-" + i;
+                    batch.add(UserEntity.builder()
+                            .username(username)
+                            .email(username + "@load.test")
+                            .password(passwordHash)
+                            .firstName("Load")
+                            .lastName("User " + i)
+                            .roles(new HashSet<>(admin ? Set.of(userRole, adminRole) : Set.of(userRole)))
+                            .build());
+                }
+                for (UserEntity saved : userRepository.saveAll(batch)) {
+                    if (!saved.getUsername().startsWith("lt-admin-")) {
+                        usernames.add(saved.getUsername());
+                        userIds.add(saved.getId());
+                    }
+                }
+            });
+        }
+        userSessions = new AtomicReferenceArray<>(settings.users);
+        adminSessions = new AtomicReferenceArray<>(settings.admins);
+        System.out.printf("Seeded %d users and %d admins in %d ms%n", settings.users, settings.admins,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void openAdminSessions() throws Exception {
+        for (int i = 0; i < settings.admins; i++) {
+            String username = "lt-admin-" + runId + "-" + (settings.users + i);
+            HttpResponse<String> response = http.send(loginRequest(username), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Admin login failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            adminSessions.set(i, Session.from(response.body()));
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Open-model arrivals / Chegadas em modelo aberto
+    // ------------------------------------------------------------------
+
+    private void run() throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup.toNanos();
+        long end = measureFrom + settings.duration.toNanos();
+        long nextReport = start + settings.reportInterval.toNanos();
+        boolean measuring = false;
+
+        System.out.println("Warming up for " + settings.warmup.toSeconds() + "s ...");
+        for (long arrival = 0; ; arrival++) {
+            long intended = start + arrival * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            if (!measuring && now >= measureFrom) {
+                measuring = true;
+                resetAfterWarmup();
+                nextReport = now + settings.reportInterval.toNanos();
+                System.out.println(OperationStats.header());
+            }
+            if (measuring && now >= nextReport) {
+                printInterval(settings.reportInterval.toNanos() / 1e9);
+                nextReport += settings.reportInterval.toNanos();
+            }
+            dispatch(schedule[(int) (arrival % schedule.length)], intended);
+        }
+
+        awaitDrain();
+        printInterval(settings.reportInterval.toNanos() / 1e9);
+        printSummary(settings.duration.toNanos() / 1e9);
+        executor.shutdownNow();
+    }
+
+    private void dispatch(Operation operation, long intendedStart) {
+        if (inFlight.incrementAndGet() > settings.maxInFlight) {
+            inFlight.decrementAndGet();
+            stats.get(operation).recordShed(); // Fora do histograma: não foi enviada
+            return;
+        }
+        executor.execute(() -> {
+            boolean success = false;
+            Operation recordedAs = operation;
+            try {
+                switch (operation) {
+                    case LOGIN -> success = login();
+                    case REFRESH -> {
+                        Boolean refreshed = refresh();
+                        if (refreshed == null) {
+                            // Nenhuma sessão disponível ainda: faz login no lugar.
+                            recordedAs = Operation.LOGIN;
+                            success = login();
+                        } else {
+                            success = refreshed;
+                        }
+                    }
+                    case USER_BY_ID -> success = userById();
+                    case REGISTER -> success = register();
+                }
+            } catch (Exception e) {
+                success = false;
+            } finally {
+                stats.get(recordedAs).record(System.nanoTime() - intendedStart, success);
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    // ------------------------------------------------------------------
+    // Operations / Operações
+    // ------------------------------------------------------------------
+
+    private boolean login() throws Exception {
+        int index = ThreadLocalRandom.current().nextInt(usernames.size());
+        HttpResponse<String> response = http.send(loginRequest(usernames.get(index)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        userSessions.set(index, Session.from(response.body()));
+        return true;
+    }
+
+    /**
+     * Claims a session exclusively so two concurrent refreshes never replay the same refresh token.
+     * Reserva uma sessão com exclusividade para que dois refreshes concorrentes não reutilizem o mesmo token.
+     *
+     * @return null when no session has been established yet
+     */
+    private Boolean refresh() throws Exception {
+        int size = userSessions.length();
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        for (int probe = 0; probe < Math.min(size, 64); probe++) {
+            int index = (offset + probe) % size;
+            Session session = userSessions.getAndSet(index, null);
+            if (session == null) {
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/refresh?refreshToken="
+                            + URLEncoder.encode(session.refreshToken(), StandardCharsets.UTF_8)))
+                    .timeout(REQUEST_TIMEOUT)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            userSessions.compareAndSet(index, null, Session.from(response.body()));
+            return true;
+        }
+        return null;
+    }
+
+    private boolean userById() throws Exception {
+        Session admin = adminSessions.get(ThreadLocalRandom.current().nextInt(adminSessions.length()));
+        UUID target = userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users/" + target))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + admin.accessToken())
+                .GET()
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private boolean register() throws Exception {
+        String username = "lt-reg-" + runId + "-" + registrations.incrementAndGet();
+        String body = MAPPER.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@load.test",
+                "password", settings.password,
+                "firstName", "Load",
+                "lastName", "Register"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/register"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 201;
+    }
+
+    private HttpRequest loginRequest(String username) throws Exception {
+        String body = MAPPER.writeValueAsString(Map.of("username", username, "password", settings.password));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // ------------------------------------------------------------------
+    // Reporting / Relatórios
+    // ------------------------------------------------------------------
+
+    private void resetAfterWarmup() {
+        stats.values().forEach(operationStats -> {
+            operationStats.sampleInterval(false);
+            operationStats.resetCounters();
+        });
+    }
+
+    private void printInterval(double seconds) {
+        Histogram combined = new Histogram(3);
+        long errors = 0;
+        long shed = 0;
+        for (OperationStats operationStats : stats.values()) {
+            combined.add(operationStats.sampleInterval(true));
+            errors += operationStats.takeIntervalErrors();
+            shed += operationStats.takeIntervalShed();
+        }
+        System.out.println(OperationStats.formatRow("interval", combined, errors, shed, seconds)
+                + "  in-flight=" + inFlight.get());
+    }
+
+    private void printSummary(double seconds) {
+        System.out.println();
+        System.out.println("=== Summary (" + settings.duration.toSeconds() + "s measured, target "
+                + settings.ratePerSecond + " req/s) ===");
+        System.out.println(OperationStats.header());
+        Histogram combined = new Histogram(3);
+        long errors = 0;
+        long shed = 0;
+        for (OperationStats operationStats : stats.values()) {
+            System.out.println(OperationStats.formatRow(operationStats.name(), operationStats.total(),
+                    operationStats.errors(), operationStats.shed(), seconds));
+            combined.add(operationStats.total());
+            errors += operationStats.errors();
+            shed += operationStats.shed();
+        }
+        System.out.println(OperationStats.formatRow("all", combined, errors, shed, seconds));
+        if (shed > 0) {
+            // Percentis só das chegadas enviadas: com descarte, a carga real ficou abaixo da pedida
+            System.out.println("Arrivals shed by the driver (load.maxInFlight reached): " + shed
+                    + "; raise load.maxInFlight or lower load.rate, the percentiles exclude them");
+        }
+    }
+
+    private void awaitDrain() throws InterruptedException {
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Helpers / Auxiliares
+    // ------------------------------------------------------------------
+
+    private static Operation[] buildSchedule(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        // Intercala as operações para não gerar rajadas de um único tipo.
+        Collections.shuffle(slots, new Random(42));
+        return slots.toArray(new Operation[0]);
+    }
+
+    private static String[] withRandomPort(String[] args) {
+        String[] withPort = Arrays.copyOf(args, args.length + 1);
+        // Argumento de linha de comando: precede o server.port definido no application.yml.
+        withPort[args.length] = "--server.port=0";
+        return withPort;
+    }
+
+    /**
+     * Uses one virtual thread per request when the runtime supports it (Java 21+).
+     * Usa uma virtual thread por requisição quando o runtime suporta (Java 21+).
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads unavailable on Java " + Runtime.version().feature()
+                    + "; falling back to a cached thread pool.");
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "load-driver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private record Session(String accessToken, String refreshToken) {
+
+        static Session from(String body) throws Exception {
+            JsonNode json = MAPPER.readTree(body);
+            return new Session(json.path("accessToken").asText(), json.path("refreshToken").asText());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.constructionhub.authentication.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings for the load driver, read from system properties.
+ *
+ * EN: Every value can be overridden with -Dload.&lt;name&gt;=value on the command line.
+ * PT: Todos os valores podem ser sobrescritos com -Dload.&lt;nome&gt;=valor na linha de comando.
+ */
+final class LoadSettings {
+
+    final String profiles;
+    final int users;
+    final int admins;
+    final double ratePerSecond;
+    final Duration warmup;
+    final Duration duration;
+    final Duration reportInterval;
+    final int maxInFlight;
+    final String password;
+    final Map<Operation, Integer> mix;
+
+    private LoadSettings() {
+        this.profiles = System.getProperty("load.profiles", "loadtest");
+        this.users = Integer.getInteger("load.users", 1_000);
+        this.admins = Integer.getInteger("load.admins", 10);
+        this.ratePerSecond = Double.parseDouble(System.getProperty("load.rate", "200"));
+        this.warmup = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 15L));
+        this.duration = Duration.ofSeconds(Long.getLong("load.durationSeconds", 60L));
+        this.reportInterval = Duration.ofSeconds(Long.getLong("load.reportSeconds", 5L));
+        this.maxInFlight = Integer.getInteger("load.maxInFlight", 10_000);
+        this.password = System.getProperty("load.password", "LoadTest#2024");
+        this.mix = parseMix(System.getProperty("load.mix", "login:20,refresh:10,user:65,register:5"));
+    }
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings();
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+            }
+            weights.put(Operation.fromKey(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix must have at least one positive weight");
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return "profiles=" + profiles + ", users=" + users + ", admins=" + admins
+                + ", rate=" + ratePerSecond + "/s, warmup=" + warmup.toSeconds() + "s, duration="
+                + duration.toSeconds() + "s, maxInFlight=" + maxInFlight + ", mix=" + mix;
+    }
+
+    /**
+     * Kinds of request issued by the driver.
+     * Tipos de requisição emitidos pelo driver.
+     */
+    enum Operation {
+        LOGIN("login"),
+        REFRESH("refresh"),
+        USER_BY_ID("user"),
+        REGISTER("register");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equalsIgnoreCase(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in load.mix: " + key);
+        }
+    }
+}
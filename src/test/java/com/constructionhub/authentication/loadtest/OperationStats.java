@@ -0,0 +1,115 @@
+package com.constructionhub.authentication.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome accounting for one operation type.
+ *
+ * EN: Latencies are measured from the intended send time of each arrival, so queueing inside
+ * the driver or the service (coordinated omission) shows up in the percentiles. Arrivals the driver
+ * never sent (load.maxInFlight reached) are counted apart and stay out of the histogram.
+ * PT: As latências são medidas a partir do instante planejado de cada chegada, de modo que filas
+ * no driver ou no serviço (coordinated omission) aparecem nos percentis. Chegadas que o driver não
+ * enviou (load.maxInFlight atingido) são contadas à parte e ficam fora do histograma.
+ */
+final class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder intervalErrors = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder intervalShed = new LongAdder();
+    private Histogram intervalHistogram;
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyNanos, boolean success) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (!success) {
+            errors.increment();
+            intervalErrors.increment();
+        }
+    }
+
+    /**
+     * Counts an arrival that was never sent; a latency of ~0 would hide the saturation in the percentiles.
+     * Conta uma chegada que não foi enviada; uma latência de ~0 esconderia a saturação nos percentis.
+     */
+    void recordShed() {
+        shed.increment();
+        intervalShed.increment();
+    }
+
+    /**
+     * Swaps the interval histogram and folds it into the running total.
+     * Troca o histograma do intervalo e o acumula no total.
+     */
+    synchronized Histogram sampleInterval(boolean keep) {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        if (keep) {
+            total.add(intervalHistogram);
+        }
+        return intervalHistogram;
+    }
+
+    long takeIntervalErrors() {
+        return intervalErrors.sumThenReset();
+    }
+
+    long takeIntervalShed() {
+        return intervalShed.sumThenReset();
+    }
+
+    void resetCounters() {
+        errors.reset();
+        intervalErrors.reset();
+        shed.reset();
+        intervalShed.reset();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Histogram total() {
+        return total;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long shed() {
+        return shed.sum();
+    }
+
+    static String formatRow(String name, Histogram histogram, long errors, long shed, double seconds) {
+        long count = histogram.getTotalCount();
+        return String.format("%-9s %9d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, count, errors, shed, seconds > 0 ? count / seconds : 0.0,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    static String header() {
+        return String.format("%-9s %9s %8s %8s %10s %9s %9s %9s %9s %9s",
+                "op", "count", "errors", "shed", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
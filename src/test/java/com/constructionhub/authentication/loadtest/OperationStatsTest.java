@@ -0,0 +1,107 @@
+package com.constructionhub.authentication.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Latency accounting of the load driver: intervals, warm-up discard, errors and the load.mix setting.
+ * Contabilidade de latência do driver de carga: intervalos, descarte do aquecimento, erros e load.mix.
+ */
+class OperationStatsTest {
+
+    @AfterEach
+    void clearMix() {
+        System.clearProperty("load.mix");
+    }
+
+    @Test
+    void warmupIntervalIsDiscardedAndMeasuredIntervalsAccumulate() {
+        OperationStats stats = new OperationStats("login");
+        stats.record(TimeUnit.SECONDS.toNanos(5), true);
+        assertThat(stats.sampleInterval(false).getTotalCount()).isEqualTo(1);
+        assertThat(stats.total().getTotalCount()).isZero();
+
+        for (int i = 1; i <= 100; i++) {
+            stats.record(TimeUnit.MILLISECONDS.toNanos(i), i % 10 != 0);
+        }
+        // O histograma do intervalo é reciclado na amostra seguinte: lido antes dela
+        assertThat(stats.sampleInterval(true).getTotalCount()).isEqualTo(100);
+        stats.record(TimeUnit.MILLISECONDS.toNanos(1), true);
+        assertThat(stats.sampleInterval(true).getTotalCount()).isEqualTo(1);
+
+        assertThat(stats.total().getTotalCount()).isEqualTo(101);
+        // O aquecimento de 5 s não aparece no total
+        assertThat(stats.total().getMaxValue()).isLessThan(TimeUnit.MILLISECONDS.toNanos(101));
+        assertThat((double) stats.total().getValueAtPercentile(99))
+                .isCloseTo(TimeUnit.MILLISECONDS.toNanos(99), within(TimeUnit.MILLISECONDS.toNanos(1) * 1.0));
+        assertThat(stats.errors()).isEqualTo(10);
+        assertThat(stats.takeIntervalErrors()).isEqualTo(10);
+        assertThat(stats.takeIntervalErrors()).isZero();
+    }
+
+    @Test
+    void shedArrivalsAreCountedApartFromTheHistogram() {
+        OperationStats stats = new OperationStats("login");
+        stats.record(TimeUnit.MILLISECONDS.toNanos(800), true);
+        for (int i = 0; i < 9; i++) {
+            stats.recordShed();
+        }
+
+        Histogram interval = stats.sampleInterval(true);
+
+        // Descartes a ~0 ns puxariam o p50 para baixo justamente na saturação
+        assertThat(interval.getTotalCount()).isEqualTo(1);
+        assertThat(interval.getValueAtPercentile(50)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(799));
+        assertThat(stats.errors()).isZero();
+        assertThat(stats.takeIntervalShed()).isEqualTo(9);
+        assertThat(stats.takeIntervalShed()).isZero();
+        assertThat(stats.shed()).isEqualTo(9);
+        stats.resetCounters();
+        assertThat(stats.shed()).isZero();
+    }
+
+    @Test
+    void latenciesAboveTheTrackableRangeAreClamped() {
+        OperationStats stats = new OperationStats("user");
+        stats.record(TimeUnit.MINUTES.toNanos(10), false);
+
+        Histogram interval = stats.sampleInterval(true);
+
+        assertThat(interval.getTotalCount()).isEqualTo(1);
+        assertThat(interval.getMaxValue()).isLessThanOrEqualTo(interval.highestEquivalentValue(TimeUnit.MINUTES.toNanos(2)));
+    }
+
+    @Test
+    void rowReportsThroughputAndPercentilesInMillis() {
+        Histogram histogram = new Histogram(TimeUnit.MINUTES.toNanos(2), 3);
+        for (int i = 0; i < 50; i++) {
+            histogram.recordValue(TimeUnit.MILLISECONDS.toNanos(2));
+        }
+
+        String row = OperationStats.formatRow("refresh", histogram, 3, 7, 10.0);
+
+        assertThat(row.trim().split("\\s+")).startsWith("refresh", "50", "3", "7", "5.0", "2.00");
+        assertThat(OperationStats.header()).startsWith("op");
+    }
+
+    @Test
+    void mixRejectsUnknownOperationsAndAllZeroWeights() {
+        System.setProperty("load.mix", "login:1,USER:3");
+        assertThat(LoadSettings.fromSystemProperties().mix)
+                .containsEntry(LoadSettings.Operation.LOGIN, 1)
+                .containsEntry(LoadSettings.Operation.USER_BY_ID, 3);
+
+        System.setProperty("load.mix", "login:1,logout:2");
+        assertThatThrownBy(LoadSettings::fromSystemProperties).isInstanceOf(IllegalArgumentException.class);
+
+        System.setProperty("load.mix", "login:0");
+        assertThatThrownBy(LoadSettings::fromSystemProperties).isInstanceOf(IllegalArgumentException.class);
+    }
+}
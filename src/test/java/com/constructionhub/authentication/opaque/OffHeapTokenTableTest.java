@@ -0,0 +1,104 @@
+package com.constructionhub.authentication.opaque;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapTokenTableTest {
+
+    private static final long NOW = 1_000;
+    private static final long LIVE = NOW + 600;
+
+    // 16 entradas: 32 slots (máscara 31); chaves com o mesmo resto módulo 32 caem no mesmo slot inicial
+    private final OffHeapTokenTable table = new OffHeapTokenTable(16);
+
+    @Test
+    void collidingKeysAreFoundAlongTheProbeChain() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(put(i + 1, 5 + 32L * i, LIVE)).isTrue();
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(table.get(i + 1, 5 + 32L * i).username()).isEqualTo("user" + (i + 1));
+        }
+        assertThat(table.get(9, 5 + 32L * 9)).isNull();
+        assertThat(table.size()).isEqualTo(4);
+    }
+
+    @Test
+    void backwardShiftKeepsTheRestOfTheChainReachable() {
+        put(1, 5, LIVE);
+        put(2, 37, LIVE);
+        put(3, 6, LIVE); // Slot inicial 6, deslocado para 7 pela cadeia do 5
+        put(4, 69, LIVE);
+
+        assertThat(table.remove(1, 5)).isTrue();
+
+        assertThat(table.get(1, 5)).isNull();
+        assertThat(table.get(2, 37)).isNotNull();
+        assertThat(table.get(3, 6)).isNotNull();
+        assertThat(table.get(4, 69)).isNotNull();
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(table.remove(1, 5)).isFalse();
+    }
+
+    @Test
+    void chainsWrapAroundTheEndOfTheTable() {
+        put(1, 31, LIVE);
+        put(2, 63, LIVE); // Slot 0
+        put(3, 95, LIVE); // Slot 1
+
+        assertThat(table.remove(2, 63)).isTrue();
+
+        assertThat(table.get(1, 31)).isNotNull();
+        assertThat(table.get(3, 95)).isNotNull();
+    }
+
+    @Test
+    void expiredSlotIsReusedInPlace() {
+        put(1, 5, NOW - 1);
+
+        assertThat(put(2, 37, LIVE)).isTrue();
+
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(table.get(1, 5)).isNull();
+        assertThat(table.get(2, 37).expiresAt()).isEqualTo(LIVE);
+    }
+
+    @Test
+    void fullTableRejectsNewKeys() {
+        for (int i = 0; i < table.capacity(); i++) {
+            assertThat(put(i + 1, i, LIVE)).isTrue();
+        }
+
+        assertThat(put(100, 100, LIVE)).isFalse();
+        assertThat(table.size()).isEqualTo(table.capacity());
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredTokens() {
+        // Inseridos antes de expirar: nenhum slot é reaproveitado
+        putAt(1, 5, NOW - 1, NOW - 10);
+        putAt(2, 37, LIVE, NOW - 10);
+        putAt(3, 69, NOW - 1, NOW - 10);
+        putAt(4, 101, LIVE, NOW - 10);
+
+        assertThat(table.purgeExpired(NOW)).isEqualTo(2);
+
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.get(2, 37)).isNotNull();
+        assertThat(table.get(4, 101)).isNotNull();
+    }
+
+    private boolean put(long keyHi, long keyLo, long expiresAt) {
+        return putAt(keyHi, keyLo, expiresAt, NOW);
+    }
+
+    private boolean putAt(long keyHi, long keyLo, long expiresAt, long nowSeconds) {
+        return table.put(keyHi, keyLo, UUID.randomUUID(), ("user" + keyHi).getBytes(StandardCharsets.UTF_8), 0,
+                nowSeconds, expiresAt, nowSeconds);
+    }
+}
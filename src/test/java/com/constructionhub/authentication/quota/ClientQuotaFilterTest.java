@@ -0,0 +1,159 @@
+package com.constructionhub.authentication.quota;
+
+import com.constructionhub.authentication.exception.PrecomputedErrorBodies;
+import com.constructionhub.authentication.security.ClientCredentialVerifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Which bucket ClientQuotaFilter charges: the client's only with its verified credentials.
+ * Qual bucket o ClientQuotaFilter cobra: o do cliente só com as suas credenciais verificadas.
+ */
+class ClientQuotaFilterTest {
+
+    private static final ClientCredentialVerifier.ClientCredentials APP =
+            new ClientCredentialVerifier.ClientCredentials("app", "app-secret");
+
+    private final ClientQuotaRegistry registry = mock(ClientQuotaRegistry.class);
+    private final ClientCredentialVerifier verifier = mock(ClientCredentialVerifier.class);
+    private final PrecomputedErrorBodies errorBodies = mock(PrecomputedErrorBodies.class);
+    private final ClientQuotaFilter filter = new ClientQuotaFilter(registry, verifier, errorBodies, true, "X-Client-Id");
+
+    @BeforeEach
+    void setUp() {
+        // Bursts diferentes para distinguir os buckets pelo RateLimit-Limit
+        when(registry.limiterFor(null)).thenReturn(limiter(2));
+        when(registry.unverifiedLimiter()).thenReturn(limiter(3));
+        when(registry.limiterFor("app")).thenReturn(limiter(5));
+    }
+
+    @Test
+    void clientIdHeaderAloneIsAnonymous() throws Exception {
+        MockHttpServletRequest request = login();
+        request.addHeader("X-Client-Id", "app");
+
+        assertThat(call(request).getHeader("RateLimit-Limit")).isEqualTo("2");
+        verify(verifier, never()).verify(any());
+        assertThat(request.getAttribute(ClientQuotaFilter.VERIFIED_CLIENT_ATTRIBUTE)).isNull();
+    }
+
+    @Test
+    void verifiedCredentialsUseTheClientBucketAfterOneUnverifiedCall() throws Exception {
+        when(verifier.verify(APP)).thenReturn(true);
+        MockHttpServletRequest request = login();
+        request.addHeader("X-Client-Id", "app");
+        request.addHeader(HttpHeaders.AUTHORIZATION, basic("app", "app-secret"));
+
+        MockHttpServletResponse response = call(request);
+
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("5");
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("4");
+        assertThat(request.getAttribute(ClientQuotaFilter.VERIFIED_CLIENT_ATTRIBUTE)).isEqualTo("app");
+        assertThat(registry.unverifiedLimiter().tryAcquire(System.nanoTime()).remaining()).isEqualTo(1);
+        assertThat(registry.limiterFor(null).tryAcquire(System.nanoTime()).remaining()).isEqualTo(1);
+    }
+
+    @Test
+    void rememberedCredentialsSkipTheUnverifiedBucket() throws Exception {
+        when(verifier.isRemembered(APP)).thenReturn(true);
+        MockHttpServletRequest request = login();
+        request.addHeader(HttpHeaders.AUTHORIZATION, basic("app", "app-secret"));
+
+        assertThat(call(request).getHeader("RateLimit-Limit")).isEqualTo("5");
+        verify(verifier, never()).verify(any());
+        assertThat(registry.unverifiedLimiter().tryAcquire(System.nanoTime()).remaining()).isEqualTo(2);
+    }
+
+    @Test
+    void mismatchingHeaderIsAnonymousAndWrongSecretNeverReachesTheClientBucket() throws Exception {
+        MockHttpServletRequest mismatch = login();
+        mismatch.addHeader("X-Client-Id", "other");
+        mismatch.addHeader(HttpHeaders.AUTHORIZATION, basic("app", "app-secret"));
+        assertThat(call(mismatch).getHeader("RateLimit-Limit")).isEqualTo("2");
+        verify(verifier, never()).verify(any());
+
+        MockHttpServletRequest wrongSecret = login();
+        wrongSecret.addHeader(HttpHeaders.AUTHORIZATION, basic("app", "guess"));
+        assertThat(call(wrongSecret).getHeader("RateLimit-Limit")).isEqualTo("3");
+    }
+
+    @Test
+    void exhaustedUnverifiedBucketRejectsBeforeAnyBcrypt() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest guess = login();
+            guess.addHeader(HttpHeaders.AUTHORIZATION, basic("app", "guess-" + i));
+            call(guess);
+        }
+        MockHttpServletRequest request = login();
+        request.addHeader(HttpHeaders.AUTHORIZATION, basic("app", "guess"));
+
+        MockHttpServletResponse response = call(request);
+
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+        verify(verifier, times(3)).verify(any());
+        verify(errorBodies).write(any(), eq(HttpStatus.TOO_MANY_REQUESTS), eq("error.rateLimited"));
+        // Usuários finais sem credenciais de cliente não são afetados
+        assertThat(call(login()).getHeader(HttpHeaders.RETRY_AFTER)).isNull();
+    }
+
+    @Test
+    void endUserCallsAreNotLimitedByDefault() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        when(registry.limiterFor(null)).thenReturn(new GcraRateLimiter(new GcraRateLimiter.Policy(0, 60),
+                Counter.builder("allowed").register(meters), Counter.builder("throttled").register(meters)));
+
+        for (int i = 0; i < 500; i++) {
+            MockHttpServletResponse response = call(login());
+            assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isNull();
+            assertThat(response.getHeader("RateLimit-Limit")).isNull();
+        }
+        verify(errorBodies, never()).write(any(), any(), any());
+    }
+
+    @Test
+    void encodedTokenPathIsLimitedToo() throws Exception {
+        MockHttpServletResponse response = call(new MockHttpServletRequest("POST", "/%61uth/login"));
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("2");
+
+        response = call(new MockHttpServletRequest("POST", "/auth/introspect"));
+        assertThat(response.getHeader("RateLimit-Limit")).isNull();
+    }
+
+    private MockHttpServletResponse call(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response;
+    }
+
+    private static MockHttpServletRequest login() {
+        return new MockHttpServletRequest("POST", "/auth/login");
+    }
+
+    private static String basic(String clientId, String secret) {
+        return "Basic " + Base64.getEncoder().encodeToString((clientId + ":" + secret).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static GcraRateLimiter limiter(int burst) {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        return new GcraRateLimiter(new GcraRateLimiter.Policy(60, burst),
+                Counter.builder("allowed").register(meters), Counter.builder("throttled").register(meters));
+    }
+}
@@ -0,0 +1,127 @@
+package com.constructionhub.authentication.quota;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GCRA token bucket: burst, refill at the per-minute rate, reset/retry times and concurrency.
+ * Token bucket GCRA: rajada, reabastecimento na taxa por minuto, tempos de reset/retry e concorrência.
+ */
+class GcraRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long NOW = 1_000 * SECOND;
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final Counter allowed = Counter.builder("allowed").register(meters);
+    private final Counter throttled = Counter.builder("throttled").register(meters);
+
+    @Test
+    void admitsTheBurstThenThrottlesUntilOneIntervalPasses() {
+        // 60 por minuto: um token por segundo, rajada de 3
+        GcraRateLimiter limiter = limiter(60, 3);
+
+        assertThat(limiter.tryAcquire(NOW).remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire(NOW).remaining()).isEqualTo(1);
+        GcraRateLimiter.Decision last = limiter.tryAcquire(NOW);
+        assertThat(last.allowed()).isTrue();
+        assertThat(last.remaining()).isZero();
+        assertThat(last.resetNanos()).isEqualTo(3 * SECOND);
+
+        GcraRateLimiter.Decision rejected = limiter.tryAcquire(NOW);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(SECOND);
+        assertThat(rejected.resetNanos()).isEqualTo(3 * SECOND);
+
+        assertThat(limiter.tryAcquire(NOW + SECOND - 1).allowed()).isFalse();
+        assertThat(limiter.tryAcquire(NOW + SECOND).allowed()).isTrue();
+        assertThat(allowed.count()).isEqualTo(4);
+        assertThat(throttled.count()).isEqualTo(2);
+    }
+
+    @Test
+    void idleTimeRefillsUpToTheBurstOnly() {
+        GcraRateLimiter limiter = limiter(60, 3);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(NOW);
+        }
+
+        // Uma hora parado não acumula mais que a rajada
+        long later = NOW + 3600 * SECOND;
+        assertThat(limiter.tryAcquire(later).remaining()).isEqualTo(2);
+        limiter.tryAcquire(later);
+        limiter.tryAcquire(later);
+        assertThat(limiter.tryAcquire(later).allowed()).isFalse();
+    }
+
+    @Test
+    void unlimitedPolicyAlwaysAdmits() {
+        GcraRateLimiter limiter = limiter(0, 1);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(limiter.tryAcquire(NOW).allowed()).isTrue();
+        }
+        assertThat(limiter.tryAcquire(NOW).remaining()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void policyChangeKeepsTheUsedCalls() {
+        GcraRateLimiter limiter = limiter(60, 2);
+        limiter.tryAcquire(NOW);
+        limiter.tryAcquire(NOW);
+        assertThat(limiter.tryAcquire(NOW).allowed()).isFalse();
+
+        limiter.setPolicy(new GcraRateLimiter.Policy(60, 4));
+
+        // As duas chamadas já feitas continuam contando na nova rajada
+        assertThat(limiter.tryAcquire(NOW).remaining()).isEqualTo(1);
+        assertThat(limiter.tryAcquire(NOW).remaining()).isZero();
+        assertThat(limiter.tryAcquire(NOW).allowed()).isFalse();
+    }
+
+    @Test
+    void concurrentCallsNeverAdmitMoreThanTheBurst() throws Exception {
+        GcraRateLimiter limiter = limiter(60, 50);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire(NOW).allowed()) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            start.countDown();
+            int admitted = 0;
+            for (Future<Integer> result : results) {
+                admitted += result.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(admitted).isEqualTo(50);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private GcraRateLimiter limiter(int perMinute, int burst) {
+        return new GcraRateLimiter(new GcraRateLimiter.Policy(perMinute, burst), allowed, throttled);
+    }
+}
@@ -0,0 +1,101 @@
+package com.constructionhub.authentication.repository;
+
+import com.constructionhub.authentication.dto.AuthResponseDTO;
+import com.constructionhub.authentication.dto.LoginRequestDTO;
+import com.constructionhub.authentication.dto.RegisterRequestDTO;
+import com.constructionhub.authentication.entity.UserEntity;
+import com.constructionhub.authentication.exception.ApiException;
+import com.constructionhub.authentication.service.AuthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Logins and uniqueness checks ignore case for both username and email; a username match wins.
+ * Logins e verificações de unicidade ignoram maiúsculas em username e email; o username tem prioridade.
+ */
+@SpringBootTest(properties = "auth.warmup.enabled=false")
+@AutoConfigureMockMvc // Mesma configuração dos demais testes: reutiliza o contexto (e o banco) em cache
+@ActiveProfiles("test")
+class CaseInsensitiveLoginTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void logsInWithUsernameOrEmailInAnyCase() {
+        String username = "Mixed" + suffix;
+        String email = "Mixed" + suffix + "@Example.com";
+        register(username, email);
+
+        AuthResponseDTO byUsername = login(username.toUpperCase(Locale.ROOT));
+        AuthResponseDTO byEmail = login(email.toLowerCase(Locale.ROOT));
+
+        assertThat(byUsername.getAccessToken()).isNotBlank();
+        assertThat(byEmail.getAccessToken()).isNotBlank();
+        assertThat(userRepository.findByLogin(email.toUpperCase(Locale.ROOT)))
+                .map(UserEntity::getUsername).contains(username);
+    }
+
+    @Test
+    void registrationRejectsUsernameOrEmailDifferingOnlyInCase() {
+        register("case" + suffix, "case" + suffix + "@example.com");
+
+        assertThatThrownBy(() -> register("CASE" + suffix, "other" + suffix + "@example.com"))
+                .isInstanceOfSatisfying(ApiException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> register("other" + suffix, "CASE" + suffix + "@EXAMPLE.COM"))
+                .isInstanceOfSatisfying(ApiException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void usernameMatchWinsOverAnotherAccountsEmail() {
+        String login = "shared" + suffix + "@example.com";
+        userRepository.saveAndFlush(user("owner" + suffix, login));
+        userRepository.saveAndFlush(user(login.toUpperCase(Locale.ROOT), "squatter" + suffix + "@example.com"));
+
+        assertThat(userRepository.findAllByLogin(login)).hasSize(2);
+        assertThat(userRepository.findByLogin(login)).map(UserEntity::getUsername)
+                .contains(login.toUpperCase(Locale.ROOT));
+    }
+
+    private void register(String username, String email) {
+        authService.register(RegisterRequestDTO.builder()
+                .username(username)
+                .email(email)
+                .password("Secret123!")
+                .firstName("Case")
+                .build());
+    }
+
+    private AuthResponseDTO login(String login) {
+        return authService.login(LoginRequestDTO.builder().username(login).password("Secret123!").build());
+    }
+
+    private static UserEntity user(String username, String email) {
+        return UserEntity.builder()
+                .username(username)
+                .email(email)
+                .password("{noop}secret")
+                .build();
+    }
+}
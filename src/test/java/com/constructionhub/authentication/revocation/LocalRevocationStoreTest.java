@@ -0,0 +1,65 @@
+package com.constructionhub.authentication.revocation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Revocation by jti and by per-user cutoff, with second precision on issued-at.
+ * Revogação por jti e por corte por usuário, com precisão de segundos na emissão.
+ */
+class LocalRevocationStoreTest {
+
+    private final LocalRevocationStore store = new LocalRevocationStore(3_600_000);
+
+    @Test
+    void revokedJtiIsRejectedWhateverTheUser() {
+        store.revokeTokens(Map.of("jti-1", Instant.now().plusSeconds(60)));
+
+        assertThat(store.isRevoked("jti-1", null, null)).isTrue();
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isTrue();
+        assertThat(store.isRevoked("jti-2", "user-1", new Date())).isFalse();
+    }
+
+    @Test
+    void userCutoffRevokesTokensIssuedInEarlierSecondsOnly() {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        store.revokeUserTokens("user-1", cutoff);
+
+        assertThat(store.isRevoked("a", "user-1", Date.from(cutoff.minusSeconds(1)))).isTrue();
+        // Emitido no mesmo segundo do corte: login logo após a troca de senha continua valendo
+        assertThat(store.isRevoked("b", "user-1", Date.from(cutoff.plusMillis(999)))).isFalse();
+        assertThat(store.isRevoked("c", "user-2", Date.from(cutoff.minusSeconds(1)))).isFalse();
+        assertThat(store.isRevoked("d", "user-1", null)).isFalse();
+    }
+
+    @Test
+    void laterCutoffWinsOverEarlierOne() {
+        Instant first = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        store.revokeUserTokens("user-1", first);
+        store.revokeUserTokens("user-1", first.minusSeconds(50));
+
+        assertThat(store.isRevoked(null, "user-1", Date.from(first.minusSeconds(10)))).isTrue();
+    }
+
+    @Test
+    void expiredEntriesArePurgedOnWrite() {
+        store.revokeTokens(Map.of("live", Instant.now().plusSeconds(60))); // Agenda a próxima limpeza
+        store.revokeTokens(Map.of("expired", Instant.now().minusSeconds(1)));
+        assertThat(store.isRevoked("expired", null, null)).isTrue();
+
+        // Antecipa a limpeza agendada
+        ((AtomicLong) ReflectionTestUtils.getField(store, "nextPurgeAt")).set(0);
+        store.revokeTokens(Map.of("other", Instant.now().plusSeconds(60)));
+
+        assertThat(store.isRevoked("expired", null, null)).isFalse();
+        assertThat(store.isRevoked("live", null, null)).isTrue();
+    }
+}
@@ -0,0 +1,121 @@
+package com.constructionhub.authentication.revocation;
+
+import com.constructionhub.authentication.invalidation.InvalidationBus;
+import com.constructionhub.authentication.invalidation.InvalidationType;
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Near cache, known revocations, bus messages and Redis outages of RedisRevocationStore.
+ * Near cache, revogações conhecidas, mensagens do barramento e falhas do Redis no RedisRevocationStore.
+ */
+class RedisRevocationStoreTest {
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final InvalidationBus bus = mock(InvalidationBus.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private RedisRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(redis.opsForValue()).thenReturn(values);
+        store = new RedisRevocationStore(new LocalRevocationStore(3_600_000), redis, bus, new AuthMetrics(registry),
+                "auth:", 3_600_000, 60_000, 1000, 60_000);
+    }
+
+    @Test
+    void notRevokedTokenIsLookedUpOnceThenServedFromTheNearCache() {
+        when(values.multiGet(List.of("auth:revoked:jti-1", "auth:revoked-before:user-1"))).thenReturn(Arrays.asList(null, null));
+
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isFalse();
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isFalse();
+
+        verify(values, times(1)).multiGet(anyList());
+        assertThat(lookups(RevocationLookup.REDIS)).isEqualTo(1);
+        assertThat(lookups(RevocationLookup.NEAR_CACHE)).isEqualTo(1);
+    }
+
+    @Test
+    void revocationReadFromRedisIsRememberedLocally() {
+        long expiresAt = Instant.now().plusSeconds(60).toEpochMilli();
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList(Long.toString(expiresAt), null));
+
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isTrue();
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isTrue();
+
+        verify(values, times(1)).multiGet(anyList());
+        assertThat(lookups(RevocationLookup.KNOWN)).isEqualTo(1);
+    }
+
+    @Test
+    void busMessageOverridesTheNearCache() {
+        Consumer<String> tokenRevoked = listener(InvalidationType.TOKEN_REVOKED);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isFalse();
+
+        tokenRevoked.accept("jti-1:" + Instant.now().plusSeconds(60).toEpochMilli());
+        tokenRevoked.accept("malformed"); // Ignorada
+
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isTrue();
+        verify(values, times(1)).multiGet(anyList());
+    }
+
+    @Test
+    void redisOutageFallsBackToLocalStateAndSkipsRedisUntilTheRetryInterval() {
+        when(values.multiGet(anyList())).thenThrow(new QueryTimeoutException("down"));
+
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isFalse();
+        assertThat(store.isRevoked("jti-2", "user-1", new Date())).isFalse();
+
+        verify(values, times(1)).multiGet(anyList());
+        assertThat(lookups(RevocationLookup.UNAVAILABLE)).isEqualTo(2);
+    }
+
+    @Test
+    void localRevocationAppliesEvenWhenTheRedisWriteFails() {
+        when(redis.executePipelined(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("down"));
+
+        store.revokeTokens(Map.of("jti-1", Instant.now().plusSeconds(60)));
+
+        assertThat(store.isRevoked("jti-1", "user-1", new Date())).isTrue();
+        verify(redis).executePipelined(any(RedisCallback.class));
+        verify(values, never()).multiGet(anyList());
+    }
+
+    private Consumer<String> listener(InvalidationType type) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(bus).subscribe(eq(type), captor.capture());
+        return captor.getValue();
+    }
+
+    private double lookups(RevocationLookup source) {
+        return registry.get(AuthMetrics.REVOCATION_LOOKUPS).tag("source", source.getTag()).counter().count();
+    }
+}
@@ -0,0 +1,56 @@
+package com.constructionhub.authentication.security;
+
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MeteredPasswordEncoder emits one PasswordHash JFR event and one timer sample per BCrypt call.
+ * O MeteredPasswordEncoder emite um evento JFR PasswordHash e uma amostra de timer por chamada de BCrypt.
+ */
+class MeteredPasswordEncoderTest {
+
+    private static final String EVENT = "com.constructionhub.auth.PasswordHash";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void encodeAndMatchAreRecordedAsJfrEventsAndTimers() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeteredPasswordEncoder encoder = new MeteredPasswordEncoder(new BCryptPasswordEncoder(4), new AuthMetrics(registry));
+        Path dump = tempDir.resolve("password-hash.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT).withThreshold(Duration.ZERO);
+            recording.start();
+            String hash = encoder.encode("Secret123!");
+            assertThat(encoder.matches("Secret123!", hash)).isTrue();
+            assertThat(encoder.matches("wrong", hash)).isFalse();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals(EVENT))
+                .toList();
+        assertThat(events).extracting(event -> event.getString("operation") + ":" + event.getString("outcome"))
+                .containsExactly("encode:ok", "match:match", "match:mismatch");
+        assertThat(events).allSatisfy(event -> assertThat(event.getDuration()).isPositive());
+
+        assertThat(registry.get(AuthMetrics.PASSWORD_ENCODE).timer().count()).isEqualTo(1);
+        assertThat(registry.get(AuthMetrics.PASSWORD_MATCH).tag("result", "match").timer().count()).isEqualTo(1);
+        assertThat(registry.get(AuthMetrics.PASSWORD_MATCH).tag("result", "mismatch").timer().count()).isEqualTo(1);
+    }
+}
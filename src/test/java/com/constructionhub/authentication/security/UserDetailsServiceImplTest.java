@@ -0,0 +1,121 @@
+package com.constructionhub.authentication.security;
+
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
+import com.constructionhub.authentication.datasource.ReadYourWritesTracker;
+import com.constructionhub.authentication.entity.RoleEntity;
+import com.constructionhub.authentication.entity.UserEntity;
+import com.constructionhub.authentication.metrics.AuthMetrics;
+import com.constructionhub.authentication.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Single flight of UserDetailsServiceImpl: one query for concurrent loads, one instance per caller.
+ * Single flight do UserDetailsServiceImpl: uma consulta para cargas simultâneas, uma instância por chamador.
+ */
+class UserDetailsServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private UserDetailsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserDetailsServiceImpl(userRepository, new AuthMetrics(new SimpleMeterRegistry()),
+                mock(AuthorizationSnapshotHolder.class), new ReadYourWritesTracker(5000),
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "coalescingEnabled", true);
+        ReflectionTestUtils.setField(service, "maxWaitMs", 5000L);
+    }
+
+    @Test
+    void followersShareTheQueryButNotTheInstance() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(userRepository.findByLogin("alice")).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return Optional.of(user("alice"));
+        });
+
+        CompletableFuture<UserDetails> leader = CompletableFuture.supplyAsync(() -> service.loadUserByUsername("alice"));
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        AtomicReference<Thread> followerThread = new AtomicReference<>();
+        CompletableFuture<UserDetails> follower = CompletableFuture.supplyAsync(() -> {
+            followerThread.set(Thread.currentThread());
+            return service.loadUserByUsername("ALICE");
+        });
+        awaitWaiting(followerThread);
+        releaseQuery.countDown();
+
+        UserEntity leaderUser = (UserEntity) leader.get(5, TimeUnit.SECONDS);
+        UserEntity followerUser = (UserEntity) follower.get(5, TimeUnit.SECONDS);
+
+        verify(userRepository, times(1)).findByLogin("alice");
+        assertThat(followerUser).isNotSameAs(leaderUser).isEqualTo(leaderUser);
+        assertThat(followerUser.getUsername()).isEqualTo("alice");
+        assertThat(followerUser.getRoles()).isEqualTo(leaderUser.getRoles());
+
+        // Alterar a instância da líder não chega à da seguidora
+        leaderUser.setEnabled(false);
+        leaderUser.removeRoleIf(role -> true);
+        assertThat(followerUser.isEnabled()).isTrue();
+        assertThat(followerUser.getRoles()).hasSize(1);
+        assertThat(followerUser.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void copyDoesNotShareTheRoleSet() {
+        UserEntity original = user("bob");
+
+        UserEntity copy = original.copy();
+        copy.removeRoleIf(role -> true);
+
+        assertThat(copy).isNotSameAs(original).isEqualTo(original);
+        assertThat(copy.getVersion()).isEqualTo(original.getVersion());
+        assertThat(original.getRoles()).hasSize(1);
+        assertThat(copy.getAuthorities()).isEmpty();
+    }
+
+    // Espera a seguidora bloquear no resultado da líder antes de liberar a consulta
+    private static void awaitWaiting(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Thread current = thread.get();
+            if (current != null && current.getState() == Thread.State.TIMED_WAITING) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Follower did not join the in-flight load");
+    }
+
+    private static UserEntity user(String username) {
+        RoleEntity role = RoleEntity.builder().id(UUID.randomUUID()).name("ROLE_USER").permissions(new HashSet<>()).build();
+        return UserEntity.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .email(username + "@example.com")
+                .version(3L)
+                .roles(new HashSet<>(Set.of(role)))
+                .build();
+    }
+}
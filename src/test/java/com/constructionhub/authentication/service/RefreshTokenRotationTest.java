@@ -0,0 +1,171 @@
+package com.constructionhub.authentication.service;
+
+import com.constructionhub.authentication.dto.AuthResponseDTO;
+import com.constructionhub.authentication.dto.RegisterRequestDTO;
+import com.constructionhub.authentication.entity.RefreshTokenEntity;
+import com.constructionhub.authentication.exception.ApiException;
+import com.constructionhub.authentication.repository.RefreshTokenRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Refresh handle rotation: compare-and-set, client retries, reuse detection, absolute session lifetime
+ * and single use of legacy JWT refresh tokens (never access tokens, never issued after the cutoff).
+ * Rotação de refresh handles: compare-and-set, retries do cliente, detecção de reutilização, duração
+ * máxima da sessão e uso único dos refresh tokens JWT legados (nunca tokens de acesso nem emitidos
+ * depois do corte).
+ */
+@SpringBootTest(properties = {
+        "auth.warmup.enabled=false",
+        "auth.refresh-token.max-session-lifetime-ms=1800000",
+        "auth.refresh-token.legacy-jwt-issued-before=2026-01-01T00:00:00Z",
+        // Contexto próprio, isolado do contexto em cache dos outros testes: banco próprio (o create-drop
+        // apagaria as tabelas deles) e sem o cache de segundo nível, cujo CacheManager JCache é da JVM
+        "spring.datasource.url=jdbc:h2:mem:refresh_rotation_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+class RefreshTokenRotationTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${security.jwt.token.secret-key}")
+    private String jwtSecret;
+
+    private AuthResponseDTO session;
+
+    @BeforeEach
+    void register() {
+        String username = "rt" + UUID.randomUUID().toString().substring(0, 8);
+        session = authService.register(RegisterRequestDTO.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("Secret123!")
+                .firstName("Refresh")
+                .build());
+    }
+
+    @Test
+    void rotationIssuesANewHandleAndTheOldOneCannotRotateAgain() {
+        String first = session.getRefreshToken();
+        String second = authService.refreshToken(first).getRefreshToken();
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(family(first).getGeneration()).isEqualTo(1);
+        // Compare-and-set: o hash apresentado já não é o atual
+        Integer rotated = new TransactionTemplate(transactionManager).execute(status -> refreshTokenRepository.rotate(
+                familyId(first), "0".repeat(64), "1".repeat(64), Instant.now(), Instant.now().plusSeconds(60)));
+        assertThat(rotated).isZero();
+    }
+
+    @Test
+    void retryWithinGraceGetsTheSameSuccessorWithoutRotatingAgain() {
+        String first = session.getRefreshToken();
+        String second = authService.refreshToken(first).getRefreshToken();
+
+        AuthResponseDTO retried = authService.refreshToken(first);
+
+        assertThat(retried.getRefreshToken()).isEqualTo(second);
+        assertThat(family(first).getGeneration()).isEqualTo(1);
+        assertThat(authService.refreshToken(second).getRefreshToken()).isNotEqualTo(second);
+    }
+
+    @Test
+    void reuseOfAnOlderHandleRevokesTheWholeFamily() {
+        String first = session.getRefreshToken();
+        String second = authService.refreshToken(first).getRefreshToken();
+        String third = authService.refreshToken(second).getRefreshToken();
+
+        // O sucessor de first já foi trocado: não é retry, é reutilização
+        assertThatThrownBy(() -> authService.refreshToken(first)).isInstanceOf(ApiException.class);
+        assertThat(refreshTokenRepository.findById(familyId(first))).isEmpty();
+        assertThatThrownBy(() -> authService.refreshToken(third)).isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void rotationNeverExtendsTheSessionPastItsMaximumLifetime() {
+        String first = session.getRefreshToken();
+        Instant createdAt = Instant.now().minus(Duration.ofMinutes(25)).truncatedTo(ChronoUnit.MILLIS);
+        jdbcTemplate.update("update refresh_tokens set created_at = ? where family_id = ?",
+                Timestamp.from(createdAt), familyId(first));
+
+        authService.refreshToken(first);
+
+        // Validade de 20 min a partir de agora passaria do limite de 30 min desde o login
+        assertThat(family(first).getExpiresAt()).isBeforeOrEqualTo(createdAt.plus(Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void legacyRefreshTokenWithoutJtiIsExchangedOnlyOnce() {
+        String legacy = legacyJwt(Instant.parse("2025-12-31T12:00:00Z"));
+
+        assertThat(authService.refreshToken(legacy).getRefreshToken()).doesNotContain(".");
+        assertThatThrownBy(() -> authService.refreshToken(legacy)).isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void accessTokenIsNeverExchangedForARefreshFamily() {
+        assertThatThrownBy(() -> authService.refreshToken(session.getAccessToken()))
+                .isInstanceOf(ApiException.class)
+                .hasMessageContaining("auth.invalidOrExpiredRefreshToken");
+    }
+
+    @Test
+    void jwtIssuedAfterTheLegacyCutoffIsRejected() {
+        String late = legacyJwt(Instant.now().minusSeconds(60));
+
+        assertThatThrownBy(() -> authService.refreshToken(late)).isInstanceOf(ApiException.class);
+    }
+
+    private String legacyJwt(Instant issuedAt) {
+        return Jwts.builder()
+                .setSubject(session.getUsername())
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(Instant.now().plusSeconds(600)))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private RefreshTokenEntity family(String handle) {
+        return refreshTokenRepository.findById(familyId(handle)).orElseThrow();
+    }
+
+    private static UUID familyId(String handle) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(handle));
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,108 @@
+package com.constructionhub.authentication.warmup;
+
+import com.constructionhub.authentication.authorization.AuthorizationSnapshot;
+import com.constructionhub.authentication.authorization.AuthorizationSnapshotHolder;
+import com.constructionhub.authentication.config.JwtConfig;
+import com.constructionhub.authentication.datasource.ReplicaRoutingDataSource;
+import com.constructionhub.authentication.repository.ClientAppRepository;
+import com.constructionhub.authentication.repository.RoleRepository;
+import com.constructionhub.authentication.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Readiness gating and phase outcomes of StartupWarmup.
+ * Bloqueio do readiness e resultados das fases do StartupWarmup.
+ */
+class StartupWarmupTest {
+
+    private final AuthorizationSnapshotHolder snapshots = mock(AuthorizationSnapshotHolder.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final ClientAppRepository clientAppRepository = mock(ClientAppRepository.class);
+    private final ReplicaRoutingDataSource dataSource = mock(ReplicaRoutingDataSource.class);
+    private final JwtConfig jwtConfig = mock(JwtConfig.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void disabledWarmupIsReadyAndDoesNothing() {
+        StartupWarmup warmup = warmup(false, 30_000);
+        WarmupHealthIndicator health = new WarmupHealthIndicator(warmup);
+
+        warmup.onApplicationEvent(mock(ApplicationReadyEvent.class));
+
+        assertThat(warmup.getState()).isEqualTo(StartupWarmup.State.DISABLED);
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+        verifyNoInteractions(snapshots, roleRepository, clientAppRepository, dataSource);
+    }
+
+    @Test
+    void outOfServiceUntilTheWarmupEndsThenReadyEvenWhenTheDeadlinePassed() throws Exception {
+        AuthorizationSnapshot snapshot = mock(AuthorizationSnapshot.class);
+        when(snapshot.getRoleNames()).thenReturn(Set.of("ROLE_USER", "ROLE_ADMIN"));
+        when(snapshots.current()).thenReturn(snapshot);
+        when(clientAppRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        when(dataSource.getPools()).thenReturn(List.of());
+        when(jwtConfig.getSecretKey()).thenReturn("warmup-test-secret-key-with-at-least-256-bits!");
+        // Prazo zero: as fases de dados rodam, a de JIT é interrompida antes da primeira rodada
+        StartupWarmup warmup = warmup(true, 0);
+        WarmupHealthIndicator health = new WarmupHealthIndicator(warmup);
+        assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        warmup.onApplicationEvent(mock(ApplicationReadyEvent.class));
+        awaitEnd(warmup);
+
+        assertThat(warmup.getState()).isEqualTo(StartupWarmup.State.TIMED_OUT);
+        Health ready = health.health();
+        assertThat(ready.getStatus()).isEqualTo(Status.UP);
+        assertThat(ready.getDetails()).containsEntry("state", "timed_out").containsEntry("roles", 2)
+                .containsEntry("clients", 0).containsEntry("connections", 0).containsEntry("jitRounds", 0);
+        verify(roleRepository).findByName("ROLE_USER");
+        verify(roleRepository).findByName("ROLE_ADMIN");
+        assertThat(registry.get("auth.warmup.duration").tag("phase", "total").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.warmup.duration").tag("phase", "jit").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedPhaseStillEndsReady() throws Exception {
+        when(snapshots.current()).thenThrow(new IllegalStateException("no snapshot"));
+        StartupWarmup warmup = warmup(true, 30_000);
+
+        warmup.onApplicationEvent(mock(ApplicationReadyEvent.class));
+        awaitEnd(warmup);
+
+        assertThat(warmup.getState()).isEqualTo(StartupWarmup.State.FAILED);
+        Health health = new WarmupHealthIndicator(warmup).health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("error", "IllegalStateException: no snapshot");
+        verifyNoInteractions(clientAppRepository, dataSource);
+    }
+
+    private StartupWarmup warmup(boolean enabled, long maxDurationMs) {
+        return new StartupWarmup(snapshots, roleRepository, clientAppRepository, dataSource,
+                mock(JwtTokenProvider.class), jwtConfig, new ObjectMapper(), registry, enabled, maxDurationMs, 1, 10);
+    }
+
+    private static void awaitEnd(StartupWarmup warmup) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (warmup.getState() == StartupWarmup.State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
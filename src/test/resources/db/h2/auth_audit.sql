@@ -0,0 +1,12 @@
+-- auth_audit para o H2 dos perfis test/loadtest (sem Flyway); no PostgreSQL a tabela vem do V3
+CREATE TABLE IF NOT EXISTS auth_audit (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    occurred_at    timestamp with time zone NOT NULL,
+    event_type     varchar(40)  NOT NULL,
+    user_id        uuid,
+    principal      varchar(255),
+    detail         varchar(500),
+    remote_address varchar(64)
+);
+CREATE INDEX IF NOT EXISTS idx_auth_audit_user_time ON auth_audit (user_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_auth_audit_type_time ON auth_audit (event_type, occurred_at);